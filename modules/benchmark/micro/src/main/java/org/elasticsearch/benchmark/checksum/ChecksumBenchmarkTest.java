@@ -19,24 +19,71 @@
 
 package org.elasticsearch.benchmark.checksum;
 
+import org.apache.lucene.store.IndexOutput;
 import org.elasticsearch.common.Digest;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.StoreChecksum;
+import org.elasticsearch.index.store.ram.RamStore;
 
 import java.security.MessageDigest;
+import java.util.zip.Adler32;
 import java.util.zip.CRC32;
 
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+
 /**
+ * Compares the raw throughput of the checksum algorithms, and of writing a file through the store with each of the
+ * {@link StoreChecksum} algorithms (the md5 one being what older versions used).
+ *
  * @author kimchy (shay.banon)
  */
 public class ChecksumBenchmarkTest {
 
     public static final int BATCH_SIZE = 16 * 1024;
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         long dataSize = ByteSizeValue.parseBytesSizeValue("1g", null).bytes();
         crc(dataSize);
+        adler(dataSize);
         md5(dataSize);
+
+        long storeDataSize = ByteSizeValue.parseBytesSizeValue("256m", null).bytes();
+        for (String algorithm : new String[]{StoreChecksum.ADLER32, StoreChecksum.CRC32, StoreChecksum.MD5}) {
+            store(storeDataSize, algorithm);
+        }
+    }
+
+    private static void adler(long dataSize) {
+        long start = System.currentTimeMillis();
+        Adler32 adler = new Adler32();
+        byte[] data = new byte[BATCH_SIZE];
+        long iter = dataSize / BATCH_SIZE;
+        for (long i = 0; i < iter; i++) {
+            adler.update(data);
+        }
+        adler.getValue();
+        System.out.println("Adler took " + new TimeValue(System.currentTimeMillis() - start));
+    }
+
+    private static void store(long dataSize, String algorithm) throws Exception {
+        Settings settings = settingsBuilder().put("index.store.checksum", algorithm).build();
+        RamStore store = new RamStore(new ShardId("test", 0), settings, null);
+        byte[] data = new byte[BATCH_SIZE];
+        long iter = dataSize / BATCH_SIZE;
+        long start = System.currentTimeMillis();
+        for (int file = 0; file < 4; file++) {
+            IndexOutput output = store.directory().createOutput("_" + file + ".fdt");
+            for (long i = 0; i < iter; i++) {
+                output.writeBytes(data, data.length);
+            }
+            output.close();
+            store.directory().deleteFile("_" + file + ".fdt");
+        }
+        System.out.println("Store with [" + algorithm + "] took " + new TimeValue(System.currentTimeMillis() - start));
+        store.close();
     }
 
     private static void crc(long dataSize) {
@@ -0,0 +1,121 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.cluster;
+
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.MutableShardRouting;
+import org.elasticsearch.cluster.routing.RoutingTable;
+import org.elasticsearch.cluster.routing.allocation.ShardsAllocation;
+import org.elasticsearch.common.StopWatch;
+import org.elasticsearch.common.transport.DummyTransportAddress;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.elasticsearch.cluster.ClusterState.*;
+import static org.elasticsearch.cluster.metadata.IndexMetaData.*;
+import static org.elasticsearch.cluster.metadata.MetaData.*;
+import static org.elasticsearch.cluster.node.DiscoveryNodes.*;
+import static org.elasticsearch.cluster.routing.RoutingBuilders.*;
+import static org.elasticsearch.cluster.routing.ShardRoutingState.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+
+/**
+ * Times {@link ShardsAllocation} on synthetic cluster states, without starting any node: allocating all the shards
+ * of a new cluster (starting the initializing shards between reroutes), then rerouting once a node leaves. Runs
+ * with the number of nodes and the number of shards (copies included, <tt>100</tt> and <tt>50000</tt> by default)
+ * as arguments, run the same benchmark on a tree before the shard id indexes of the routing nodes to compare.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class ClusterAllocationRerouteBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int numberOfNodes = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int numberOfShards = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+        int SHARDS_PER_INDEX = 10;
+        int REPLICAS = 1;
+        int CONCURRENT_RECOVERIES = 20;
+        int numberOfIndices = numberOfShards / (SHARDS_PER_INDEX * (REPLICAS + 1));
+
+        ShardsAllocation strategy = new ShardsAllocation(settingsBuilder()
+                .put("cluster.routing.allocation.concurrent_recoveries", CONCURRENT_RECOVERIES)
+                .build());
+
+        MetaData.Builder metaDataBuilder = newMetaDataBuilder();
+        for (int i = 0; i < numberOfIndices; i++) {
+            metaDataBuilder.put(newIndexMetaDataBuilder("test" + i).numberOfShards(SHARDS_PER_INDEX).numberOfReplicas(REPLICAS));
+        }
+        MetaData metaData = metaDataBuilder.build();
+
+        RoutingTable.Builder routingTableBuilder = routingTable();
+        for (int i = 0; i < numberOfIndices; i++) {
+            routingTableBuilder.add(indexRoutingTable("test" + i).initializeEmpty(metaData.index("test" + i)));
+        }
+
+        DiscoveryNodes.Builder nodesBuilder = newNodesBuilder();
+        for (int i = 0; i < numberOfNodes; i++) {
+            nodesBuilder.put(new DiscoveryNode("node" + i, DummyTransportAddress.INSTANCE));
+        }
+
+        ClusterState clusterState = newClusterStateBuilder().metaData(metaData).routingTable(routingTableBuilder.build()).nodes(nodesBuilder).build();
+
+        System.out.println("--> Allocating [" + metaData.totalNumberOfShards() + "] shards of [" + numberOfIndices + "] indices on [" + numberOfNodes + "] nodes...");
+        StopWatch stopWatch = new StopWatch().start();
+        long[] rerouteLatencies = new long[numberOfShards];
+        int reroutes = 0;
+        while (true) {
+            long start = System.nanoTime();
+            RoutingTable routingTable = strategy.reroute(clusterState).routingTable();
+            rerouteLatencies[reroutes++] = System.nanoTime() - start;
+            clusterState = newClusterStateBuilder().state(clusterState).routingTable(routingTable).build();
+
+            List<MutableShardRouting> initializing = clusterState.routingNodes().shardsWithState(INITIALIZING);
+            if (initializing.isEmpty()) {
+                break;
+            }
+            routingTable = strategy.applyStartedShards(clusterState, initializing).routingTable();
+            clusterState = newClusterStateBuilder().state(clusterState).routingTable(routingTable).build();
+        }
+        System.out.println("--> Allocation took " + stopWatch.stop().totalTime() + ", [" + reroutes + "] reroutes, " + latencies(Arrays.copyOf(rerouteLatencies, reroutes)));
+        System.out.println("--> [" + clusterState.routingNodes().numberOfShardsOfType(STARTED) + "] started shards, [" + clusterState.routingNodes().unassigned().size() + "] unassigned");
+
+        System.out.println("--> Removing [node0] and rerouting...");
+        clusterState = newClusterStateBuilder().state(clusterState).nodes(newNodesBuilder().putAll(clusterState.nodes()).remove("node0")).build();
+        long start = System.nanoTime();
+        RoutingTable routingTable = strategy.reroute(clusterState).routingTable();
+        System.out.println("--> Reroute took " + new TimeValue((System.nanoTime() - start) / 1000000));
+        clusterState = newClusterStateBuilder().state(clusterState).routingTable(routingTable).build();
+        System.out.println("--> [" + clusterState.routingNodes().numberOfShardsOfType(INITIALIZING) + "] initializing shards, [" + clusterState.routingNodes().unassigned().size() + "] unassigned");
+    }
+
+    private static String latencies(long[] latencies) {
+        Arrays.sort(latencies);
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        return "avg [" + new TimeValue(total / latencies.length / 1000000) + "], p99 [" + new TimeValue(latencies[(int) (latencies.length * 0.99)] / 1000000) + "]";
+    }
+}
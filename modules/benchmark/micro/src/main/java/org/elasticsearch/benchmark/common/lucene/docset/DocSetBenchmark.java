@@ -0,0 +1,97 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.common.lucene.docset;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.OpenBitSet;
+import org.elasticsearch.common.lucene.docset.DocSet;
+import org.elasticsearch.common.lucene.docset.DocSets;
+import org.elasticsearch.common.lucene.docset.OpenBitDocSet;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.Random;
+
+/**
+ * Compares the memory used by, and the iteration and random access speed of, the doc set picked by
+ * {@link DocSets#compact(OpenBitSet, int)} for different densities against a plain {@link OpenBitDocSet}.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class DocSetBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int maxDoc = 50000000;
+        int ITERATIONS = 10;
+        double[] densities = new double[]{0.00001, 0.0001, 0.001, 0.01, 0.1, 0.5};
+
+        Random random = new Random(0);
+        for (double density : densities) {
+            OpenBitSet set = new OpenBitSet(maxDoc);
+            int numDocs = (int) (maxDoc * density);
+            for (int i = 0; i < numDocs; i++) {
+                set.fastSet(random.nextInt(maxDoc));
+            }
+            DocSet bitDocSet = new OpenBitDocSet(set);
+            DocSet compactDocSet = DocSets.compact(set, maxDoc);
+
+            System.out.println("--> density [" + density + "], " + compactDocSet.getClass().getSimpleName() + " [" + new ByteSizeValue(compactDocSet.sizeInBytes())
+                    + "], OpenBitDocSet [" + new ByteSizeValue(bitDocSet.sizeInBytes()) + "]");
+            System.out.println("    iterate: " + compactDocSet.getClass().getSimpleName() + " [" + iterate(compactDocSet, ITERATIONS) + "], OpenBitDocSet [" + iterate(bitDocSet, ITERATIONS) + "]");
+            System.out.println("    get: " + compactDocSet.getClass().getSimpleName() + " [" + get(compactDocSet, maxDoc, ITERATIONS) + "], OpenBitDocSet [" + get(bitDocSet, maxDoc, ITERATIONS) + "]");
+        }
+    }
+
+    private static TimeValue iterate(DocSet docSet, int iterations) throws Exception {
+        long count = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            DocIdSetIterator it = docSet.iterator();
+            while (it.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+                count++;
+            }
+        }
+        if (count < 0) {
+            System.out.println("never happens, keeps the loop from being optimized away");
+        }
+        return new TimeValue((System.nanoTime() - start) / iterations / 1000000);
+    }
+
+    private static TimeValue get(DocSet docSet, int maxDoc, int iterations) throws Exception {
+        Random random = new Random(1);
+        int[] docs = new int[1000000];
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = random.nextInt(maxDoc);
+        }
+        long count = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (int doc : docs) {
+                if (docSet.get(doc)) {
+                    count++;
+                }
+            }
+        }
+        if (count < 0) {
+            System.out.println("never happens, keeps the loop from being optimized away");
+        }
+        return new TimeValue((System.nanoTime() - start) / iterations / 1000000);
+    }
+}
@@ -23,10 +23,14 @@ import org.elasticsearch.common.StopWatch;
 import org.elasticsearch.common.lucene.versioned.ConcurrentVersionedMap;
 import org.elasticsearch.common.lucene.versioned.ConcurrentVersionedMapLong;
 import org.elasticsearch.common.lucene.versioned.NativeVersionedMap;
+import org.elasticsearch.common.lucene.versioned.StripedVersionMap;
 import org.elasticsearch.common.lucene.versioned.VersionedMap;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 
 import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 
@@ -184,8 +188,122 @@ public class VersionedMapBenchmark {
 //
 //        Size of [2000000] entries is 77.6mb
 
+    /**
+     * Version tracking of uids the way the robin engine does it, check the current version and set the next one
+     * atomically per uid.
+     */
+    private static interface UidVersions {
+        void increment(String uid);
+
+        void clear();
+    }
+
+    /**
+     * An array of monitors picked by the uid hash, along with a concurrent map holding the versions.
+     */
+    private static class LocksUidVersions implements UidVersions {
+        private final ConcurrentMap<String, Long> versions = new ConcurrentHashMap<String, Long>(1000);
+        private final Object[] locks;
+
+        LocksUidVersions(int concurrency) {
+            locks = new Object[concurrency];
+            for (int i = 0; i < locks.length; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        @Override public void increment(String uid) {
+            synchronized (locks[Math.abs(uid.hashCode()) % locks.length]) {
+                Long current = versions.get(uid);
+                versions.put(uid, current == null ? 1 : current + 1);
+            }
+        }
+
+        @Override public void clear() {
+            versions.clear();
+        }
+    }
+
+    private static class StripedUidVersions implements UidVersions {
+        private final StripedVersionMap<Long> versions;
+
+        StripedUidVersions(int concurrency) {
+            versions = new StripedVersionMap<Long>(concurrency);
+        }
+
+        @Override public void increment(String uid) {
+            StripedVersionMap.Stripe<Long> stripe = versions.stripe(uid);
+            synchronized (stripe) {
+                Long current = stripe.get(uid);
+                stripe.put(uid, current == null ? 1 : current + 1);
+            }
+        }
+
+        @Override public void clear() {
+            versions.clear();
+        }
+    }
+
+    /**
+     * Runs the uid version tracking with 8 to 64 writers, each run warmed up first and then measured several times.
+     */
+    private static void runUidBenchmark() throws Exception {
+        final int numberOfUids = 1000000;
+        final int totalOperations = 8000000;
+        final int warmupRuns = 2;
+        final int measuredRuns = 5;
+        final String[] uids = new String[numberOfUids];
+        for (int i = 0; i < uids.length; i++) {
+            uids[i] = "type#" + i;
+        }
+        for (int writers : new int[]{8, 16, 32, 64}) {
+            for (String type : new String[]{"locks", "striped"}) {
+                final UidVersions versions = "locks".equals(type) ? new LocksUidVersions(10000) : new StripedUidVersions(10000);
+                final int operationsPerWriter = totalOperations / writers;
+                long totalTime = 0;
+                for (int run = 0; run < warmupRuns + measuredRuns; run++) {
+                    versions.clear();
+                    final CyclicBarrier barrier = new CyclicBarrier(writers + 1);
+                    final CountDownLatch latch = new CountDownLatch(writers);
+                    for (int w = 0; w < writers; w++) {
+                        final int writerId = w;
+                        new Thread(new Runnable() {
+                            @Override public void run() {
+                                try {
+                                    barrier.await();
+                                } catch (Exception e) {
+                                    e.printStackTrace();
+                                }
+                                // writers walk the uids from different offsets, with some overlap between them
+                                int offset = writerId * 7919;
+                                for (int i = 0; i < operationsPerWriter; i++) {
+                                    versions.increment(uids[(offset + i) % uids.length]);
+                                }
+                                latch.countDown();
+                            }
+                        }).start();
+                    }
+                    barrier.await();
+                    long start = System.nanoTime();
+                    latch.await();
+                    long took = System.nanoTime() - start;
+                    if (run >= warmupRuns) {
+                        totalTime += took;
+                    }
+                }
+                long avgNanos = totalTime / measuredRuns;
+                System.out.println("[" + type + "] writers [" + writers + "]: avg " + new TimeValue(avgNanos, NANOSECONDS)
+                        + ", " + ((long) (totalOperations / (avgNanos / 1000000000.0))) + " ops/s");
+            }
+        }
+    }
+
     public static void main(String[] args) throws Exception {
         String type = args.length > 0 ? args[0] : "nb";
+        if ("uid".equalsIgnoreCase(type)) {
+            runUidBenchmark();
+            return;
+        }
         VersionedMap versionedMap;
         if ("nb".equalsIgnoreCase(type)) {
             versionedMap = new ConcurrentVersionedMapLong();
@@ -26,6 +26,7 @@ import org.elasticsearch.common.inject.ModulesBuilder;
 import org.elasticsearch.common.settings.ImmutableSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsModule;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.index.Index;
@@ -41,7 +42,9 @@ import org.elasticsearch.index.similarity.SimilarityModule;
 import org.elasticsearch.script.ScriptModule;
 import org.elasticsearch.threadpool.ThreadPoolModule;
 
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.elasticsearch.index.query.xcontent.QueryBuilders.*;
 
@@ -55,8 +58,18 @@ public class EmbeddedPercolatorBenchmarkTest {
     private static int NUMBER_OF_QUERIES = 100;
 
     public static void main(String[] args) throws Exception {
+        // the number of workers a single doc percolation is split across, 1 percolates on the calling thread only
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        if (args.length > 1) {
+            NUMBER_OF_QUERIES = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            NUMBER_OF_THREADS = Integer.parseInt(args[2]);
+        }
         Settings settings = ImmutableSettings.settingsBuilder()
                 .put("index.cache.filter.type", "none")
+                .put("index.percolator.concurrency", concurrency)
+                .put("index.percolator.concurrency_threshold", 10)
                 .build();
         Index index = new Index("test");
         Injector injector = new ModulesBuilder().add(
@@ -102,14 +115,18 @@ public class EmbeddedPercolatorBenchmarkTest {
         }
         System.out.println("[Warmup] Percolated in " + stopWatch.stop().totalTime() + " TP Millis " + (NUMBER_OF_ITERATIONS / stopWatch.totalTime().millisFrac()));
 
-        System.out.println("Percolating using " + NUMBER_OF_THREADS + " threads with " + NUMBER_OF_ITERATIONS + " iterations, and " + NUMBER_OF_QUERIES + " queries");
+        System.out.println("Percolating using " + NUMBER_OF_THREADS + " threads with " + NUMBER_OF_ITERATIONS + " iterations, " + NUMBER_OF_QUERIES + " queries and concurrency " + concurrency);
         final CountDownLatch latch = new CountDownLatch(NUMBER_OF_THREADS);
+        final long[][] latencies = new long[NUMBER_OF_THREADS][(int) NUMBER_OF_ITERATIONS];
         Thread[] threads = new Thread[NUMBER_OF_THREADS];
         for (int i = 0; i < threads.length; i++) {
+            final long[] threadLatencies = latencies[i];
             threads[i] = new Thread(new Runnable() {
                 @Override public void run() {
-                    for (long i = 0; i < NUMBER_OF_ITERATIONS; i++) {
+                    for (int i = 0; i < NUMBER_OF_ITERATIONS; i++) {
+                        long start = System.nanoTime();
                         PercolatorExecutor.Response percolate = percolatorExecutor.percolate(new PercolatorExecutor.SourceRequest(source));
+                        threadLatencies[i] = System.nanoTime() - start;
                     }
                     latch.countDown();
                 }
@@ -123,5 +140,11 @@ public class EmbeddedPercolatorBenchmarkTest {
         stopWatch.stop();
         System.out.println("Percolated in " + stopWatch.totalTime() + " TP Millis " + ((NUMBER_OF_ITERATIONS * NUMBER_OF_THREADS) / stopWatch.totalTime().millisFrac()));
 
+        long[] all = new long[(int) (NUMBER_OF_ITERATIONS * NUMBER_OF_THREADS)];
+        for (int i = 0; i < latencies.length; i++) {
+            System.arraycopy(latencies[i], 0, all, i * (int) NUMBER_OF_ITERATIONS, (int) NUMBER_OF_ITERATIONS);
+        }
+        Arrays.sort(all);
+        System.out.println("Latency: p50 " + new TimeValue(all[all.length / 2], TimeUnit.NANOSECONDS) + ", p99 " + new TimeValue(all[(int) (all.length * 0.99)], TimeUnit.NANOSECONDS) + ", max " + new TimeValue(all[all.length - 1], TimeUnit.NANOSECONDS));
     }
 }
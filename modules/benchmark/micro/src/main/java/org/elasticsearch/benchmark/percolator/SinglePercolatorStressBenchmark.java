@@ -62,28 +62,37 @@ public class SinglePercolatorStressBenchmark {
         Thread.sleep(1000);
 
         int COUNT = 200000;
-        int QUERIES = 10;
+        int QUERIES = 100000;
+        // the number of queries that match each percolated doc, the rest are filtered out by their terms
+        int MATCHING_QUERIES = 10;
         // register queries
+        StopWatch stopWatch = new StopWatch().start();
+        System.out.println("Registering [" + QUERIES + "] queries ...");
         for (int i = 0; i < QUERIES; i++) {
+            String value = i < MATCHING_QUERIES ? "value" : "value" + i;
             client1.prepareIndex("_percolator", "test", Integer.toString(i))
                     .setSource(jsonBuilder().startObject()
-                            .field("query", termQuery("name", "value"))
+                            .field("query", termQuery("name", value))
                             .endObject())
-                    .setRefresh(true)
                     .execute().actionGet();
+            if (((i + 1) % 10000) == 0) {
+                System.out.println("Registered " + (i + 1) + " took " + stopWatch.stop().lastTaskTime());
+                stopWatch.start();
+            }
         }
+        client1.admin().indices().prepareRefresh("_percolator").execute().actionGet();
 
-        StopWatch stopWatch = new StopWatch().start();
+        stopWatch = new StopWatch().start();
         System.out.println("Percolating [" + COUNT + "] ...");
         int i = 1;
         for (; i <= COUNT; i++) {
             PercolateResponse percolate = client1.preparePercolate("test").setSource(source(Integer.toString(i), "value"))
                     .execute().actionGet();
-            if (percolate.matches().size() != QUERIES) {
+            if (percolate.matches().size() != MATCHING_QUERIES) {
                 System.err.println("No matching number of queries");
             }
             if ((i % 10000) == 0) {
-                System.out.println("Percolated " + i + " took " + stopWatch.stop().lastTaskTime());
+                System.out.println("Percolated " + i + " took " + stopWatch.stop().lastTaskTime() + ", candidates [" + percolate.candidates() + "] out of [" + percolate.total() + "]");
                 stopWatch.start();
             }
         }
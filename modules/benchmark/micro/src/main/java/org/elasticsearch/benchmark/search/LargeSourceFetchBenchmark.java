@@ -0,0 +1,144 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.search;
+
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.Requests;
+import org.elasticsearch.client.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.client.action.search.SearchRequestBuilder;
+import org.elasticsearch.common.StopWatch;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.node.Node;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.elasticsearch.cluster.metadata.IndexMetaData.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.elasticsearch.index.query.xcontent.QueryBuilders.*;
+import static org.elasticsearch.node.NodeBuilder.*;
+
+/**
+ * Measures the fetch latency of hits with large (~30kb) sources when returning the whole source, a partial
+ * source with a couple of its fields, and script fields reading a single field from the source.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class LargeSourceFetchBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = settingsBuilder()
+                .put("index.engine.robin.refreshInterval", "-1")
+                .put("gateway.type", "none")
+                .put(SETTING_NUMBER_OF_SHARDS, 1)
+                .put(SETTING_NUMBER_OF_REPLICAS, 0)
+                .build();
+
+        Node node = nodeBuilder().settings(settingsBuilder().put(settings).put("name", "node1")).node();
+        Client client = node.client();
+
+        int COUNT = 20000;
+        int BATCH = 100;
+        int QUERY_WARMUP = 50;
+        int QUERY_COUNT = 200;
+        int SIZE = 50;
+
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        System.out.println("--> Indexing [" + COUNT + "] large documents...");
+        StopWatch stopWatch = new StopWatch().start();
+        int counter = 0;
+        for (int i = 0; i < COUNT / BATCH; i++) {
+            BulkRequestBuilder request = client.prepareBulk();
+            for (int j = 0; j < BATCH; j++) {
+                counter++;
+                request.add(Requests.indexRequest("test").type("type1").id(Integer.toString(counter)).source(source(counter)));
+            }
+            BulkResponse response = request.execute().actionGet();
+            if (response.hasFailures()) {
+                System.err.println("--> failures...");
+            }
+        }
+        client.admin().indices().prepareRefresh().execute().actionGet();
+        System.out.println("--> Indexing took " + stopWatch.stop().totalTime());
+
+        run(client, "full source", QUERY_WARMUP, QUERY_COUNT, SIZE, false, false);
+        run(client, "partial source", QUERY_WARMUP, QUERY_COUNT, SIZE, true, false);
+        run(client, "script field", QUERY_WARMUP, QUERY_COUNT, SIZE, false, true);
+
+        client.close();
+        node.close();
+    }
+
+    private static void run(Client client, String name, int warmup, int count, int size, boolean partialSource, boolean scriptField) {
+        for (int j = 0; j < warmup; j++) {
+            search(client, j, size, partialSource, scriptField);
+        }
+        long[] latencies = new long[count];
+        for (int j = 0; j < count; j++) {
+            long start = System.nanoTime();
+            SearchResponse searchResponse = search(client, j, size, partialSource, scriptField);
+            latencies[j] = System.nanoTime() - start;
+            if (searchResponse.hits().hits().length != size) {
+                System.err.println("--> mismatch on hits [" + searchResponse.hits().hits().length + "]");
+            }
+        }
+        Arrays.sort(latencies);
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        System.out.println("--> [" + name + "] avg [" + new TimeValue(total / latencies.length / 1000000) + "], p99 [" + new TimeValue(latencies[(int) (latencies.length * 0.99)] / 1000000) + "]");
+    }
+
+    private static SearchResponse search(Client client, int iteration, int size, boolean partialSource, boolean scriptField) {
+        SearchRequestBuilder request = client.prepareSearch().setQuery(termQuery("tag", "tag" + (iteration % 10))).setSize(size);
+        if (partialSource) {
+            request.setPartialSource("title", "meta.author");
+        }
+        if (scriptField) {
+            request.addScriptField("title", "_source.title");
+        }
+        return request.execute().actionGet();
+    }
+
+    private static XContentBuilder source(int id) throws IOException {
+        XContentBuilder builder = jsonBuilder().startObject();
+        builder.field("title", "title " + id);
+        builder.field("tag", "tag" + (id % 10));
+        builder.startArray("sections");
+        for (int i = 0; i < 200; i++) {
+            builder.startObject()
+                    .field("heading", "heading " + i)
+                    .field("body", "the quick brown fox jumps over the lazy dog, section " + i + " of document " + id + " with some more text to make it longer")
+                    .field("position", i)
+                    .endObject();
+        }
+        builder.endArray();
+        builder.startObject("meta").field("author", "author" + (id % 100)).field("version", id).endObject();
+        return builder.endObject();
+    }
+}
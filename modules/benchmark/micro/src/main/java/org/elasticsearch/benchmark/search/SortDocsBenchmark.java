@@ -0,0 +1,140 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.search;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.common.StopWatch;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.controller.ScoreDocQueue;
+import org.elasticsearch.search.controller.SearchPhaseController;
+import org.elasticsearch.search.controller.ShardDoc;
+import org.elasticsearch.search.controller.ShardScoreDoc;
+import org.elasticsearch.search.query.QuerySearchResult;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+import static org.elasticsearch.common.collect.Lists.*;
+
+/**
+ * Compares merging the shards results on the coordinating node using the k-way merge of
+ * {@link SearchPhaseController#sortDocs(java.util.Collection)} with pushing all of them into a single queue
+ * (the way it used to be done), for many shards and deep pages. Reports the time and the collections done.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class SortDocsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int NUMBER_OF_SHARDS = 128;
+        int[] FROMS = new int[]{0, 100, 1000, 10000};
+        int SIZE = 10;
+        int WARMUP = 100;
+        int ITERATIONS = 500;
+
+        SearchPhaseController controller = new SearchPhaseController(null);
+        Random random = new Random(0);
+
+        for (int from : FROMS) {
+            List<QuerySearchResult> results = newArrayList();
+            for (int shard = 0; shard < NUMBER_OF_SHARDS; shard++) {
+                // each shard returns its top from + size docs, sorted by score
+                ScoreDoc[] docs = new ScoreDoc[from + SIZE];
+                float score = 100;
+                for (int i = 0; i < docs.length; i++) {
+                    score -= random.nextFloat() / 10;
+                    docs[i] = new ScoreDoc(random.nextInt(1000000), score);
+                }
+                QuerySearchResult result = new QuerySearchResult(shard, new SearchShardTarget("node1", "test", shard));
+                result.topDocs(new TopDocs(docs.length * 10, docs, docs[0].score));
+                result.from(from).size(SIZE);
+                results.add(result);
+            }
+
+            for (int i = 0; i < WARMUP; i++) {
+                controller.sortDocs(results);
+                queueSortDocs(results);
+            }
+
+            long gcCount = gcCount();
+            long gcTime = gcTime();
+            StopWatch stopWatch = new StopWatch().start();
+            for (int i = 0; i < ITERATIONS; i++) {
+                controller.sortDocs(results);
+            }
+            stopWatch.stop();
+            System.out.println("--> [" + NUMBER_OF_SHARDS + "] shards, from [" + from + "], k-way merge: took [" + stopWatch.totalTime() + "], [" + (stopWatch.totalTime().nanos() / ITERATIONS / 1000) + "]us per merge, gc [" + (gcCount() - gcCount) + "] collections taking [" + (gcTime() - gcTime) + "]ms");
+
+            gcCount = gcCount();
+            gcTime = gcTime();
+            stopWatch = new StopWatch().start();
+            for (int i = 0; i < ITERATIONS; i++) {
+                queueSortDocs(results);
+            }
+            stopWatch.stop();
+            System.out.println("--> [" + NUMBER_OF_SHARDS + "] shards, from [" + from + "], queue      : took [" + stopWatch.totalTime() + "], [" + (stopWatch.totalTime().nanos() / ITERATIONS / 1000) + "]us per merge, gc [" + (gcCount() - gcCount) + "] collections taking [" + (gcTime() - gcTime) + "]ms");
+        }
+    }
+
+    /**
+     * The previous implementation of sorting the docs, pushing each shard doc into a queue of from + size.
+     */
+    private static ShardDoc[] queueSortDocs(List<QuerySearchResult> results) {
+        int from = results.get(0).from();
+        int size = results.get(0).size();
+        ScoreDocQueue queue = new ScoreDocQueue(from + size);
+        int totalNumDocs = 0;
+        for (QuerySearchResult result : results) {
+            ScoreDoc[] scoreDocs = result.topDocs().scoreDocs;
+            totalNumDocs += scoreDocs.length;
+            for (ScoreDoc doc : scoreDocs) {
+                ShardScoreDoc nodeScoreDoc = new ShardScoreDoc(result.shardTarget(), doc.doc, doc.score);
+                if (queue.insertWithOverflow(nodeScoreDoc) == nodeScoreDoc) {
+                    break;
+                }
+            }
+        }
+        int resultDocsSize = totalNumDocs < from + size ? totalNumDocs - from : size;
+        ShardDoc[] shardDocs = new ShardDoc[resultDocsSize];
+        for (int i = resultDocsSize - 1; i >= 0; i--) {
+            shardDocs[i] = (ShardDoc) queue.pop();
+        }
+        return shardDocs;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += gc.getCollectionCount();
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += gc.getCollectionTime();
+        }
+        return time;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.benchmark.search;
+
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.Requests;
+import org.elasticsearch.client.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.common.StopWatch;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.SizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.search.sort.SortOrder;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.elasticsearch.cluster.metadata.IndexMetaData.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.elasticsearch.index.query.xcontent.QueryBuilders.*;
+import static org.elasticsearch.node.NodeBuilder.*;
+
+/**
+ * Measures the latency of sorting on a high cardinality string field of a single shard made of 20 segments, in
+ * both orders and for a few page sizes.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class StringSortBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = settingsBuilder()
+                .put("index.engine.robin.refreshInterval", "-1")
+                .put("index.merge.policy.merge_factor", 1000)
+                .put("gateway.type", "none")
+                .put(SETTING_NUMBER_OF_SHARDS, 1)
+                .put(SETTING_NUMBER_OF_REPLICAS, 0)
+                .build();
+
+        Node node = nodeBuilder().settings(settingsBuilder().put(settings).put("name", "node1")).node();
+        Client client = node.client();
+
+        long COUNT = SizeValue.parseSizeValue("1m").singles();
+        int BATCH = 1000;
+        int SEGMENTS = 20;
+        int QUERY_WARMUP = 20;
+        int QUERY_COUNT = 200;
+        int[] SIZES = new int[]{10, 100};
+
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        System.out.println("--> Indexing [" + COUNT + "] into [" + SEGMENTS + "] segments...");
+        StopWatch stopWatch = new StopWatch().start();
+        Random random = new Random(0);
+        long flushEvery = COUNT / SEGMENTS;
+        int counter = 0;
+        for (long i = 0; i < COUNT / BATCH; i++) {
+            BulkRequestBuilder request = client.prepareBulk();
+            for (int j = 0; j < BATCH; j++) {
+                counter++;
+                request.add(Requests.indexRequest("test").type("type1").id(Integer.toString(counter))
+                        .source(jsonBuilder().startObject()
+                                .field("str", Long.toString(random.nextLong() & Long.MAX_VALUE, Character.MAX_RADIX))
+                                .endObject()));
+            }
+            BulkResponse response = request.execute().actionGet();
+            if (response.hasFailures()) {
+                System.err.println("--> failures...");
+            }
+            if ((counter % flushEvery) == 0) {
+                client.admin().indices().prepareFlush("test").execute().actionGet();
+            }
+        }
+        client.admin().indices().prepareRefresh().execute().actionGet();
+        System.out.println("--> Indexing took " + stopWatch.stop().totalTime());
+
+        for (int j = 0; j < QUERY_WARMUP; j++) {
+            client.prepareSearch().setQuery(matchAllQuery()).addSort("str", SortOrder.ASC).execute().actionGet();
+        }
+
+        for (int size : SIZES) {
+            for (SortOrder order : new SortOrder[]{SortOrder.ASC, SortOrder.DESC}) {
+                long[] latencies = new long[QUERY_COUNT];
+                for (int j = 0; j < QUERY_COUNT; j++) {
+                    long start = System.nanoTime();
+                    SearchResponse searchResponse = client.prepareSearch().setQuery(matchAllQuery()).addSort("str", order).setSize(size).execute().actionGet();
+                    latencies[j] = System.nanoTime() - start;
+                    if (searchResponse.hits().totalHits() != COUNT) {
+                        System.err.println("--> mismatch on hits [" + searchResponse.hits().totalHits() + "]");
+                    }
+                }
+                System.out.println("--> sort [" + order + "], size [" + size + "] " + latencies(latencies));
+            }
+        }
+
+        client.close();
+        node.close();
+    }
+
+    private static String latencies(long[] latencies) {
+        Arrays.sort(latencies);
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        return "avg [" + new TimeValue(total / latencies.length / 1000000) + "], p99 [" + new TimeValue(latencies[(int) (latencies.length * 0.99)] / 1000000) + "]";
+    }
+}
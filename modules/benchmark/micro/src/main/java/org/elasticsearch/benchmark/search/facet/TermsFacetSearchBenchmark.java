@@ -66,6 +66,7 @@ public class TermsFacetSearchBenchmark {
         int QUERY_WARMUP = 20;
         int QUERY_COUNT = 200;
         int NUMBER_OF_TERMS = 10;
+        int NUMBER_OF_HC_TERMS = 100000;
 
         long[] lValues = new long[NUMBER_OF_TERMS];
         for (int i = 0; i < NUMBER_OF_TERMS; i++) {
@@ -76,6 +77,11 @@ public class TermsFacetSearchBenchmark {
             sValues[i] = Integer.toString(i);
         }
 
+        String[] hcValues = new String[NUMBER_OF_HC_TERMS];
+        for (int i = 0; i < NUMBER_OF_HC_TERMS; i++) {
+            hcValues[i] = "tag_" + Integer.toString(i);
+        }
+
         Thread.sleep(10000);
         try {
             client.admin().indices().create(createIndexRequest("test")).actionGet();
@@ -91,7 +97,7 @@ public class TermsFacetSearchBenchmark {
                 for (int j = 0; j < BATCH; j++) {
                     counter++;
                     request.add(Requests.indexRequest("test").type("type1").id(Integer.toString(counter))
-                            .source(source(Integer.toString(counter), sValues[counter % sValues.length], lValues[counter % lValues.length])));
+                            .source(source(Integer.toString(counter), sValues[counter % sValues.length], lValues[counter % lValues.length], hcValues[counter % hcValues.length])));
                 }
                 BulkResponse response = request.execute().actionGet();
                 if (response.hasFailures()) {
@@ -155,6 +161,30 @@ public class TermsFacetSearchBenchmark {
         }
         System.out.println("--> Terms Facet (l_value) " + (totalQueryTime / QUERY_COUNT) + "ms");
 
+        for (String executionHint : new String[]{"map", "ordinals"}) {
+            for (String field : new String[]{"s_value", "hc_value"}) {
+                // warm up the field data and the execution path
+                for (int j = 0; j < QUERY_WARMUP; j++) {
+                    client.prepareSearch()
+                            .setQuery(matchAllQuery())
+                            .addFacet(termsFacet(field).field(field).executionHint(executionHint))
+                            .execute().actionGet();
+                }
+                totalQueryTime = 0;
+                for (int j = 0; j < QUERY_COUNT; j++) {
+                    SearchResponse searchResponse = client.prepareSearch()
+                            .setQuery(matchAllQuery())
+                            .addFacet(termsFacet(field).field(field).executionHint(executionHint))
+                            .execute().actionGet();
+                    if (searchResponse.hits().totalHits() != COUNT) {
+                        System.err.println("--> mismatch on hits");
+                    }
+                    totalQueryTime += searchResponse.tookInMillis();
+                }
+                System.out.println("--> Terms Facet (" + field + ", execution_hint " + executionHint + ") " + (totalQueryTime / QUERY_COUNT) + "ms");
+            }
+        }
+
 
         clientNode.close();
 
@@ -162,7 +192,7 @@ public class TermsFacetSearchBenchmark {
         node2.close();
     }
 
-    private static XContentBuilder source(String id, String sValue, long lValue) throws IOException {
-        return jsonBuilder().startObject().field("id", id).field("s_value", sValue).field("l_value", lValue).endObject();
+    private static XContentBuilder source(String id, String sValue, long lValue, String hcValue) throws IOException {
+        return jsonBuilder().startObject().field("id", id).field("s_value", sValue).field("l_value", lValue).field("hc_value", hcValue).endObject();
     }
 }
@@ -264,6 +264,9 @@ public class NodesStressTest {
     }
 
     public static void main(String[] args) throws Exception {
+        // translog durability, one of request, group or interval
+        String durability = args.length > 0 ? args[0] : "interval";
+        System.out.println("Running with translog durability [" + durability + "]");
         NodesStressTest test = new NodesStressTest()
                 .numberOfNodes(2)
                 .indexThreads(5)
@@ -272,7 +275,7 @@ public class NodesStressTest {
                 .searchIterations(10 * 1000)
                 .sleepBeforeClose(TimeValue.timeValueMinutes(10))
                 .sleepAfterDone(TimeValue.timeValueMinutes(10))
-                .build(EMPTY_SETTINGS);
+                .build(settingsBuilder().put("gateway.type", "local").put("index.gateway.local.durability", durability).build());
 
         test.start();
     }
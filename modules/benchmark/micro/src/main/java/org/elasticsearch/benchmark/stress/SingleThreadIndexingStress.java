@@ -41,10 +41,13 @@ import static org.elasticsearch.node.NodeBuilder.*;
 public class SingleThreadIndexingStress {
 
     public static void main(String[] args) throws Exception {
+        // translog durability, one of request, group or interval
+        String durability = args.length > 0 ? args[0] : "interval";
         Settings settings = settingsBuilder()
                 .put("cluster.routing.schedule", 200, TimeUnit.MILLISECONDS)
                 .put("index.engine.robin.refreshInterval", "-1")
-                .put("gateway.type", "none")
+                .put("gateway.type", "local")
+                .put("index.gateway.local.durability", durability)
                 .put(SETTING_NUMBER_OF_SHARDS, 2)
                 .put(SETTING_NUMBER_OF_REPLICAS, 1)
                 .build();
@@ -74,7 +77,7 @@ public class SingleThreadIndexingStress {
                 stopWatch.start();
             }
         }
-        System.out.println("Indexing took " + stopWatch.totalTime() + ", TPS " + (((double) COUNT) / stopWatch.totalTime().secondsFrac()));
+        System.out.println("Indexing (durability [" + durability + "]) took " + stopWatch.totalTime() + ", TPS " + (((double) COUNT) / stopWatch.totalTime().secondsFrac()));
 
         client.client().admin().indices().prepareRefresh().execute().actionGet();
         System.out.println("Count: " + client.client().prepareCount().setQuery(matchAllQuery()).execute().actionGet().count());
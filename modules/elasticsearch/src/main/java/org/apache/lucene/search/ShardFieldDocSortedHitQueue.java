@@ -33,4 +33,11 @@ public class ShardFieldDocSortedHitQueue extends FieldDocSortedHitQueue {
     @Override public void setFields(SortField[] fields) {
         super.setFields(fields);
     }
+
+    /**
+     * Returns <tt>true</tt> if <tt>docA</tt> sorts after <tt>docB</tt> based on the sort fields of this queue.
+     */
+    public boolean sortsAfter(FieldDoc docA, FieldDoc docB) {
+        return lessThan(docA, docB);
+    }
 }
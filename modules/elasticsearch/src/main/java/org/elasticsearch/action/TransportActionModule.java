@@ -57,6 +57,8 @@ import org.elasticsearch.action.deletebyquery.TransportDeleteByQueryAction;
 import org.elasticsearch.action.deletebyquery.TransportIndexDeleteByQueryAction;
 import org.elasticsearch.action.deletebyquery.TransportShardDeleteByQueryAction;
 import org.elasticsearch.action.get.TransportGetAction;
+import org.elasticsearch.action.get.TransportMultiGetAction;
+import org.elasticsearch.action.get.TransportShardMultiGetAction;
 import org.elasticsearch.action.index.TransportIndexAction;
 import org.elasticsearch.action.mlt.TransportMoreLikeThisAction;
 import org.elasticsearch.action.percolate.TransportPercolateAction;
@@ -107,6 +109,8 @@ public class TransportActionModule extends AbstractModule {
 
         bind(TransportIndexAction.class).asEagerSingleton();
         bind(TransportGetAction.class).asEagerSingleton();
+        bind(TransportShardMultiGetAction.class).asEagerSingleton();
+        bind(TransportMultiGetAction.class).asEagerSingleton();
         bind(TransportDeleteAction.class).asEagerSingleton();
         bind(TransportIndexDeleteAction.class).asEagerSingleton();
         bind(TransportShardDeleteAction.class).asEagerSingleton();
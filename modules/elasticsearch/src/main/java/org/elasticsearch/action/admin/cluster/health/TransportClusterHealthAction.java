@@ -58,6 +58,10 @@ public class TransportClusterHealthAction extends TransportMasterNodeOperationAc
         return TransportActions.Admin.Cluster.HEALTH;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected ClusterHealthRequest newRequest() {
         return new ClusterHealthRequest();
     }
@@ -65,6 +65,10 @@ public class TransportNodesInfoAction extends TransportNodesOperationAction<Node
         return TransportActions.Admin.Cluster.Node.INFO;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.MANAGEMENT;
+    }
+
     @Override protected String transportNodeAction() {
         return "/cluster/nodes/info/node";
     }
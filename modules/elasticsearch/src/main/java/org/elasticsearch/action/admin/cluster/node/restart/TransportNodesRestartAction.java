@@ -72,6 +72,10 @@ public class TransportNodesRestartAction extends TransportNodesOperationAction<N
         return TransportActions.Admin.Cluster.Node.RESTART;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected String transportNodeAction() {
         return "/cluster/nodes/restart/node";
     }
@@ -68,6 +68,10 @@ public class TransportNodesShutdownAction extends TransportMasterNodeOperationAc
         return TransportActions.Admin.Cluster.Node.SHUTDOWN;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected NodesShutdownRequest newRequest() {
         return new NodesShutdownRequest();
     }
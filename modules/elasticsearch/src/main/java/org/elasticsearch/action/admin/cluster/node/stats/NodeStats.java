@@ -21,6 +21,7 @@ package org.elasticsearch.action.admin.cluster.node.stats;
 
 import org.elasticsearch.action.support.nodes.NodeOperationResponse;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterServiceStats;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.indices.IndicesStats;
@@ -28,6 +29,7 @@ import org.elasticsearch.monitor.jvm.JvmStats;
 import org.elasticsearch.monitor.network.NetworkStats;
 import org.elasticsearch.monitor.os.OsStats;
 import org.elasticsearch.monitor.process.ProcessStats;
+import org.elasticsearch.script.ScriptStats;
 import org.elasticsearch.threadpool.ThreadPoolStats;
 import org.elasticsearch.transport.TransportStats;
 
@@ -54,12 +56,17 @@ public class NodeStats extends NodeOperationResponse {
 
     private TransportStats transport;
 
+    private ScriptStats script;
+
+    private ClusterServiceStats clusterService;
+
     NodeStats() {
     }
 
     public NodeStats(DiscoveryNode node, IndicesStats indices,
                      OsStats os, ProcessStats process, JvmStats jvm, NetworkStats network,
-                     ThreadPoolStats threadPool, TransportStats transport) {
+                     ThreadPoolStats threadPool, TransportStats transport, ScriptStats script,
+                     ClusterServiceStats clusterService) {
         super(node);
         this.indices = indices;
         this.os = os;
@@ -68,6 +75,8 @@ public class NodeStats extends NodeOperationResponse {
         this.network = network;
         this.threadPool = threadPool;
         this.transport = transport;
+        this.script = script;
+        this.clusterService = clusterService;
     }
 
     /**
@@ -162,6 +171,34 @@ public class NodeStats extends NodeOperationResponse {
         return transport();
     }
 
+    /**
+     * Compiled scripts cache stats.
+     */
+    public ScriptStats script() {
+        return script;
+    }
+
+    /**
+     * Compiled scripts cache stats.
+     */
+    public ScriptStats getScript() {
+        return script();
+    }
+
+    /**
+     * Cluster state update tasks stats.
+     */
+    public ClusterServiceStats clusterService() {
+        return clusterService;
+    }
+
+    /**
+     * Cluster state update tasks stats.
+     */
+    public ClusterServiceStats getClusterService() {
+        return clusterService();
+    }
+
     public static NodeStats readNodeStats(StreamInput in) throws IOException {
         NodeStats nodeInfo = new NodeStats();
         nodeInfo.readFrom(in);
@@ -191,6 +228,12 @@ public class NodeStats extends NodeOperationResponse {
         if (in.readBoolean()) {
             transport = TransportStats.readTransportStats(in);
         }
+        if (in.readBoolean()) {
+            script = ScriptStats.readScriptStats(in);
+        }
+        if (in.readBoolean()) {
+            clusterService = ClusterServiceStats.readClusterServiceStats(in);
+        }
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
@@ -237,5 +280,17 @@ public class NodeStats extends NodeOperationResponse {
             out.writeBoolean(true);
             transport.writeTo(out);
         }
+        if (script == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            script.writeTo(out);
+        }
+        if (clusterService == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            clusterService.writeTo(out);
+        }
     }
 }
\ No newline at end of file
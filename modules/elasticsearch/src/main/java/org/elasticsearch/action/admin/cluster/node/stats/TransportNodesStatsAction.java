@@ -30,6 +30,7 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.monitor.MonitorService;
+import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
@@ -45,18 +46,25 @@ public class TransportNodesStatsAction extends TransportNodesOperationAction<Nod
 
     private final IndicesService indicesService;
 
+    private final ScriptService scriptService;
+
     @Inject public TransportNodesStatsAction(Settings settings, ClusterName clusterName, ThreadPool threadPool,
                                              ClusterService clusterService, TransportService transportService,
-                                             MonitorService monitorService, IndicesService indicesService) {
+                                             MonitorService monitorService, IndicesService indicesService, ScriptService scriptService) {
         super(settings, clusterName, threadPool, clusterService, transportService);
         this.monitorService = monitorService;
         this.indicesService = indicesService;
+        this.scriptService = scriptService;
     }
 
     @Override protected String transportAction() {
         return TransportActions.Admin.Cluster.Node.STATS;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.MANAGEMENT;
+    }
+
     @Override protected String transportNodeAction() {
         return "/cluster/nodes/stats/node";
     }
@@ -92,7 +100,7 @@ public class TransportNodesStatsAction extends TransportNodesOperationAction<Nod
         return new NodeStats(clusterService.state().nodes().localNode(), indicesService.stats(),
                 monitorService.osService().stats(), monitorService.processService().stats(),
                 monitorService.jvmService().stats(), monitorService.networkService().stats(),
-                threadPool.stats(), transportService.stats());
+                threadPool.stats(), transportService.stats(), scriptService.stats(), clusterService.stats());
     }
 
     @Override protected boolean accumulateExceptions() {
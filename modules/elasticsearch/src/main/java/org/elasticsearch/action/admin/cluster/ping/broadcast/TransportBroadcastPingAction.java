@@ -52,6 +52,10 @@ public class TransportBroadcastPingAction extends TransportBroadcastOperationAct
         return TransportActions.Admin.Cluster.Ping.BROADCAST;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected String transportShardAction() {
         return "/cluster/ping/broadcast/shard";
     }
@@ -57,6 +57,10 @@ public class TransportShardReplicationPingAction extends TransportShardReplicati
         return "ping/replication/shard";
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected PrimaryResponse<ShardReplicationPingResponse> shardOperationOnPrimary(ClusterState clusterState, ShardOperationRequest shardRequest) {
         return new PrimaryResponse<ShardReplicationPingResponse>(new ShardReplicationPingResponse(), null);
     }
@@ -41,6 +41,10 @@ public class TransportSinglePingAction extends TransportShardSingleOperationActi
         return TransportActions.Admin.Cluster.Ping.SINGLE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected String transportShardAction() {
         return "/cluster/ping/single/shard";
     }
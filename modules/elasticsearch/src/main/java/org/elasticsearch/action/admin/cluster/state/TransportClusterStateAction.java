@@ -53,6 +53,10 @@ public class TransportClusterStateAction extends TransportMasterNodeOperationAct
         return TransportActions.Admin.Cluster.STATE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.MANAGEMENT;
+    }
+
     @Override protected ClusterStateRequest newRequest() {
         return new ClusterStateRequest();
     }
@@ -55,6 +55,10 @@ public class TransportIndicesAliasesAction extends TransportMasterNodeOperationA
         return TransportActions.Admin.Indices.ALIASES;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected IndicesAliasesRequest newRequest() {
         return new IndicesAliasesRequest();
     }
@@ -69,6 +69,10 @@ public class TransportAnalyzeAction extends TransportSingleCustomOperationAction
         return TransportActions.Admin.Indices.ANALYZE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.INDEX;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/analyze/shard";
     }
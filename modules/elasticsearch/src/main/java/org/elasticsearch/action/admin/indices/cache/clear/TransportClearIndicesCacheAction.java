@@ -60,6 +60,10 @@ public class TransportClearIndicesCacheAction extends TransportBroadcastOperatio
         return TransportActions.Admin.Indices.Cache.CLEAR;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.MANAGEMENT;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/cache/clear/shard";
     }
@@ -54,6 +54,10 @@ public class TransportCloseIndexAction extends TransportMasterNodeOperationActio
         return TransportActions.Admin.Indices.CLOSE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected CloseIndexRequest newRequest() {
         return new CloseIndexRequest();
     }
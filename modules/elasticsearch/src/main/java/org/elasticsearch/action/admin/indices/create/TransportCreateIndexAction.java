@@ -54,6 +54,10 @@ public class TransportCreateIndexAction extends TransportMasterNodeOperationActi
         return TransportActions.Admin.Indices.CREATE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected CreateIndexRequest newRequest() {
         return new CreateIndexRequest();
     }
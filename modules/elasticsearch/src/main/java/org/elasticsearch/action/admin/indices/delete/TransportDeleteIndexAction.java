@@ -54,6 +54,10 @@ public class TransportDeleteIndexAction extends TransportMasterNodeOperationActi
         return TransportActions.Admin.Indices.DELETE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected DeleteIndexRequest newRequest() {
         return new DeleteIndexRequest();
     }
@@ -60,6 +60,10 @@ public class TransportFlushAction extends TransportBroadcastOperationAction<Flus
         return TransportActions.Admin.Indices.FLUSH;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.MANAGEMENT;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/flush/shard";
     }
@@ -57,6 +57,10 @@ public class TransportGatewaySnapshotAction extends TransportBroadcastOperationA
         return TransportActions.Admin.Indices.Gateway.SNAPSHOT;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.SNAPSHOT;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/gateway/snapshot/shard";
     }
@@ -71,6 +71,10 @@ public class TransportDeleteMappingAction extends TransportMasterNodeOperationAc
         return TransportActions.Admin.Indices.Mapping.DELETE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected DeleteMappingRequest newRequest() {
         return new DeleteMappingRequest();
     }
@@ -56,6 +56,10 @@ public class TransportPutMappingAction extends TransportMasterNodeOperationActio
         return TransportActions.Admin.Indices.Mapping.PUT;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected PutMappingRequest newRequest() {
         return new PutMappingRequest();
     }
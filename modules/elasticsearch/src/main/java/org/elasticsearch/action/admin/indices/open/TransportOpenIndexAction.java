@@ -54,6 +54,10 @@ public class TransportOpenIndexAction extends TransportMasterNodeOperationAction
         return TransportActions.Admin.Indices.OPEN;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected OpenIndexRequest newRequest() {
         return new OpenIndexRequest();
     }
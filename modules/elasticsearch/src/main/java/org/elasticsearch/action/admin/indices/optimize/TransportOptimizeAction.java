@@ -61,6 +61,10 @@ public class TransportOptimizeAction extends TransportBroadcastOperationAction<O
         return TransportActions.Admin.Indices.OPTIMIZE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.MANAGEMENT;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/optimize/shard";
     }
@@ -61,6 +61,10 @@ public class TransportRefreshAction extends TransportBroadcastOperationAction<Re
         return TransportActions.Admin.Indices.REFRESH;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.MANAGEMENT;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/refresh/shard";
     }
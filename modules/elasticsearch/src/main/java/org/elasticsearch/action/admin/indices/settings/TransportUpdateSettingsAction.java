@@ -50,6 +50,10 @@ public class TransportUpdateSettingsAction extends TransportMasterNodeOperationA
         return TransportActions.Admin.Indices.UPDATE_SETTINGS;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected UpdateSettingsRequest newRequest() {
         return new UpdateSettingsRequest();
     }
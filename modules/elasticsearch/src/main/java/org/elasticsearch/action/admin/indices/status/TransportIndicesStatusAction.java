@@ -71,6 +71,10 @@ public class TransportIndicesStatusAction extends TransportBroadcastOperationAct
         return TransportActions.Admin.Indices.STATUS;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.MANAGEMENT;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/status/shard";
     }
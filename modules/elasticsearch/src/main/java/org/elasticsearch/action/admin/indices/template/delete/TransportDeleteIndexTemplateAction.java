@@ -54,6 +54,10 @@ public class TransportDeleteIndexTemplateAction extends TransportMasterNodeOpera
         return TransportActions.Admin.Indices.DELETE_INDEX_TEMPLATE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected DeleteIndexTemplateRequest newRequest() {
         return new DeleteIndexTemplateRequest();
     }
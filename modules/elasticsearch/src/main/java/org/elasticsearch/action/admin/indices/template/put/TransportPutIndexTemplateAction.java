@@ -54,6 +54,10 @@ public class TransportPutIndexTemplateAction extends TransportMasterNodeOperatio
         return TransportActions.Admin.Indices.PUT_INDEX_TEMPLATE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected PutIndexTemplateRequest newRequest() {
         return new PutIndexTemplateRequest();
     }
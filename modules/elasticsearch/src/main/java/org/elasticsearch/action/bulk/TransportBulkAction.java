@@ -308,5 +308,9 @@ public class TransportBulkAction extends BaseAction<BulkRequest, BulkResponse> {
         @Override public boolean spawn() {
             return true; // spawn, we do some work here...
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.BULK;
+        }
     }
 }
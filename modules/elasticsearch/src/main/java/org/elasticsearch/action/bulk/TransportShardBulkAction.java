@@ -93,6 +93,10 @@ public class TransportShardBulkAction extends TransportShardReplicationOperation
         return "indices/index/shard/bulk";
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.BULK;
+    }
+
     @Override protected void checkBlock(BulkShardRequest request, ClusterState state) {
         state.blocks().indexBlockedRaiseException(ClusterBlockLevel.WRITE, request.index());
     }
@@ -58,6 +58,10 @@ public class TransportCountAction extends TransportBroadcastOperationAction<Coun
         return TransportActions.COUNT;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.SEARCH;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/count/shard";
     }
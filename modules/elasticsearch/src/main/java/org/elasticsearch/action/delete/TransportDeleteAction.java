@@ -138,6 +138,10 @@ public class TransportDeleteAction extends TransportShardReplicationOperationAct
         return TransportActions.DELETE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.INDEX;
+    }
+
     @Override protected void checkBlock(DeleteRequest request, ClusterState state) {
         state.blocks().indexBlockedRaiseException(ClusterBlockLevel.WRITE, request.index());
     }
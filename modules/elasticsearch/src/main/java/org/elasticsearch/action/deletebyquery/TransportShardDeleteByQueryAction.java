@@ -60,6 +60,10 @@ public class TransportShardDeleteByQueryAction extends TransportShardReplication
         return "indices/index/shard/deleteByQuery";
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.INDEX;
+    }
+
     @Override protected void checkBlock(ShardDeleteByQueryRequest request, ClusterState state) {
         state.blocks().indexBlockedRaiseException(ClusterBlockLevel.WRITE, request.index());
     }
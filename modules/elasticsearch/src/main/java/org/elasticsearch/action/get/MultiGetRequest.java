@@ -0,0 +1,320 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.action.get;
+
+import org.elasticsearch.ElasticSearchParseException;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.elasticsearch.action.Actions.*;
+
+/**
+ * A request to get several documents (from one or more indices) in a single batch. The ids are grouped by the
+ * shard they are hashed to, with a single request executed per shard.
+ *
+ * @author kimchy (shay.banon)
+ * @see org.elasticsearch.client.Client#multiGet(MultiGetRequest)
+ */
+public class MultiGetRequest implements ActionRequest {
+
+    /**
+     * A single get item.
+     */
+    public static class Item implements Streamable {
+        private String index;
+        private String type;
+        private String id;
+        private String routing;
+        private String[] fields;
+
+        Item() {
+
+        }
+
+        /**
+         * Constructs a single get item.
+         *
+         * @param index The index name
+         * @param type  The type (can't be null)
+         * @param id    The id
+         */
+        public Item(String index, String type, String id) {
+            this.index = index;
+            this.type = type;
+            this.id = id;
+        }
+
+        public String index() {
+            return this.index;
+        }
+
+        public String type() {
+            return this.type;
+        }
+
+        public String id() {
+            return this.id;
+        }
+
+        /**
+         * The routing associated with this document.
+         */
+        public Item routing(String routing) {
+            this.routing = routing;
+            return this;
+        }
+
+        public String routing() {
+            return this.routing;
+        }
+
+        /**
+         * Explicitly specify the fields that will be returned. By default, the <tt>_source</tt>
+         * field will be returned.
+         */
+        public Item fields(String... fields) {
+            this.fields = fields;
+            return this;
+        }
+
+        public String[] fields() {
+            return this.fields;
+        }
+
+        public static Item readItem(StreamInput in) throws IOException {
+            Item item = new Item();
+            item.readFrom(in);
+            return item;
+        }
+
+        @Override public void readFrom(StreamInput in) throws IOException {
+            index = in.readUTF();
+            type = in.readUTF();
+            id = in.readUTF();
+            if (in.readBoolean()) {
+                routing = in.readUTF();
+            }
+            int size = in.readInt();
+            if (size >= 0) {
+                fields = new String[size];
+                for (int i = 0; i < size; i++) {
+                    fields[i] = in.readUTF();
+                }
+            }
+        }
+
+        @Override public void writeTo(StreamOutput out) throws IOException {
+            out.writeUTF(index);
+            out.writeUTF(type);
+            out.writeUTF(id);
+            if (routing == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                out.writeUTF(routing);
+            }
+            if (fields == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(fields.length);
+                for (String field : fields) {
+                    out.writeUTF(field);
+                }
+            }
+        }
+    }
+
+    private boolean listenerThreaded = false;
+
+    boolean refresh = false;
+
+    boolean realtime = true;
+
+    List<Item> items = Lists.newArrayList();
+
+    public MultiGetRequest add(Item item) {
+        items.add(item);
+        return this;
+    }
+
+    public MultiGetRequest add(String index, String type, String id) {
+        items.add(new Item(index, type, id));
+        return this;
+    }
+
+    public List<Item> items() {
+        return this.items;
+    }
+
+    /**
+     * Should a refresh be executed before the get operations causing them to return the latest value. Defaults
+     * to <tt>false</tt>.
+     */
+    public MultiGetRequest refresh(boolean refresh) {
+        this.refresh = refresh;
+        return this;
+    }
+
+    public boolean refresh() {
+        return this.refresh;
+    }
+
+    /**
+     * Should the gets return the latest version of the documents, even if they were not refreshed yet (reading
+     * them from the transaction log). Defaults to <tt>true</tt>.
+     */
+    public MultiGetRequest realtime(boolean realtime) {
+        this.realtime = realtime;
+        return this;
+    }
+
+    public boolean realtime() {
+        return this.realtime;
+    }
+
+    /**
+     * Adds the docs listed in the (xcontent) data, either as a <tt>docs</tt> array of objects with <tt>_index</tt>,
+     * <tt>_type</tt>, <tt>_id</tt>, <tt>_routing</tt> and <tt>fields</tt>, or as an <tt>ids</tt> array, using
+     * the default index, type and fields for the ones not provided.
+     */
+    public MultiGetRequest add(@Nullable String defaultIndex, @Nullable String defaultType, @Nullable String[] defaultFields, byte[] data, int from, int length) throws Exception {
+        XContentParser parser = XContentFactory.xContent(data, from, length).createParser(data, from, length);
+        try {
+            XContentParser.Token token;
+            String currentFieldName = null;
+            while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                if (token == XContentParser.Token.FIELD_NAME) {
+                    currentFieldName = parser.currentName();
+                } else if (token == XContentParser.Token.START_ARRAY) {
+                    if ("docs".equals(currentFieldName)) {
+                        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                            if (token != XContentParser.Token.START_OBJECT) {
+                                throw new ElasticSearchParseException("docs array element should include an object");
+                            }
+                            String index = defaultIndex;
+                            String type = defaultType;
+                            String id = null;
+                            String routing = null;
+                            List<String> fields = null;
+                            while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                                if (token == XContentParser.Token.FIELD_NAME) {
+                                    currentFieldName = parser.currentName();
+                                } else if (token.isValue()) {
+                                    if ("_index".equals(currentFieldName)) {
+                                        index = parser.text();
+                                    } else if ("_type".equals(currentFieldName)) {
+                                        type = parser.text();
+                                    } else if ("_id".equals(currentFieldName)) {
+                                        id = parser.text();
+                                    } else if ("_routing".equals(currentFieldName) || "routing".equals(currentFieldName)) {
+                                        routing = parser.text();
+                                    }
+                                } else if (token == XContentParser.Token.START_ARRAY) {
+                                    if ("fields".equals(currentFieldName)) {
+                                        fields = new ArrayList<String>();
+                                        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                                            fields.add(parser.text());
+                                        }
+                                    }
+                                }
+                            }
+                            String[] aFields;
+                            if (fields != null) {
+                                aFields = fields.toArray(new String[fields.size()]);
+                            } else {
+                                aFields = defaultFields;
+                            }
+                            add(new Item(index, type, id).routing(routing).fields(aFields));
+                        }
+                    } else if ("ids".equals(currentFieldName)) {
+                        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                            if (!token.isValue()) {
+                                throw new ElasticSearchParseException("ids array element should only contain ids");
+                            }
+                            add(new Item(defaultIndex, defaultType, parser.text()).fields(defaultFields));
+                        }
+                    }
+                }
+            }
+        } finally {
+            parser.close();
+        }
+        return this;
+    }
+
+    @Override public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (items.isEmpty()) {
+            validationException = addValidationError("no documents to get", validationException);
+        } else {
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                if (item.index() == null) {
+                    validationException = addValidationError("index is missing for doc " + i, validationException);
+                }
+                if (item.type() == null) {
+                    validationException = addValidationError("type is missing for doc " + i, validationException);
+                }
+                if (item.id() == null) {
+                    validationException = addValidationError("id is missing for doc " + i, validationException);
+                }
+            }
+        }
+        return validationException;
+    }
+
+    @Override public boolean listenerThreaded() {
+        return listenerThreaded;
+    }
+
+    @Override public MultiGetRequest listenerThreaded(boolean listenerThreaded) {
+        this.listenerThreaded = listenerThreaded;
+        return this;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        refresh = in.readBoolean();
+        realtime = in.readBoolean();
+        int size = in.readVInt();
+        items = new ArrayList<Item>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(Item.readItem(in));
+        }
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeBoolean(refresh);
+        out.writeBoolean(realtime);
+        out.writeVInt(items.size());
+        for (Item item : items) {
+            item.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.action.get;
+
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.support.single.shard.SingleShardOperationRequest;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.trove.list.array.TIntArrayList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The docs of a multi get hashed to a single shard, along with their location in the multi get request.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class MultiGetShardRequest extends SingleShardOperationRequest {
+
+    private int shardId;
+
+    boolean refresh;
+
+    boolean realtime;
+
+    TIntArrayList locations;
+
+    List<MultiGetRequest.Item> items;
+
+    MultiGetShardRequest() {
+
+    }
+
+    MultiGetShardRequest(String index, int shardId) {
+        super(index, null, null);
+        this.shardId = shardId;
+        locations = new TIntArrayList();
+        items = new ArrayList<MultiGetRequest.Item>();
+    }
+
+    public int shardId() {
+        return this.shardId;
+    }
+
+    public void add(int location, MultiGetRequest.Item item) {
+        this.locations.add(location);
+        this.items.add(item);
+    }
+
+    @Override public ActionRequestValidationException validate() {
+        return null;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        // no type and id, so not reading the single shard operation request
+        index = in.readUTF();
+        shardId = in.readVInt();
+        refresh = in.readBoolean();
+        realtime = in.readBoolean();
+        int size = in.readVInt();
+        locations = new TIntArrayList(size);
+        items = new ArrayList<MultiGetRequest.Item>(size);
+        for (int i = 0; i < size; i++) {
+            locations.add(in.readVInt());
+            items.add(MultiGetRequest.Item.readItem(in));
+        }
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeUTF(index);
+        out.writeVInt(shardId);
+        out.writeBoolean(refresh);
+        out.writeBoolean(realtime);
+        out.writeVInt(locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            out.writeVInt(locations.get(i));
+            items.get(i).writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.action.get;
+
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.trove.list.array.TIntArrayList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class MultiGetShardResponse implements ActionResponse {
+
+    TIntArrayList locations;
+
+    List<MultiGetItemResponse> responses;
+
+    MultiGetShardResponse() {
+        locations = new TIntArrayList();
+        responses = new ArrayList<MultiGetItemResponse>();
+    }
+
+    public void add(int location, MultiGetItemResponse response) {
+        locations.add(location);
+        responses.add(response);
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        int size = in.readVInt();
+        locations = new TIntArrayList(size);
+        responses = new ArrayList<MultiGetItemResponse>(size);
+        for (int i = 0; i < size; i++) {
+            locations.add(in.readVInt());
+            responses.add(MultiGetItemResponse.readItemResponse(in));
+        }
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            out.writeVInt(locations.get(i));
+            responses.get(i).writeTo(out);
+        }
+    }
+}
@@ -28,9 +28,8 @@ import org.elasticsearch.action.support.single.shard.TransportShardSingleOperati
 import org.elasticsearch.cluster.ClusterService;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.inject.Inject;
-import org.elasticsearch.common.lucene.Lucene;
-import org.elasticsearch.common.lucene.uid.UidField;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.engine.Engine;
@@ -70,6 +69,10 @@ public class TransportGetAction extends TransportShardSingleOperationAction<GetR
         return TransportActions.GET;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GET;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/get/shard";
     }
@@ -82,30 +85,49 @@ public class TransportGetAction extends TransportShardSingleOperationAction<GetR
         IndexService indexService = indicesService.indexServiceSafe(request.index());
         IndexShard indexShard = indexService.shardSafe(shardId);
 
-        DocumentMapper docMapper = indexService.mapperService().documentMapper(request.type());
-        if (docMapper == null) {
-            throw new TypeMissingException(new Index(request.index()), request.type());
-        }
-
         if (request.refresh()) {
             indexShard.refresh(new Engine.Refresh(false));
         }
 
-        Engine.Searcher searcher = indexShard.searcher();
+        return load(indexService, indexShard, request.index(), request.type(), request.id(), request.fields(), request.realtime(), null);
+    }
+
+    /**
+     * Loads the doc (or the requested fields of it) from the shard. When the doc is not read from the transaction
+     * log, it is looked up with the given searcher if set (see {@link Engine.Get#searcher(Engine.Searcher)}).
+     */
+    static GetResponse load(IndexService indexService, IndexShard indexShard, String index, String type, String id,
+                            @Nullable String[] fieldNames, boolean realtime, @Nullable Engine.Searcher searcher) throws ElasticSearchException {
+        DocumentMapper docMapper = indexService.mapperService().documentMapper(type);
+        if (docMapper == null) {
+            throw new TypeMissingException(new Index(index), type);
+        }
+
+        // the transaction log only holds the source, so it can serve the get only if nothing else is asked for
+        boolean loadFromTranslog = docMapper.sourceMapper().enabled() && sourceOnly(docMapper, fieldNames);
+        Engine.GetResult get = indexShard.get(new Engine.Get(realtime, docMapper.uidMapper().term(type, id))
+                .searcher(searcher).loadFromTranslog(loadFromTranslog));
         boolean exists = false;
         byte[] source = null;
         Map<String, GetField> fields = null;
         long version = -1;
         try {
-            UidField.DocIdAndVersion docIdAndVersion = UidField.loadDocIdAndVersion(searcher.reader(), docMapper.uidMapper().term(request.type(), request.id()));
-            if (docIdAndVersion.docId != Lucene.NO_DOC) {
-                if (docIdAndVersion.version > 0) {
-                    version = docIdAndVersion.version;
+            if (!get.exists()) {
+                return new GetResponse(index, type, id, -1, false, null, null);
+            }
+            exists = true;
+            if (get.version() > 0) {
+                version = get.version();
+            }
+            if (get.source() != null) {
+                // the doc was read from the transaction log, only the source was asked for (if anything)
+                if (fieldNames == null || fieldNames.length > 0) {
+                    source = get.source();
                 }
-                exists = true;
-                FieldSelector fieldSelector = buildFieldSelectors(docMapper, request.fields());
+            } else {
+                FieldSelector fieldSelector = buildFieldSelectors(docMapper, fieldNames);
                 if (fieldSelector != null) {
-                    Document doc = searcher.reader().document(docIdAndVersion.docId, fieldSelector);
+                    Document doc = get.searcher().reader().document(get.docIdAndVersion().docId, fieldSelector);
                     source = extractSource(doc, docMapper);
 
                     for (Object oField : doc.getFields()) {
@@ -142,14 +164,30 @@ public class TransportGetAction extends TransportShardSingleOperationAction<GetR
                 }
             }
         } catch (IOException e) {
-            throw new ElasticSearchException("Failed to get type [" + request.type() + "] and id [" + request.id() + "]", e);
+            throw new ElasticSearchException("Failed to get type [" + type + "] and id [" + id + "]", e);
         } finally {
-            searcher.release();
+            get.release();
+        }
+        return new GetResponse(index, type, id, version, exists, source, fields);
+    }
+
+    /**
+     * Do the requested fields (<tt>null</tt> meaning the default, the source) only ask for the source.
+     */
+    private static boolean sourceOnly(DocumentMapper docMapper, @Nullable String[] fieldNames) {
+        if (fieldNames == null) {
+            return true;
+        }
+        for (String fieldName : fieldNames) {
+            FieldMappers x = docMapper.mappers().smartName(fieldName);
+            if (x == null || !x.mapper().names().fullName().equals(docMapper.sourceMapper().names().fullName())) {
+                return false;
+            }
         }
-        return new GetResponse(request.index(), request.type(), request.id(), version, exists, source, fields);
+        return true;
     }
 
-    private FieldSelector buildFieldSelectors(DocumentMapper docMapper, String... fields) {
+    private static FieldSelector buildFieldSelectors(DocumentMapper docMapper, String... fields) {
         if (fields == null) {
             return docMapper.sourceMapper().fieldSelector();
         }
@@ -170,7 +208,7 @@ public class TransportGetAction extends TransportShardSingleOperationAction<GetR
         return fieldSelector;
     }
 
-    private byte[] extractSource(Document doc, DocumentMapper documentMapper) {
+    private static byte[] extractSource(Document doc, DocumentMapper documentMapper) {
         byte[] source = null;
         Fieldable sourceField = doc.getFieldable(documentMapper.sourceMapper().names().indexName());
         if (sourceField != null) {
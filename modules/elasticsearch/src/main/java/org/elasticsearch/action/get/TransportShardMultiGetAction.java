@@ -0,0 +1,128 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.action.get;
+
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.TransportActions;
+import org.elasticsearch.action.support.single.shard.TransportShardSingleOperationAction;
+import org.elasticsearch.cluster.ClusterService;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.cluster.routing.ShardIterator;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.mapper.Uid;
+import org.elasticsearch.index.service.IndexService;
+import org.elasticsearch.index.shard.service.IndexShard;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Gets the docs of a multi get that are hashed to a single shard, looking them up (in uid order) with a single
+ * searcher.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class TransportShardMultiGetAction extends TransportShardSingleOperationAction<MultiGetShardRequest, MultiGetShardResponse> {
+
+    private final IndicesService indicesService;
+
+    @Inject public TransportShardMultiGetAction(Settings settings, ClusterService clusterService, TransportService transportService,
+                                                IndicesService indicesService, ThreadPool threadPool) {
+        super(settings, threadPool, clusterService, transportService);
+        this.indicesService = indicesService;
+    }
+
+    @Override protected String transportAction() {
+        return TransportActions.MULTI_GET + "/shard";
+    }
+
+    @Override protected String executor() {
+        return ThreadPool.Names.GET;
+    }
+
+    @Override protected String transportShardAction() {
+        return TransportActions.MULTI_GET + "/shard/s";
+    }
+
+    @Override protected void checkBlock(MultiGetShardRequest request, ClusterState state) {
+        state.blocks().indexBlockedRaiseException(ClusterBlockLevel.READ, request.index());
+    }
+
+    @Override protected ShardIterator shards(ClusterState clusterState, MultiGetShardRequest request) {
+        return clusterService.operationRouting().getShards(clusterState, request.index(), request.shardId());
+    }
+
+    @Override protected MultiGetShardResponse shardOperation(MultiGetShardRequest request, int shardId) throws ElasticSearchException {
+        IndexService indexService = indicesService.indexServiceSafe(request.index());
+        IndexShard indexShard = indexService.shardSafe(shardId);
+
+        if (request.refresh) {
+            indexShard.refresh(new Engine.Refresh(false));
+        }
+
+        // look the docs up in uid order, so the terms of each segment are visited forward
+        final String[] uids = new String[request.items.size()];
+        Integer[] order = new Integer[uids.length];
+        for (int i = 0; i < uids.length; i++) {
+            MultiGetRequest.Item item = request.items.get(i);
+            uids[i] = Uid.createUid(item.type(), item.id());
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override public int compare(Integer o1, Integer o2) {
+                return uids[o1].compareTo(uids[o2]);
+            }
+        });
+
+        MultiGetShardResponse response = new MultiGetShardResponse();
+        Engine.Searcher searcher = indexShard.searcher();
+        try {
+            for (int i : order) {
+                MultiGetRequest.Item item = request.items.get(i);
+                try {
+                    GetResponse getResponse = TransportGetAction.load(indexService, indexShard, request.index(), item.type(), item.id(), item.fields(), request.realtime, searcher);
+                    response.add(request.locations.get(i), new MultiGetItemResponse(getResponse, null));
+                } catch (Exception e) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("[{}][{}] failed to execute multi_get for [{}]/[{}]", e, request.index(), shardId, item.type(), item.id());
+                    }
+                    response.add(request.locations.get(i), new MultiGetItemResponse(null, new MultiGetItemResponse.Failure(request.index(), item.type(), item.id(), ExceptionsHelper.detailedMessage(e))));
+                }
+            }
+        } finally {
+            searcher.release();
+        }
+        return response;
+    }
+
+    @Override protected MultiGetShardRequest newRequest() {
+        return new MultiGetShardRequest();
+    }
+
+    @Override protected MultiGetShardResponse newResponse() {
+        return new MultiGetShardResponse();
+    }
+}
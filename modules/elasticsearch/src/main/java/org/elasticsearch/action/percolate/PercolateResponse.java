@@ -35,6 +35,10 @@ public class PercolateResponse implements ActionResponse, Iterable<String> {
 
     private List<String> matches;
 
+    private int candidates = -1;
+
+    private int total = -1;
+
     PercolateResponse() {
 
     }
@@ -43,10 +47,31 @@ public class PercolateResponse implements ActionResponse, Iterable<String> {
         this.matches = matches;
     }
 
+    public PercolateResponse(List<String> matches, int candidates, int total) {
+        this.matches = matches;
+        this.candidates = candidates;
+        this.total = total;
+    }
+
     public List<String> matches() {
         return this.matches;
     }
 
+    /**
+     * The number of registered queries that were executed against the doc, the ones that
+     * require a term the doc has (or that no terms could be extracted from). <tt>-1</tt> if unknown.
+     */
+    public int candidates() {
+        return this.candidates;
+    }
+
+    /**
+     * The total number of registered queries. <tt>-1</tt> if unknown.
+     */
+    public int total() {
+        return this.total;
+    }
+
     @Override public Iterator<String> iterator() {
         return matches.iterator();
     }
@@ -57,6 +82,8 @@ public class PercolateResponse implements ActionResponse, Iterable<String> {
         for (int i = 0; i < size; i++) {
             matches.add(in.readUTF());
         }
+        candidates = in.readVInt() - 1;
+        total = in.readVInt() - 1;
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
@@ -64,5 +91,8 @@ public class PercolateResponse implements ActionResponse, Iterable<String> {
         for (String match : matches) {
             out.writeUTF(match);
         }
+        // shifted by one so unknown (-1) can be written as a vint
+        out.writeVInt(candidates + 1);
+        out.writeVInt(total + 1);
     }
 }
@@ -59,6 +59,10 @@ public class TransportPercolateAction extends TransportSingleCustomOperationActi
         return TransportActions.PERCOLATE;
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.PERCOLATE;
+    }
+
     @Override protected String transportShardAction() {
         return "indices/percolate/shard";
     }
@@ -73,6 +77,6 @@ public class TransportPercolateAction extends TransportSingleCustomOperationActi
         PercolatorService percolatorService = indexService.percolateService();
 
         PercolatorExecutor.Response percolate = percolatorService.percolate(new PercolatorExecutor.SourceRequest(request.source()));
-        return new PercolateResponse(percolate.matches());
+        return new PercolateResponse(percolate.matches(), percolate.candidates(), percolate.total());
     }
 }
@@ -20,6 +20,7 @@
 package org.elasticsearch.action.search;
 
 import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.unit.TimeValue;
@@ -27,6 +28,7 @@ import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentBuilderString;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.SearchTimings;
 import org.elasticsearch.search.facet.Facets;
 import org.elasticsearch.search.internal.InternalSearchResponse;
 
@@ -94,6 +96,20 @@ public class SearchResponse implements ActionResponse, ToXContent {
         return facets();
     }
 
+    /**
+     * The time spent on the query and fetch phases of the search, <tt>null</tt> if not available.
+     */
+    @Nullable public SearchTimings timings() {
+        return internalResponse.timings();
+    }
+
+    /**
+     * The time spent on the query and fetch phases of the search, <tt>null</tt> if not available.
+     */
+    @Nullable public SearchTimings getTimings() {
+        return timings();
+    }
+
     /**
      * Has the search operation timed out.
      */
@@ -40,6 +40,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.elasticsearch.action.search.type.TransportSearchHelper.*;
@@ -97,17 +98,26 @@ public class TransportSearchDfsQueryAndFetchAction extends TransportSearchTypeAc
             }
             if (localOperations > 0) {
                 if (request.operationThreading() == SearchOperationThreading.SINGLE_THREAD) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            for (final DfsSearchResult dfsResult : dfsResults) {
-                                DiscoveryNode node = nodes.get(dfsResult.shardTarget().nodeId());
-                                if (node.id().equals(nodes.localNodeId())) {
-                                    QuerySearchRequest querySearchRequest = new QuerySearchRequest(dfsResult.id(), dfs);
-                                    executeSecondPhase(dfsResult, counter, node, querySearchRequest);
+                    try {
+                        threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                            @Override public void run() {
+                                for (final DfsSearchResult dfsResult : dfsResults) {
+                                    DiscoveryNode node = nodes.get(dfsResult.shardTarget().nodeId());
+                                    if (node.id().equals(nodes.localNodeId())) {
+                                        QuerySearchRequest querySearchRequest = new QuerySearchRequest(dfsResult.id(), dfs);
+                                        executeSecondPhase(dfsResult, counter, node, querySearchRequest);
+                                    }
                                 }
                             }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        for (final DfsSearchResult dfsResult : dfsResults) {
+                            DiscoveryNode node = nodes.get(dfsResult.shardTarget().nodeId());
+                            if (node.id().equals(nodes.localNodeId())) {
+                                onSecondPhaseFailure(e, dfsResult.id(), counter);
+                            }
                         }
-                    });
+                    }
                 } else {
                     boolean localAsync = request.operationThreading() == SearchOperationThreading.THREAD_PER_SHARD;
                     for (final DfsSearchResult dfsResult : dfsResults) {
@@ -115,11 +125,15 @@ public class TransportSearchDfsQueryAndFetchAction extends TransportSearchTypeAc
                         if (node.id().equals(nodes.localNodeId())) {
                             final QuerySearchRequest querySearchRequest = new QuerySearchRequest(dfsResult.id(), dfs);
                             if (localAsync) {
-                                threadPool.execute(new Runnable() {
-                                    @Override public void run() {
-                                        executeSecondPhase(dfsResult, counter, node, querySearchRequest);
-                                    }
-                                });
+                                try {
+                                    threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                                        @Override public void run() {
+                                            executeSecondPhase(dfsResult, counter, node, querySearchRequest);
+                                        }
+                                    });
+                                } catch (RejectedExecutionException e) {
+                                    onSecondPhaseFailure(e, querySearchRequest.id(), counter);
+                                }
                             } else {
                                 executeSecondPhase(dfsResult, counter, node, querySearchRequest);
                             }
@@ -140,18 +154,22 @@ public class TransportSearchDfsQueryAndFetchAction extends TransportSearchTypeAc
                 }
 
                 @Override public void onFailure(Throwable t) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("[{}] Failed to execute query phase", t, querySearchRequest.id());
-                    }
-                    AsyncAction.this.shardFailures.add(new ShardSearchFailure(t));
-                    successulOps.decrementAndGet();
-                    if (counter.decrementAndGet() == 0) {
-                        finishHim();
-                    }
+                    onSecondPhaseFailure(t, querySearchRequest.id(), counter);
                 }
             });
         }
 
+        private void onSecondPhaseFailure(Throwable t, long searchId, AtomicInteger counter) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("[{}] Failed to execute query phase", t, searchId);
+            }
+            AsyncAction.this.shardFailures.add(new ShardSearchFailure(t));
+            successulOps.decrementAndGet();
+            if (counter.decrementAndGet() == 0) {
+                finishHim();
+            }
+        }
+
         private void finishHim() {
             try {
                 innerFinishHim();
@@ -44,6 +44,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -104,17 +105,26 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
 
             if (localOperations > 0) {
                 if (request.operationThreading() == SearchOperationThreading.SINGLE_THREAD) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            for (final DfsSearchResult dfsResult : dfsResults) {
-                                DiscoveryNode node = nodes.get(dfsResult.shardTarget().nodeId());
-                                if (node.id().equals(nodes.localNodeId())) {
-                                    QuerySearchRequest querySearchRequest = new QuerySearchRequest(dfsResult.id(), dfs);
-                                    executeQuery(dfsResult, counter, querySearchRequest, node);
+                    try {
+                        threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                            @Override public void run() {
+                                for (final DfsSearchResult dfsResult : dfsResults) {
+                                    DiscoveryNode node = nodes.get(dfsResult.shardTarget().nodeId());
+                                    if (node.id().equals(nodes.localNodeId())) {
+                                        QuerySearchRequest querySearchRequest = new QuerySearchRequest(dfsResult.id(), dfs);
+                                        executeQuery(dfsResult, counter, querySearchRequest, node);
+                                    }
                                 }
                             }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        for (final DfsSearchResult dfsResult : dfsResults) {
+                            DiscoveryNode node = nodes.get(dfsResult.shardTarget().nodeId());
+                            if (node.id().equals(nodes.localNodeId())) {
+                                onQueryFailure(e, dfsResult.id(), counter);
+                            }
                         }
-                    });
+                    }
                 } else {
                     boolean localAsync = request.operationThreading() == SearchOperationThreading.THREAD_PER_SHARD;
                     for (final DfsSearchResult dfsResult : dfsResults) {
@@ -122,11 +132,15 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
                         if (node.id().equals(nodes.localNodeId())) {
                             final QuerySearchRequest querySearchRequest = new QuerySearchRequest(dfsResult.id(), dfs);
                             if (localAsync) {
-                                threadPool.execute(new Runnable() {
-                                    @Override public void run() {
-                                        executeQuery(dfsResult, counter, querySearchRequest, node);
-                                    }
-                                });
+                                try {
+                                    threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                                        @Override public void run() {
+                                            executeQuery(dfsResult, counter, querySearchRequest, node);
+                                        }
+                                    });
+                                } catch (RejectedExecutionException e) {
+                                    onQueryFailure(e, querySearchRequest.id(), counter);
+                                }
                             } else {
                                 executeQuery(dfsResult, counter, querySearchRequest, node);
                             }
@@ -147,18 +161,22 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
                 }
 
                 @Override public void onFailure(Throwable t) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("[{}] Failed to execute query phase", t, querySearchRequest.id());
-                    }
-                    AsyncAction.this.shardFailures.add(new ShardSearchFailure(t));
-                    successulOps.decrementAndGet();
-                    if (counter.decrementAndGet() == 0) {
-                        executeFetchPhase();
-                    }
+                    onQueryFailure(t, querySearchRequest.id(), counter);
                 }
             });
         }
 
+        private void onQueryFailure(Throwable t, long searchId, AtomicInteger counter) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("[{}] Failed to execute query phase", t, searchId);
+            }
+            AsyncAction.this.shardFailures.add(new ShardSearchFailure(t));
+            successulOps.decrementAndGet();
+            if (counter.decrementAndGet() == 0) {
+                executeFetchPhase();
+            }
+        }
+
         private void executeFetchPhase() {
             try {
                 innerExecuteFetchPhase();
@@ -190,17 +208,26 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
 
             if (localOperations > 0) {
                 if (request.operationThreading() == SearchOperationThreading.SINGLE_THREAD) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            for (final Map.Entry<SearchShardTarget, ExtTIntArrayList> entry : docIdsToLoad.entrySet()) {
-                                DiscoveryNode node = nodes.get(entry.getKey().nodeId());
-                                if (node.id().equals(nodes.localNodeId())) {
-                                    FetchSearchRequest fetchSearchRequest = new FetchSearchRequest(queryResults.get(entry.getKey()).id(), entry.getValue());
-                                    executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
+                    try {
+                        threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                            @Override public void run() {
+                                for (final Map.Entry<SearchShardTarget, ExtTIntArrayList> entry : docIdsToLoad.entrySet()) {
+                                    DiscoveryNode node = nodes.get(entry.getKey().nodeId());
+                                    if (node.id().equals(nodes.localNodeId())) {
+                                        FetchSearchRequest fetchSearchRequest = new FetchSearchRequest(queryResults.get(entry.getKey()).id(), entry.getValue());
+                                        executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
+                                    }
                                 }
                             }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        for (final Map.Entry<SearchShardTarget, ExtTIntArrayList> entry : docIdsToLoad.entrySet()) {
+                            DiscoveryNode node = nodes.get(entry.getKey().nodeId());
+                            if (node.id().equals(nodes.localNodeId())) {
+                                onFetchFailure(e, queryResults.get(entry.getKey()).id(), counter);
+                            }
                         }
-                    });
+                    }
                 } else {
                     boolean localAsync = request.operationThreading() == SearchOperationThreading.THREAD_PER_SHARD;
                     for (final Map.Entry<SearchShardTarget, ExtTIntArrayList> entry : docIdsToLoad.entrySet()) {
@@ -208,11 +235,15 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
                         if (node.id().equals(nodes.localNodeId())) {
                             final FetchSearchRequest fetchSearchRequest = new FetchSearchRequest(queryResults.get(entry.getKey()).id(), entry.getValue());
                             if (localAsync) {
-                                threadPool.execute(new Runnable() {
-                                    @Override public void run() {
-                                        executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
-                                    }
-                                });
+                                try {
+                                    threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                                        @Override public void run() {
+                                            executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
+                                        }
+                                    });
+                                } catch (RejectedExecutionException e) {
+                                    onFetchFailure(e, fetchSearchRequest.id(), counter);
+                                }
                             } else {
                                 executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
                             }
@@ -233,18 +264,22 @@ public class TransportSearchDfsQueryThenFetchAction extends TransportSearchTypeA
                 }
 
                 @Override public void onFailure(Throwable t) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("[{}] Failed to execute fetch phase", t, fetchSearchRequest.id());
-                    }
-                    AsyncAction.this.shardFailures.add(new ShardSearchFailure(t));
-                    successulOps.decrementAndGet();
-                    if (counter.decrementAndGet() == 0) {
-                        finishHim();
-                    }
+                    onFetchFailure(t, fetchSearchRequest.id(), counter);
                 }
             });
         }
 
+        private void onFetchFailure(Throwable t, long searchId, AtomicInteger counter) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("[{}] Failed to execute fetch phase", t, searchId);
+            }
+            AsyncAction.this.shardFailures.add(new ShardSearchFailure(t));
+            successulOps.decrementAndGet();
+            if (counter.decrementAndGet() == 0) {
+                finishHim();
+            }
+        }
+
         private void finishHim() {
             try {
                 innerFinishHim();
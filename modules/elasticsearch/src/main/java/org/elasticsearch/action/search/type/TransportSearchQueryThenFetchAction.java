@@ -40,6 +40,7 @@ import org.elasticsearch.search.query.QuerySearchResultProvider;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -104,17 +105,26 @@ public class TransportSearchQueryThenFetchAction extends TransportSearchTypeActi
 
             if (localOperations > 0) {
                 if (request.operationThreading() == SearchOperationThreading.SINGLE_THREAD) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            for (final Map.Entry<SearchShardTarget, ExtTIntArrayList> entry : docIdsToLoad.entrySet()) {
-                                DiscoveryNode node = nodes.get(entry.getKey().nodeId());
-                                if (node.id().equals(nodes.localNodeId())) {
-                                    FetchSearchRequest fetchSearchRequest = new FetchSearchRequest(queryResults.get(entry.getKey()).id(), entry.getValue());
-                                    executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
+                    try {
+                        threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                            @Override public void run() {
+                                for (final Map.Entry<SearchShardTarget, ExtTIntArrayList> entry : docIdsToLoad.entrySet()) {
+                                    DiscoveryNode node = nodes.get(entry.getKey().nodeId());
+                                    if (node.id().equals(nodes.localNodeId())) {
+                                        FetchSearchRequest fetchSearchRequest = new FetchSearchRequest(queryResults.get(entry.getKey()).id(), entry.getValue());
+                                        executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
+                                    }
                                 }
                             }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        for (final Map.Entry<SearchShardTarget, ExtTIntArrayList> entry : docIdsToLoad.entrySet()) {
+                            DiscoveryNode node = nodes.get(entry.getKey().nodeId());
+                            if (node.id().equals(nodes.localNodeId())) {
+                                onFetchFailure(e, queryResults.get(entry.getKey()).id(), counter);
+                            }
                         }
-                    });
+                    }
                 } else {
                     boolean localAsync = request.operationThreading() == SearchOperationThreading.THREAD_PER_SHARD;
                     for (final Map.Entry<SearchShardTarget, ExtTIntArrayList> entry : docIdsToLoad.entrySet()) {
@@ -122,11 +132,15 @@ public class TransportSearchQueryThenFetchAction extends TransportSearchTypeActi
                         if (node.id().equals(nodes.localNodeId())) {
                             final FetchSearchRequest fetchSearchRequest = new FetchSearchRequest(queryResults.get(entry.getKey()).id(), entry.getValue());
                             if (localAsync) {
-                                threadPool.execute(new Runnable() {
-                                    @Override public void run() {
-                                        executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
-                                    }
-                                });
+                                try {
+                                    threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                                        @Override public void run() {
+                                            executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
+                                        }
+                                    });
+                                } catch (RejectedExecutionException e) {
+                                    onFetchFailure(e, fetchSearchRequest.id(), counter);
+                                }
                             } else {
                                 executeFetch(entry.getKey(), counter, fetchSearchRequest, node);
                             }
@@ -147,18 +161,22 @@ public class TransportSearchQueryThenFetchAction extends TransportSearchTypeActi
                 }
 
                 @Override public void onFailure(Throwable t) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("[{}] Failed to execute fetch phase", t, fetchSearchRequest.id());
-                    }
-                    AsyncAction.this.shardFailures.add(new ShardSearchFailure(t));
-                    successulOps.decrementAndGet();
-                    if (counter.decrementAndGet() == 0) {
-                        finishHim();
-                    }
+                    onFetchFailure(t, fetchSearchRequest.id(), counter);
                 }
             });
         }
 
+        private void onFetchFailure(Throwable t, long searchId, AtomicInteger counter) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("[{}] Failed to execute fetch phase", t, searchId);
+            }
+            AsyncAction.this.shardFailures.add(new ShardSearchFailure(t));
+            successulOps.decrementAndGet();
+            if (counter.decrementAndGet() == 0) {
+                finishHim();
+            }
+        }
+
         private void finishHim() {
             try {
                 innerFinishHim();
@@ -39,6 +39,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.elasticsearch.action.search.type.TransportSearchHelper.*;
@@ -129,27 +130,40 @@ public class TransportSearchScrollQueryAndFetchAction extends AbstractComponent
 
             if (localOperations > 0) {
                 if (request.operationThreading() == SearchOperationThreading.SINGLE_THREAD) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            for (Tuple<String, Long> target : scrollId.values()) {
-                                DiscoveryNode node = nodes.get(target.v1());
-                                if (node != null && nodes.localNodeId().equals(node.id())) {
-                                    executePhase(node, target.v2());
+                    try {
+                        threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                            @Override public void run() {
+                                for (Tuple<String, Long> target : scrollId.values()) {
+                                    DiscoveryNode node = nodes.get(target.v1());
+                                    if (node != null && nodes.localNodeId().equals(node.id())) {
+                                        executePhase(node, target.v2());
+                                    }
                                 }
                             }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        for (Tuple<String, Long> target : scrollId.values()) {
+                            DiscoveryNode node = nodes.get(target.v1());
+                            if (node != null && nodes.localNodeId().equals(node.id())) {
+                                onPhaseFailure(e, target.v2());
+                            }
                         }
-                    });
+                    }
                 } else {
                     boolean localAsync = request.operationThreading() == SearchOperationThreading.THREAD_PER_SHARD;
                     for (final Tuple<String, Long> target : scrollId.values()) {
                         final DiscoveryNode node = nodes.get(target.v1());
                         if (node != null && nodes.localNodeId().equals(node.id())) {
                             if (localAsync) {
-                                threadPool.execute(new Runnable() {
-                                    @Override public void run() {
-                                        executePhase(node, target.v2());
-                                    }
-                                });
+                                try {
+                                    threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                                        @Override public void run() {
+                                            executePhase(node, target.v2());
+                                        }
+                                    });
+                                } catch (RejectedExecutionException e) {
+                                    onPhaseFailure(e, target.v2());
+                                }
                             } else {
                                 executePhase(node, target.v2());
                             }
@@ -183,18 +197,22 @@ public class TransportSearchScrollQueryAndFetchAction extends AbstractComponent
                 }
 
                 @Override public void onFailure(Throwable t) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("[{}] Failed to execute query phase", t, searchId);
-                    }
-                    shardFailures.add(new ShardSearchFailure(t));
-                    successfulOps.decrementAndGet();
-                    if (counter.decrementAndGet() == 0) {
-                        finishHim();
-                    }
+                    onPhaseFailure(t, searchId);
                 }
             });
         }
 
+        private void onPhaseFailure(Throwable t, long searchId) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("[{}] Failed to execute query phase", t, searchId);
+            }
+            shardFailures.add(new ShardSearchFailure(t));
+            successfulOps.decrementAndGet();
+            if (counter.decrementAndGet() == 0) {
+                finishHim();
+            }
+        }
+
         private void finishHim() {
             try {
                 innerFinishHim();
@@ -43,6 +43,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.elasticsearch.action.search.type.TransportSearchHelper.*;
@@ -135,27 +136,40 @@ public class TransportSearchScrollQueryThenFetchAction extends AbstractComponent
 
             if (localOperations > 0) {
                 if (request.operationThreading() == SearchOperationThreading.SINGLE_THREAD) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            for (Tuple<String, Long> target : scrollId.values()) {
-                                DiscoveryNode node = nodes.get(target.v1());
-                                if (node != null && nodes.localNodeId().equals(node.id())) {
-                                    executeQueryPhase(counter, node, target.v2());
+                    try {
+                        threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                            @Override public void run() {
+                                for (Tuple<String, Long> target : scrollId.values()) {
+                                    DiscoveryNode node = nodes.get(target.v1());
+                                    if (node != null && nodes.localNodeId().equals(node.id())) {
+                                        executeQueryPhase(counter, node, target.v2());
+                                    }
                                 }
                             }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        for (Tuple<String, Long> target : scrollId.values()) {
+                            DiscoveryNode node = nodes.get(target.v1());
+                            if (node != null && nodes.localNodeId().equals(node.id())) {
+                                onQueryPhaseFailure(e, counter, target.v2());
+                            }
                         }
-                    });
+                    }
                 } else {
                     boolean localAsync = request.operationThreading() == SearchOperationThreading.THREAD_PER_SHARD;
                     for (final Tuple<String, Long> target : scrollId.values()) {
                         final DiscoveryNode node = nodes.get(target.v1());
                         if (node != null && nodes.localNodeId().equals(node.id())) {
                             if (localAsync) {
-                                threadPool.execute(new Runnable() {
-                                    @Override public void run() {
-                                        executeQueryPhase(counter, node, target.v2());
-                                    }
-                                });
+                                try {
+                                    threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                                        @Override public void run() {
+                                            executeQueryPhase(counter, node, target.v2());
+                                        }
+                                    });
+                                } catch (RejectedExecutionException e) {
+                                    onQueryPhaseFailure(e, counter, target.v2());
+                                }
                             } else {
                                 executeQueryPhase(counter, node, target.v2());
                             }
@@ -175,18 +189,22 @@ public class TransportSearchScrollQueryThenFetchAction extends AbstractComponent
                 }
 
                 @Override public void onFailure(Throwable t) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("[{}] Failed to execute query phase", t, searchId);
-                    }
-                    shardFailures.add(new ShardSearchFailure(t));
-                    successfulOps.decrementAndGet();
-                    if (counter.decrementAndGet() == 0) {
-                        executeFetchPhase();
-                    }
+                    onQueryPhaseFailure(t, counter, searchId);
                 }
             });
         }
 
+        private void onQueryPhaseFailure(Throwable t, AtomicInteger counter, long searchId) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("[{}] Failed to execute query phase", t, searchId);
+            }
+            shardFailures.add(new ShardSearchFailure(t));
+            successfulOps.decrementAndGet();
+            if (counter.decrementAndGet() == 0) {
+                executeFetchPhase();
+            }
+        }
+
         private void executeFetchPhase() {
             sortedShardList = searchPhaseController.sortDocs(queryResults.values());
             Map<SearchShardTarget, ExtTIntArrayList> docIdsToLoad = searchPhaseController.docIdsToLoad(sortedShardList);
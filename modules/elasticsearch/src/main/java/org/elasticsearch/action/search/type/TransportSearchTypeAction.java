@@ -46,6 +46,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.elasticsearch.action.search.type.TransportSearchHelper.*;
@@ -144,18 +145,30 @@ public abstract class TransportSearchTypeAction extends BaseAction<SearchRequest
             if (localOperations > 0) {
                 if (request.operationThreading() == SearchOperationThreading.SINGLE_THREAD) {
                     request.beforeLocalFork();
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            for (final ShardIterator shardIt : shardsIts) {
-                                final ShardRouting shard = shardIt.reset().nextActiveOrNull();
-                                if (shard != null) {
-                                    if (shard.currentNodeId().equals(nodes.localNodeId())) {
-                                        performFirstPhase(shardIt.reset());
+                    try {
+                        threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                            @Override public void run() {
+                                for (final ShardIterator shardIt : shardsIts) {
+                                    final ShardRouting shard = shardIt.reset().nextActiveOrNull();
+                                    if (shard != null) {
+                                        if (shard.currentNodeId().equals(nodes.localNodeId())) {
+                                            performFirstPhase(shardIt.reset());
+                                        }
                                     }
                                 }
                             }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        // the search pool is full, fail the local shards so they are retried on another copy (if any)
+                        for (final ShardIterator shardIt : shardsIts) {
+                            final ShardRouting shard = shardIt.reset().nextActiveOrNull();
+                            if (shard != null) {
+                                if (shard.currentNodeId().equals(nodes.localNodeId())) {
+                                    onFirstPhaseResult(shard, shardIt, e);
+                                }
+                            }
                         }
-                    });
+                    }
                 } else {
                     boolean localAsync = request.operationThreading() == SearchOperationThreading.THREAD_PER_SHARD;
                     if (localAsync) {
@@ -166,11 +179,15 @@ public abstract class TransportSearchTypeAction extends BaseAction<SearchRequest
                         if (shard != null) {
                             if (shard.currentNodeId().equals(nodes.localNodeId())) {
                                 if (localAsync) {
-                                    threadPool.execute(new Runnable() {
-                                        @Override public void run() {
-                                            performFirstPhase(shardIt.reset());
-                                        }
-                                    });
+                                    try {
+                                        threadPool.executor(ThreadPool.Names.SEARCH).execute(new Runnable() {
+                                            @Override public void run() {
+                                                performFirstPhase(shardIt.reset());
+                                            }
+                                        });
+                                    } catch (RejectedExecutionException e) {
+                                        onFirstPhaseResult(shard, shardIt, e);
+                                    }
                                 } else {
                                     performFirstPhase(shardIt.reset());
                                 }
@@ -43,6 +43,7 @@ import org.elasticsearch.transport.*;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
@@ -76,6 +77,11 @@ public abstract class TransportBroadcastOperationAction<Request extends Broadcas
 
     protected abstract String transportAction();
 
+    /**
+     * The executor (see {@link ThreadPool.Names}) the shard operations are executed on.
+     */
+    protected abstract String executor();
+
     protected abstract String transportShardAction();
 
     protected abstract Request newRequest();
@@ -187,18 +193,30 @@ public abstract class TransportBroadcastOperationAction<Request extends Broadcas
             if (localOperations > 0) {
                 if (request.operationThreading() == BroadcastOperationThreading.SINGLE_THREAD) {
                     request.beforeLocalFork();
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            for (final ShardIterator shardIt : shardsIts) {
-                                final ShardRouting shard = nextShardOrNull(shardIt.reset());
-                                if (shard != null) {
-                                    if (shard.currentNodeId().equals(nodes.localNodeId())) {
-                                        performOperation(shardIt.reset(), false);
+                    try {
+                        threadPool.executor(executor()).execute(new Runnable() {
+                            @Override public void run() {
+                                for (final ShardIterator shardIt : shardsIts) {
+                                    final ShardRouting shard = nextShardOrNull(shardIt.reset());
+                                    if (shard != null) {
+                                        if (shard.currentNodeId().equals(nodes.localNodeId())) {
+                                            performOperation(shardIt.reset(), false);
+                                        }
                                     }
                                 }
                             }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        // the pool is full, fail the local shards so they are retried on another copy (if any)
+                        for (final ShardIterator shardIt : shardsIts) {
+                            final ShardRouting shard = nextShardOrNull(shardIt.reset());
+                            if (shard != null) {
+                                if (shard.currentNodeId().equals(nodes.localNodeId())) {
+                                    onOperation(shard, shardIt, e, false);
+                                }
+                            }
                         }
-                    });
+                    }
                 } else {
                     boolean localAsync = request.operationThreading() == BroadcastOperationThreading.THREAD_PER_SHARD;
                     if (localAsync) {
@@ -225,15 +243,19 @@ public abstract class TransportBroadcastOperationAction<Request extends Broadcas
                 final ShardRequest shardRequest = newShardRequest(shard, request);
                 if (shard.currentNodeId().equals(nodes.localNodeId())) {
                     if (localAsync) {
-                        threadPool.execute(new Runnable() {
-                            @Override public void run() {
-                                try {
-                                    onOperation(shard, shardOperation(shardRequest), true);
-                                } catch (Exception e) {
-                                    onOperation(shard, shardIt, e, true);
+                        try {
+                            threadPool.executor(executor()).execute(new Runnable() {
+                                @Override public void run() {
+                                    try {
+                                        onOperation(shard, shardOperation(shardRequest), true);
+                                    } catch (Exception e) {
+                                        onOperation(shard, shardIt, e, true);
+                                    }
                                 }
-                            }
-                        });
+                            });
+                        } catch (RejectedExecutionException e) {
+                            onOperation(shard, shardIt, e, false);
+                        }
                     } else {
                         try {
                             onOperation(shard, shardOperation(shardRequest), false);
@@ -395,6 +417,10 @@ public abstract class TransportBroadcastOperationAction<Request extends Broadcas
         @Override public void messageReceived(ShardRequest request, TransportChannel channel) throws Exception {
             channel.sendResponse(shardOperation(request));
         }
+
+        @Override public String executor() {
+            return TransportBroadcastOperationAction.this.executor();
+        }
     }
 
     // FROM HERE: When we move to a single remote call with all shard requests to the same node, then
@@ -412,61 +438,74 @@ public abstract class TransportBroadcastOperationAction<Request extends Broadcas
                 final AtomicInteger index = new AtomicInteger();
                 final AtomicReferenceArray results = new AtomicReferenceArray(request.requests().size());
                 for (final ShardRequest singleRequest : request.requests()) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            int arrIndex = index.getAndIncrement();
-                            try {
-                                results.set(arrIndex, shardOperation(singleRequest));
-                            } catch (Exception e) {
-                                results.set(arrIndex, new BroadcastShardOperationFailedException(new ShardId(singleRequest.index(), singleRequest.shardId()), e));
-                            }
-                            if (counter.decrementAndGet() == 0) {
-                                // we are done
-                                List<ShardResponse> responses = newArrayListWithCapacity(request.requests().size());
-                                List<BroadcastShardOperationFailedException> exceptions = null;
-                                for (int i = 0; i < results.length(); i++) {
-                                    Object result = results.get(i);
-                                    if (result instanceof BroadcastShardOperationFailedException) {
-                                        if (exceptions == null) {
-                                            exceptions = newArrayList();
-                                        }
-                                        exceptions.add((BroadcastShardOperationFailedException) result);
-                                    } else {
-                                        responses.add((ShardResponse) result);
-                                    }
-                                }
+                    try {
+                        threadPool.executor(TransportBroadcastOperationAction.this.executor()).execute(new Runnable() {
+                            @Override public void run() {
+                                Object result;
                                 try {
-                                    channel.sendResponse(new ShardsResponse(responses, exceptions));
-                                } catch (IOException e) {
-                                    logger.warn("Failed to send broadcast response", e);
+                                    result = shardOperation(singleRequest);
+                                } catch (Exception e) {
+                                    result = new BroadcastShardOperationFailedException(new ShardId(singleRequest.index(), singleRequest.shardId()), e);
                                 }
+                                onShardResult(request, channel, counter, index, results, result);
                             }
-                        }
-                    });
+                        });
+                    } catch (RejectedExecutionException e) {
+                        onShardResult(request, channel, counter, index, results, new BroadcastShardOperationFailedException(new ShardId(singleRequest.index(), singleRequest.shardId()), e));
+                    }
                 }
             } else {
                 // single thread
-                threadPool.execute(new Runnable() {
-                    @Override public void run() {
-                        List<ShardResponse> responses = newArrayListWithCapacity(request.requests().size());
-                        List<BroadcastShardOperationFailedException> exceptions = null;
-                        for (ShardRequest singleRequest : request.requests()) {
-                            try {
-                                responses.add(shardOperation(singleRequest));
-                            } catch (Exception e) {
-                                if (exceptions == null) {
-                                    exceptions = newArrayList();
+                try {
+                    threadPool.executor(TransportBroadcastOperationAction.this.executor()).execute(new Runnable() {
+                        @Override public void run() {
+                            List<ShardResponse> responses = newArrayListWithCapacity(request.requests().size());
+                            List<BroadcastShardOperationFailedException> exceptions = null;
+                            for (ShardRequest singleRequest : request.requests()) {
+                                try {
+                                    responses.add(shardOperation(singleRequest));
+                                } catch (Exception e) {
+                                    if (exceptions == null) {
+                                        exceptions = newArrayList();
+                                    }
+                                    exceptions.add(new BroadcastShardOperationFailedException(new ShardId(singleRequest.index(), singleRequest.shardId()), e));
                                 }
-                                exceptions.add(new BroadcastShardOperationFailedException(new ShardId(singleRequest.index(), singleRequest.shardId()), e));
+                            }
+                            try {
+                                channel.sendResponse(new ShardsResponse(responses, exceptions));
+                            } catch (IOException e) {
+                                logger.warn("Failed to send broadcast response", e);
                             }
                         }
-                        try {
-                            channel.sendResponse(new ShardsResponse(responses, exceptions));
-                        } catch (IOException e) {
-                            logger.warn("Failed to send broadcast response", e);
+                    });
+                } catch (RejectedExecutionException e) {
+                    channel.sendResponse(e);
+                }
+            }
+        }
+
+        private void onShardResult(ShardsRequest request, TransportChannel channel, AtomicInteger counter, AtomicInteger index, AtomicReferenceArray results, Object result) {
+            results.set(index.getAndIncrement(), result);
+            if (counter.decrementAndGet() == 0) {
+                // we are done
+                List<ShardResponse> responses = newArrayListWithCapacity(request.requests().size());
+                List<BroadcastShardOperationFailedException> exceptions = null;
+                for (int i = 0; i < results.length(); i++) {
+                    Object shardResult = results.get(i);
+                    if (shardResult instanceof BroadcastShardOperationFailedException) {
+                        if (exceptions == null) {
+                            exceptions = newArrayList();
                         }
+                        exceptions.add((BroadcastShardOperationFailedException) shardResult);
+                    } else {
+                        responses.add((ShardResponse) shardResult);
                     }
-                });
+                }
+                try {
+                    channel.sendResponse(new ShardsResponse(responses, exceptions));
+                } catch (IOException e) {
+                    logger.warn("Failed to send broadcast response", e);
+                }
             }
         }
 
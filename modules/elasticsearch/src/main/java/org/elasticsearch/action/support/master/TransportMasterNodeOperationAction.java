@@ -36,6 +36,8 @@ import org.elasticsearch.node.NodeClosedException;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * A base class for operations that needs to be performed on the master node.
  *
@@ -60,6 +62,11 @@ public abstract class TransportMasterNodeOperationAction<Request extends MasterN
 
     protected abstract String transportAction();
 
+    /**
+     * The executor (see {@link ThreadPool.Names}) the master operation is executed on.
+     */
+    protected abstract String executor();
+
     protected abstract Request newRequest();
 
     protected abstract Response newResponse();
@@ -121,16 +128,20 @@ public abstract class TransportMasterNodeOperationAction<Request extends MasterN
                     }
                 });
             } else {
-                threadPool.execute(new Runnable() {
-                    @Override public void run() {
-                        try {
-                            Response response = masterOperation(request, clusterState);
-                            listener.onResponse(response);
-                        } catch (Exception e) {
-                            listener.onFailure(e);
+                try {
+                    threadPool.executor(executor()).execute(new Runnable() {
+                        @Override public void run() {
+                            try {
+                                Response response = masterOperation(request, clusterState);
+                                listener.onResponse(response);
+                            } catch (Exception e) {
+                                listener.onFailure(e);
+                            }
                         }
-                    }
-                });
+                    });
+                } catch (RejectedExecutionException e) {
+                    listener.onFailure(e);
+                }
             }
         } else {
             if (nodes.masterNode() == null) {
@@ -251,5 +262,9 @@ public abstract class TransportMasterNodeOperationAction<Request extends MasterN
                 });
             }
         }
+
+        @Override public String executor() {
+            return TransportMasterNodeOperationAction.this.executor();
+        }
     }
 }
@@ -35,6 +35,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.*;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
@@ -69,6 +70,11 @@ public abstract class TransportNodesOperationAction<Request extends NodesOperati
 
     protected abstract String transportAction();
 
+    /**
+     * The executor (see {@link ThreadPool.Names}) the node operations are executed on.
+     */
+    protected abstract String executor();
+
     protected abstract String transportNodeAction();
 
     protected abstract Request newRequest();
@@ -131,25 +137,33 @@ public abstract class TransportNodesOperationAction<Request extends NodesOperati
             for (final String nodeId : nodesIds) {
                 final DiscoveryNode node = clusterState.nodes().nodes().get(nodeId);
                 if (nodeId.equals("_local") || nodeId.equals(clusterState.nodes().localNodeId())) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            try {
-                                onOperation(nodeOperation(newNodeRequest(clusterState.nodes().localNodeId(), request)));
-                            } catch (Exception e) {
-                                onFailure(clusterState.nodes().localNodeId(), e);
+                    try {
+                        threadPool.executor(executor()).execute(new Runnable() {
+                            @Override public void run() {
+                                try {
+                                    onOperation(nodeOperation(newNodeRequest(clusterState.nodes().localNodeId(), request)));
+                                } catch (Exception e) {
+                                    onFailure(clusterState.nodes().localNodeId(), e);
+                                }
                             }
-                        }
-                    });
+                        });
+                    } catch (RejectedExecutionException e) {
+                        onFailure(clusterState.nodes().localNodeId(), e);
+                    }
                 } else if (nodeId.equals("_master")) {
-                    threadPool.execute(new Runnable() {
-                        @Override public void run() {
-                            try {
-                                onOperation(nodeOperation(newNodeRequest(clusterState.nodes().masterNodeId(), request)));
-                            } catch (Exception e) {
-                                onFailure(clusterState.nodes().masterNodeId(), e);
+                    try {
+                        threadPool.executor(executor()).execute(new Runnable() {
+                            @Override public void run() {
+                                try {
+                                    onOperation(nodeOperation(newNodeRequest(clusterState.nodes().masterNodeId(), request)));
+                                } catch (Exception e) {
+                                    onFailure(clusterState.nodes().masterNodeId(), e);
+                                }
                             }
-                        }
-                    });
+                        });
+                    } catch (RejectedExecutionException e) {
+                        onFailure(clusterState.nodes().masterNodeId(), e);
+                    }
                 } else {
                     if (node == null) {
                         onFailure(nodeId, new NoSuchNodeException(nodeId));
@@ -260,5 +274,9 @@ public abstract class TransportNodesOperationAction<Request extends NodesOperati
         @Override public String toString() {
             return transportNodeAction();
         }
+
+        @Override public String executor() {
+            return TransportNodesOperationAction.this.executor();
+        }
     }
 }
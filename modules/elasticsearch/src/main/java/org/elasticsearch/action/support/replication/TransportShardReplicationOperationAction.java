@@ -54,6 +54,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.*;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -105,6 +106,11 @@ public abstract class TransportShardReplicationOperationAction<Request extends S
 
     protected abstract String transportAction();
 
+    /**
+     * The executor (see {@link ThreadPool.Names}) the operation is executed on, both on the primary and the replicas.
+     */
+    protected abstract String executor();
+
     protected abstract PrimaryResponse<Response> shardOperationOnPrimary(ClusterState clusterState, ShardOperationRequest shardRequest);
 
     protected abstract void shardOperationOnReplica(ShardOperationRequest shardRequest);
@@ -185,16 +191,35 @@ public abstract class TransportShardReplicationOperationAction<Request extends S
             return new ShardOperationRequest();
         }
 
-        @Override public void messageReceived(ShardOperationRequest request, TransportChannel channel) throws Exception {
-            shardOperationOnReplica(request);
-            channel.sendResponse(VoidStreamable.INSTANCE);
+        @Override public void messageReceived(final ShardOperationRequest request, final TransportChannel channel) throws Exception {
+            Runnable replicaOperation = new Runnable() {
+                @Override public void run() {
+                    try {
+                        shardOperationOnReplica(request);
+                        channel.sendResponse(VoidStreamable.INSTANCE);
+                    } catch (Exception e) {
+                        try {
+                            channel.sendResponse(e);
+                        } catch (IOException e1) {
+                            logger.warn("Failed to send response for " + transportAction() + " on replica", e1);
+                        }
+                    }
+                }
+            };
+            try {
+                threadPool.executor(TransportShardReplicationOperationAction.this.executor()).execute(replicaOperation);
+            } catch (RejectedExecutionException e) {
+                // the primary already performed the operation, the replica can't be rejected (it would be failed),
+                // so run it on the generic pool and keep the network thread free
+                threadPool.execute(replicaOperation);
+            }
         }
 
         /**
-         * We spawn, since we want to perform the operation on the replica on a different thread.
+         * We fork ourselves, since a full executor must not reject a replica operation.
          */
         @Override public boolean spawn() {
-            return true;
+            return false;
         }
     }
 
@@ -320,11 +345,16 @@ public abstract class TransportShardReplicationOperationAction<Request extends S
                 if (shard.currentNodeId().equals(nodes.localNodeId())) {
                     if (request.operationThreaded()) {
                         request.beforeLocalFork();
-                        threadPool.execute(new Runnable() {
-                            @Override public void run() {
-                                performOnPrimary(shard.id(), fromClusterEvent, true, shard, clusterState);
-                            }
-                        });
+                        try {
+                            threadPool.executor(executor()).execute(new Runnable() {
+                                @Override public void run() {
+                                    performOnPrimary(shard.id(), fromClusterEvent, true, shard, clusterState);
+                                }
+                            });
+                        } catch (RejectedExecutionException e) {
+                            // nothing was executed yet, so reject the whole operation
+                            listener.onFailure(e);
+                        }
                     } else {
                         performOnPrimary(shard.id(), fromClusterEvent, false, shard, clusterState);
                     }
@@ -614,7 +644,7 @@ public abstract class TransportShardReplicationOperationAction<Request extends S
             } else {
                 if (request.operationThreaded()) {
                     request.beforeLocalFork();
-                    threadPool.execute(new Runnable() {
+                    Runnable replicaOperation = new Runnable() {
                         @Override public void run() {
                             try {
                                 shardOperationOnReplica(shardRequest);
@@ -628,7 +658,13 @@ public abstract class TransportShardReplicationOperationAction<Request extends S
                                 listener.onResponse(response.response());
                             }
                         }
-                    });
+                    };
+                    try {
+                        threadPool.executor(executor()).execute(replicaOperation);
+                    } catch (RejectedExecutionException e) {
+                        // the primary already performed the operation, the replica can't skip it
+                        replicaOperation.run();
+                    }
                 } else {
                     try {
                         shardOperationOnReplica(shardRequest);
@@ -38,6 +38,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.*;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author kimchy (shay.banon)
@@ -66,6 +67,11 @@ public abstract class TransportSingleCustomOperationAction<Request extends Singl
 
     protected abstract String transportAction();
 
+    /**
+     * The executor (see {@link ThreadPool.Names}) the shard operations are executed on.
+     */
+    protected abstract String executor();
+
     protected abstract String transportShardAction();
 
     protected abstract ShardsIterator shards(ClusterState state, Request request);
@@ -122,16 +128,20 @@ public abstract class TransportSingleCustomOperationAction<Request extends Singl
                     if (shard.currentNodeId().equals(nodes.localNodeId())) {
                         if (request.operationThreaded()) {
                             request.beforeLocalFork();
-                            threadPool.execute(new Runnable() {
-                                @Override public void run() {
-                                    try {
-                                        Response response = shardOperation(request, shard.id());
-                                        listener.onResponse(response);
-                                    } catch (Exception e) {
-                                        onFailure(shard, e);
+                            try {
+                                threadPool.executor(executor()).execute(new Runnable() {
+                                    @Override public void run() {
+                                        try {
+                                            Response response = shardOperation(request, shard.id());
+                                            listener.onResponse(response);
+                                        } catch (Exception e) {
+                                            onFailure(shard, e);
+                                        }
                                     }
-                                }
-                            });
+                                });
+                            } catch (RejectedExecutionException e) {
+                                onFailure(shard, e);
+                            }
                             return;
                         } else {
                             try {
@@ -171,16 +181,20 @@ public abstract class TransportSingleCustomOperationAction<Request extends Singl
                     if (!request.preferLocalShard()) {
                         if (request.operationThreaded()) {
                             request.beforeLocalFork();
-                            threadPool.execute(new Runnable() {
-                                @Override public void run() {
-                                    try {
-                                        Response response = shardOperation(request, shard.id());
-                                        listener.onResponse(response);
-                                    } catch (Exception e) {
-                                        onFailure(shard, e);
+                            try {
+                                threadPool.executor(executor()).execute(new Runnable() {
+                                    @Override public void run() {
+                                        try {
+                                            Response response = shardOperation(request, shard.id());
+                                            listener.onResponse(response);
+                                        } catch (Exception e) {
+                                            onFailure(shard, e);
+                                        }
                                     }
-                                }
-                            });
+                                });
+                            } catch (RejectedExecutionException e) {
+                                onFailure(shard, e);
+                            }
                             return;
                         } else {
                             try {
@@ -299,6 +313,10 @@ public abstract class TransportSingleCustomOperationAction<Request extends Singl
             Response response = shardOperation(request.request(), request.shardId());
             channel.sendResponse(response);
         }
+
+        @Override public String executor() {
+            return TransportSingleCustomOperationAction.this.executor();
+        }
     }
 
     protected class ShardSingleOperationRequest implements Streamable {
@@ -38,6 +38,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.*;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author kimchy (shay.banon)
@@ -66,6 +67,11 @@ public abstract class TransportShardSingleOperationAction<Request extends Single
 
     protected abstract String transportAction();
 
+    /**
+     * The executor (see {@link ThreadPool.Names}) the shard operations are executed on.
+     */
+    protected abstract String executor();
+
     protected abstract String transportShardAction();
 
     protected abstract Response shardOperation(Request request, int shardId) throws ElasticSearchException;
@@ -78,6 +84,14 @@ public abstract class TransportShardSingleOperationAction<Request extends Single
 
     }
 
+    /**
+     * The shards the request can be executed on, by default the shard the id of the request is hashed to.
+     */
+    protected ShardIterator shards(ClusterState clusterState, Request request) {
+        return clusterService.operationRouting()
+                .getShards(clusterState, request.index(), request.type(), request.id(), request.routing());
+    }
+
     private class AsyncSingleAction {
 
         private final ActionListener<Response> listener;
@@ -101,8 +115,7 @@ public abstract class TransportShardSingleOperationAction<Request extends Single
 
             checkBlock(request, clusterState);
 
-            this.shardIt = clusterService.operationRouting()
-                    .getShards(clusterState, request.index(), request.type(), request.id(), request.routing());
+            this.shardIt = shards(clusterState, request);
         }
 
         public void start() {
@@ -124,16 +137,20 @@ public abstract class TransportShardSingleOperationAction<Request extends Single
                 final ShardRouting shard = shardIt.nextActive();
                 if (shard.currentNodeId().equals(nodes.localNodeId())) {
                     if (request.operationThreaded()) {
-                        threadPool.execute(new Runnable() {
-                            @Override public void run() {
-                                try {
-                                    Response response = shardOperation(request, shard.id());
-                                    listener.onResponse(response);
-                                } catch (Exception e) {
-                                    onFailure(shard, e);
+                        try {
+                            threadPool.executor(executor()).execute(new Runnable() {
+                                @Override public void run() {
+                                    try {
+                                        Response response = shardOperation(request, shard.id());
+                                        listener.onResponse(response);
+                                    } catch (Exception e) {
+                                        onFailure(shard, e);
+                                    }
                                 }
-                            }
-                        });
+                            });
+                        } catch (RejectedExecutionException e) {
+                            onFailure(shard, e);
+                        }
                         return;
                     } else {
                         try {
@@ -264,6 +281,10 @@ public abstract class TransportShardSingleOperationAction<Request extends Single
             Response response = shardOperation(request.request(), request.shardId());
             channel.sendResponse(response);
         }
+
+        @Override public String executor() {
+            return TransportShardSingleOperationAction.this.executor();
+        }
     }
 
     protected class ShardSingleOperationRequest implements Streamable {
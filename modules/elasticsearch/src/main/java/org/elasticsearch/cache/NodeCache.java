@@ -19,6 +19,8 @@
 
 package org.elasticsearch.cache;
 
+import org.elasticsearch.cache.field.data.FieldDataLruCache;
+import org.elasticsearch.cache.filter.FilterLruCache;
 import org.elasticsearch.cache.memory.ByteBufferCache;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterService;
@@ -36,22 +38,39 @@ public class NodeCache extends AbstractComponent implements ClusterStateListener
 
     private final ByteBufferCache byteBufferCache;
 
-    @Inject public NodeCache(Settings settings, ByteBufferCache byteBufferCache, ClusterService clusterService) {
+    private final FieldDataLruCache fieldDataLruCache;
+
+    private final FilterLruCache filterLruCache;
+
+    @Inject public NodeCache(Settings settings, ByteBufferCache byteBufferCache, FieldDataLruCache fieldDataLruCache, FilterLruCache filterLruCache,
+                             ClusterService clusterService) {
         super(settings);
         this.clusterService = clusterService;
         this.byteBufferCache = byteBufferCache;
+        this.fieldDataLruCache = fieldDataLruCache;
+        this.filterLruCache = filterLruCache;
         clusterService.add(this);
     }
 
     public void close() {
         clusterService.remove(this);
         byteBufferCache.close();
+        fieldDataLruCache.close();
+        filterLruCache.close();
     }
 
     public ByteBufferCache byteBuffer() {
         return byteBufferCache;
     }
 
+    public FieldDataLruCache fieldDataLru() {
+        return fieldDataLruCache;
+    }
+
+    public FilterLruCache filterLru() {
+        return filterLruCache;
+    }
+
     @Override public void clusterChanged(ClusterChangedEvent event) {
     }
 }
@@ -0,0 +1,168 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cache.field.data;
+
+import org.elasticsearch.cache.support.WeightedLruCache;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.ImmutableSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.field.data.FieldData;
+
+/**
+ * A node level, size bounded, least recently used field data cache shared by all the indices using the
+ * <tt>lru</tt> field data cache type. The weight of each entry is its {@link FieldData#sizeInBytes()}, and
+ * once the total weight goes above <tt>cache.field.data.max_size</tt> (defaults to <tt>20%</tt> of the heap)
+ * the least recently used entries are evicted. The entries are split across
+ * <tt>cache.field.data.concurrency_level</tt> segments (see {@link WeightedLruCache}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class FieldDataLruCache extends AbstractComponent {
+
+    /**
+     * Notified when an entry owned by it has been evicted from the cache.
+     */
+    public static interface Owner {
+        void onEviction(Object readerKey, String fieldName, FieldData fieldData);
+    }
+
+    private final WeightedLruCache<Key, FieldData> cache;
+
+    public FieldDataLruCache() {
+        this(ImmutableSettings.Builder.EMPTY_SETTINGS);
+    }
+
+    @Inject public FieldDataLruCache(Settings settings) {
+        super(settings);
+        this.cache = new WeightedLruCache<Key, FieldData>(componentSettings, "20%", new WeightedLruCache.Weigher<FieldData>() {
+            @Override public long weight(FieldData fieldData) {
+                return fieldData.sizeInBytes();
+            }
+        }, new WeightedLruCache.EvictionListener<Key, FieldData>() {
+            @Override public void onEviction(Key key, FieldData fieldData) {
+                key.owner.onEviction(key.readerKey, key.fieldName, fieldData);
+            }
+        });
+        logger.debug("using field data lru cache with max_size [{}], concurrency_level [{}]", cache.maxSize(), cache.concurrencyLevel());
+    }
+
+    public ByteSizeValue maxSize() {
+        return cache.maxSize();
+    }
+
+    /**
+     * The total size of the field data held by the cache.
+     */
+    public long sizeInBytes() {
+        return cache.weight();
+    }
+
+    public FieldData get(Owner owner, Object readerKey, String fieldName) {
+        return cache.get(new Key(owner, readerKey, fieldName));
+    }
+
+    /**
+     * Adds the field data to the cache, evicting the least recently used entries if the cache went above its max
+     * size. The field data is not cached if it is bigger than the max size on its own.
+     */
+    public void put(Owner owner, Object readerKey, String fieldName, FieldData fieldData) {
+        cache.put(new Key(owner, readerKey, fieldName), fieldData);
+    }
+
+    /**
+     * Removes all the entries of the owner.
+     */
+    public void clear(final Owner owner) {
+        cache.remove(new WeightedLruCache.KeyFilter<Key>() {
+            @Override public boolean accept(Key key) {
+                return key.owner == owner;
+            }
+        });
+    }
+
+    /**
+     * Removes all the entries of the owner associated with the reader key.
+     */
+    public void clear(final Owner owner, final Object readerKey) {
+        cache.remove(new WeightedLruCache.KeyFilter<Key>() {
+            @Override public boolean accept(Key key) {
+                return key.owner == owner && key.readerKey == readerKey;
+            }
+        });
+    }
+
+    /**
+     * The total size of the field data of the owner held by the cache.
+     */
+    public long sizeInBytes(final Owner owner) {
+        return cache.weight(new WeightedLruCache.KeyFilter<Key>() {
+            @Override public boolean accept(Key key) {
+                return key.owner == owner;
+            }
+        });
+    }
+
+    /**
+     * The total size of the field data of the owner for the provided field held by the cache.
+     */
+    public long sizeInBytes(final Owner owner, final String fieldName) {
+        return cache.weight(new WeightedLruCache.KeyFilter<Key>() {
+            @Override public boolean accept(Key key) {
+                return key.owner == owner && key.fieldName.equals(fieldName);
+            }
+        });
+    }
+
+    public void close() {
+        cache.clear();
+    }
+
+    static class Key {
+
+        final Owner owner;
+
+        // the reader field cache key, compared by identity
+        final Object readerKey;
+
+        final String fieldName;
+
+        Key(Owner owner, Object readerKey, String fieldName) {
+            this.owner = owner;
+            this.readerKey = readerKey;
+            this.fieldName = fieldName;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return owner == key.owner && readerKey == key.readerKey && fieldName.equals(key.fieldName);
+        }
+
+        @Override public int hashCode() {
+            int result = System.identityHashCode(owner);
+            result = 31 * result + System.identityHashCode(readerKey);
+            result = 31 * result + fieldName.hashCode();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cache.filter;
+
+import org.apache.lucene.search.Filter;
+import org.elasticsearch.cache.support.WeightedLruCache;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lucene.docset.DocSet;
+import org.elasticsearch.common.settings.ImmutableSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+/**
+ * A node level, size bounded, least recently used filter cache shared by all the indices using the <tt>lru</tt>
+ * filter cache type. Entries are per segment (reader field cache key) and filter, weighted by their
+ * {@link DocSet#sizeInBytes()}, and once the total weight goes above <tt>cache.filter.max_size</tt> (defaults
+ * to <tt>10%</tt> of the heap) the least recently used entries are evicted. The entries are split across
+ * <tt>cache.filter.concurrency_level</tt> segments (see {@link WeightedLruCache}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class FilterLruCache extends AbstractComponent {
+
+    /**
+     * Notified when an entry owned by it has been evicted from the cache.
+     */
+    public static interface Owner {
+        void onEviction(Object readerKey, Filter filter, DocSet docSet);
+    }
+
+    private final WeightedLruCache<Key, DocSet> cache;
+
+    public FilterLruCache() {
+        this(ImmutableSettings.Builder.EMPTY_SETTINGS);
+    }
+
+    @Inject public FilterLruCache(Settings settings) {
+        super(settings);
+        this.cache = new WeightedLruCache<Key, DocSet>(componentSettings, "10%", new WeightedLruCache.Weigher<DocSet>() {
+            @Override public long weight(DocSet docSet) {
+                return docSet.sizeInBytes();
+            }
+        }, new WeightedLruCache.EvictionListener<Key, DocSet>() {
+            @Override public void onEviction(Key key, DocSet docSet) {
+                key.owner.onEviction(key.readerKey, key.filter, docSet);
+            }
+        });
+        logger.debug("using filter lru cache with max_size [{}], concurrency_level [{}]", cache.maxSize(), cache.concurrencyLevel());
+    }
+
+    public ByteSizeValue maxSize() {
+        return cache.maxSize();
+    }
+
+    /**
+     * The total size of the doc sets held by the cache.
+     */
+    public long sizeInBytes() {
+        return cache.weight();
+    }
+
+    public DocSet get(Owner owner, Object readerKey, Filter filter) {
+        return cache.get(new Key(owner, readerKey, filter));
+    }
+
+    /**
+     * Adds the doc set to the cache, evicting the least recently used entries if the cache went above its max
+     * size. The doc set is not cached if it is bigger than the max size on its own.
+     */
+    public void put(Owner owner, Object readerKey, Filter filter, DocSet docSet) {
+        cache.put(new Key(owner, readerKey, filter), docSet);
+    }
+
+    /**
+     * Removes all the entries of the owner.
+     */
+    public void clear(final Owner owner) {
+        cache.remove(new WeightedLruCache.KeyFilter<Key>() {
+            @Override public boolean accept(Key key) {
+                return key.owner == owner;
+            }
+        });
+    }
+
+    /**
+     * Removes all the entries of the owner associated with the reader key.
+     */
+    public void clear(final Owner owner, final Object readerKey) {
+        cache.remove(new WeightedLruCache.KeyFilter<Key>() {
+            @Override public boolean accept(Key key) {
+                return key.owner == owner && key.readerKey == readerKey;
+            }
+        });
+    }
+
+    /**
+     * The total size of the doc sets of the owner held by the cache.
+     */
+    public long sizeInBytes(final Owner owner) {
+        return cache.weight(new WeightedLruCache.KeyFilter<Key>() {
+            @Override public boolean accept(Key key) {
+                return key.owner == owner;
+            }
+        });
+    }
+
+    public void close() {
+        cache.clear();
+    }
+
+    static class Key {
+
+        final Owner owner;
+
+        // the reader field cache key, compared by identity
+        final Object readerKey;
+
+        final Filter filter;
+
+        Key(Owner owner, Object readerKey, Filter filter) {
+            this.owner = owner;
+            this.readerKey = readerKey;
+            this.filter = filter;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return owner == key.owner && readerKey == key.readerKey && filter.equals(key.filter);
+        }
+
+        @Override public int hashCode() {
+            int result = System.identityHashCode(owner);
+            result = 31 * result + System.identityHashCode(readerKey);
+            result = 31 * result + filter.hashCode();
+            return result;
+        }
+    }
+}
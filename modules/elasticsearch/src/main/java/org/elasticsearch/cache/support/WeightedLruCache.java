@@ -0,0 +1,282 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cache.support;
+
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.monitor.jvm.JvmInfo;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size bounded, least recently used cache, the size of each entry is its {@link Weigher weight}, and once the
+ * total weight goes above <tt>max_size</tt> (in bytes, or a percentage of the heap) the least recently used entries
+ * are evicted. Used by the node level lru caches.
+ *
+ * <p>The entries are split across <tt>concurrency_level</tt> (defaults to <tt>16</tt>) segments, each with its own
+ * lock, so concurrent lookups don't contend on a single lock. Each entry records when it was last used, and eviction
+ * picks the least recently used entry across the heads of all the segments.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class WeightedLruCache<K, V> {
+
+    public static interface Weigher<V> {
+        long weight(V value);
+    }
+
+    /**
+     * Notified, outside of the cache locks, when an entry has been evicted.
+     */
+    public static interface EvictionListener<K, V> {
+        void onEviction(K key, V value);
+    }
+
+    public static interface KeyFilter<K> {
+        boolean accept(K key);
+    }
+
+    private final ByteSizeValue maxSize;
+
+    private final long maxWeight;
+
+    private final Weigher<V> weigher;
+
+    private final EvictionListener<K, V> evictionListener;
+
+    private final Segment<K, V>[] segments;
+
+    private final AtomicLong weight = new AtomicLong();
+
+    // orders the entries by their last use across segments
+    private final AtomicLong clock = new AtomicLong();
+
+    // only one thread evicts at a time, taking the segments locks one by one
+    private final Object evictionMutex = new Object();
+
+    /**
+     * @param componentSettings the settings of the cache component, with its <tt>max_size</tt> and
+     *                          <tt>concurrency_level</tt>
+     * @param defaultMaxSize    the max size used when not set, in bytes or a percentage of the heap
+     */
+    @SuppressWarnings({"unchecked"})
+    public WeightedLruCache(Settings componentSettings, String defaultMaxSize, Weigher<V> weigher, EvictionListener<K, V> evictionListener) {
+        String maxSizeSetting = componentSettings.get("max_size", defaultMaxSize);
+        if (maxSizeSetting.endsWith("%")) {
+            double percent = Double.parseDouble(maxSizeSetting.substring(0, maxSizeSetting.length() - 1));
+            this.maxSize = new ByteSizeValue((long) (((double) JvmInfo.jvmInfo().mem().heapMax().bytes()) * (percent / 100)));
+        } else {
+            this.maxSize = componentSettings.getAsBytesSize("max_size", null);
+        }
+        this.maxWeight = maxSize.bytes();
+        this.weigher = weigher;
+        this.evictionListener = evictionListener;
+        int concurrencyLevel = componentSettings.getAsInt("concurrency_level", 16);
+        int numberOfSegments = 1;
+        while (numberOfSegments < concurrencyLevel) {
+            numberOfSegments <<= 1;
+        }
+        this.segments = new Segment[numberOfSegments];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment<K, V>();
+        }
+    }
+
+    public ByteSizeValue maxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * The number of segments the entries are split across.
+     */
+    public int concurrencyLevel() {
+        return segments.length;
+    }
+
+    /**
+     * The total weight of the entries held by the cache.
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.lastAccess = clock.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Adds the value to the cache, evicting the least recently used entries if the cache went above its max size. A
+     * value weighing more than the max size is not cached, and is evicted right away (along with the value it
+     * replaces, if any).
+     */
+    public void put(K key, V value) {
+        long valueWeight = weigher.weight(value);
+        Segment<K, V> segment = segmentFor(key);
+        if (valueWeight > maxWeight) {
+            Entry<V> old;
+            synchronized (segment) {
+                old = segment.entries.remove(key);
+                if (old != null) {
+                    weight.addAndGet(-weigher.weight(old.value));
+                }
+            }
+            if (old != null) {
+                evictionListener.onEviction(key, old.value);
+            }
+            evictionListener.onEviction(key, value);
+            return;
+        }
+        long currentWeight;
+        synchronized (segment) {
+            Entry<V> old = segment.entries.put(key, new Entry<V>(value, clock.incrementAndGet()));
+            currentWeight = weight.addAndGet(valueWeight - (old == null ? 0 : weigher.weight(old.value)));
+        }
+        if (currentWeight <= maxWeight) {
+            return;
+        }
+        List<Map.Entry<K, Entry<V>>> evicted = Lists.newArrayList();
+        synchronized (evictionMutex) {
+            while (weight.get() > maxWeight) {
+                // the least recently used entry is the head of one of the segments, the just added one is only
+                // evicted once all the others are (it fits on its own), or if others were used after it
+                Segment<K, V> eldestSegment = null;
+                long eldestAccess = Long.MAX_VALUE;
+                for (Segment<K, V> candidate : segments) {
+                    synchronized (candidate) {
+                        Map.Entry<K, Entry<V>> eldest = candidate.eldest();
+                        if (eldest != null && eldest.getValue().lastAccess < eldestAccess) {
+                            eldestSegment = candidate;
+                            eldestAccess = eldest.getValue().lastAccess;
+                        }
+                    }
+                }
+                if (eldestSegment == null) {
+                    // removed concurrently, nothing left to evict
+                    break;
+                }
+                synchronized (eldestSegment) {
+                    // it might have been used since, still evict the head of the segment
+                    Map.Entry<K, Entry<V>> eldest = eldestSegment.eldest();
+                    if (eldest != null) {
+                        eldestSegment.entries.remove(eldest.getKey());
+                        weight.addAndGet(-weigher.weight(eldest.getValue().value));
+                        evicted.add(eldest);
+                    }
+                }
+            }
+        }
+        // notify outside of the locks
+        for (Map.Entry<K, Entry<V>> entry : evicted) {
+            evictionListener.onEviction(entry.getKey(), entry.getValue().value);
+        }
+    }
+
+    /**
+     * Removes all the entries with keys accepted by the filter.
+     */
+    public void remove(KeyFilter<K> filter) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                for (Iterator<Map.Entry<K, Entry<V>>> it = segment.entries.entrySet().iterator(); it.hasNext();) {
+                    Map.Entry<K, Entry<V>> entry = it.next();
+                    if (filter.accept(entry.getKey())) {
+                        it.remove();
+                        weight.addAndGet(-weigher.weight(entry.getValue().value));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The total weight of the entries with keys accepted by the filter.
+     */
+    public long weight(KeyFilter<K> filter) {
+        long weight = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                for (Map.Entry<K, Entry<V>> entry : segment.entries.entrySet()) {
+                    if (filter.accept(entry.getKey())) {
+                        weight += weigher.weight(entry.getValue().value);
+                    }
+                }
+            }
+        }
+        return weight;
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                for (Entry<V> entry : segment.entries.values()) {
+                    weight.addAndGet(-weigher.weight(entry.value));
+                }
+                segment.entries.clear();
+            }
+        }
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return segments[h & (segments.length - 1)];
+    }
+
+    static class Segment<K, V> {
+
+        // access ordered, guarded by this
+        final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+
+        /**
+         * The least recently used entry of the segment, must be called while holding the lock.
+         */
+        Map.Entry<K, Entry<V>> eldest() {
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            return it.hasNext() ? it.next() : null;
+        }
+    }
+
+    static class Entry<V> {
+
+        final V value;
+
+        // guarded by the segment lock
+        long lastAccess;
+
+        Entry(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
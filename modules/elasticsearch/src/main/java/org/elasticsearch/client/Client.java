@@ -31,6 +31,8 @@ import org.elasticsearch.action.deletebyquery.DeleteByQueryRequest;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.mlt.MoreLikeThisRequest;
@@ -44,6 +46,7 @@ import org.elasticsearch.client.action.count.CountRequestBuilder;
 import org.elasticsearch.client.action.delete.DeleteRequestBuilder;
 import org.elasticsearch.client.action.deletebyquery.DeleteByQueryRequestBuilder;
 import org.elasticsearch.client.action.get.GetRequestBuilder;
+import org.elasticsearch.client.action.get.MultiGetRequestBuilder;
 import org.elasticsearch.client.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.action.percolate.PercolateRequestBuilder;
 import org.elasticsearch.client.action.search.SearchRequestBuilder;
@@ -232,6 +235,29 @@ public interface Client {
      */
     GetRequestBuilder prepareGet(String index, String type, String id);
 
+    /**
+     * Multi get documents, executing a single request per shard the documents are hashed to.
+     *
+     * @param request The multi get request
+     * @return The result future
+     * @see Requests#multiGetRequest()
+     */
+    ActionFuture<MultiGetResponse> multiGet(MultiGetRequest request);
+
+    /**
+     * Multi get documents, executing a single request per shard the documents are hashed to.
+     *
+     * @param request  The multi get request
+     * @param listener A listener to be notified with a result
+     * @see Requests#multiGetRequest()
+     */
+    void multiGet(MultiGetRequest request, ActionListener<MultiGetResponse> listener);
+
+    /**
+     * Multi get documents.
+     */
+    MultiGetRequestBuilder prepareMultiGet();
+
     /**
      * A count of all the documents matching a specific query.
      *
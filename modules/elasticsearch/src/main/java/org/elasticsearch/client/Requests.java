@@ -47,6 +47,7 @@ import org.elasticsearch.action.count.CountRequest;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.deletebyquery.DeleteByQueryRequest;
 import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.MultiGetRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.mlt.MoreLikeThisRequest;
 import org.elasticsearch.action.search.SearchRequest;
@@ -129,6 +130,16 @@ public class Requests {
         return new GetRequest(index);
     }
 
+    /**
+     * Creates a multi get request to get several documents in a single batch.
+     *
+     * @return The multi get request
+     * @see org.elasticsearch.client.Client#multiGet(org.elasticsearch.action.get.MultiGetRequest)
+     */
+    public static MultiGetRequest multiGetRequest() {
+        return new MultiGetRequest();
+    }
+
     /**
      * Creates a count request which counts the hits matched against a query. Note, the query itself must be set
      * either using the JSON source of the query, or using a {@link org.elasticsearch.index.query.QueryBuilder} (using {@link org.elasticsearch.index.query.xcontent.QueryBuilders}).
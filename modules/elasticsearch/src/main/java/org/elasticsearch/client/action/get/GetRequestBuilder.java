@@ -89,6 +89,15 @@ public class GetRequestBuilder extends BaseRequestBuilder<GetRequest, GetRespons
         return this;
     }
 
+    /**
+     * Should the get return the latest version of the document, even if it was not refreshed yet. Defaults
+     * to <tt>true</tt>.
+     */
+    public GetRequestBuilder setRealtime(boolean realtime) {
+        request.realtime(realtime);
+        return this;
+    }
+
     /**
      * Should the listener be called on a separate thread if needed.
      */
@@ -359,6 +359,14 @@ public class SearchRequestBuilder extends BaseRequestBuilder<SearchRequest, Sear
         return this;
     }
 
+    /**
+     * Sets the (dot delimited) paths of the source to return with each hit, instead of the whole source.
+     */
+    public SearchRequestBuilder setPartialSource(String... paths) {
+        sourceBuilder().partialSource(paths);
+        return this;
+    }
+
     /**
      * Adds a facet to the search operation.
      */
@@ -35,7 +35,10 @@ import org.elasticsearch.action.deletebyquery.DeleteByQueryResponse;
 import org.elasticsearch.action.deletebyquery.TransportDeleteByQueryAction;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.get.TransportGetAction;
+import org.elasticsearch.action.get.TransportMultiGetAction;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.index.TransportIndexAction;
@@ -71,6 +74,8 @@ public class NodeClient extends AbstractClient implements InternalClient {
 
     private final TransportGetAction getAction;
 
+    private final TransportMultiGetAction multiGetAction;
+
     private final TransportCountAction countAction;
 
     private final TransportSearchAction searchAction;
@@ -83,7 +88,7 @@ public class NodeClient extends AbstractClient implements InternalClient {
 
     @Inject public NodeClient(Settings settings, ThreadPool threadPool, NodeAdminClient admin,
                               TransportIndexAction indexAction, TransportDeleteAction deleteAction, TransportBulkAction bulkAction,
-                              TransportDeleteByQueryAction deleteByQueryAction, TransportGetAction getAction, TransportCountAction countAction,
+                              TransportDeleteByQueryAction deleteByQueryAction, TransportGetAction getAction, TransportMultiGetAction multiGetAction, TransportCountAction countAction,
                               TransportSearchAction searchAction, TransportSearchScrollAction searchScrollAction,
                               TransportMoreLikeThisAction moreLikeThisAction, TransportPercolateAction percolateAction) {
         this.threadPool = threadPool;
@@ -93,6 +98,7 @@ public class NodeClient extends AbstractClient implements InternalClient {
         this.bulkAction = bulkAction;
         this.deleteByQueryAction = deleteByQueryAction;
         this.getAction = getAction;
+        this.multiGetAction = multiGetAction;
         this.countAction = countAction;
         this.searchAction = searchAction;
         this.searchScrollAction = searchScrollAction;
@@ -152,6 +158,14 @@ public class NodeClient extends AbstractClient implements InternalClient {
         getAction.execute(request, listener);
     }
 
+    @Override public ActionFuture<MultiGetResponse> multiGet(MultiGetRequest request) {
+        return multiGetAction.execute(request);
+    }
+
+    @Override public void multiGet(MultiGetRequest request, ActionListener<MultiGetResponse> listener) {
+        multiGetAction.execute(request, listener);
+    }
+
     @Override public ActionFuture<CountResponse> count(CountRequest request) {
         return countAction.execute(request);
     }
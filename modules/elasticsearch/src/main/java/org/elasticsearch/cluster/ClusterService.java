@@ -23,6 +23,7 @@ import org.elasticsearch.ElasticSearchIllegalStateException;
 import org.elasticsearch.cluster.block.ClusterBlock;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.routing.operation.OperationRouting;
+import org.elasticsearch.cluster.service.ClusterServiceStats;
 import org.elasticsearch.common.component.LifecycleComponent;
 import org.elasticsearch.common.unit.TimeValue;
 
@@ -73,4 +74,14 @@ public interface ClusterService extends LifecycleComponent<ClusterService> {
      * Submits a task that will update the cluster state.
      */
     void submitStateUpdateTask(final String source, final ClusterStateUpdateTask updateTask);
+
+    /**
+     * Submits a task that will update the cluster state together with the other pending tasks of the same executor.
+     */
+    <T> void submitStateUpdateTask(final String source, final T task, final ClusterStateTaskExecutor<T> executor);
+
+    /**
+     * Stats of the executed cluster state update tasks.
+     */
+    ClusterServiceStats stats();
 }
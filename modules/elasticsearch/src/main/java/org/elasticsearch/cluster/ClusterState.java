@@ -240,6 +240,54 @@ public class ClusterState {
             state.allocationExplanation().writeTo(out);
         }
 
+        /**
+         * Writes the changes between the previous state and the provided state. The diff can only be applied
+         * on the same previous state, see {@link #readDiffFrom(StreamInput, ClusterState, DiscoveryNode)}.
+         */
+        public static void writeDiffTo(ClusterState previousState, ClusterState state, StreamOutput out) throws IOException {
+            out.writeLong(previousState.version());
+            if (previousState.nodes().masterNodeId() == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                out.writeUTF(previousState.nodes().masterNodeId());
+            }
+            out.writeLong(state.version());
+            MetaData.Builder.writeDiffTo(previousState.metaData(), state.metaData(), out);
+            RoutingTable.Builder.writeDiffTo(previousState.routingTable(), state.routingTable(), out);
+            DiscoveryNodes.Builder.writeDiffTo(previousState.nodes(), state.nodes(), out);
+            ClusterBlocks.Builder.writeClusterBlocks(state.blocks(), out);
+            state.allocationExplanation().writeTo(out);
+        }
+
+        /**
+         * Reads a diff written by {@link #writeDiffTo(ClusterState, ClusterState, StreamOutput)} and applies it on
+         * the previous state. Throws {@link IncompatibleClusterStateVersionException} if the diff was not created
+         * against the provided previous state.
+         */
+        public static ClusterState readDiffFrom(StreamInput in, @Nullable ClusterState previousState, @Nullable DiscoveryNode localNode) throws IOException {
+            long fromVersion = in.readLong();
+            String fromMasterNodeId = null;
+            if (in.readBoolean()) {
+                fromMasterNodeId = in.readUTF();
+            }
+            if (previousState == null) {
+                throw new IncompatibleClusterStateVersionException("No cluster state to apply diff from version [" + fromVersion + "] on");
+            }
+            String previousMasterNodeId = previousState.nodes().masterNodeId();
+            if (previousState.version() != fromVersion || (fromMasterNodeId == null ? previousMasterNodeId != null : !fromMasterNodeId.equals(previousMasterNodeId))) {
+                throw new IncompatibleClusterStateVersionException("Can't apply diff from version [" + fromVersion + "], master [" + fromMasterNodeId + "] on cluster state version [" + previousState.version() + "], master [" + previousMasterNodeId + "]");
+            }
+            Builder builder = new Builder();
+            builder.version = in.readLong();
+            builder.metaData = MetaData.Builder.readDiffFrom(in, previousState.metaData());
+            builder.routingTable = RoutingTable.Builder.readDiffFrom(in, previousState.routingTable());
+            builder.nodes = DiscoveryNodes.Builder.readDiffFrom(in, previousState.nodes(), localNode);
+            builder.blocks = ClusterBlocks.Builder.readClusterBlocks(in);
+            builder.allocationExplanation = AllocationExplanation.readAllocationExplanation(in);
+            return builder.build();
+        }
+
         public static ClusterState readFrom(StreamInput in, @Nullable DiscoveryNode localNode) throws IOException {
             Builder builder = new Builder();
             builder.version = in.readLong();
@@ -0,0 +1,37 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.cluster;
+
+import java.util.List;
+
+/**
+ * Executes cluster state update tasks of the same kind in batches. The tasks submitted with the same executor (see
+ * {@link ClusterService#submitStateUpdateTask(String, Object, ClusterStateTaskExecutor)}) that are pending once one of
+ * them gets processed are all executed together, resulting in a single new cluster state (and a single publish).
+ *
+ * @author kimchy (shay.banon)
+ */
+public interface ClusterStateTaskExecutor<T> {
+
+    /**
+     * Update the cluster state based on the current state, applying all the provided tasks (in the order they were
+     * submitted). Return the *same instance* if no state should be changed.
+     */
+    ClusterState execute(ClusterState currentState, List<T> tasks);
+}
@@ -58,6 +58,10 @@ public class MappingUpdatedAction extends TransportMasterNodeOperationAction<Map
         return "cluster/mappingUpdated";
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected MappingUpdatedRequest newRequest() {
         return new MappingUpdatedRequest();
     }
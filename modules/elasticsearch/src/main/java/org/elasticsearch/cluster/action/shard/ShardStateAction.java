@@ -22,7 +22,7 @@ package org.elasticsearch.cluster.action.shard;
 import org.elasticsearch.ElasticSearchException;
 import org.elasticsearch.cluster.ClusterService;
 import org.elasticsearch.cluster.ClusterState;
-import org.elasticsearch.cluster.ClusterStateUpdateTask;
+import org.elasticsearch.cluster.ClusterStateTaskExecutor;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.routing.IndexRoutingTable;
 import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
@@ -41,6 +41,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.*;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.elasticsearch.cluster.ClusterState.*;
 import static org.elasticsearch.cluster.routing.ImmutableShardRouting.*;
@@ -59,6 +60,10 @@ public class ShardStateAction extends AbstractComponent {
 
     private final ThreadPool threadPool;
 
+    private final ShardStartedExecutor shardStartedExecutor = new ShardStartedExecutor();
+
+    private final ShardFailedExecutor shardFailedExecutor = new ShardFailedExecutor();
+
     @Inject public ShardStateAction(Settings settings, ClusterService clusterService, TransportService transportService,
                                     ShardsAllocation shardsAllocation, ThreadPool threadPool) {
         super(settings);
@@ -113,63 +118,96 @@ public class ShardStateAction extends AbstractComponent {
 
     private void innerShardFailed(final ShardRouting shardRouting, final String reason) {
         logger.warn("received shard failed for {}, reason [{}]", shardRouting, reason);
-        clusterService.submitStateUpdateTask("shard-failed (" + shardRouting + "), reason [" + reason + "]", new ClusterStateUpdateTask() {
-            @Override public ClusterState execute(ClusterState currentState) {
-                RoutingTable routingTable = currentState.routingTable();
-                IndexRoutingTable indexRoutingTable = routingTable.index(shardRouting.index());
+        clusterService.submitStateUpdateTask("shard-failed (" + shardRouting + "), reason [" + reason + "]", new ShardRoutingEntry(shardRouting, reason), shardFailedExecutor);
+    }
+
+    private void innerShardStarted(final ShardRouting shardRouting, final String reason) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("received shard started for {}, reason [{}]", shardRouting, reason);
+        }
+        clusterService.submitStateUpdateTask("shard-started (" + shardRouting + "), reason [" + reason + "]", new ShardRoutingEntry(shardRouting, reason), shardStartedExecutor);
+    }
+
+    /**
+     * Applies all the pending failed shards at once, so a node failing many shards does not result in a new cluster
+     * state (and publish) for each one of them.
+     */
+    private class ShardFailedExecutor implements ClusterStateTaskExecutor<ShardRoutingEntry> {
+
+        @Override public ClusterState execute(ClusterState currentState, List<ShardRoutingEntry> entries) {
+            RoutingTable routingTable = currentState.routingTable();
+            List<ShardRouting> failedShards = newArrayList();
+            for (ShardRoutingEntry entry : entries) {
+                IndexRoutingTable indexRoutingTable = routingTable.index(entry.shardRouting.index());
                 // if there is no routing table, the index has been deleted while it was being allocated
                 // which is fine, we should just ignore this
                 if (indexRoutingTable == null) {
-                    return currentState;
+                    continue;
                 }
                 if (logger.isDebugEnabled()) {
-                    logger.debug("Applying failed shard {}, reason [{}]", shardRouting, reason);
-                }
-                RoutingAllocation.Result routingResult = shardsAllocation.applyFailedShards(currentState, newArrayList(shardRouting));
-                if (!routingResult.changed()) {
-                    return currentState;
+                    logger.debug("Applying failed shard {}, reason [{}]", entry.shardRouting, entry.reason);
                 }
-                return newClusterStateBuilder().state(currentState).routingResult(routingResult).build();
+                failedShards.add(entry.shardRouting);
             }
-        });
+            if (failedShards.isEmpty()) {
+                return currentState;
+            }
+            RoutingAllocation.Result routingResult = shardsAllocation.applyFailedShards(currentState, failedShards);
+            if (!routingResult.changed()) {
+                return currentState;
+            }
+            return newClusterStateBuilder().state(currentState).routingResult(routingResult).build();
+        }
     }
 
-    private void innerShardStarted(final ShardRouting shardRouting, final String reason) {
-        if (logger.isDebugEnabled()) {
-            logger.debug("received shard started for {}, reason [{}]", shardRouting, reason);
-        }
-        clusterService.submitStateUpdateTask("shard-started (" + shardRouting + "), reason [" + reason + "]", new ClusterStateUpdateTask() {
-            @Override public ClusterState execute(ClusterState currentState) {
-                RoutingTable routingTable = currentState.routingTable();
+    /**
+     * Applies all the pending started shards at once, with a single reroute, so a node starting many shards does not
+     * result in a reroute and a new cluster state (and publish) for each one of them.
+     */
+    private class ShardStartedExecutor implements ClusterStateTaskExecutor<ShardRoutingEntry> {
+
+        @Override public ClusterState execute(ClusterState currentState, List<ShardRoutingEntry> entries) {
+            RoutingTable routingTable = currentState.routingTable();
+            List<ShardRouting> startedShards = newArrayList();
+            for (ShardRoutingEntry entry : entries) {
+                ShardRouting shardRouting = entry.shardRouting;
                 IndexRoutingTable indexRoutingTable = routingTable.index(shardRouting.index());
                 // if there is no routing table, the index has been deleted while it was being allocated
                 // which is fine, we should just ignore this
                 if (indexRoutingTable == null) {
-                    return currentState;
+                    continue;
                 }
                 // find the one that maps to us, if its already started, no need to do anything...
                 // the shard might already be started since the nodes that is starting the shards might get cluster events
                 // with the shard still initializing, and it will try and start it again (until the verification comes)
+                boolean alreadyStarted = false;
                 IndexShardRoutingTable indexShardRoutingTable = indexRoutingTable.shard(shardRouting.id());
-                for (ShardRouting entry : indexShardRoutingTable) {
-                    if (shardRouting.currentNodeId().equals(entry.currentNodeId())) {
+                for (ShardRouting shard : indexShardRoutingTable) {
+                    if (shardRouting.currentNodeId().equals(shard.currentNodeId())) {
                         // we found the same shard that exists on the same node id
-                        if (entry.started()) {
-                            // already started, do nothing here...
-                            return currentState;
+                        if (shard.started()) {
+                            alreadyStarted = true;
                         }
+                        break;
                     }
                 }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("applying started shard {}, reason [{}]", shardRouting, reason);
+                if (alreadyStarted) {
+                    continue;
                 }
-                RoutingAllocation.Result routingResult = shardsAllocation.applyStartedShards(currentState, newArrayList(shardRouting));
-                if (!routingResult.changed()) {
-                    return currentState;
+                if (logger.isDebugEnabled()) {
+                    logger.debug("applying started shard {}, reason [{}]", shardRouting, entry.reason);
                 }
-                return newClusterStateBuilder().state(currentState).routingResult(routingResult).build();
+                startedShards.add(shardRouting);
             }
-        });
+            if (startedShards.isEmpty()) {
+                return currentState;
+            }
+            RoutingAllocation.Result routingResult = shardsAllocation.applyStartedShards(currentState, startedShards);
+            if (!routingResult.changed()) {
+                return currentState;
+            }
+            return newClusterStateBuilder().state(currentState).routingResult(routingResult).build();
+        }
     }
 
     private class ShardFailedTransportHandler extends BaseTransportRequestHandler<ShardRoutingEntry> {
@@ -412,5 +412,59 @@ public class MetaData implements Iterable<IndexMetaData> {
                 IndexTemplateMetaData.Builder.writeTo(template, out);
             }
         }
+
+        /**
+         * Reads the changes written by {@link #writeDiffTo(MetaData, MetaData, StreamOutput)} and applies them
+         * on the previous meta data.
+         */
+        public static MetaData readDiffFrom(StreamInput in, MetaData previousMetaData) throws IOException {
+            Builder builder = new Builder().metaData(previousMetaData);
+            int size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                builder.remove(in.readUTF());
+            }
+            size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                builder.put(IndexMetaData.Builder.readFrom(in));
+            }
+            // templates are always sent in full
+            builder.templates = newMapBuilder();
+            size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                builder.put(IndexTemplateMetaData.Builder.readFrom(in));
+            }
+            return builder.build();
+        }
+
+        /**
+         * Writes the indices removed from, and the indices added or changed compared to, the previous meta data.
+         * Unchanged index meta data is reused across meta data instances, so a reference check is enough.
+         */
+        public static void writeDiffTo(MetaData previousMetaData, MetaData metaData, StreamOutput out) throws IOException {
+            List<String> removed = Lists.newArrayList();
+            for (String index : previousMetaData.indices.keySet()) {
+                if (!metaData.indices.containsKey(index)) {
+                    removed.add(index);
+                }
+            }
+            out.writeVInt(removed.size());
+            for (String index : removed) {
+                out.writeUTF(index);
+            }
+            List<IndexMetaData> changed = Lists.newArrayList();
+            for (IndexMetaData indexMetaData : metaData) {
+                if (previousMetaData.indices.get(indexMetaData.index()) != indexMetaData) {
+                    changed.add(indexMetaData);
+                }
+            }
+            out.writeVInt(changed.size());
+            for (IndexMetaData indexMetaData : changed) {
+                IndexMetaData.Builder.writeTo(indexMetaData, out);
+            }
+            out.writeVInt(metaData.templates.size());
+            for (IndexTemplateMetaData template : metaData.templates.values()) {
+                IndexTemplateMetaData.Builder.writeTo(template, out);
+            }
+        }
     }
 }
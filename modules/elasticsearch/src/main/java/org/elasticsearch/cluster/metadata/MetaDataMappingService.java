@@ -21,7 +21,7 @@ package org.elasticsearch.cluster.metadata;
 
 import org.elasticsearch.cluster.ClusterService;
 import org.elasticsearch.cluster.ClusterState;
-import org.elasticsearch.cluster.ClusterStateUpdateTask;
+import org.elasticsearch.cluster.ClusterStateTaskExecutor;
 import org.elasticsearch.cluster.ProcessedClusterStateUpdateTask;
 import org.elasticsearch.cluster.action.index.NodeMappingCreatedAction;
 import org.elasticsearch.cluster.routing.IndexRoutingTable;
@@ -40,6 +40,7 @@ import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.indices.InvalidTypeNameException;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -60,6 +61,8 @@ public class MetaDataMappingService extends AbstractComponent {
 
     private final NodeMappingCreatedAction mappingCreatedAction;
 
+    private final UpdateMappingExecutor updateMappingExecutor = new UpdateMappingExecutor();
+
     @Inject public MetaDataMappingService(Settings settings, ClusterService clusterService, IndicesService indicesService, NodeMappingCreatedAction mappingCreatedAction) {
         super(settings);
         this.clusterService = clusterService;
@@ -68,65 +71,65 @@ public class MetaDataMappingService extends AbstractComponent {
     }
 
     public void updateMapping(final String index, final String type, final CompressedString mappingSource) {
-        clusterService.submitStateUpdateTask("update-mapping [" + index + "][" + type + "]", new ClusterStateUpdateTask() {
-            @Override public ClusterState execute(ClusterState currentState) {
-                try {
-                    // first, check if it really needs to be updated
-                    final IndexMetaData indexMetaData = currentState.metaData().index(index);
-                    if (indexMetaData == null) {
-                        // index got delete on us, ignore...
-                        return currentState;
-                    }
-                    if (indexMetaData.mappings().containsKey(type) && indexMetaData.mapping(type).source().equals(mappingSource)) {
-                        return currentState;
-                    }
+        clusterService.submitStateUpdateTask("update-mapping [" + index + "][" + type + "]", new UpdateMappingTask(index, type, mappingSource), updateMappingExecutor);
+    }
 
-                    IndexService indexService = indicesService.indexService(index);
-                    if (indexService == null) {
-                        // we need to create the index here, and add the current mapping to it, so we can merge
-                        indexService = indicesService.createIndex(indexMetaData.index(), indexMetaData.settings(), currentState.nodes().localNode().id());
-                        // only add the current relevant mapping (if exists)
-                        if (indexMetaData.mappings().containsKey(type)) {
-                            indexService.mapperService().add(type, indexMetaData.mappings().get(type).source().string());
-                        }
-                    }
-                    MapperService mapperService = indexService.mapperService();
-
-                    DocumentMapper existingMapper = mapperService.documentMapper(type);
-                    // parse the updated one
-                    DocumentMapper updatedMapper = mapperService.parse(type, mappingSource.string());
-                    if (existingMapper == null) {
-                        existingMapper = updatedMapper;
-                    } else {
-                        // merge from the updated into the existing, ignore conflicts (we know we have them, we just want the new ones)
-                        existingMapper.merge(updatedMapper, mergeFlags().simulate(false));
-                    }
+    private ClusterState applyMappingUpdate(ClusterState currentState, String index, String type, CompressedString mappingSource) {
+        try {
+            // first, check if it really needs to be updated
+            final IndexMetaData indexMetaData = currentState.metaData().index(index);
+            if (indexMetaData == null) {
+                // index got delete on us, ignore...
+                return currentState;
+            }
+            if (indexMetaData.mappings().containsKey(type) && indexMetaData.mapping(type).source().equals(mappingSource)) {
+                return currentState;
+            }
 
-                    // if we end up with the same mapping as the original once, ignore
-                    if (indexMetaData.mappings().containsKey(type) && indexMetaData.mapping(type).source().equals(existingMapper.mappingSource())) {
-                        return currentState;
-                    }
+            IndexService indexService = indicesService.indexService(index);
+            if (indexService == null) {
+                // we need to create the index here, and add the current mapping to it, so we can merge
+                indexService = indicesService.createIndex(indexMetaData.index(), indexMetaData.settings(), currentState.nodes().localNode().id());
+                // only add the current relevant mapping (if exists)
+                if (indexMetaData.mappings().containsKey(type)) {
+                    indexService.mapperService().add(type, indexMetaData.mappings().get(type).source().string());
+                }
+            }
+            MapperService mapperService = indexService.mapperService();
+
+            DocumentMapper existingMapper = mapperService.documentMapper(type);
+            // parse the updated one
+            DocumentMapper updatedMapper = mapperService.parse(type, mappingSource.string());
+            if (existingMapper == null) {
+                existingMapper = updatedMapper;
+            } else {
+                // merge from the updated into the existing, ignore conflicts (we know we have them, we just want the new ones)
+                existingMapper.merge(updatedMapper, mergeFlags().simulate(false));
+            }
 
-                    // build the updated mapping source
-                    if (logger.isDebugEnabled()) {
-                        try {
-                            logger.debug("[{}] update_mapping [{}] (dynamic) with source [{}]", index, type, existingMapper.mappingSource().string());
-                        } catch (IOException e) {
-                            // ignore
-                        }
-                    } else if (logger.isInfoEnabled()) {
-                        logger.info("[{}] update_mapping [{}] (dynamic)", index, type);
-                    }
+            // if we end up with the same mapping as the original once, ignore
+            if (indexMetaData.mappings().containsKey(type) && indexMetaData.mapping(type).source().equals(existingMapper.mappingSource())) {
+                return currentState;
+            }
 
-                    MetaData.Builder builder = newMetaDataBuilder().metaData(currentState.metaData());
-                    builder.put(newIndexMetaDataBuilder(indexMetaData).putMapping(new MappingMetaData(existingMapper)));
-                    return newClusterStateBuilder().state(currentState).metaData(builder).build();
-                } catch (Exception e) {
-                    logger.warn("failed to dynamically update the mapping in cluster_state from shard", e);
-                    return currentState;
+            // build the updated mapping source
+            if (logger.isDebugEnabled()) {
+                try {
+                    logger.debug("[{}] update_mapping [{}] (dynamic) with source [{}]", index, type, existingMapper.mappingSource().string());
+                } catch (IOException e) {
+                    // ignore
                 }
+            } else if (logger.isInfoEnabled()) {
+                logger.info("[{}] update_mapping [{}] (dynamic)", index, type);
             }
-        });
+
+            MetaData.Builder builder = newMetaDataBuilder().metaData(currentState.metaData());
+            builder.put(newIndexMetaDataBuilder(indexMetaData).putMapping(new MappingMetaData(existingMapper)));
+            return newClusterStateBuilder().state(currentState).metaData(builder).build();
+        } catch (Exception e) {
+            logger.warn("failed to dynamically update the mapping in cluster_state from shard", e);
+            return currentState;
+        }
     }
 
     public void removeMapping(final RemoveRequest request) {
@@ -313,6 +316,33 @@ public class MetaDataMappingService extends AbstractComponent {
         void onFailure(Throwable t);
     }
 
+    private static class UpdateMappingTask {
+        final String index;
+        final String type;
+        final CompressedString mappingSource;
+
+        private UpdateMappingTask(String index, String type, CompressedString mappingSource) {
+            this.index = index;
+            this.type = type;
+            this.mappingSource = mappingSource;
+        }
+    }
+
+    /**
+     * Applies all the pending dynamic mapping updates (in order) in a single new cluster state, as many shards
+     * introducing the same new fields tend to send them at the same time.
+     */
+    private class UpdateMappingExecutor implements ClusterStateTaskExecutor<UpdateMappingTask> {
+
+        @Override public ClusterState execute(ClusterState currentState, List<UpdateMappingTask> tasks) {
+            ClusterState state = currentState;
+            for (UpdateMappingTask task : tasks) {
+                state = applyMappingUpdate(state, task.index, task.type, task.mappingSource);
+            }
+            return state;
+        }
+    }
+
     public static class RemoveRequest {
 
         final String[] indices;
@@ -407,6 +407,67 @@ public class DiscoveryNodes implements Iterable<DiscoveryNode> {
             }
         }
 
+        /**
+         * Writes the master node, and the nodes removed from and added to the previous nodes.
+         */
+        public static void writeDiffTo(DiscoveryNodes previousNodes, DiscoveryNodes nodes, StreamOutput out) throws IOException {
+            if (nodes.masterNodeId() == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                out.writeUTF(nodes.masterNodeId);
+            }
+            List<String> removed = newArrayList();
+            for (DiscoveryNode node : previousNodes) {
+                if (!nodes.nodeExists(node.id())) {
+                    removed.add(node.id());
+                }
+            }
+            out.writeVInt(removed.size());
+            for (String nodeId : removed) {
+                out.writeUTF(nodeId);
+            }
+            List<DiscoveryNode> added = newArrayList();
+            for (DiscoveryNode node : nodes) {
+                if (!previousNodes.nodeExists(node.id())) {
+                    added.add(node);
+                }
+            }
+            out.writeVInt(added.size());
+            for (DiscoveryNode node : added) {
+                node.writeTo(out);
+            }
+        }
+
+        /**
+         * Reads the changes written by {@link #writeDiffTo(DiscoveryNodes, DiscoveryNodes, StreamOutput)} and applies
+         * them on the previous nodes.
+         */
+        public static DiscoveryNodes readDiffFrom(StreamInput in, DiscoveryNodes previousNodes, @Nullable DiscoveryNode localNode) throws IOException {
+            Builder builder = new Builder().putAll(previousNodes);
+            builder.masterNodeId(null);
+            if (in.readBoolean()) {
+                builder.masterNodeId(in.readUTF());
+            }
+            if (localNode != null) {
+                builder.localNodeId(localNode.id());
+            }
+            int size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                builder.remove(in.readUTF());
+            }
+            size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                DiscoveryNode node = DiscoveryNode.readNode(in);
+                if (localNode != null && node.id().equals(localNode.id())) {
+                    // reuse the same instance of our address and local node id for faster equality
+                    node = localNode;
+                }
+                builder.put(node);
+            }
+            return builder.build();
+        }
+
         public static DiscoveryNodes readFrom(StreamInput in, @Nullable DiscoveryNode localNode) throws IOException {
             Builder builder = new Builder();
             if (in.readBoolean()) {
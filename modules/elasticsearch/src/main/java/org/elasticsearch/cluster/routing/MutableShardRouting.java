@@ -24,6 +24,11 @@ package org.elasticsearch.cluster.routing;
  */
 public class MutableShardRouting extends ImmutableShardRouting {
 
+    /**
+     * The routing node listing this shard, told about state changes so it can keep its per state counts.
+     */
+    transient RoutingNode routingNode;
+
     public MutableShardRouting(ShardRouting copy) {
         super(copy);
     }
@@ -38,6 +43,7 @@ public class MutableShardRouting extends ImmutableShardRouting {
     }
 
     public void assignToNode(String nodeId) {
+        ShardRoutingState previousState = state;
         if (currentNodeId == null) {
             assert state == ShardRoutingState.UNASSIGNED;
 
@@ -50,12 +56,15 @@ public class MutableShardRouting extends ImmutableShardRouting {
         } else if (state == ShardRoutingState.RELOCATING) {
             assert nodeId.equals(relocatingNodeId);
         }
+        stateChanged(previousState, primary);
     }
 
     public void relocate(String relocatingNodeId) {
         assert state == ShardRoutingState.STARTED;
+        ShardRoutingState previousState = state;
         state = ShardRoutingState.RELOCATING;
         this.relocatingNodeId = relocatingNodeId;
+        stateChanged(previousState, primary);
     }
 
     public void cancelRelocation() {
@@ -63,22 +72,28 @@ public class MutableShardRouting extends ImmutableShardRouting {
         assert assignedToNode();
         assert relocatingNodeId != null;
 
+        ShardRoutingState previousState = state;
         state = ShardRoutingState.STARTED;
         relocatingNodeId = null;
+        stateChanged(previousState, primary);
     }
 
     public void deassignNode() {
         assert state != ShardRoutingState.UNASSIGNED;
 
+        ShardRoutingState previousState = state;
         state = ShardRoutingState.UNASSIGNED;
         this.currentNodeId = null;
         this.relocatingNodeId = null;
+        stateChanged(previousState, primary);
     }
 
     public void moveToStarted() {
         assert state == ShardRoutingState.INITIALIZING || state == ShardRoutingState.RELOCATING;
+        ShardRoutingState previousState = state;
         relocatingNodeId = null;
         state = ShardRoutingState.STARTED;
+        stateChanged(previousState, primary);
     }
 
     public void moveToPrimary() {
@@ -86,6 +101,7 @@ public class MutableShardRouting extends ImmutableShardRouting {
             throw new IllegalShardRoutingStateException(this, "Already primary, can't move to primary");
         }
         primary = true;
+        stateChanged(state, false);
     }
 
     public void moveFromPrimary() {
@@ -93,6 +109,12 @@ public class MutableShardRouting extends ImmutableShardRouting {
             throw new IllegalShardRoutingStateException(this, "Already primary, can't move to replica");
         }
         primary = false;
+        stateChanged(state, true);
     }
-}
 
+    private void stateChanged(ShardRoutingState previousState, boolean previousPrimary) {
+        if (routingNode != null) {
+            routingNode.shardStateChanged(this, previousState, previousPrimary);
+        }
+    }
+}
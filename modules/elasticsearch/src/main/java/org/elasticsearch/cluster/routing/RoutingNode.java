@@ -19,28 +19,51 @@
 
 package org.elasticsearch.cluster.routing;
 
-import java.util.ArrayList;
+import org.elasticsearch.index.shard.ShardId;
+
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 import static org.elasticsearch.common.collect.Lists.*;
 
 /**
+ * The shards allocated on a node. Keeps the number of shards (and primaries) per state up to date as shards are
+ * added, removed or change their state, and looks up the copies of a shard on the node through the shard id
+ * index of the owning {@link RoutingNodes}, so the allocation deciders do not need to scan the node shards.
+ *
  * @author kimchy (Shay Banon)
  */
 public class RoutingNode implements Iterable<MutableShardRouting> {
 
     private final String nodeId;
 
-    private final List<MutableShardRouting> shards;
+    private final RoutingNodes routingNodes;
 
-    public RoutingNode(String nodeId) {
-        this(nodeId, new ArrayList<MutableShardRouting>());
-    }
+    private final ShardRoutingList shards = new ShardRoutingList() {
+        @Override protected void shardAdded(MutableShardRouting shard) {
+            assert shard.routingNode == null || shard.routingNode == RoutingNode.this;
+            shard.routingNode = RoutingNode.this;
+            count(shard.state(), shard.primary(), 1);
+            routingNodes.assignedShardAdded(shard);
+        }
+
+        @Override protected void shardRemoved(MutableShardRouting shard) {
+            if (shard.routingNode == RoutingNode.this) {
+                shard.routingNode = null;
+            }
+            count(shard.state(), shard.primary(), -1);
+            routingNodes.assignedShardRemoved(shard);
+        }
+    };
 
-    public RoutingNode(String nodeId, List<MutableShardRouting> shards) {
+    private final int[] shardsPerState = new int[ShardRoutingState.values().length];
+
+    private final int[] primariesPerState = new int[ShardRoutingState.values().length];
+
+    RoutingNode(String nodeId, RoutingNodes routingNodes) {
         this.nodeId = nodeId;
-        this.shards = shards;
+        this.routingNodes = routingNodes;
     }
 
     @Override public Iterator<MutableShardRouting> iterator() {
@@ -55,11 +78,52 @@ public class RoutingNode implements Iterable<MutableShardRouting> {
         return this.shards;
     }
 
+    /**
+     * The copies of the given shard allocated on this node.
+     */
+    public List<MutableShardRouting> shardsFor(ShardId shardId) {
+        List<MutableShardRouting> assigned = routingNodes.assignedShardsFor(shardId);
+        List<MutableShardRouting> shards = null;
+        for (int i = 0; i < assigned.size(); i++) {
+            MutableShardRouting shard = assigned.get(i);
+            if (shard.routingNode == this) {
+                if (shards == null) {
+                    shards = newArrayListWithCapacity(1);
+                }
+                shards.add(shard);
+            }
+        }
+        if (shards == null) {
+            return Collections.emptyList();
+        }
+        return shards;
+    }
+
+    /**
+     * Returns <tt>true</tt> if a copy of the given shard is allocated on this node.
+     */
+    public boolean hasShard(ShardId shardId) {
+        List<MutableShardRouting> assigned = routingNodes.assignedShardsFor(shardId);
+        for (int i = 0; i < assigned.size(); i++) {
+            if (assigned.get(i).routingNode == this) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void add(MutableShardRouting shard) {
         shards.add(shard);
         shard.assignToNode(nodeId);
     }
 
+    /**
+     * Removes the given shard routing instance from the node.
+     */
+    public boolean remove(MutableShardRouting shard) {
+        return shards.removeShard(shard);
+    }
+
     public void removeByShardId(int shardId) {
         for (Iterator<MutableShardRouting> it = shards.iterator(); it.hasNext();) {
             MutableShardRouting shard = it.next();
@@ -71,12 +135,16 @@ public class RoutingNode implements Iterable<MutableShardRouting> {
 
     public int numberOfShardsWithState(ShardRoutingState... states) {
         int count = 0;
-        for (MutableShardRouting shardEntry : this) {
-            for (ShardRoutingState state : states) {
-                if (shardEntry.state() == state) {
-                    count++;
-                }
-            }
+        for (ShardRoutingState state : states) {
+            count += shardsPerState[state.ordinal()];
+        }
+        return count;
+    }
+
+    public int numberOfPrimariesWithState(ShardRoutingState... states) {
+        int count = 0;
+        for (ShardRoutingState state : states) {
+            count += primariesPerState[state.ordinal()];
         }
         return count;
     }
@@ -94,27 +162,26 @@ public class RoutingNode implements Iterable<MutableShardRouting> {
     }
 
     public int numberOfShardsNotWithState(ShardRoutingState state) {
-        int count = 0;
-        for (MutableShardRouting shardEntry : this) {
-            if (shardEntry.state() != state) {
-                count++;
-            }
-        }
-        return count;
+        return shards.size() - shardsPerState[state.ordinal()];
     }
 
     /**
      * The number fo shards on this node that will not be eventually relocated.
      */
     public int numberOfOwningShards() {
-        int count = 0;
-        for (MutableShardRouting shardEntry : this) {
-            if (shardEntry.state() != ShardRoutingState.RELOCATING) {
-                count++;
-            }
-        }
+        return shards.size() - shardsPerState[ShardRoutingState.RELOCATING.ordinal()];
+    }
 
-        return count;
+    void shardStateChanged(MutableShardRouting shard, ShardRoutingState previousState, boolean previousPrimary) {
+        count(previousState, previousPrimary, -1);
+        count(shard.state(), shard.primary(), 1);
+    }
+
+    private void count(ShardRoutingState state, boolean primary, int delta) {
+        shardsPerState[state.ordinal()] += delta;
+        if (primary) {
+            primariesPerState[state.ordinal()] += delta;
+        }
     }
 
     public String prettyPrint() {
@@ -22,6 +22,7 @@ package org.elasticsearch.cluster.routing;
 import org.elasticsearch.cluster.block.ClusterBlocks;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.common.util.concurrent.NotThreadSafe;
+import org.elasticsearch.index.shard.ShardId;
 
 import java.util.*;
 
@@ -29,6 +30,10 @@ import static org.elasticsearch.common.collect.Lists.*;
 import static org.elasticsearch.common.collect.Maps.*;
 
 /**
+ * The mutable view of the routing table used while allocating shards. Besides the shards per node, indexes the
+ * assigned and unassigned copies of every shard by their shard id (updated as the node and unassigned lists
+ * change), so looking up the copies of a shard does not require walking all the shards of the cluster.
+ *
  * @author kimchy (shay.banon)
  */
 @NotThreadSafe
@@ -42,7 +47,19 @@ public class RoutingNodes implements Iterable<RoutingNode> {
 
     private final Map<String, RoutingNode> nodesToShards = newHashMap();
 
-    private final List<MutableShardRouting> unassigned = newArrayList();
+    private final Map<ShardId, List<MutableShardRouting>> assignedShards = newHashMap();
+
+    private final Map<ShardId, List<MutableShardRouting>> unassignedShards = newHashMap();
+
+    private final List<MutableShardRouting> unassigned = new ShardRoutingList() {
+        @Override protected void shardAdded(MutableShardRouting shard) {
+            ShardRoutingList.index(unassignedShards, shard);
+        }
+
+        @Override protected void shardRemoved(MutableShardRouting shard) {
+            ShardRoutingList.unindex(unassignedShards, shard);
+        }
+    };
 
     private final List<MutableShardRouting> ignoredUnassigned = newArrayList();
 
@@ -79,8 +96,7 @@ public class RoutingNodes implements Iterable<RoutingNode> {
             }
         }
         for (Map.Entry<String, List<MutableShardRouting>> entry : nodesToShards.entrySet()) {
-            String nodeId = entry.getKey();
-            this.nodesToShards.put(nodeId, new RoutingNode(nodeId, entry.getValue()));
+            addNode(entry.getKey()).shards().addAll(entry.getValue());
         }
     }
 
@@ -144,13 +160,40 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         return nodesToShards.get(nodeId);
     }
 
+    /**
+     * Adds an (empty) routing node for the given node id, nodes must be added through this method (and not
+     * directly to {@link #nodesToShards()}) so their shards are indexed.
+     */
+    public RoutingNode addNode(String nodeId) {
+        RoutingNode routingNode = new RoutingNode(nodeId, this);
+        nodesToShards.put(nodeId, routingNode);
+        return routingNode;
+    }
+
+    /**
+     * The copies of the given shard that are allocated on a node (a relocating shard has a copy on both the
+     * source and the target node). The returned list must not be modified.
+     */
+    public List<MutableShardRouting> assignedShardsFor(ShardId shardId) {
+        List<MutableShardRouting> shards = assignedShards.get(shardId);
+        if (shards == null) {
+            return Collections.emptyList();
+        }
+        return shards;
+    }
+
+    /**
+     * Returns <tt>true</tt> if there is an unassigned copy of the given shard.
+     */
+    public boolean hasUnassigned(ShardId shardId) {
+        return unassignedShards.containsKey(shardId);
+    }
+
     public MutableShardRouting findPrimaryForReplica(ShardRouting shard) {
         assert !shard.primary();
-        for (RoutingNode routingNode : nodesToShards.values()) {
-            for (MutableShardRouting shardRouting : routingNode) {
-                if (shardRouting.shardId().equals(shard.shardId()) && shardRouting.primary()) {
-                    return shardRouting;
-                }
+        for (MutableShardRouting shardRouting : assignedShardsFor(shard.shardId())) {
+            if (shardRouting.primary()) {
+                return shardRouting;
             }
         }
         return null;
@@ -161,18 +204,11 @@ public class RoutingNodes implements Iterable<RoutingNode> {
     }
 
     public List<MutableShardRouting> shardsRoutingFor(String index, int shardId) {
-        List<MutableShardRouting> shards = newArrayList();
-        for (RoutingNode routingNode : this) {
-            for (MutableShardRouting shardRouting : routingNode) {
-                if (shardRouting.index().equals(index) && shardRouting.id() == shardId) {
-                    shards.add(shardRouting);
-                }
-            }
-        }
-        for (MutableShardRouting shardRouting : unassigned) {
-            if (shardRouting.index().equals(index) && shardRouting.id() == shardId) {
-                shards.add(shardRouting);
-            }
+        ShardId id = new ShardId(index, shardId);
+        List<MutableShardRouting> shards = newArrayList(assignedShardsFor(id));
+        List<MutableShardRouting> unassignedShards = this.unassignedShards.get(id);
+        if (unassignedShards != null) {
+            shards.addAll(unassignedShards);
         }
         return shards;
     }
@@ -209,6 +245,14 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         return nodes;
     }
 
+    void assignedShardAdded(MutableShardRouting shard) {
+        ShardRoutingList.index(assignedShards, shard);
+    }
+
+    void assignedShardRemoved(MutableShardRouting shard) {
+        ShardRoutingList.unindex(assignedShards, shard);
+    }
+
     public String prettyPrint() {
         StringBuilder sb = new StringBuilder("routing_nodes:\n");
         for (RoutingNode routingNode : this) {
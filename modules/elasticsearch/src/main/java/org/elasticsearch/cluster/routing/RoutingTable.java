@@ -26,6 +26,7 @@ import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.collect.Iterables;
 import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.common.collect.UnmodifiableIterator;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.util.concurrent.Immutable;
@@ -34,6 +35,7 @@ import org.elasticsearch.indices.IndexMissingException;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -319,6 +321,63 @@ public class RoutingTable implements Iterable<IndexRoutingTable> {
                 IndexRoutingTable.Builder.writeTo(index, out);
             }
         }
+
+        /**
+         * Reads the changes written by {@link #writeDiffTo(RoutingTable, RoutingTable, StreamOutput)} and applies them
+         * on the previous routing table.
+         */
+        public static RoutingTable readDiffFrom(StreamInput in, RoutingTable previousTable) throws IOException {
+            Builder builder = new Builder().routingTable(previousTable);
+            int size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                builder.remove(in.readUTF());
+            }
+            size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                builder.add(IndexRoutingTable.Builder.readFrom(in));
+            }
+            return builder.build();
+        }
+
+        /**
+         * Writes the indices removed from, and the index routing tables added or changed compared to, the previous
+         * routing table. Index routing tables are rebuilt on each reroute, so changes are detected by comparing their
+         * serialized form, which is then written as is.
+         */
+        public static void writeDiffTo(RoutingTable previousTable, RoutingTable table, StreamOutput out) throws IOException {
+            List<String> removed = newArrayList();
+            for (String index : previousTable.indicesRouting.keySet()) {
+                if (!table.indicesRouting.containsKey(index)) {
+                    removed.add(index);
+                }
+            }
+            out.writeVInt(removed.size());
+            for (String index : removed) {
+                out.writeUTF(index);
+            }
+            List<byte[]> changed = newArrayList();
+            for (IndexRoutingTable index : table.indicesRouting.values()) {
+                IndexRoutingTable previousIndex = previousTable.indicesRouting.get(index.index());
+                if (previousIndex == index) {
+                    continue;
+                }
+                byte[] indexBytes = toBytes(index);
+                if (previousIndex == null || !Arrays.equals(toBytes(previousIndex), indexBytes)) {
+                    changed.add(indexBytes);
+                }
+            }
+            out.writeVInt(changed.size());
+            for (byte[] indexBytes : changed) {
+                out.writeBytes(indexBytes);
+            }
+        }
+
+        private static byte[] toBytes(IndexRoutingTable index) throws IOException {
+            // not using the cached bytes stream, it might be the one we are writing the diff to
+            BytesStreamOutput out = new BytesStreamOutput();
+            IndexRoutingTable.Builder.writeTo(index, out);
+            return out.copiedByteArray();
+        }
     }
 
     public String prettyPrint() {
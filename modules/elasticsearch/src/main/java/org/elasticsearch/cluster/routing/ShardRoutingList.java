@@ -0,0 +1,107 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.routing;
+
+import org.elasticsearch.index.shard.ShardId;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A list of shard routings that notifies on every addition and removal, including the ones done through its
+ * iterators, so indexes kept on the side never go out of sync with the list.
+ *
+ * @author kimchy (shay.banon)
+ */
+abstract class ShardRoutingList extends AbstractList<MutableShardRouting> implements RandomAccess {
+
+    private final List<MutableShardRouting> shards = new ArrayList<MutableShardRouting>();
+
+    @Override public MutableShardRouting get(int index) {
+        return shards.get(index);
+    }
+
+    @Override public int size() {
+        return shards.size();
+    }
+
+    @Override public MutableShardRouting set(int index, MutableShardRouting shard) {
+        MutableShardRouting previous = shards.set(index, shard);
+        shardRemoved(previous);
+        shardAdded(shard);
+        return previous;
+    }
+
+    @Override public void add(int index, MutableShardRouting shard) {
+        shards.add(index, shard);
+        shardAdded(shard);
+    }
+
+    @Override public MutableShardRouting remove(int index) {
+        MutableShardRouting shard = shards.remove(index);
+        shardRemoved(shard);
+        return shard;
+    }
+
+    /**
+     * Removes the given shard routing instance (and not one that is only equal to it).
+     */
+    boolean removeShard(MutableShardRouting shard) {
+        for (int i = 0; i < shards.size(); i++) {
+            if (shards.get(i) == shard) {
+                remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected abstract void shardAdded(MutableShardRouting shard);
+
+    protected abstract void shardRemoved(MutableShardRouting shard);
+
+    static void index(Map<ShardId, List<MutableShardRouting>> shardsById, MutableShardRouting shard) {
+        List<MutableShardRouting> shards = shardsById.get(shard.shardId());
+        if (shards == null) {
+            shards = new ArrayList<MutableShardRouting>(2);
+            shardsById.put(shard.shardId(), shards);
+        }
+        shards.add(shard);
+    }
+
+    static void unindex(Map<ShardId, List<MutableShardRouting>> shardsById, MutableShardRouting shard) {
+        List<MutableShardRouting> shards = shardsById.get(shard.shardId());
+        if (shards == null) {
+            return;
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            if (shards.get(i) == shard) {
+                shards.remove(i);
+                break;
+            }
+        }
+        if (shards.isEmpty()) {
+            shardsById.remove(shard.shardId());
+        }
+    }
+}
@@ -27,11 +27,14 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.ImmutableSettings;
 import org.elasticsearch.common.settings.Settings;
 
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.elasticsearch.cluster.routing.ShardRoutingState.*;
+import static org.elasticsearch.common.collect.Lists.*;
 import static org.elasticsearch.common.collect.Sets.*;
 
 /**
@@ -190,24 +193,15 @@ public class ShardsAllocation extends AbstractComponent {
         boolean changed = false;
         for (MutableShardRouting shardEntry : routingNodes.unassigned()) {
             if (shardEntry.primary() && !shardEntry.assignedToNode()) {
-                boolean elected = false;
                 // primary and not assigned, go over and find a replica that is assigned and active (since it might be relocating)
-                for (RoutingNode routingNode : routingNodes.nodesToShards().values()) {
+                for (MutableShardRouting shardEntry2 : routingNodes.assignedShardsFor(shardEntry.shardId())) {
+                    if (shardEntry2.active()) {
+                        assert shardEntry2.assignedToNode();
+                        assert !shardEntry2.primary();
 
-                    for (MutableShardRouting shardEntry2 : routingNode.shards()) {
-                        if (shardEntry.shardId().equals(shardEntry2.shardId()) && shardEntry2.active()) {
-                            assert shardEntry2.assignedToNode();
-                            assert !shardEntry2.primary();
-
-                            changed = true;
-                            shardEntry.moveFromPrimary();
-                            shardEntry2.moveToPrimary();
-                            elected = true;
-                            break;
-                        }
-                    }
-
-                    if (elected) {
+                        changed = true;
+                        shardEntry.moveFromPrimary();
+                        shardEntry2.moveToPrimary();
                         break;
                     }
                 }
@@ -250,15 +244,28 @@ public class ShardsAllocation extends AbstractComponent {
             }
         }
 
-        // allocate all the unassigned shards above the average per node.
+        if (!routingNodes.hasUnassigned()) {
+            return changed;
+        }
+
+        // allocate all the unassigned shards above the average per node, the nodes are kept sorted from the least to
+        // the highest number of shards as shards are added, instead of sorting all of them again for every shard
+        List<RoutingNode> nodesInOrder = newArrayList(routingNodes);
+        Map<RoutingNode, Integer> order = new IdentityHashMap<RoutingNode, Integer>();
+        for (int i = 0; i < nodesInOrder.size(); i++) {
+            order.put(nodesInOrder.get(i), i);
+        }
+        List<RoutingNode> sortedNodes = routingNodes.sortedNodesLeastToHigh();
         for (Iterator<MutableShardRouting> it = routingNodes.unassigned().iterator(); it.hasNext();) {
             MutableShardRouting shard = it.next();
             // go over the nodes and try and allocate the remaining ones
-            for (RoutingNode routingNode : routingNodes.sortedNodesLeastToHigh()) {
+            for (int i = 0; i < sortedNodes.size(); i++) {
+                RoutingNode routingNode = sortedNodes.get(i);
                 if (nodeAllocations.canAllocate(shard, routingNode, allocation).allocate()) {
                     changed = true;
                     routingNode.add(shard);
                     it.remove();
+                    moveAfterAdd(sortedNodes, i, order);
                     break;
                 }
             }
@@ -266,6 +273,27 @@ public class ShardsAllocation extends AbstractComponent {
         return changed;
     }
 
+    /**
+     * Moves the node at the given position of nodes sorted by number of shards to its place after a shard has been
+     * added to it. Nodes with the same number of shards keep the routing nodes order, same as a (stable) sort of
+     * the routing nodes would.
+     */
+    private void moveAfterAdd(List<RoutingNode> sortedNodes, int index, Map<RoutingNode, Integer> order) {
+        RoutingNode node = sortedNodes.get(index);
+        int size = node.shards().size();
+        int nodeOrder = order.get(node);
+        while (index + 1 < sortedNodes.size()) {
+            RoutingNode next = sortedNodes.get(index + 1);
+            int nextSize = next.shards().size();
+            if (nextSize > size || (nextSize == size && order.get(next) > nodeOrder)) {
+                break;
+            }
+            sortedNodes.set(index, next);
+            index++;
+        }
+        sortedNodes.set(index, node);
+    }
+
     /**
      * Applies the new nodes to the routing nodes and returns them (just the
      * new nodes);
@@ -275,8 +303,7 @@ public class ShardsAllocation extends AbstractComponent {
     private void applyNewNodes(RoutingNodes routingNodes, Iterable<DiscoveryNode> liveNodes) {
         for (DiscoveryNode node : liveNodes) {
             if (!routingNodes.nodesToShards().containsKey(node.id())) {
-                RoutingNode routingNode = new RoutingNode(node.id());
-                routingNodes.nodesToShards().put(node.id(), routingNode);
+                routingNodes.addNode(node.id());
             }
         }
     }
@@ -347,15 +374,13 @@ public class ShardsAllocation extends AbstractComponent {
 
             RoutingNode currentRoutingNode = routingNodes.nodesToShards().get(startedShard.currentNodeId());
             if (currentRoutingNode != null) {
-                for (MutableShardRouting shard : currentRoutingNode) {
-                    if (shard.shardId().equals(startedShard.shardId())) {
-                        relocatingNodeId = shard.relocatingNodeId();
-                        if (!shard.started()) {
-                            dirty = true;
-                            shard.moveToStarted();
-                        }
-                        break;
+                for (MutableShardRouting shard : currentRoutingNode.shardsFor(startedShard.shardId())) {
+                    relocatingNodeId = shard.relocatingNodeId();
+                    if (!shard.started()) {
+                        dirty = true;
+                        shard.moveToStarted();
                     }
+                    break;
                 }
             }
 
@@ -368,15 +393,11 @@ public class ShardsAllocation extends AbstractComponent {
 
             RoutingNode sourceRoutingNode = routingNodes.nodesToShards().get(relocatingNodeId);
             if (sourceRoutingNode != null) {
-                Iterator<MutableShardRouting> shardsIter = sourceRoutingNode.iterator();
-                while (shardsIter.hasNext()) {
-                    MutableShardRouting shard = shardsIter.next();
-                    if (shard.shardId().equals(startedShard.shardId())) {
-                        if (shard.relocating()) {
-                            dirty = true;
-                            shardsIter.remove();
-                            break;
-                        }
+                for (MutableShardRouting shard : sourceRoutingNode.shardsFor(startedShard.shardId())) {
+                    if (shard.relocating()) {
+                        dirty = true;
+                        sourceRoutingNode.remove(shard);
+                        break;
                     }
                 }
             }
@@ -394,15 +415,11 @@ public class ShardsAllocation extends AbstractComponent {
             if (inRelocation) {
                 RoutingNode routingNode = allocation.routingNodes().nodesToShards().get(failedShard.currentNodeId());
                 if (routingNode != null) {
-                    Iterator<MutableShardRouting> shards = routingNode.iterator();
-                    while (shards.hasNext()) {
-                        MutableShardRouting shard = shards.next();
-                        if (shard.shardId().equals(failedShard.shardId())) {
-                            shardDirty = true;
-                            shard.deassignNode();
-                            shards.remove();
-                            break;
-                        }
+                    for (MutableShardRouting shard : routingNode.shardsFor(failedShard.shardId())) {
+                        shardDirty = true;
+                        shard.deassignNode();
+                        routingNode.remove(shard);
+                        break;
                     }
                 }
             }
@@ -415,19 +432,15 @@ public class ShardsAllocation extends AbstractComponent {
                 continue;
             }
 
-            Iterator<MutableShardRouting> shards = currentRoutingNode.iterator();
-            while (shards.hasNext()) {
-                MutableShardRouting shard = shards.next();
-                if (shard.shardId().equals(failedShard.shardId())) {
-                    shardDirty = true;
-                    if (!inRelocation) {
-                        shard.deassignNode();
-                        shards.remove();
-                    } else {
-                        shard.cancelRelocation();
-                    }
-                    break;
+            for (MutableShardRouting shard : currentRoutingNode.shardsFor(failedShard.shardId())) {
+                shardDirty = true;
+                if (!inRelocation) {
+                    shard.deassignNode();
+                    currentRoutingNode.remove(shard);
+                } else {
+                    shard.cancelRelocation();
                 }
+                break;
             }
 
             if (!shardDirty) {
@@ -39,6 +39,8 @@ public interface OperationRouting {
 
     ShardIterator getShards(ClusterState clusterState, String index, String type, String id, @Nullable String routing) throws IndexMissingException, IndexShardMissingException;
 
+    ShardIterator getShards(ClusterState clusterState, String index, int shardId) throws IndexMissingException, IndexShardMissingException;
+
     GroupShardsIterator deleteByQueryShards(ClusterState clusterState, String index, @Nullable String routing) throws IndexMissingException;
 
     GroupShardsIterator searchShards(ClusterState clusterState, String[] indices, @Nullable String queryHint, @Nullable String routing) throws IndexMissingException;
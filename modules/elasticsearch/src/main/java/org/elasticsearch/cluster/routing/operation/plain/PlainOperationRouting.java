@@ -69,6 +69,14 @@ public class PlainOperationRouting extends AbstractComponent implements Operatio
         return shards(clusterState, index, type, id, routing).shardsRandomIt();
     }
 
+    @Override public ShardIterator getShards(ClusterState clusterState, String index, int shardId) throws IndexMissingException, IndexShardMissingException {
+        IndexShardRoutingTable indexShard = indexRoutingTable(clusterState, index).shard(shardId);
+        if (indexShard == null) {
+            throw new IndexShardMissingException(new ShardId(index, shardId));
+        }
+        return indexShard.shardsRandomIt();
+    }
+
     @Override public GroupShardsIterator broadcastDeleteShards(ClusterState clusterState, String index) throws IndexMissingException {
         return indexRoutingTable(clusterState, index).groupByShardsIt();
     }
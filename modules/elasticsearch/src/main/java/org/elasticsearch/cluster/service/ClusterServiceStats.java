@@ -0,0 +1,223 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.cluster.service;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Stats of the cluster state update tasks executed by a node, mostly relevant on the master: how long the tasks
+ * waited to be executed, and how many of them got executed in batches (see
+ * {@link org.elasticsearch.cluster.ClusterStateTaskExecutor}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class ClusterServiceStats implements Streamable, Serializable, ToXContent {
+
+    private int pendingTasks;
+
+    private long tasks;
+
+    private long queueTime;
+
+    private long maxQueueTime;
+
+    private long batches;
+
+    private long batchedTasks;
+
+    private long maxBatchSize;
+
+    ClusterServiceStats() {
+    }
+
+    public ClusterServiceStats(int pendingTasks, long tasks, long queueTime, long maxQueueTime, long batches, long batchedTasks, long maxBatchSize) {
+        this.pendingTasks = pendingTasks;
+        this.tasks = tasks;
+        this.queueTime = queueTime;
+        this.maxQueueTime = maxQueueTime;
+        this.batches = batches;
+        this.batchedTasks = batchedTasks;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("cluster_service");
+        builder.field("pending_tasks", pendingTasks);
+        builder.field("tasks", tasks);
+        builder.field("queue_time", queueTime().format());
+        builder.field("queue_time_in_millis", queueTime);
+        builder.field("max_queue_time", maxQueueTime().format());
+        builder.field("max_queue_time_in_millis", maxQueueTime);
+        builder.field("batches", batches);
+        builder.field("batched_tasks", batchedTasks);
+        builder.field("avg_batch_size", avgBatchSize());
+        builder.field("max_batch_size", maxBatchSize);
+        builder.endObject();
+        return builder;
+    }
+
+    public static ClusterServiceStats readClusterServiceStats(StreamInput in) throws IOException {
+        ClusterServiceStats stats = new ClusterServiceStats();
+        stats.readFrom(in);
+        return stats;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        pendingTasks = in.readVInt();
+        tasks = in.readVLong();
+        queueTime = in.readVLong();
+        maxQueueTime = in.readVLong();
+        batches = in.readVLong();
+        batchedTasks = in.readVLong();
+        maxBatchSize = in.readVLong();
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(pendingTasks);
+        out.writeVLong(tasks);
+        out.writeVLong(queueTime);
+        out.writeVLong(maxQueueTime);
+        out.writeVLong(batches);
+        out.writeVLong(batchedTasks);
+        out.writeVLong(maxBatchSize);
+    }
+
+    /**
+     * The number of tasks waiting to be executed.
+     */
+    public int pendingTasks() {
+        return pendingTasks;
+    }
+
+    /**
+     * The number of tasks waiting to be executed.
+     */
+    public int getPendingTasks() {
+        return pendingTasks();
+    }
+
+    /**
+     * The number of executed tasks (each task of a batch counts).
+     */
+    public long tasks() {
+        return tasks;
+    }
+
+    /**
+     * The number of executed tasks (each task of a batch counts).
+     */
+    public long getTasks() {
+        return tasks();
+    }
+
+    /**
+     * The total time the executed tasks waited to be executed.
+     */
+    public TimeValue queueTime() {
+        return new TimeValue(queueTime);
+    }
+
+    /**
+     * The total time the executed tasks waited to be executed.
+     */
+    public TimeValue getQueueTime() {
+        return queueTime();
+    }
+
+    /**
+     * The longest time a task waited to be executed.
+     */
+    public TimeValue maxQueueTime() {
+        return new TimeValue(maxQueueTime);
+    }
+
+    /**
+     * The longest time a task waited to be executed.
+     */
+    public TimeValue getMaxQueueTime() {
+        return maxQueueTime();
+    }
+
+    /**
+     * The number of batches executed.
+     */
+    public long batches() {
+        return batches;
+    }
+
+    /**
+     * The number of batches executed.
+     */
+    public long getBatches() {
+        return batches();
+    }
+
+    /**
+     * The number of tasks executed as part of batches.
+     */
+    public long batchedTasks() {
+        return batchedTasks;
+    }
+
+    /**
+     * The number of tasks executed as part of batches.
+     */
+    public long getBatchedTasks() {
+        return batchedTasks();
+    }
+
+    /**
+     * The average number of tasks in a batch.
+     */
+    public double avgBatchSize() {
+        if (batches == 0) {
+            return 0;
+        }
+        return ((double) batchedTasks) / batches;
+    }
+
+    /**
+     * The average number of tasks in a batch.
+     */
+    public double getAvgBatchSize() {
+        return avgBatchSize();
+    }
+
+    /**
+     * The largest number of tasks executed in a single batch.
+     */
+    public long maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * The largest number of tasks executed in a single batch.
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize();
+    }
+}
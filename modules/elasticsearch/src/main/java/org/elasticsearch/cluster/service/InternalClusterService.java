@@ -27,6 +27,7 @@ import org.elasticsearch.cluster.block.ClusterBlocks;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.routing.operation.OperationRouting;
+import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.inject.Inject;
@@ -34,6 +35,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.timer.Timeout;
 import org.elasticsearch.common.timer.TimerTask;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.jsr166y.LinkedTransferQueue;
 import org.elasticsearch.discovery.DiscoveryService;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -43,10 +45,13 @@ import org.elasticsearch.transport.TransportService;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.concurrent.Executors.*;
 import static org.elasticsearch.cluster.ClusterState.*;
@@ -81,6 +86,22 @@ public class InternalClusterService extends AbstractLifecycleComponent<ClusterSe
 
     private volatile ScheduledFuture reconnectToNodes;
 
+    private final ConcurrentMap<ClusterStateTaskExecutor, Queue<BatchedTask>> batchedTasks = ConcurrentCollections.newConcurrentMap();
+
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    private final AtomicLong executedTasks = new AtomicLong();
+
+    private final AtomicLong queueTime = new AtomicLong();
+
+    private final AtomicLong maxQueueTime = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final AtomicLong batchedTaskCount = new AtomicLong();
+
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
     @Inject public InternalClusterService(Settings settings, DiscoveryService discoveryService, OperationRouting operationRouting, TransportService transportService, ThreadPool threadPool,
                                           TimerService timerService) {
         super(settings);
@@ -171,98 +192,188 @@ public class InternalClusterService extends AbstractLifecycleComponent<ClusterSe
         if (!lifecycle.started()) {
             return;
         }
+        final long submitTime = System.nanoTime();
+        pendingTasks.incrementAndGet();
         updateTasksExecutor.execute(new Runnable() {
             @Override public void run() {
+                pendingTasks.decrementAndGet();
                 if (!lifecycle.started()) {
                     logger.debug("processing [{}]: ignoring, cluster_service not started", source);
                     return;
                 }
-                logger.debug("processing [{}]: execute", source);
-                ClusterState previousClusterState = clusterState;
-                try {
-                    clusterState = updateTask.execute(previousClusterState);
-                } catch (Exception e) {
-                    StringBuilder sb = new StringBuilder("failed to execute cluster state update, state:\nversion [").append(clusterState.version()).append("], source [").append(source).append("]\n");
-                    sb.append(clusterState.nodes().prettyPrint());
-                    sb.append(clusterState.routingTable().prettyPrint());
-                    sb.append(clusterState.readOnlyRoutingNodes().prettyPrint());
-                    logger.warn(sb.toString(), e);
+                onTaskExecuted(System.nanoTime() - submitTime);
+                executeUpdateTask(source, updateTask);
+            }
+        });
+    }
+
+    public <T> void submitStateUpdateTask(final String source, final T task, final ClusterStateTaskExecutor<T> executor) {
+        if (!lifecycle.started()) {
+            return;
+        }
+        Queue<BatchedTask> queue = batchedTasks.get(executor);
+        if (queue == null) {
+            queue = new LinkedTransferQueue<BatchedTask>();
+            Queue<BatchedTask> existing = batchedTasks.putIfAbsent(executor, queue);
+            if (existing != null) {
+                queue = existing;
+            }
+        }
+        final Queue<BatchedTask> executorQueue = queue;
+        pendingTasks.incrementAndGet();
+        executorQueue.add(new BatchedTask(source, task, System.nanoTime()));
+        updateTasksExecutor.execute(new Runnable() {
+            @SuppressWarnings({"unchecked"}) @Override public void run() {
+                // drain all the pending tasks of the executor, the tasks submitted after this one will find
+                // an empty queue once they get processed, since they already got executed as part of this batch
+                final List<T> tasks = Lists.newArrayList();
+                String batchSource = null;
+                long now = System.nanoTime();
+                BatchedTask batchedTask;
+                while ((batchedTask = executorQueue.poll()) != null) {
+                    pendingTasks.decrementAndGet();
+                    if (batchSource == null) {
+                        batchSource = batchedTask.source;
+                    }
+                    onTaskExecuted(now - batchedTask.submitTime);
+                    tasks.add((T) batchedTask.task);
+                }
+                if (tasks.isEmpty()) {
                     return;
                 }
-                if (previousClusterState != clusterState) {
-                    if (clusterState.nodes().localNodeMaster()) {
-                        // only the master controls the version numbers
-                        clusterState = new ClusterState(clusterState.version() + 1, clusterState);
-                    } else {
-                        // we got this cluster state from the master, filter out based on versions (don't call listeners)
-                        if (clusterState.version() < previousClusterState.version()) {
-                            logger.debug("got old cluster state [" + clusterState.version() + "<" + previousClusterState.version() + "] from source [" + source + "], ignoring");
-                            return;
-                        }
+                if (!lifecycle.started()) {
+                    logger.debug("processing [{}]: ignoring, cluster_service not started", batchSource);
+                    return;
+                }
+                if (tasks.size() > 1) {
+                    batchSource = batchSource + " (batched with [" + (tasks.size() - 1) + "] more)";
+                }
+                batches.incrementAndGet();
+                batchedTaskCount.addAndGet(tasks.size());
+                if (tasks.size() > maxBatchSize.get()) {
+                    maxBatchSize.set(tasks.size());
+                }
+                executeUpdateTask(batchSource, new ClusterStateUpdateTask() {
+                    @Override public ClusterState execute(ClusterState currentState) {
+                        return executor.execute(currentState, tasks);
                     }
+                });
+            }
+        });
+    }
 
-                    if (logger.isTraceEnabled()) {
-                        StringBuilder sb = new StringBuilder("cluster state updated:\nversion [").append(clusterState.version()).append("], source [").append(source).append("]\n");
-                        sb.append(clusterState.nodes().prettyPrint());
-                        sb.append(clusterState.routingTable().prettyPrint());
-                        sb.append(clusterState.readOnlyRoutingNodes().prettyPrint());
-                        logger.trace(sb.toString());
-                    } else if (logger.isDebugEnabled()) {
-                        logger.debug("cluster state updated, version [{}], source [{}]", clusterState.version(), source);
-                    }
+    @Override public ClusterServiceStats stats() {
+        return new ClusterServiceStats(pendingTasks.get(), executedTasks.get(), TimeUnit.NANOSECONDS.toMillis(queueTime.get()), TimeUnit.NANOSECONDS.toMillis(maxQueueTime.get()),
+                batches.get(), batchedTaskCount.get(), maxBatchSize.get());
+    }
 
-                    ClusterChangedEvent clusterChangedEvent = new ClusterChangedEvent(source, clusterState, previousClusterState);
-                    // new cluster state, notify all listeners
-                    final DiscoveryNodes.Delta nodesDelta = clusterChangedEvent.nodesDelta();
-                    if (nodesDelta.hasChanges() && logger.isInfoEnabled()) {
-                        String summary = nodesDelta.shortSummary();
-                        if (summary.length() > 0) {
-                            logger.info("{}, reason: {}", summary, source);
-                        }
-                    }
+    // only called on the update tasks thread
+    private void onTaskExecuted(long waitTime) {
+        executedTasks.incrementAndGet();
+        queueTime.addAndGet(waitTime);
+        if (waitTime > maxQueueTime.get()) {
+            maxQueueTime.set(waitTime);
+        }
+    }
 
-                    // TODO, do this in parallel (and wait)
-                    for (DiscoveryNode node : nodesDelta.addedNodes()) {
-                        if (!nodeRequiresConnection(node)) {
-                            continue;
-                        }
-                        try {
-                            transportService.connectToNode(node);
-                        } catch (Exception e) {
-                            // the fault detection will detect it as failed as well
-                            logger.warn("failed to connect to node [" + node + "]", e);
-                        }
-                    }
+    // only called on the update tasks thread
+    private void executeUpdateTask(String source, ClusterStateUpdateTask updateTask) {
+        logger.debug("processing [{}]: execute", source);
+        ClusterState previousClusterState = clusterState;
+        try {
+            clusterState = updateTask.execute(previousClusterState);
+        } catch (Exception e) {
+            StringBuilder sb = new StringBuilder("failed to execute cluster state update, state:\nversion [").append(clusterState.version()).append("], source [").append(source).append("]\n");
+            sb.append(clusterState.nodes().prettyPrint());
+            sb.append(clusterState.routingTable().prettyPrint());
+            sb.append(clusterState.readOnlyRoutingNodes().prettyPrint());
+            logger.warn(sb.toString(), e);
+            return;
+        }
+        if (previousClusterState != clusterState) {
+            if (clusterState.nodes().localNodeMaster()) {
+                // only the master controls the version numbers
+                clusterState = new ClusterState(clusterState.version() + 1, clusterState);
+            } else {
+                // we got this cluster state from the master, filter out based on versions (don't call listeners)
+                if (clusterState.version() < previousClusterState.version()) {
+                    logger.debug("got old cluster state [" + clusterState.version() + "<" + previousClusterState.version() + "] from source [" + source + "], ignoring");
+                    return;
+                }
+            }
 
-                    for (ClusterStateListener listener : clusterStateListeners) {
-                        listener.clusterChanged(clusterChangedEvent);
-                    }
+            if (logger.isTraceEnabled()) {
+                StringBuilder sb = new StringBuilder("cluster state updated:\nversion [").append(clusterState.version()).append("], source [").append(source).append("]\n");
+                sb.append(clusterState.nodes().prettyPrint());
+                sb.append(clusterState.routingTable().prettyPrint());
+                sb.append(clusterState.readOnlyRoutingNodes().prettyPrint());
+                logger.trace(sb.toString());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("cluster state updated, version [{}], source [{}]", clusterState.version(), source);
+            }
 
-                    if (!nodesDelta.removedNodes().isEmpty()) {
-                        threadPool.cached().execute(new Runnable() {
-                            @Override public void run() {
-                                for (DiscoveryNode node : nodesDelta.removedNodes()) {
-                                    transportService.disconnectFromNode(node);
-                                }
-                            }
-                        });
-                    }
+            ClusterChangedEvent clusterChangedEvent = new ClusterChangedEvent(source, clusterState, previousClusterState);
+            // new cluster state, notify all listeners
+            final DiscoveryNodes.Delta nodesDelta = clusterChangedEvent.nodesDelta();
+            if (nodesDelta.hasChanges() && logger.isInfoEnabled()) {
+                String summary = nodesDelta.shortSummary();
+                if (summary.length() > 0) {
+                    logger.info("{}, reason: {}", summary, source);
+                }
+            }
 
-                    // if we are the master, publish the new state to all nodes
-                    if (clusterState.nodes().localNodeMaster()) {
-                        discoveryService.publish(clusterState);
-                    }
+            // TODO, do this in parallel (and wait)
+            for (DiscoveryNode node : nodesDelta.addedNodes()) {
+                if (!nodeRequiresConnection(node)) {
+                    continue;
+                }
+                try {
+                    transportService.connectToNode(node);
+                } catch (Exception e) {
+                    // the fault detection will detect it as failed as well
+                    logger.warn("failed to connect to node [" + node + "]", e);
+                }
+            }
 
-                    if (updateTask instanceof ProcessedClusterStateUpdateTask) {
-                        ((ProcessedClusterStateUpdateTask) updateTask).clusterStateProcessed(clusterState);
+            for (ClusterStateListener listener : clusterStateListeners) {
+                listener.clusterChanged(clusterChangedEvent);
+            }
+
+            if (!nodesDelta.removedNodes().isEmpty()) {
+                threadPool.cached().execute(new Runnable() {
+                    @Override public void run() {
+                        for (DiscoveryNode node : nodesDelta.removedNodes()) {
+                            transportService.disconnectFromNode(node);
+                        }
                     }
+                });
+            }
 
-                    logger.debug("processing [{}]: done applying updated cluster_state", source);
-                } else {
-                    logger.debug("processing [{}]: no change in cluster_state", source);
-                }
+            // if we are the master, publish the new state to all nodes
+            if (clusterState.nodes().localNodeMaster()) {
+                discoveryService.publish(clusterState);
             }
-        });
+
+            if (updateTask instanceof ProcessedClusterStateUpdateTask) {
+                ((ProcessedClusterStateUpdateTask) updateTask).clusterStateProcessed(clusterState);
+            }
+
+            logger.debug("processing [{}]: done applying updated cluster_state", source);
+        } else {
+            logger.debug("processing [{}]: no change in cluster_state", source);
+        }
+    }
+
+    private static class BatchedTask {
+        final String source;
+        final Object task;
+        final long submitTime;
+
+        private BatchedTask(String source, Object task, long submitTime) {
+            this.source = source;
+            this.task = task;
+            this.submitTime = submitTime;
+        }
     }
 
     private class NotifyTimeout implements TimerTask {
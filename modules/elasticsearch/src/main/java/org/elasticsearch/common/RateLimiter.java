@@ -0,0 +1,88 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common;
+
+import org.elasticsearch.ElasticSearchInterruptedException;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ThreadSafe;
+
+/**
+ * Limits the rate in bytes per second of several concurrent writers (or readers) sharing it. Each call to
+ * {@link #pause(long)} reserves the time the bytes take at the max rate, and sleeps until its reservation starts,
+ * so the combined rate of all the callers stays under the max rate.
+ *
+ * @author kimchy (shay.banon)
+ */
+@ThreadSafe
+public class RateLimiter {
+
+    private volatile ByteSizeValue maxRate;
+
+    private volatile double nanosPerByte;
+
+    private long lastNS;
+
+    /**
+     * @param maxRate the max rate per second, <tt>0</tt> bytes for no limit
+     */
+    public RateLimiter(ByteSizeValue maxRate) {
+        setMaxRate(maxRate);
+    }
+
+    public void setMaxRate(ByteSizeValue maxRate) {
+        this.maxRate = maxRate;
+        this.nanosPerByte = maxRate.bytes() <= 0 ? 0 : 1000000000.0 / maxRate.bytes();
+    }
+
+    public ByteSizeValue maxRate() {
+        return this.maxRate;
+    }
+
+    /**
+     * Pauses, if needed, so the bytes are accounted for under the max rate. Returns the time paused in nanos.
+     */
+    public long pause(long bytes) {
+        double nanosPerByte = this.nanosPerByte;
+        if (nanosPerByte == 0 || bytes <= 0) {
+            return 0;
+        }
+        long targetNS;
+        synchronized (this) {
+            long curNS = System.nanoTime();
+            if (lastNS < curNS) {
+                lastNS = curNS;
+            }
+            targetNS = lastNS;
+            lastNS += (long) (bytes * nanosPerByte);
+        }
+        long startNS = System.nanoTime();
+        long pauseNS = targetNS - startNS;
+        while (pauseNS > 0) {
+            try {
+                Thread.sleep(pauseNS / 1000000, (int) (pauseNS % 1000000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ElasticSearchInterruptedException("interrupted while rate limiting", e);
+            }
+            pauseNS = targetNS - System.nanoTime();
+        }
+        return Math.max(0, System.nanoTime() - startNS);
+    }
+}
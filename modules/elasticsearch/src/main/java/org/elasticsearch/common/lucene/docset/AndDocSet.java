@@ -64,9 +64,76 @@ public class AndDocSet extends DocSet {
     }
 
     @Override public DocIdSetIterator iterator() throws IOException {
+        // when one of the sets is sparse, iterate over its docs and check the other sets using random access
+        // instead of leapfrogging over all of them
+        SortedIntDocSet lead = null;
+        for (DocSet set : sets) {
+            if (set instanceof SortedIntDocSet && (lead == null || ((SortedIntDocSet) set).cardinality() < lead.cardinality())) {
+                lead = (SortedIntDocSet) set;
+            }
+        }
+        if (lead != null) {
+            return new LeadAndDocIdSetIterator(lead);
+        }
         return new AndDocIdSetIterator();
     }
 
+    class LeadAndDocIdSetIterator extends DocIdSetIterator {
+
+        private final DocIdSetIterator lead;
+
+        private final DocSet[] others;
+
+        LeadAndDocIdSetIterator(DocSet lead) throws IOException {
+            this.lead = lead.iterator();
+            int size = 0;
+            for (DocSet set : sets) {
+                // all docs sets match any doc anyhow
+                if (set != lead && !(set instanceof AllDocSet)) {
+                    size++;
+                }
+            }
+            this.others = new DocSet[size];
+            int i = 0;
+            for (DocSet set : sets) {
+                if (set != lead && !(set instanceof AllDocSet)) {
+                    others[i++] = set;
+                }
+            }
+        }
+
+        @Override public int docID() {
+            return lead.docID();
+        }
+
+        @Override public int nextDoc() throws IOException {
+            return next(lead.nextDoc());
+        }
+
+        @Override public int advance(int target) throws IOException {
+            return next(lead.advance(target));
+        }
+
+        private int next(int doc) throws IOException {
+            while (doc != NO_MORE_DOCS) {
+                if (matchesOthers(doc)) {
+                    return doc;
+                }
+                doc = lead.nextDoc();
+            }
+            return doc;
+        }
+
+        private boolean matchesOthers(int doc) throws IOException {
+            for (DocSet other : others) {
+                if (!other.get(doc)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     class AndDocIdSetIterator extends DocIdSetIterator {
         int lastReturn = -1;
         private DocIdSetIterator[] iterators = null;
@@ -0,0 +1,132 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.lucene.docset;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.OpenBitSet;
+import org.elasticsearch.common.RamUsage;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A word aligned compressed bit set doc set, holding only the non empty 64 bit words of the bit set along
+ * with their index. Used for results that are too dense for a {@link SortedIntDocSet}, but leave enough
+ * of the segment words empty for the bit set to be worth compressing.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class CompressedBitDocSet extends DocSet {
+
+    // sorted
+    private final int[] wordIndices;
+
+    private final long[] words;
+
+    public CompressedBitDocSet(OpenBitSet set, int nonEmptyWords) {
+        this.wordIndices = new int[nonEmptyWords];
+        this.words = new long[nonEmptyWords];
+        long[] bits = set.getBits();
+        int numWords = set.getNumWords();
+        int index = 0;
+        for (int i = 0; i < numWords; i++) {
+            if (bits[i] != 0) {
+                wordIndices[index] = i;
+                words[index] = bits[i];
+                index++;
+            }
+        }
+    }
+
+    @Override public boolean isCacheable() {
+        return true;
+    }
+
+    @Override public boolean get(int doc) throws IOException {
+        int index = Arrays.binarySearch(wordIndices, doc >>> 6);
+        return index >= 0 && (words[index] & (1L << (doc & 63))) != 0;
+    }
+
+    @Override public long sizeInBytes() {
+        return wordIndices.length * RamUsage.NUM_BYTES_INT + words.length * RamUsage.NUM_BYTES_LONG + 2 * RamUsage.NUM_BYTES_ARRAY_HEADER;
+    }
+
+    @Override public DocIdSetIterator iterator() throws IOException {
+        return new CompressedBitDocIdSetIterator();
+    }
+
+    final class CompressedBitDocIdSetIterator extends DocIdSetIterator {
+
+        private int index = -1;
+
+        // the bits of the current word not returned yet
+        private long word;
+
+        private int base;
+
+        private int doc = -1;
+
+        @Override public int docID() {
+            return doc;
+        }
+
+        @Override public int nextDoc() throws IOException {
+            while (word == 0) {
+                if (++index >= words.length) {
+                    return doc = NO_MORE_DOCS;
+                }
+                word = words[index];
+                base = wordIndices[index] << 6;
+            }
+            int bit = Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            return doc = base + bit;
+        }
+
+        @Override public int advance(int target) throws IOException {
+            int targetWord = target >>> 6;
+            if (index < 0 || index >= words.length || wordIndices[index] < targetWord) {
+                // binary search for the first non empty word at or after the target word
+                int lo = index + 1;
+                int hi = wordIndices.length - 1;
+                while (lo <= hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (wordIndices[mid] < targetWord) {
+                        lo = mid + 1;
+                    } else {
+                        hi = mid - 1;
+                    }
+                }
+                index = lo;
+                if (index >= words.length) {
+                    word = 0;
+                    return doc = NO_MORE_DOCS;
+                }
+                word = words[index];
+                base = wordIndices[index] << 6;
+            }
+            if (wordIndices[index] == targetWord) {
+                // drop the bits before the target
+                word &= -1L << (target & 63);
+            }
+            return nextDoc();
+        }
+    }
+}
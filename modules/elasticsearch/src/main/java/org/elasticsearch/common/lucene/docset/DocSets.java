@@ -23,6 +23,8 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.util.OpenBitSet;
+import org.apache.lucene.util.OpenBitSetDISI;
+import org.elasticsearch.common.RamUsage;
 
 import java.io.IOException;
 
@@ -53,17 +55,55 @@ public class DocSets {
     public static DocSet cacheable(IndexReader reader, DocIdSet docIdSet) throws IOException {
         if (docIdSet == null) {
             return DocSet.EMPTY_DOC_SET;
+        } else if (docIdSet instanceof OpenBitDocSet) {
+            return compact(((OpenBitDocSet) docIdSet).set(), reader.maxDoc());
         } else if (docIdSet.isCacheable() && (docIdSet instanceof DocSet)) {
             return (DocSet) docIdSet;
         } else if (docIdSet instanceof OpenBitSet) {
-            return new OpenBitDocSet((OpenBitSet) docIdSet);
+            return compact((OpenBitSet) docIdSet, reader.maxDoc());
         } else {
             final DocIdSetIterator it = docIdSet.iterator();
             // null is allowed to be returned by iterator(),
             // in this case we wrap with the empty set,
             // which is cacheable.
-            return (it == null) ? DocSet.EMPTY_DOC_SET : new OpenBitDocSet(it, reader.maxDoc());
+            return (it == null) ? DocSet.EMPTY_DOC_SET : compact(new OpenBitSetDISI(it, reader.maxDoc()), reader.maxDoc());
+        }
+    }
+
+    /**
+     * Returns the smallest doc set representation of the bit set based on its density: the empty doc set,
+     * an {@link AllDocSet} when all the docs match, a {@link SortedIntDocSet} for sparse results, a
+     * {@link CompressedBitDocSet} when enough of its words are empty, and the bit set itself otherwise.
+     */
+    public static DocSet compact(OpenBitSet set, int maxDoc) {
+        long[] bits = set.getBits();
+        int numWords = set.getNumWords();
+        int cardinality = 0;
+        int nonEmptyWords = 0;
+        for (int i = 0; i < numWords; i++) {
+            long word = bits[i];
+            if (word != 0) {
+                nonEmptyWords++;
+                cardinality += Long.bitCount(word);
+            }
+        }
+        if (cardinality == 0) {
+            return DocSet.EMPTY_DOC_SET;
+        }
+        if (cardinality == maxDoc) {
+            return new AllDocSet(maxDoc);
+        }
+        long bitSetSize = ((long) bits.length) * RamUsage.NUM_BYTES_LONG;
+        long sortedIntSize = ((long) cardinality) * RamUsage.NUM_BYTES_INT;
+        long compressedSize = ((long) nonEmptyWords) * (RamUsage.NUM_BYTES_LONG + RamUsage.NUM_BYTES_INT);
+        if (sortedIntSize <= compressedSize && sortedIntSize < bitSetSize) {
+            return new SortedIntDocSet(set, cardinality);
+        }
+        // random access on the compressed bit set is a binary search, only use it when it saves a quarter
+        if (compressedSize < bitSetSize - (bitSetSize >> 2)) {
+            return new CompressedBitDocSet(set, nonEmptyWords);
         }
+        return new OpenBitDocSet(set);
     }
 
     private DocSets() {
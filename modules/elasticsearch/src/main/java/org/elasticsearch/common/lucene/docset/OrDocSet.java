@@ -64,6 +64,12 @@ public class OrDocSet extends DocSet {
     }
 
     @Override public DocIdSetIterator iterator() throws IOException {
+        for (DocSet set : sets) {
+            if (set instanceof AllDocSet) {
+                // matches all docs, no need to merge the rest
+                return set.iterator();
+            }
+        }
         return new OrDocIdSetIterator();
     }
 
@@ -0,0 +1,131 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.lucene.docset;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.OpenBitSet;
+import org.elasticsearch.common.RamUsage;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A doc set of sparse results, holding the matching docs as a sorted int array (4 bytes per matching doc,
+ * instead of a bit per doc in the segment).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class SortedIntDocSet extends DocSet {
+
+    private final int[] docs;
+
+    /**
+     * @param docs the docs, sorted and with no duplicates
+     */
+    public SortedIntDocSet(int[] docs) {
+        this.docs = docs;
+    }
+
+    public SortedIntDocSet(OpenBitSet set, int cardinality) {
+        this.docs = new int[cardinality];
+        long[] bits = set.getBits();
+        int numWords = set.getNumWords();
+        int index = 0;
+        for (int i = 0; i < numWords; i++) {
+            long word = bits[i];
+            while (word != 0) {
+                docs[index++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+    }
+
+    public int cardinality() {
+        return docs.length;
+    }
+
+    @Override public boolean isCacheable() {
+        return true;
+    }
+
+    @Override public boolean get(int doc) throws IOException {
+        return Arrays.binarySearch(docs, doc) >= 0;
+    }
+
+    @Override public long sizeInBytes() {
+        return docs.length * RamUsage.NUM_BYTES_INT + RamUsage.NUM_BYTES_ARRAY_HEADER;
+    }
+
+    @Override public DocIdSetIterator iterator() throws IOException {
+        return new SortedIntDocIdSetIterator(docs);
+    }
+
+    static final class SortedIntDocIdSetIterator extends DocIdSetIterator {
+
+        private final int[] docs;
+
+        private int index = -1;
+
+        private int doc = -1;
+
+        SortedIntDocIdSetIterator(int[] docs) {
+            this.docs = docs;
+        }
+
+        @Override public int docID() {
+            return doc;
+        }
+
+        @Override public int nextDoc() throws IOException {
+            if (++index < docs.length) {
+                return doc = docs[index];
+            }
+            return doc = NO_MORE_DOCS;
+        }
+
+        @Override public int advance(int target) throws IOException {
+            // gallop to bound the target, then binary search within the bound, cheap for close targets
+            int lo = index + 1;
+            int hi = lo;
+            int step = 1;
+            while (hi < docs.length && docs[hi] < target) {
+                lo = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            if (hi > docs.length - 1) {
+                hi = docs.length - 1;
+            }
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (docs[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            index = lo;
+            if (index >= docs.length) {
+                return doc = NO_MORE_DOCS;
+            }
+            return doc = docs[index];
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.lucene.versioned;
+
+import org.elasticsearch.common.util.concurrent.ThreadSafe;
+
+import java.util.HashMap;
+
+/**
+ * A map from uid to version values, partitioned into power of two stripes. Each stripe is also the lock
+ * used to serialize operations on the uids it holds, so a check and set of a uid version (and whatever
+ * needs to be done atomically with it) costs a single monitor acquisition, with no shared structure
+ * written to by operations on uids of different stripes.
+ * <p/>
+ * <p>All access to a {@link Stripe} must be done while holding its monitor:
+ * <pre>
+ * StripedVersionMap.Stripe&lt;V&gt; stripe = map.stripe(uid);
+ * synchronized (stripe) {
+ *     V current = stripe.get(uid);
+ *     ...
+ *     stripe.put(uid, updated);
+ * }
+ * </pre>
+ *
+ * @author kimchy (shay.banon)
+ */
+@ThreadSafe
+public class StripedVersionMap<V> {
+
+    private final Stripe<V>[] stripes;
+
+    private final int mask;
+
+    @SuppressWarnings({"unchecked"})
+    public StripedVersionMap(int concurrencyLevel) {
+        int size = 1;
+        while (size < concurrencyLevel) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe<V>();
+        }
+    }
+
+    /**
+     * The number of stripes.
+     */
+    public int concurrencyLevel() {
+        return stripes.length;
+    }
+
+    /**
+     * The stripe the uid belongs to.
+     */
+    public Stripe<V> stripe(String uid) {
+        return stripes[hash(uid.hashCode()) & mask];
+    }
+
+    /**
+     * Returns the version value of the uid, locking its stripe.
+     */
+    public V get(String uid) {
+        Stripe<V> stripe = stripe(uid);
+        synchronized (stripe) {
+            return stripe.get(uid);
+        }
+    }
+
+    /**
+     * Clears all the stripes, locking each one in turn.
+     */
+    public void clear() {
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Applies a supplemental hash function to a given hashCode, which
+     * defends against poor quality hash functions (see {@link NativeVersionedMap}).
+     */
+    private static int hash(int h) {
+        h += (h << 15) ^ 0xffffcd7d;
+        h ^= (h >>> 10);
+        h += (h << 3);
+        h ^= (h >>> 6);
+        h += (h << 2) + (h << 14);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A stripe of the map, all access must be done while holding its monitor.
+     */
+    public static final class Stripe<V> {
+
+        // lazily created, most stripes see no changes between clears on small shards
+        private HashMap<String, V> versions;
+
+        Stripe() {
+        }
+
+        public V get(String uid) {
+            if (versions == null) {
+                return null;
+            }
+            return versions.get(uid);
+        }
+
+        public void put(String uid, V value) {
+            if (versions == null) {
+                versions = new HashMap<String, V>();
+            }
+            versions.put(uid, value);
+        }
+
+        public int size() {
+            return versions == null ? 0 : versions.size();
+        }
+
+        void clear() {
+            // drop the map, so a big burst of changes does not keep a big table around
+            versions = null;
+        }
+    }
+}
@@ -51,6 +51,89 @@ public class XContentMapConverter {
         return map;
     }
 
+    /**
+     * Reads only the parts of the object selected by the given dot delimited paths, skipping the subtrees of other
+     * fields without building them. Once all the top level fields the paths start with have been read, the rest of
+     * the object is not parsed at all (and the parser is left positioned within it).
+     */
+    public static Map<String, Object> readMap(XContentParser parser, String[] paths) throws IOException {
+        Set<String> rootNames = new HashSet<String>();
+        for (String path : paths) {
+            int index = path.indexOf('.');
+            rootNames.add(index == -1 ? path : path.substring(0, index));
+        }
+        return readFilteredMap(parser, paths, null, rootNames.size());
+    }
+
+    private static final int NO_MATCH = 0;
+    private static final int PARTIAL_MATCH = 1;
+    private static final int FULL_MATCH = 2;
+
+    private static Map<String, Object> readFilteredMap(XContentParser parser, String[] paths, String prefix, int fieldsToRead) throws IOException {
+        Map<String, Object> map = new HashMap<String, Object>();
+        XContentParser.Token t = parser.currentToken();
+        if (t == null) {
+            t = parser.nextToken();
+        }
+        if (t == XContentParser.Token.START_OBJECT) {
+            t = parser.nextToken();
+        }
+        for (; t == XContentParser.Token.FIELD_NAME; t = parser.nextToken()) {
+            String fieldName = parser.currentName();
+            String fullName = prefix == null ? fieldName : prefix + '.' + fieldName;
+            t = parser.nextToken();
+            int match = match(paths, fullName);
+            if (match == FULL_MATCH) {
+                map.put(fieldName, readValue(parser, t));
+            } else if (match == PARTIAL_MATCH) {
+                Object value = readFilteredValue(parser, t, paths, fullName);
+                if (value != null) {
+                    map.put(fieldName, value);
+                }
+            } else {
+                parser.skipChildren();
+                continue;
+            }
+            if (--fieldsToRead == 0) {
+                break;
+            }
+        }
+        return map;
+    }
+
+    private static Object readFilteredValue(XContentParser parser, XContentParser.Token t, String[] paths, String fullName) throws IOException {
+        if (t == XContentParser.Token.START_OBJECT) {
+            return readFilteredMap(parser, paths, fullName, -1);
+        } else if (t == XContentParser.Token.START_ARRAY) {
+            ArrayList<Object> list = new ArrayList<Object>();
+            while ((t = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                // only objects can hold the inner fields the paths point to
+                Object value = readFilteredValue(parser, t, paths, fullName);
+                if (value != null) {
+                    list.add(value);
+                }
+            }
+            return list;
+        }
+        // a leaf value while the paths point to fields within it
+        return null;
+    }
+
+    private static int match(String[] paths, String fullName) {
+        int match = NO_MATCH;
+        for (String path : paths) {
+            if (path.startsWith(fullName)) {
+                if (path.length() == fullName.length()) {
+                    return FULL_MATCH;
+                }
+                if (path.charAt(fullName.length()) == '.') {
+                    match = PARTIAL_MATCH;
+                }
+            }
+        }
+        return match;
+    }
+
     private static List<Object> readList(XContentParser parser, XContentParser.Token t) throws IOException {
         ArrayList<Object> list = new ArrayList<Object>();
         while ((t = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
@@ -19,9 +19,15 @@
 
 package org.elasticsearch.discovery.zen.publish;
 
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.IncompatibleClusterStateVersionException;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.compress.lzf.LZFDecoder;
+import org.elasticsearch.common.compress.lzf.LZFEncoder;
+import org.elasticsearch.common.io.stream.BytesStreamInput;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
@@ -33,6 +39,11 @@ import org.elasticsearch.transport.*;
 import java.io.IOException;
 
 /**
+ * Publishes the cluster state to all the nodes. Nodes that were part of the previously published cluster
+ * state are sent a diff against it, other nodes (or nodes that fail to apply the diff since they don't have
+ * the previous version) are sent the full cluster state. Both are serialized once per publish and compressed
+ * using LZF.
+ *
  * @author kimchy (shay.banon)
  */
 public class PublishClusterStateAction extends AbstractComponent {
@@ -47,12 +58,21 @@ public class PublishClusterStateAction extends AbstractComponent {
 
     private final NewClusterStateListener listener;
 
+    private final boolean diff;
+
+    // the last cluster state published by this node (when master)
+    private volatile ClusterState lastPublishedState;
+
+    // the last cluster state received from the master, diffs are applied on it
+    private volatile ClusterState lastReceivedState;
+
     public PublishClusterStateAction(Settings settings, TransportService transportService, DiscoveryNodesProvider nodesProvider,
                                      NewClusterStateListener listener) {
         super(settings);
         this.transportService = transportService;
         this.nodesProvider = nodesProvider;
         this.listener = listener;
+        this.diff = componentSettings.getAsBoolean("diff", true);
         transportService.registerHandler(PublishClusterStateRequestHandler.ACTION, new PublishClusterStateRequestHandler());
     }
 
@@ -61,41 +81,128 @@ public class PublishClusterStateAction extends AbstractComponent {
     }
 
     public void publish(ClusterState clusterState) {
+        final ClusterState previousState = lastPublishedState;
+        lastPublishedState = clusterState;
+        // once we publish, we are the master, and any state we received before is no longer relevant
+        lastReceivedState = null;
+
+        final SerializedClusterState serializedState = new SerializedClusterState(previousState, clusterState);
         DiscoveryNode localNode = nodesProvider.nodes().localNode();
         for (final DiscoveryNode node : clusterState.nodes()) {
             if (node.equals(localNode)) {
                 // no need to send to our self
                 continue;
             }
-            transportService.sendRequest(node, PublishClusterStateRequestHandler.ACTION,
-                    new PublishClusterStateRequest(clusterState),
-                    TransportRequestOptions.options().withHighType(),
-
-                    new VoidTransportResponseHandler(false) {
-                        @Override public void handleException(TransportException exp) {
-                            logger.debug("failed to send cluster state to [{}], should be detected as failed soon...", exp, node);
-                        }
-                    });
+            if (diff && previousState != null && previousState.nodes().nodeExists(node.id())) {
+                byte[] diffBytes;
+                try {
+                    diffBytes = serializedState.diffBytes();
+                } catch (Exception e) {
+                    logger.warn("failed to serialize cluster state diff, sending full cluster state to [{}]", e, node);
+                    sendFullClusterState(node, serializedState);
+                    continue;
+                }
+                transportService.sendRequest(node, PublishClusterStateRequestHandler.ACTION,
+                        new PublishClusterStateRequest(true, diffBytes),
+                        TransportRequestOptions.options().withHighType(),
+
+                        new VoidTransportResponseHandler(false) {
+                            @Override public void handleException(TransportException exp) {
+                                if (ExceptionsHelper.unwrapCause(exp) instanceof IncompatibleClusterStateVersionException) {
+                                    logger.trace("[{}] could not apply cluster state diff, sending full cluster state", node);
+                                    sendFullClusterState(node, serializedState);
+                                } else {
+                                    logger.debug("failed to send cluster state to [{}], should be detected as failed soon...", exp, node);
+                                }
+                            }
+                        });
+            } else {
+                sendFullClusterState(node, serializedState);
+            }
+        }
+    }
+
+    private void sendFullClusterState(final DiscoveryNode node, SerializedClusterState serializedState) {
+        byte[] fullBytes;
+        try {
+            fullBytes = serializedState.fullBytes();
+        } catch (Exception e) {
+            logger.warn("failed to serialize cluster state, not sending it to [{}]", e, node);
+            return;
+        }
+        transportService.sendRequest(node, PublishClusterStateRequestHandler.ACTION,
+                new PublishClusterStateRequest(false, fullBytes),
+                TransportRequestOptions.options().withHighType(),
+
+                new VoidTransportResponseHandler(false) {
+                    @Override public void handleException(TransportException exp) {
+                        logger.debug("failed to send cluster state to [{}], should be detected as failed soon...", exp, node);
+                    }
+                });
+    }
+
+    /**
+     * Serializes (and compresses) the full state and the diff on demand, once for all the nodes.
+     */
+    private static class SerializedClusterState {
+
+        private final ClusterState previousState;
+
+        private final ClusterState state;
+
+        private byte[] fullBytes;
+
+        private byte[] diffBytes;
+
+        SerializedClusterState(ClusterState previousState, ClusterState state) {
+            this.previousState = previousState;
+            this.state = state;
+        }
+
+        synchronized byte[] fullBytes() throws IOException {
+            if (fullBytes == null) {
+                BytesStreamOutput out = new BytesStreamOutput();
+                ClusterState.Builder.writeTo(state, out);
+                fullBytes = LZFEncoder.encode(out.unsafeByteArray(), out.size());
+            }
+            return fullBytes;
+        }
+
+        synchronized byte[] diffBytes() throws IOException {
+            if (diffBytes == null) {
+                BytesStreamOutput out = new BytesStreamOutput();
+                ClusterState.Builder.writeDiffTo(previousState, state, out);
+                diffBytes = LZFEncoder.encode(out.unsafeByteArray(), out.size());
+            }
+            return diffBytes;
         }
     }
 
     private class PublishClusterStateRequest implements Streamable {
 
-        private ClusterState clusterState;
+        private boolean diff;
+
+        // the LZF compressed cluster state (or diff)
+        private byte[] bytes;
 
         private PublishClusterStateRequest() {
         }
 
-        private PublishClusterStateRequest(ClusterState clusterState) {
-            this.clusterState = clusterState;
+        private PublishClusterStateRequest(boolean diff, byte[] bytes) {
+            this.diff = diff;
+            this.bytes = bytes;
         }
 
         @Override public void readFrom(StreamInput in) throws IOException {
-            clusterState = ClusterState.Builder.readFrom(in, nodesProvider.nodes().localNode());
+            diff = in.readBoolean();
+            bytes = new byte[in.readVInt()];
+            in.readFully(bytes);
         }
 
         @Override public void writeTo(StreamOutput out) throws IOException {
-            ClusterState.Builder.writeTo(clusterState, out);
+            out.writeBoolean(diff);
+            out.writeVInt(bytes.length);
+            out.writeBytes(bytes);
         }
     }
 
@@ -108,7 +215,17 @@ public class PublishClusterStateAction extends AbstractComponent {
         }
 
         @Override public void messageReceived(PublishClusterStateRequest request, TransportChannel channel) throws Exception {
-            listener.onNewClusterState(request.clusterState);
+            DiscoveryNode localNode = nodesProvider.nodes().localNode();
+            BytesStreamInput in = new BytesStreamInput(LZFDecoder.decode(request.bytes));
+            ClusterState clusterState;
+            if (request.diff) {
+                // throws an IncompatibleClusterStateVersionException if we don't have the version the diff was created from
+                clusterState = ClusterState.Builder.readDiffFrom(in, lastReceivedState, localNode);
+            } else {
+                clusterState = ClusterState.Builder.readFrom(in, localNode);
+            }
+            lastReceivedState = clusterState;
+            listener.onNewClusterState(clusterState);
             channel.sendResponse(VoidStreamable.INSTANCE);
         }
 
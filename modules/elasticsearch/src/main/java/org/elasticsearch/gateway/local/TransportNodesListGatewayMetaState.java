@@ -65,6 +65,10 @@ public class TransportNodesListGatewayMetaState extends TransportNodesOperationA
         return "/gateway/local/meta-state";
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected String transportNodeAction() {
         return "/gateway/local/meta-state/node";
     }
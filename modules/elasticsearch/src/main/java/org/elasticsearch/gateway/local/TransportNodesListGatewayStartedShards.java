@@ -65,6 +65,10 @@ public class TransportNodesListGatewayStartedShards extends TransportNodesOperat
         return "/gateway/local/started-shards";
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected String transportNodeAction() {
         return "/gateway/local/started-shards/node";
     }
@@ -44,6 +44,21 @@ public interface FieldDataCache extends IndexComponent, CloseableComponent {
 
     long evictions();
 
+    /**
+     * The number of times field data was found in the cache.
+     */
+    long hits();
+
+    /**
+     * The number of times field data was not found in the cache, and had to be loaded.
+     */
+    long misses();
+
+    /**
+     * The total time spent loading field data.
+     */
+    long loadTimeInMillis();
+
     long sizeInBytes();
 
     long sizeInBytes(String fieldName);
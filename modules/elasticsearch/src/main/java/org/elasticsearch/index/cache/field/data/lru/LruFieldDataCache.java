@@ -0,0 +1,160 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache.field.data.lru;
+
+import org.apache.lucene.index.IndexReader;
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.cache.field.data.FieldDataLruCache;
+import org.elasticsearch.common.collect.MapMaker;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.AbstractIndexComponent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.field.data.FieldDataCache;
+import org.elasticsearch.index.field.data.FieldData;
+import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.field.data.support.MappedFieldDataLoader;
+import org.elasticsearch.index.settings.IndexSettings;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A field data cache that holds its field data in the node level {@link FieldDataLruCache}, so the field data
+ * of all the indices using it is bounded by a max size, and evicted in least recently used order.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class LruFieldDataCache extends AbstractIndexComponent implements FieldDataCache, FieldDataLruCache.Owner {
+
+    private final FieldDataLruCache lruCache;
+
+    // used to load a reader field data only once, weak keys so they go away with the readers
+    private final ConcurrentMap<Object, Object> loadMutexes;
+
+    // null when field data is kept on the heap
+    private final MappedFieldDataLoader mappedLoader;
+
+    private final Object creationMutex = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong loadTimeInNanos = new AtomicLong();
+
+    @Inject public LruFieldDataCache(Index index, @IndexSettings Settings indexSettings, FieldDataLruCache lruCache) {
+        super(index, indexSettings);
+        this.lruCache = lruCache;
+        this.loadMutexes = new MapMaker().weakKeys().makeMap();
+        this.mappedLoader = MappedFieldDataLoader.fromSettings(index, indexSettings);
+    }
+
+    @Override public FieldData cache(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
+        Object readerKey = reader.getFieldCacheKey();
+        FieldData fieldData = lruCache.get(this, readerKey, fieldName);
+        if (fieldData != null) {
+            hits.incrementAndGet();
+            return fieldData;
+        }
+        Object loadMutex = loadMutexes.get(readerKey);
+        if (loadMutex == null) {
+            synchronized (creationMutex) {
+                loadMutex = loadMutexes.get(readerKey);
+                if (loadMutex == null) {
+                    loadMutex = new Object();
+                    loadMutexes.put(readerKey, loadMutex);
+                }
+            }
+        }
+        synchronized (loadMutex) {
+            fieldData = lruCache.get(this, readerKey, fieldName);
+            if (fieldData != null) {
+                hits.incrementAndGet();
+                return fieldData;
+            }
+            misses.incrementAndGet();
+            long start = System.nanoTime();
+            fieldData = mappedLoader == null ? FieldData.load(type, reader, fieldName) : mappedLoader.load(type, reader, fieldName);
+            loadTimeInNanos.addAndGet(System.nanoTime() - start);
+            lruCache.put(this, readerKey, fieldName, fieldData);
+        }
+        return fieldData;
+    }
+
+    @Override public void onEviction(Object readerKey, String fieldName, FieldData fieldData) {
+        evictions.incrementAndGet();
+    }
+
+    @Override public String type() {
+        return "lru";
+    }
+
+    @Override public void clear() {
+        lruCache.clear(this);
+    }
+
+    @Override public void clear(IndexReader reader) {
+        lruCache.clear(this, reader.getFieldCacheKey());
+        loadMutexes.remove(reader.getFieldCacheKey());
+        if (mappedLoader != null) {
+            mappedLoader.clear(reader);
+        }
+    }
+
+    @Override public void clearUnreferenced() {
+        // nothing to do here...
+    }
+
+    @Override public void close() throws ElasticSearchException {
+        clear();
+        if (mappedLoader != null) {
+            mappedLoader.close();
+        }
+    }
+
+    @Override public long evictions() {
+        return evictions.get();
+    }
+
+    @Override public long hits() {
+        return hits.get();
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
+    @Override public long loadTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(loadTimeInNanos.get());
+    }
+
+    @Override public long sizeInBytes() {
+        return lruCache.sizeInBytes(this);
+    }
+
+    @Override public long sizeInBytes(String fieldName) {
+        return lruCache.sizeInBytes(this, fieldName);
+    }
+}
@@ -31,19 +31,29 @@ import org.elasticsearch.index.field.data.FieldDataType;
 import org.elasticsearch.index.settings.IndexSettings;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author kimchy (shay.banon)
  */
 public class NoneFieldDataCache extends AbstractIndexComponent implements FieldDataCache {
 
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong loadTimeInNanos = new AtomicLong();
+
     @Inject public NoneFieldDataCache(Index index, @IndexSettings Settings indexSettings) {
         super(index, indexSettings);
         logger.debug("Using no field cache");
     }
 
     @Override public FieldData cache(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
-        return FieldData.load(type, reader, fieldName);
+        misses.incrementAndGet();
+        long start = System.nanoTime();
+        FieldData fieldData = FieldData.load(type, reader, fieldName);
+        loadTimeInNanos.addAndGet(System.nanoTime() - start);
+        return fieldData;
     }
 
     @Override public String type() {
@@ -73,4 +83,16 @@ public class NoneFieldDataCache extends AbstractIndexComponent implements FieldD
     @Override public long evictions() {
         return 0;
     }
+
+    @Override public long hits() {
+        return 0;
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
+    @Override public long loadTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(loadTimeInNanos.get());
+    }
 }
@@ -29,10 +29,13 @@ import org.elasticsearch.index.Index;
 import org.elasticsearch.index.cache.field.data.FieldDataCache;
 import org.elasticsearch.index.field.data.FieldData;
 import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.field.data.support.MappedFieldDataLoader;
 import org.elasticsearch.index.settings.IndexSettings;
 
 import java.io.IOException;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author kimchy (shay.banon)
@@ -41,17 +44,30 @@ public abstract class AbstractConcurrentMapFieldDataCache extends AbstractIndexC
 
     private final ConcurrentMap<Object, ConcurrentMap<String, FieldData>> cache;
 
+    // null when field data is kept on the heap
+    private final MappedFieldDataLoader mappedLoader;
+
     private final Object creationMutex = new Object();
 
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong loadTimeInNanos = new AtomicLong();
+
     protected AbstractConcurrentMapFieldDataCache(Index index, @IndexSettings Settings indexSettings) {
         super(index, indexSettings);
         // weak keys is fine, it will only be cleared once IndexReader references will be removed
         // (assuming clear(...) will not be called)
         this.cache = new MapMaker().weakKeys().makeMap();
+        this.mappedLoader = MappedFieldDataLoader.fromSettings(index, indexSettings);
     }
 
     @Override public void close() throws ElasticSearchException {
         clear();
+        if (mappedLoader != null) {
+            mappedLoader.close();
+        }
     }
 
     @Override public void clear() {
@@ -64,12 +80,27 @@ public abstract class AbstractConcurrentMapFieldDataCache extends AbstractIndexC
         if (map != null) {
             map.clear();
         }
+        if (mappedLoader != null) {
+            mappedLoader.clear(reader);
+        }
     }
 
     @Override public void clearUnreferenced() {
         // nothing to do here...
     }
 
+    @Override public long hits() {
+        return hits.get();
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
+    @Override public long loadTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(loadTimeInNanos.get());
+    }
+
     @Override public long sizeInBytes() {
         // the overhead of the map is not really relevant...
         long sizeInBytes = 0;
@@ -108,11 +139,16 @@ public abstract class AbstractConcurrentMapFieldDataCache extends AbstractIndexC
             synchronized (fieldDataCache) {
                 fieldData = fieldDataCache.get(fieldName);
                 if (fieldData == null) {
-                    fieldData = FieldData.load(type, reader, fieldName);
+                    misses.incrementAndGet();
+                    long start = System.nanoTime();
+                    fieldData = mappedLoader == null ? FieldData.load(type, reader, fieldName) : mappedLoader.load(type, reader, fieldName);
+                    loadTimeInNanos.addAndGet(System.nanoTime() - start);
                     fieldDataCache.put(fieldName, fieldData);
+                    return fieldData;
                 }
             }
         }
+        hits.incrementAndGet();
         return fieldData;
     }
 
@@ -47,4 +47,19 @@ public interface FilterCache extends IndexComponent, CloseableComponent {
     void clearUnreferenced();
 
     long sizeInBytes();
+
+    /**
+     * The number of times a doc set was found in the cache.
+     */
+    long hits();
+
+    /**
+     * The number of times a doc set was not found in the cache, and had to be computed.
+     */
+    long misses();
+
+    /**
+     * The number of doc sets evicted from the cache because of its size.
+     */
+    long evictions();
 }
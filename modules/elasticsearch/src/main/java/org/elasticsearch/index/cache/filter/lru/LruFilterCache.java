@@ -0,0 +1,235 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache.filter.lru;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.DocIdSet;
+import org.apache.lucene.search.Filter;
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.cache.filter.FilterLruCache;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lucene.docset.DocSet;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.AbstractIndexComponent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.filter.FilterCache;
+import org.elasticsearch.index.settings.IndexSettings;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.elasticsearch.common.lucene.docset.DocSets.*;
+
+/**
+ * A filter cache that holds its doc sets in the node level {@link FilterLruCache}, so the doc sets of all the
+ * indices using it are bounded by a max size, and evicted in least recently used order.
+ *
+ * <p>A filter is only cached for a segment once it has been used <tt>index.cache.filter.lru.min_use</tt> times
+ * (defaults to <tt>2</tt>) on it, so one off filters do not push out the ones that are reused. The uses are counted
+ * for the last <tt>index.cache.filter.lru.history_size</tt> (defaults to <tt>1000</tt>) segment and filter pairs.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class LruFilterCache extends AbstractIndexComponent implements FilterCache, FilterLruCache.Owner {
+
+    private final FilterLruCache lruCache;
+
+    private final int minUse;
+
+    private final int historySize;
+
+    // access ordered, guarded by itself
+    private final LinkedHashMap<HistoryKey, Integer> history;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Inject public LruFilterCache(Index index, @IndexSettings Settings indexSettings, FilterLruCache lruCache) {
+        super(index, indexSettings);
+        this.lruCache = lruCache;
+        this.minUse = componentSettings.getAsInt("min_use", 2);
+        this.historySize = componentSettings.getAsInt("history_size", 1000);
+        this.history = new LinkedHashMap<HistoryKey, Integer>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<HistoryKey, Integer> eldest) {
+                return size() > LruFilterCache.this.historySize;
+            }
+        };
+        logger.debug("using lru filter cache with min_use [{}], history_size [{}]", minUse, historySize);
+    }
+
+    @Override public String type() {
+        return "lru";
+    }
+
+    @Override public Filter cache(Filter filterToCache) {
+        if (isCached(filterToCache)) {
+            return filterToCache;
+        }
+        return new LruFilterCacheFilterWrapper(filterToCache, this);
+    }
+
+    @Override public Filter weakCache(Filter filterToCache) {
+        return cache(filterToCache);
+    }
+
+    @Override public boolean isCached(Filter filter) {
+        return filter instanceof LruFilterCacheFilterWrapper;
+    }
+
+    @Override public void onEviction(Object readerKey, Filter filter, DocSet docSet) {
+        evictions.incrementAndGet();
+    }
+
+    @Override public void clear() {
+        lruCache.clear(this);
+        synchronized (history) {
+            history.clear();
+        }
+    }
+
+    @Override public void clear(IndexReader reader) {
+        Object readerKey = reader.getFieldCacheKey();
+        lruCache.clear(this, readerKey);
+        synchronized (history) {
+            for (Iterator<HistoryKey> it = history.keySet().iterator(); it.hasNext();) {
+                if (it.next().readerKey == readerKey) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @Override public void clearUnreferenced() {
+        // nothing to do here, segments are cleared explicitly and the rest is evicted
+    }
+
+    @Override public void close() throws ElasticSearchException {
+        clear();
+    }
+
+    @Override public long sizeInBytes() {
+        return lruCache.sizeInBytes(this);
+    }
+
+    @Override public long hits() {
+        return hits.get();
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
+    @Override public long evictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Records a use of the filter on the segment, returning <tt>true</tt> if it has been used enough to be cached.
+     */
+    boolean shouldCache(Object readerKey, Filter filter) {
+        if (minUse <= 1) {
+            return true;
+        }
+        HistoryKey key = new HistoryKey(readerKey, filter);
+        synchronized (history) {
+            Integer uses = history.get(key);
+            int newUses = uses == null ? 1 : uses + 1;
+            if (newUses >= minUse) {
+                history.remove(key);
+                return true;
+            }
+            history.put(key, newUses);
+            return false;
+        }
+    }
+
+    static class LruFilterCacheFilterWrapper extends Filter {
+
+        private final Filter filter;
+
+        private final LruFilterCache cache;
+
+        LruFilterCacheFilterWrapper(Filter filter, LruFilterCache cache) {
+            this.filter = filter;
+            this.cache = cache;
+        }
+
+        @Override public DocIdSet getDocIdSet(IndexReader reader) throws IOException {
+            Object readerKey = reader.getFieldCacheKey();
+            DocSet docSet = cache.lruCache.get(cache, readerKey, filter);
+            if (docSet != null) {
+                cache.hits.incrementAndGet();
+                return docSet;
+            }
+            cache.misses.incrementAndGet();
+            DocIdSet docIdSet = filter.getDocIdSet(reader);
+            if (!cache.shouldCache(readerKey, filter)) {
+                // still return a doc set, callers of cached filters rely on random access
+                return convert(reader, docIdSet);
+            }
+            docSet = cacheable(reader, docIdSet);
+            cache.lruCache.put(cache, readerKey, filter, docSet);
+            return docSet;
+        }
+
+        public String toString() {
+            return "LruFilterCacheFilterWrapper(" + filter + ")";
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof LruFilterCacheFilterWrapper)) return false;
+            return this.filter.equals(((LruFilterCacheFilterWrapper) o).filter);
+        }
+
+        public int hashCode() {
+            return filter.hashCode() ^ 0x1117BF25;
+        }
+    }
+
+    static class HistoryKey {
+
+        // the reader field cache key, compared by identity
+        final Object readerKey;
+
+        final Filter filter;
+
+        HistoryKey(Object readerKey, Filter filter) {
+            this.readerKey = readerKey;
+            this.filter = filter;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            HistoryKey key = (HistoryKey) o;
+            return readerKey == key.readerKey && filter.equals(key.filter);
+        }
+
+        @Override public int hashCode() {
+            return 31 * System.identityHashCode(readerKey) + filter.hashCode();
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.elasticsearch.index.settings.IndexSettings;
 
 import java.io.IOException;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.elasticsearch.common.lucene.docset.DocSets.*;
 import static org.elasticsearch.common.util.concurrent.ConcurrentCollections.*;
@@ -45,6 +46,10 @@ public abstract class AbstractConcurrentMapFilterCache extends AbstractIndexComp
 
     final ConcurrentMap<Object, ConcurrentMap<Filter, DocSet>> cache;
 
+    final AtomicLong hits = new AtomicLong();
+
+    final AtomicLong misses = new AtomicLong();
+
     protected AbstractConcurrentMapFilterCache(Index index, @IndexSettings Settings indexSettings) {
         super(index, indexSettings);
         // weak keys is fine, it will only be cleared once IndexReader references will be removed
@@ -98,6 +103,19 @@ public abstract class AbstractConcurrentMapFilterCache extends AbstractIndexComp
         return sizeInBytes;
     }
 
+    @Override public long hits() {
+        return hits.get();
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
+    @Override public long evictions() {
+        // entries are reclaimed by the GC, not evicted
+        return 0;
+    }
+
     @Override public Filter cache(Filter filterToCache) {
         if (isCached(filterToCache)) {
             return filterToCache;
@@ -143,8 +161,10 @@ public abstract class AbstractConcurrentMapFilterCache extends AbstractIndexComp
             }
             DocSet docSet = cachedFilters.get(filter);
             if (docSet != null) {
+                cache.hits.incrementAndGet();
                 return docSet;
             }
+            cache.misses.incrementAndGet();
             DocIdSet docIdSet = filter.getDocIdSet(reader);
             docSet = cacheable(reader, docIdSet);
             DocSet prev = cachedFilters.putIfAbsent(filter, docSet);
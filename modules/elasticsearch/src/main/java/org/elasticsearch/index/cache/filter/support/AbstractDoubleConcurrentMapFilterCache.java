@@ -32,6 +32,7 @@ import org.elasticsearch.index.settings.IndexSettings;
 
 import java.io.IOException;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.elasticsearch.common.lucene.docset.DocSets.*;
 import static org.elasticsearch.common.util.concurrent.ConcurrentCollections.*;
@@ -46,6 +47,10 @@ public abstract class AbstractDoubleConcurrentMapFilterCache extends AbstractInd
     final ConcurrentMap<Object, ConcurrentMap<Filter, DocSet>> cache;
     final ConcurrentMap<Object, ConcurrentMap<Filter, DocSet>> weakCache;
 
+    final AtomicLong hits = new AtomicLong();
+
+    final AtomicLong misses = new AtomicLong();
+
     protected AbstractDoubleConcurrentMapFilterCache(Index index, @IndexSettings Settings indexSettings) {
         super(index, indexSettings);
         // weak keys is fine, it will only be cleared once IndexReader references will be removed
@@ -94,6 +99,19 @@ public abstract class AbstractDoubleConcurrentMapFilterCache extends AbstractInd
         return sizeInBytes;
     }
 
+    @Override public long hits() {
+        return hits.get();
+    }
+
+    @Override public long misses() {
+        return misses.get();
+    }
+
+    @Override public long evictions() {
+        // entries are reclaimed by the GC, not evicted
+        return 0;
+    }
+
     @Override public Filter cache(Filter filterToCache) {
         if (isCached(filterToCache)) {
             return filterToCache;
@@ -150,8 +168,10 @@ public abstract class AbstractDoubleConcurrentMapFilterCache extends AbstractInd
             }
             DocSet docSet = cachedFilters.get(filter);
             if (docSet != null) {
+                cache.hits.incrementAndGet();
                 return docSet;
             }
+            cache.misses.incrementAndGet();
 
             DocIdSet docIdSet = filter.getDocIdSet(reader);
             docSet = cacheable(reader, docIdSet);
@@ -194,6 +214,7 @@ public abstract class AbstractDoubleConcurrentMapFilterCache extends AbstractInd
             if (cachedFilters != null) {
                 docSet = cachedFilters.get(filter);
                 if (docSet != null) {
+                    cache.hits.incrementAndGet();
                     return docSet;
                 }
             }
@@ -210,8 +231,10 @@ public abstract class AbstractDoubleConcurrentMapFilterCache extends AbstractInd
 
             docSet = weakCacheFilters.get(filter);
             if (docSet != null) {
+                cache.hits.incrementAndGet();
                 return docSet;
             }
+            cache.misses.incrementAndGet();
 
             DocIdSet docIdSet = filter.getDocIdSet(reader);
             docSet = cacheable(reader, docIdSet);
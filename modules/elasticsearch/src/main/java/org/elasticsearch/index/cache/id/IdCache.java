@@ -40,4 +40,9 @@ public interface IdCache extends IndexComponent, CloseableComponent, Iterable<Id
     void refresh(IndexReader[] readers) throws Exception;
 
     IdReaderCache reader(IndexReader reader);
+
+    /**
+     * The (estimated) memory used by the cache.
+     */
+    long sizeInBytes();
 }
@@ -22,7 +22,7 @@ package org.elasticsearch.index.cache.id;
 import org.elasticsearch.common.inject.AbstractModule;
 import org.elasticsearch.common.inject.Scopes;
 import org.elasticsearch.common.settings.Settings;
-import org.elasticsearch.index.cache.id.simple.SimpleIdCache;
+import org.elasticsearch.index.cache.id.primitive.PrimitiveIdCache;
 
 /**
  * @author kimchy (shay.banon)
@@ -41,7 +41,7 @@ public class IdCacheModule extends AbstractModule {
 
     @Override protected void configure() {
         bind(IdCache.class)
-                .to(settings.getAsClass(IdCacheSettings.ID_CACHE_TYPE, SimpleIdCache.class, "org.elasticsearch.index.cache.id.", "IdCache"))
+                .to(settings.getAsClass(IdCacheSettings.ID_CACHE_TYPE, PrimitiveIdCache.class, "org.elasticsearch.index.cache.id.", "IdCache"))
                 .in(Scopes.SINGLETON);
     }
 }
@@ -29,4 +29,11 @@ public interface IdReaderTypeCache {
     BytesWrap parentIdByDoc(int docId);
 
     int docById(BytesWrap id);
+
+    /**
+     * Returns the doc with the parent id of the provided doc of the other type cache, <tt>-1</tt> if it has no
+     * parent or there is no such doc. Same as <tt>docById(other.parentIdByDoc(docId))</tt>, without copying the
+     * parent id when the caches can compare it in place.
+     */
+    int docByParentIdOf(IdReaderTypeCache other, int docId);
 }
@@ -0,0 +1,238 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache.id.primitive;
+
+import org.elasticsearch.common.BytesWrap;
+import org.elasticsearch.common.RamUsage;
+import org.elasticsearch.common.io.FastByteArrayOutputStream;
+import org.elasticsearch.common.trove.list.array.TIntArrayList;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * A table of ids (byte sequences) of a segment, stored in primitive buffers (either on the heap, or direct
+ * buffers allocated outside of it): all the id bytes one after the other, the offset of each id, an int value
+ * associated with each id, and optionally an open addressing hash table used to find an id value.
+ *
+ * <p>The hash of an id is the same as its {@link BytesWrap#hashCode()}, so a lookup does not need to rehash it.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class IdTable {
+
+    private final ByteBuffer bytes;
+
+    // offsets.get(i) is the start of the i'th id, and offsets.get(i + 1) its end
+    private final IntBuffer offsets;
+
+    private final IntBuffer values;
+
+    // index + 1 of the id in each slot, 0 for an empty slot, null if not hashed
+    private final IntBuffer table;
+
+    private final int mask;
+
+    private final int size;
+
+    IdTable(ByteBuffer bytes, IntBuffer offsets, IntBuffer values, IntBuffer table, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.values = values;
+        this.table = table;
+        this.mask = table == null ? 0 : table.capacity() - 1;
+        this.size = size;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the value associated with the id, <tt>-1</tt> if there is no such id.
+     */
+    public int get(BytesWrap id) {
+        byte[] key = id.bytes();
+        int slot = mix(id.hashCode()) & mask;
+        while (true) {
+            int entry = table.get(slot);
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            if (equals(index, key)) {
+                return values.get(index);
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the value associated with the i'th id of the other table, <tt>-1</tt> if there is no such id. The ids
+     * are compared in place, unlike {@link #get(BytesWrap)} on a copy of the id.
+     */
+    public int get(IdTable other, int otherIndex) {
+        int otherStart = other.offsets.get(otherIndex);
+        int length = other.offsets.get(otherIndex + 1) - otherStart;
+        int hash = 1;
+        for (int i = otherStart; i < otherStart + length; i++) {
+            hash = 31 * hash + other.bytes.get(i);
+        }
+        int slot = mix(hash) & mask;
+        while (true) {
+            int entry = table.get(slot);
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            if (equals(index, other, otherStart, length)) {
+                return values.get(index);
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns a copy of the i'th id.
+     */
+    public BytesWrap id(int index) {
+        int start = offsets.get(index);
+        byte[] id = new byte[offsets.get(index + 1) - start];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = bytes.get(start + i);
+        }
+        return new BytesWrap(id);
+    }
+
+    public long sizeInBytes() {
+        long sizeInBytes = bytes.capacity() + (offsets.capacity() + values.capacity()) * RamUsage.NUM_BYTES_INT;
+        if (table != null) {
+            sizeInBytes += table.capacity() * RamUsage.NUM_BYTES_INT;
+        }
+        return sizeInBytes;
+    }
+
+    private boolean equals(int index, byte[] key) {
+        int start = offsets.get(index);
+        if (offsets.get(index + 1) - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (bytes.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equals(int index, IdTable other, int otherStart, int length) {
+        int start = offsets.get(index);
+        if (offsets.get(index + 1) - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes.get(start + i) != other.bytes.get(otherStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int hash(byte[] bytes, int offset, int length) {
+        // same as Arrays#hashCode(byte[]), used by BytesWrap
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int mix(int h) {
+        h ^= (h >>> 20) ^ (h >>> 12);
+        return h ^ (h >>> 7) ^ (h >>> 4);
+    }
+
+    static ByteBuffer allocateBytes(int size, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+    static IntBuffer allocateInts(int size, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(size * RamUsage.NUM_BYTES_INT).order(ByteOrder.nativeOrder()).asIntBuffer() : IntBuffer.allocate(size);
+    }
+
+    static class Builder {
+
+        private final FastByteArrayOutputStream bytes = new FastByteArrayOutputStream();
+
+        private final TIntArrayList offsets = new TIntArrayList();
+
+        private final TIntArrayList values = new TIntArrayList();
+
+        private final TIntArrayList hashes = new TIntArrayList();
+
+        public int size() {
+            return values.size();
+        }
+
+        public void add(byte[] id, int length, int value) {
+            offsets.add(bytes.size());
+            bytes.write(id, 0, length);
+            values.add(value);
+            hashes.add(hash(id, 0, length));
+        }
+
+        /**
+         * @param direct allocate the buffers outside of the heap
+         * @param hashed build the hash table, needed for {@link IdTable#get(BytesWrap)}
+         */
+        public IdTable build(boolean direct, boolean hashed) {
+            int size = values.size();
+            ByteBuffer bytesBuffer = allocateBytes(bytes.size(), direct);
+            bytesBuffer.put(bytes.unsafeByteArray(), 0, bytes.size());
+            IntBuffer offsetsBuffer = allocateInts(size + 1, direct);
+            IntBuffer valuesBuffer = allocateInts(size, direct);
+            for (int i = 0; i < size; i++) {
+                offsetsBuffer.put(i, offsets.get(i));
+                valuesBuffer.put(i, values.get(i));
+            }
+            offsetsBuffer.put(size, bytes.size());
+
+            IntBuffer table = null;
+            if (hashed) {
+                // keep the load factor at or below 0.5
+                int capacity = 2;
+                while (capacity < size * 2) {
+                    capacity <<= 1;
+                }
+                table = allocateInts(capacity, direct);
+                int mask = capacity - 1;
+                for (int i = 0; i < size; i++) {
+                    int slot = mix(hashes.get(i)) & mask;
+                    while (table.get(slot) != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table.put(slot, i + 1);
+                }
+            }
+            return new IdTable(bytesBuffer, offsetsBuffer, valuesBuffer, table, size);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache.id.primitive;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermDocs;
+import org.apache.lucene.index.TermEnum;
+import org.apache.lucene.util.StringHelper;
+import org.apache.lucene.util.UnicodeUtil;
+import org.elasticsearch.ElasticSearchException;
+import org.elasticsearch.common.Unicode;
+import org.elasticsearch.common.collect.MapBuilder;
+import org.elasticsearch.common.collect.MapMaker;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.AbstractIndexComponent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.id.IdCache;
+import org.elasticsearch.index.cache.id.IdReaderCache;
+import org.elasticsearch.index.mapper.ParentFieldMapper;
+import org.elasticsearch.index.mapper.Uid;
+import org.elasticsearch.index.mapper.UidFieldMapper;
+import org.elasticsearch.index.settings.IndexSettings;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An id cache storing, per segment and type, the ids (as utf8 byte sequences) and the parent ids in primitive
+ * buffers (see {@link IdTable}) instead of an object per id. Each segment is loaded on its own, so a refresh
+ * only loads the new segments. Setting <tt>index.cache.id.primitive.direct</tt> to <tt>true</tt> allocates
+ * the buffers outside of the heap.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class PrimitiveIdCache extends AbstractIndexComponent implements IdCache {
+
+    private final ConcurrentMap<Object, PrimitiveIdReaderCache> idReaders;
+
+    private final boolean direct;
+
+    @Inject public PrimitiveIdCache(Index index, @IndexSettings Settings indexSettings) {
+        super(index, indexSettings);
+        this.idReaders = new MapMaker().weakKeys().makeMap();
+        this.direct = componentSettings.getAsBoolean("direct", false);
+    }
+
+    @Override public void close() throws ElasticSearchException {
+        clear();
+    }
+
+    @Override public void clear() {
+        idReaders.clear();
+    }
+
+    @Override public void clear(IndexReader reader) {
+        idReaders.remove(reader.getFieldCacheKey());
+    }
+
+    @Override public void clearUnreferenced() {
+        // nothing to do here...
+    }
+
+    @Override public IdReaderCache reader(IndexReader reader) {
+        return idReaders.get(reader.getFieldCacheKey());
+    }
+
+    @SuppressWarnings({"unchecked"}) @Override public Iterator<IdReaderCache> iterator() {
+        return (Iterator) idReaders.values().iterator();
+    }
+
+    @Override public long sizeInBytes() {
+        long sizeInBytes = 0;
+        for (PrimitiveIdReaderCache idReader : idReaders.values()) {
+            sizeInBytes += idReader.sizeInBytes();
+        }
+        return sizeInBytes;
+    }
+
+    @Override public void refresh(IndexReader[] readers) throws Exception {
+        // do a quick check for the common case, that all are there
+        if (refreshNeeded(readers)) {
+            synchronized (idReaders) {
+                for (IndexReader reader : readers) {
+                    if (idReaders.containsKey(reader.getFieldCacheKey())) {
+                        // already loaded, segments don't share anything, so there is no need to go over it again
+                        continue;
+                    }
+                    idReaders.put(reader.getFieldCacheKey(), load(reader));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings({"StringEquality"})
+    private PrimitiveIdReaderCache load(IndexReader reader) throws IOException {
+        Map<String, TypeBuilder> builders = new HashMap<String, TypeBuilder>();
+
+        // first, load the id -> doc of all the types, the uid terms are type#id, so the terms of a type are
+        // next to each other
+        String field = StringHelper.intern(UidFieldMapper.NAME);
+        TermDocs termDocs = reader.termDocs();
+        TermEnum termEnum = reader.terms(new Term(field));
+        try {
+            String currentType = null;
+            TypeBuilder typeBuilder = null;
+            do {
+                Term term = termEnum.term();
+                if (term == null || term.field() != field) break;
+                Uid uid = Uid.createUid(term.text());
+                if (!uid.type().equals(currentType)) {
+                    currentType = uid.type();
+                    typeBuilder = typeBuilder(builders, currentType);
+                }
+
+                int doc = -1;
+                termDocs.seek(termEnum);
+                while (termDocs.next()) {
+                    // when traversing, make sure to ignore deleted docs, so the key->docId will be correct
+                    if (!reader.isDeleted(termDocs.doc())) {
+                        doc = termDocs.doc();
+                    }
+                }
+                if (doc != -1) {
+                    UnicodeUtil.UTF8Result id = Unicode.unsafeFromStringAsUtf8(uid.id());
+                    typeBuilder.ids.add(id.result, id.length, doc);
+                }
+            } while (termEnum.next());
+        } finally {
+            termDocs.close();
+            termEnum.close();
+        }
+
+        // now, load the doc -> parent id, the type is the type of the parent
+        field = StringHelper.intern(ParentFieldMapper.NAME);
+        termDocs = reader.termDocs();
+        termEnum = reader.terms(new Term(field));
+        try {
+            String currentType = null;
+            TypeBuilder typeBuilder = null;
+            do {
+                Term term = termEnum.term();
+                if (term == null || term.field() != field) break;
+                Uid uid = Uid.createUid(term.text());
+                if (!uid.type().equals(currentType)) {
+                    currentType = uid.type();
+                    typeBuilder = typeBuilder(builders, currentType);
+                }
+
+                int ordinal = 0; // optimize for when all the docs are deleted for this id
+                termDocs.seek(termEnum);
+                while (termDocs.next()) {
+                    // ignore deleted docs while we are at it
+                    if (!reader.isDeleted(termDocs.doc())) {
+                        if (ordinal == 0) {
+                            UnicodeUtil.UTF8Result id = Unicode.unsafeFromStringAsUtf8(uid.id());
+                            typeBuilder.parentIds.add(id.result, id.length, 0);
+                            ordinal = typeBuilder.parentIds.size();
+                        }
+                        typeBuilder.parentIdsOrdinals(reader.maxDoc())[termDocs.doc()] = ordinal;
+                    }
+                }
+            } while (termEnum.next());
+        } finally {
+            termDocs.close();
+            termEnum.close();
+        }
+
+        // now, build it
+        MapBuilder<String, PrimitiveIdReaderTypeCache> types = MapBuilder.newMapBuilder();
+        for (Map.Entry<String, TypeBuilder> entry : builders.entrySet()) {
+            TypeBuilder typeBuilder = entry.getValue();
+            IdTable ids = typeBuilder.ids.size() == 0 ? null : typeBuilder.ids.build(direct, true);
+            IdTable parentIds = null;
+            IntBuffer parentIdsOrdinals = null;
+            if (typeBuilder.parentIdsOrdinals != null) {
+                parentIds = typeBuilder.parentIds.build(direct, false);
+                if (direct) {
+                    parentIdsOrdinals = IdTable.allocateInts(typeBuilder.parentIdsOrdinals.length, true);
+                    parentIdsOrdinals.put(typeBuilder.parentIdsOrdinals);
+                } else {
+                    parentIdsOrdinals = IntBuffer.wrap(typeBuilder.parentIdsOrdinals);
+                }
+            }
+            types.put(entry.getKey(), new PrimitiveIdReaderTypeCache(entry.getKey(), ids, parentIds, parentIdsOrdinals));
+        }
+        return new PrimitiveIdReaderCache(reader.getFieldCacheKey(), types.immutableMap());
+    }
+
+    private TypeBuilder typeBuilder(Map<String, TypeBuilder> builders, String type) {
+        TypeBuilder typeBuilder = builders.get(type);
+        if (typeBuilder == null) {
+            typeBuilder = new TypeBuilder();
+            builders.put(StringHelper.intern(type), typeBuilder);
+        }
+        return typeBuilder;
+    }
+
+    private boolean refreshNeeded(IndexReader[] readers) {
+        for (IndexReader reader : readers) {
+            if (!idReaders.containsKey(reader.getFieldCacheKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static class TypeBuilder {
+        final IdTable.Builder ids = new IdTable.Builder();
+        final IdTable.Builder parentIds = new IdTable.Builder();
+        // only created when docs of the segment point to parents of the type
+        int[] parentIdsOrdinals;
+
+        int[] parentIdsOrdinals(int maxDoc) {
+            if (parentIdsOrdinals == null) {
+                parentIdsOrdinals = new int[maxDoc];
+            }
+            return parentIdsOrdinals;
+        }
+    }
+}
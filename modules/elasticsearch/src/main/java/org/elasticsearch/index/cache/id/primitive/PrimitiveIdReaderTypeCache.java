@@ -0,0 +1,105 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache.id.primitive;
+
+import org.elasticsearch.common.BytesWrap;
+import org.elasticsearch.common.RamUsage;
+import org.elasticsearch.index.cache.id.IdReaderTypeCache;
+
+import java.nio.IntBuffer;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class PrimitiveIdReaderTypeCache implements IdReaderTypeCache {
+
+    private final String type;
+
+    // id -> doc, null if the segment has no docs of the type
+    private final IdTable ids;
+
+    // the parent ids docs of the segment point to, null if no doc points to a parent of the type
+    private final IdTable parentIds;
+
+    // doc -> parent id index + 1, 0 for no parent
+    private final IntBuffer parentIdsOrdinals;
+
+    public PrimitiveIdReaderTypeCache(String type, IdTable ids, IdTable parentIds, IntBuffer parentIdsOrdinals) {
+        this.type = type;
+        this.ids = ids;
+        this.parentIds = parentIds;
+        this.parentIdsOrdinals = parentIdsOrdinals;
+    }
+
+    public String type() {
+        return this.type;
+    }
+
+    @Override public BytesWrap parentIdByDoc(int docId) {
+        if (parentIdsOrdinals == null) {
+            return null;
+        }
+        int ordinal = parentIdsOrdinals.get(docId);
+        if (ordinal == 0) {
+            return null;
+        }
+        return parentIds.id(ordinal - 1);
+    }
+
+    @Override public int docById(BytesWrap id) {
+        if (ids == null) {
+            return -1;
+        }
+        return ids.get(id);
+    }
+
+    @Override public int docByParentIdOf(IdReaderTypeCache other, int docId) {
+        if (ids == null) {
+            return -1;
+        }
+        if (!(other instanceof PrimitiveIdReaderTypeCache)) {
+            BytesWrap parentId = other.parentIdByDoc(docId);
+            return parentId == null ? -1 : ids.get(parentId);
+        }
+        PrimitiveIdReaderTypeCache primitiveOther = (PrimitiveIdReaderTypeCache) other;
+        if (primitiveOther.parentIdsOrdinals == null) {
+            return -1;
+        }
+        int ordinal = primitiveOther.parentIdsOrdinals.get(docId);
+        if (ordinal == 0) {
+            return -1;
+        }
+        return ids.get(primitiveOther.parentIds, ordinal - 1);
+    }
+
+    public long sizeInBytes() {
+        long sizeInBytes = 0;
+        if (ids != null) {
+            sizeInBytes += ids.sizeInBytes();
+        }
+        if (parentIds != null) {
+            sizeInBytes += parentIds.sizeInBytes();
+        }
+        if (parentIdsOrdinals != null) {
+            sizeInBytes += parentIdsOrdinals.capacity() * RamUsage.NUM_BYTES_INT;
+        }
+        return sizeInBytes;
+    }
+}
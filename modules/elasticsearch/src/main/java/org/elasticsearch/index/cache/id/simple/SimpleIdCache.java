@@ -83,6 +83,14 @@ public class SimpleIdCache extends AbstractIndexComponent implements IdCache {
         return (Iterator<IdReaderCache>) idReaders.values();
     }
 
+    @Override public long sizeInBytes() {
+        long sizeInBytes = 0;
+        for (SimpleIdReaderCache idReader : idReaders.values()) {
+            sizeInBytes += idReader.sizeInBytes();
+        }
+        return sizeInBytes;
+    }
+
     @SuppressWarnings({"StringEquality"})
     @Override public void refresh(IndexReader[] readers) throws Exception {
         // do a quick check for the common case, that all are there
@@ -20,7 +20,9 @@
 package org.elasticsearch.index.cache.id.simple;
 
 import org.elasticsearch.common.BytesWrap;
+import org.elasticsearch.common.RamUsage;
 import org.elasticsearch.common.trove.ExtTObjectIntHasMap;
+import org.elasticsearch.common.trove.iterator.TObjectIntIterator;
 import org.elasticsearch.index.cache.id.IdReaderTypeCache;
 
 /**
@@ -57,6 +59,30 @@ public class SimpleIdReaderTypeCache implements IdReaderTypeCache {
         return idToDoc.get(id);
     }
 
+    public int docByParentIdOf(IdReaderTypeCache other, int docId) {
+        // the parent ids are not copied by this cache
+        BytesWrap parentId = other.parentIdByDoc(docId);
+        if (parentId == null) {
+            return -1;
+        }
+        return idToDoc.get(parentId);
+    }
+
+    /**
+     * An estimation of the memory used, ids are counted even if they are shared with other readers.
+     */
+    public long sizeInBytes() {
+        long sizeInBytes = parentIdsOrdinals.length * RamUsage.NUM_BYTES_INT + parentIdsValues.length * RamUsage.NUM_BYTES_OBJECT_REF;
+        for (TObjectIntIterator<BytesWrap> it = idToDoc.iterator(); it.hasNext();) {
+            it.advance();
+            // the id bytes, its wrapper, and the key and value slots of the map
+            sizeInBytes += it.key().bytes().length + RamUsage.NUM_BYTES_ARRAY_HEADER
+                    + RamUsage.NUM_BYTES_OBJECT_HEADER + RamUsage.NUM_BYTES_OBJECT_REF + RamUsage.NUM_BYTES_INT
+                    + RamUsage.NUM_BYTES_OBJECT_REF + RamUsage.NUM_BYTES_INT;
+        }
+        return sizeInBytes;
+    }
+
     /**
      * Returns an already stored instance if exists, if not, returns null;
      */
@@ -64,6 +64,12 @@ public interface Engine extends IndexShardComponent, CloseableComponent {
 
     void delete(DeleteByQuery delete) throws EngineException;
 
+    /**
+     * Gets a document by its uid. A realtime get returns the latest version of the document, reading it from the
+     * transaction log if it has not been refreshed yet. The returned result must be released.
+     */
+    GetResult get(Get get) throws EngineException;
+
     Searcher searcher() throws EngineException;
 
     /**
@@ -543,4 +549,121 @@ public interface Engine extends IndexShardComponent, CloseableComponent {
             return this.types;
         }
     }
+
+    static class Get {
+        private final boolean realtime;
+        private final Term uid;
+        private Searcher searcher;
+        private boolean loadFromTranslog = true;
+
+        public Get(boolean realtime, Term uid) {
+            this.realtime = realtime;
+            this.uid = uid;
+        }
+
+        public boolean realtime() {
+            return this.realtime;
+        }
+
+        public Term uid() {
+            return this.uid;
+        }
+
+        /**
+         * A searcher to look the doc up with (as long as it still reflects the latest refresh) instead of
+         * acquiring one, allowing to reuse it across several gets. It is owned (and released) by the caller.
+         */
+        public Get searcher(Searcher searcher) {
+            this.searcher = searcher;
+            return this;
+        }
+
+        @Nullable public Searcher searcher() {
+            return this.searcher;
+        }
+
+        /**
+         * Can a realtime get be served with the source of the doc read from the transaction log. Set it
+         * to <tt>false</tt> when more than the source is needed, a doc that was not refreshed yet will then
+         * cause a refresh so it can be loaded from the index. Defaults to <tt>true</tt>.
+         */
+        public Get loadFromTranslog(boolean loadFromTranslog) {
+            this.loadFromTranslog = loadFromTranslog;
+            return this;
+        }
+
+        public boolean loadFromTranslog() {
+            return this.loadFromTranslog;
+        }
+    }
+
+    /**
+     * The result of a get, either the source of the document read from the transaction log, or the doc id of
+     * the document along with the searcher it was found with (released with {@link #release()}).
+     */
+    static class GetResult {
+
+        public static final GetResult NOT_EXISTS = new GetResult(false, -1, null);
+
+        private final boolean exists;
+        private final long version;
+        private final byte[] source;
+        private final Searcher searcher;
+        private final boolean releaseSearcher;
+        private final UidField.DocIdAndVersion docIdAndVersion;
+
+        public GetResult(boolean exists, long version, @Nullable byte[] source) {
+            this.exists = exists;
+            this.version = version;
+            this.source = source;
+            this.searcher = null;
+            this.releaseSearcher = false;
+            this.docIdAndVersion = null;
+        }
+
+        public GetResult(Searcher searcher, UidField.DocIdAndVersion docIdAndVersion) {
+            this(searcher, docIdAndVersion, true);
+        }
+
+        /**
+         * @param releaseSearcher <tt>false</tt> if the searcher is the one given with {@link Get#searcher(Searcher)}
+         */
+        public GetResult(Searcher searcher, UidField.DocIdAndVersion docIdAndVersion, boolean releaseSearcher) {
+            this.exists = true;
+            this.version = docIdAndVersion.version;
+            this.source = null;
+            this.searcher = searcher;
+            this.releaseSearcher = releaseSearcher;
+            this.docIdAndVersion = docIdAndVersion;
+        }
+
+        public boolean exists() {
+            return this.exists;
+        }
+
+        public long version() {
+            return this.version;
+        }
+
+        /**
+         * The source of the document when read from the transaction log, <tt>null</tt> otherwise.
+         */
+        @Nullable public byte[] source() {
+            return this.source;
+        }
+
+        @Nullable public Searcher searcher() {
+            return this.searcher;
+        }
+
+        @Nullable public UidField.DocIdAndVersion docIdAndVersion() {
+            return this.docIdAndVersion;
+        }
+
+        public void release() {
+            if (searcher != null && releaseSearcher) {
+                searcher.release();
+            }
+        }
+    }
 }
@@ -33,6 +33,7 @@ import org.elasticsearch.common.lucene.IndexWriters;
 import org.elasticsearch.common.lucene.ReaderSearcherHolder;
 import org.elasticsearch.common.lucene.search.ExtendedIndexSearcher;
 import org.elasticsearch.common.lucene.uid.UidField;
+import org.elasticsearch.common.lucene.versioned.StripedVersionMap;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
@@ -55,8 +56,6 @@ import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.translog.Translog;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -120,9 +119,14 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
 
     private final AtomicBoolean flushing = new AtomicBoolean();
 
-    private final ConcurrentMap<String, VersionValue> versionMap;
+    // the versions of the uids changed since the last flush, each stripe also serializes the operations on its uids
+    private final StripedVersionMap<VersionValue> versionMap;
 
-    private final Object[] dirtyLocks;
+    // documents indexed before the last delete by query might have been deleted by it, so are not read from the translog
+    private volatile Translog.Location lastDeleteByQueryLocation;
+
+    // a realtime get needs to refresh first for the searcher to reflect a delete by query
+    private volatile boolean deleteByQuerySinceRefresh = false;
 
     @Inject public RobinEngine(ShardId shardId, @IndexSettings Settings indexSettings, Store store, SnapshotDeletionPolicy deletionPolicy, Translog translog,
                                MergePolicyProvider mergePolicyProvider, MergeSchedulerProvider mergeScheduler,
@@ -149,11 +153,7 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         this.similarityService = similarityService;
         this.bloomCache = bloomCache;
 
-        this.versionMap = new ConcurrentHashMap<String, VersionValue>(1000);
-        this.dirtyLocks = new Object[componentSettings.getAsInt("concurrency", 10000)];
-        for (int i = 0; i < dirtyLocks.length; i++) {
-            dirtyLocks[i] = new Object();
-        }
+        this.versionMap = new StripedVersionMap<VersionValue>(componentSettings.getAsInt("concurrency", 10000));
     }
 
     @Override public void updateIndexingBufferSize(ByteSizeValue indexingBufferSize) {
@@ -310,20 +310,21 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
     }
 
     private void innerCreate(Create create, IndexWriter writer) throws IOException {
-        synchronized (dirtyLock(create.uid())) {
+        StripedVersionMap.Stripe<VersionValue> versions = versionMap.stripe(create.uid().text());
+        synchronized (versions) {
             UidField uidField = create.uidField();
             if (create.origin() == Operation.Origin.RECOVERY) {
                 // on recovery, we get the actual version we want to use
-                if (create.version() != 0) {
-                    versionMap.put(create.uid().text(), new VersionValue(create.version(), false));
-                }
                 uidField.version(create.version());
                 writer.addDocument(create.doc(), create.analyzer());
-                translog.add(new Translog.Create(create));
+                Translog.Location location = translog.add(new Translog.Create(create));
+                if (create.version() != 0) {
+                    versions.put(create.uid().text(), new VersionValue(create.version(), false, location));
+                }
             } else {
                 long expectedVersion = create.version();
                 long currentVersion;
-                VersionValue versionValue = versionMap.get(create.uid().text());
+                VersionValue versionValue = versions.get(create.uid().text());
                 if (versionValue == null) {
                     currentVersion = loadCurrentVersionFromIndex(create.uid());
                 } else {
@@ -369,12 +370,12 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                     throw new DocumentAlreadyExistsEngineException(shardId, create.type(), create.id());
                 }
 
-                versionMap.put(create.uid().text(), new VersionValue(updatedVersion, false));
                 uidField.version(updatedVersion);
                 create.version(updatedVersion);
 
                 writer.addDocument(create.doc(), create.analyzer());
-                translog.add(new Translog.Create(create));
+                Translog.Location location = translog.add(new Translog.Create(create));
+                versions.put(create.uid().text(), new VersionValue(updatedVersion, false, location));
             }
         }
     }
@@ -400,20 +401,21 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
     }
 
     private void innerIndex(Index index, IndexWriter writer) throws IOException {
-        synchronized (dirtyLock(index.uid())) {
+        StripedVersionMap.Stripe<VersionValue> versions = versionMap.stripe(index.uid().text());
+        synchronized (versions) {
             UidField uidField = index.uidField();
             if (index.origin() == Operation.Origin.RECOVERY) {
                 // on recovery, we get the actual version we want to use
-                if (index.version() != 0) {
-                    versionMap.put(index.uid().text(), new VersionValue(index.version(), false));
-                }
                 uidField.version(index.version());
                 writer.updateDocument(index.uid(), index.doc(), index.analyzer());
-                translog.add(new Translog.Index(index));
+                Translog.Location location = translog.add(new Translog.Index(index));
+                if (index.version() != 0) {
+                    versions.put(index.uid().text(), new VersionValue(index.version(), false, location));
+                }
             } else {
                 long expectedVersion = index.version();
                 long currentVersion;
-                VersionValue versionValue = versionMap.get(index.uid().text());
+                VersionValue versionValue = versions.get(index.uid().text());
                 if (versionValue == null) {
                     currentVersion = loadCurrentVersionFromIndex(index.uid());
                 } else {
@@ -449,7 +451,6 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                     updatedVersion = index.version();
                 }
 
-                versionMap.put(index.uid().text(), new VersionValue(updatedVersion, false));
                 uidField.version(updatedVersion);
                 index.version(updatedVersion);
 
@@ -459,7 +460,8 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                 } else {
                     writer.updateDocument(index.uid(), index.doc(), index.analyzer());
                 }
-                translog.add(new Translog.Index(index));
+                Translog.Location location = translog.add(new Translog.Index(index));
+                versions.put(index.uid().text(), new VersionValue(updatedVersion, false, location));
             }
         }
     }
@@ -484,18 +486,19 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
     }
 
     private void innerDelete(Delete delete, IndexWriter writer) throws IOException {
-        synchronized (dirtyLock(delete.uid())) {
+        StripedVersionMap.Stripe<VersionValue> versions = versionMap.stripe(delete.uid().text());
+        synchronized (versions) {
             if (delete.origin() == Operation.Origin.RECOVERY) {
                 // update the version with the exact version from recovery, assuming we have it
                 if (delete.version() != 0) {
-                    versionMap.put(delete.uid().text(), new VersionValue(delete.version(), true));
+                    versions.put(delete.uid().text(), new VersionValue(delete.version(), true));
                 }
 
                 writer.deleteDocuments(delete.uid());
                 translog.add(new Translog.Delete(delete));
             } else {
                 long currentVersion;
-                VersionValue versionValue = versionMap.get(delete.uid().text());
+                VersionValue versionValue = versions.get(delete.uid().text());
                 if (versionValue == null) {
                     currentVersion = loadCurrentVersionFromIndex(delete.uid());
                 } else {
@@ -537,7 +540,7 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                     // if its a delete on delete and we have the current delete version, return it
                     delete.version(versionValue.version()).notFound(true);
                 } else {
-                    versionMap.put(delete.uid().text(), new VersionValue(updatedVersion, true));
+                    versions.put(delete.uid().text(), new VersionValue(updatedVersion, true));
                     delete.version(updatedVersion);
                     writer.deleteDocuments(delete.uid());
                     translog.add(new Translog.Delete(delete));
@@ -554,7 +557,8 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                 throw new EngineClosedException(shardId);
             }
             writer.deleteDocuments(delete.query());
-            translog.add(new Translog.DeleteByQuery(delete));
+            lastDeleteByQueryLocation = translog.add(new Translog.DeleteByQuery(delete));
+            deleteByQuerySinceRefresh = true;
             dirty = true;
         } catch (IOException e) {
             throw new DeleteByQueryFailedEngineException(shardId, delete, e);
@@ -563,6 +567,88 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         }
     }
 
+    @Override public GetResult get(Get get) throws EngineException {
+        if (get.realtime()) {
+            boolean refresh = deleteByQuerySinceRefresh;
+            rwl.readLock().lock();
+            try {
+                if (indexWriter == null) {
+                    throw new EngineClosedException(shardId);
+                }
+                VersionValue versionValue;
+                StripedVersionMap.Stripe<VersionValue> versions = versionMap.stripe(get.uid().text());
+                synchronized (versions) {
+                    versionValue = versions.get(get.uid().text());
+                }
+                if (versionValue != null) {
+                    if (versionValue.delete()) {
+                        return GetResult.NOT_EXISTS;
+                    }
+                    if (get.loadFromTranslog() && readableFromTranslog(versionValue.translogLocation())) {
+                        // the translog can't be replaced while we hold the read lock, flush takes the write lock
+                        Translog.Operation operation = translog.read(versionValue.translogLocation());
+                        if (operation != null) {
+                            byte[] source;
+                            if (operation.opType() == Translog.Operation.Type.CREATE) {
+                                source = ((Translog.Create) operation).source();
+                            } else {
+                                source = ((Translog.Index) operation).source();
+                            }
+                            return new GetResult(true, versionValue.version(), source);
+                        }
+                    }
+                    // the latest change of the doc can't be read from the translog, refresh so the searcher sees it
+                    refresh = true;
+                }
+            } catch (EngineException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new GetFailedEngineException(shardId, get, e);
+            } finally {
+                rwl.readLock().unlock();
+            }
+            if (refresh) {
+                refresh(new Refresh(false));
+            }
+        }
+
+        // a searcher given with the get is used only if no refresh happened since it was acquired, otherwise
+        // a change of the doc might have been flushed out of the version map without it seeing it
+        Searcher searcher = get.searcher();
+        boolean shared = searcher != null && searcher.reader() == nrtResource.resource().reader();
+        if (!shared) {
+            searcher = searcher();
+        }
+        try {
+            UidField.DocIdAndVersion docIdAndVersion = UidField.loadDocIdAndVersion(searcher.reader(), get.uid());
+            if (docIdAndVersion.docId != NO_DOC) {
+                return new GetResult(searcher, docIdAndVersion, !shared);
+            }
+        } catch (Exception e) {
+            if (!shared) {
+                searcher.release();
+            }
+            throw new GetFailedEngineException(shardId, get, e);
+        }
+        if (!shared) {
+            searcher.release();
+        }
+        return GetResult.NOT_EXISTS;
+    }
+
+    /**
+     * Documents written before the last delete by query might have been deleted by it, and are not read from
+     * the translog. The version map is cleared on flush, so a delete by query in an older translog is older.
+     */
+    private boolean readableFromTranslog(Translog.Location location) {
+        if (location == null) {
+            return false;
+        }
+        Translog.Location deleteByQueryLocation = lastDeleteByQueryLocation;
+        return deleteByQueryLocation == null || deleteByQueryLocation.translogId() != location.translogId()
+                || deleteByQueryLocation.position() < location.position();
+    }
+
     @Override public Searcher searcher() throws EngineException {
         AcquirableResource<ReaderSearcherHolder> holder;
         for (; ;) {
@@ -605,6 +691,7 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
                 try {
                     if (dirty) {
                         dirty = false;
+                        deleteByQuerySinceRefresh = false;
                         AcquirableResource<ReaderSearcherHolder> current = nrtResource;
                         IndexReader newReader = current.resource().reader().reopen(true);
                         if (newReader != current.resource().reader()) {
@@ -885,10 +972,6 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         }
     }
 
-    private Object dirtyLock(Term uid) {
-        return dirtyLocks[Math.abs(uid.hashCode()) % dirtyLocks.length];
-    }
-
     private long loadCurrentVersionFromIndex(Term uid) {
         UnicodeUtil.UTF8Result utf8 = Unicode.fromStringAsUtf8(uid.text());
         // no version, get the version from the index
@@ -973,10 +1056,16 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
     static class VersionValue {
         private long version;
         private final boolean delete;
+        private final Translog.Location translogLocation;
 
         VersionValue(long version, boolean delete) {
+            this(version, delete, null);
+        }
+
+        VersionValue(long version, boolean delete, Translog.Location translogLocation) {
             this.version = version;
             this.delete = delete;
+            this.translogLocation = translogLocation;
         }
 
         public long version() {
@@ -986,5 +1075,12 @@ public class RobinEngine extends AbstractIndexShardComponent implements Engine,
         public boolean delete() {
             return delete;
         }
+
+        /**
+         * Where the operation was written in the translog, <tt>null</tt> for deletes.
+         */
+        public Translog.Location translogLocation() {
+            return translogLocation;
+        }
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.field.data.doubles;
+
+import org.elasticsearch.common.RamUsage;
+import org.elasticsearch.common.thread.ThreadLocals;
+import org.elasticsearch.index.field.data.support.MappedFieldDataLoader;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * A single valued double field data with its values and ordinals held in memory mapped files instead of the heap
+ * (see {@link MappedFieldDataLoader}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class MappedSingleValueDoubleFieldData extends DoubleFieldData {
+
+    private ThreadLocal<ThreadLocals.CleanableValue<double[]>> valuesCache = new ThreadLocal<ThreadLocals.CleanableValue<double[]>>() {
+        @Override protected ThreadLocals.CleanableValue<double[]> initialValue() {
+            return new ThreadLocals.CleanableValue<double[]>(new double[1]);
+        }
+    };
+
+    // order with value 0 indicates no value
+    private final IntBuffer ordinals;
+
+    private final DoubleBuffer mappedValues;
+
+    private final int numberOfValues;
+
+    public MappedSingleValueDoubleFieldData(String fieldName, IntBuffer ordinals, DoubleBuffer values) {
+        super(fieldName, EMPTY_DOUBLE_ARRAY);
+        this.ordinals = ordinals;
+        this.mappedValues = values;
+        this.numberOfValues = values.capacity();
+    }
+
+    @Override protected long computeSizeInBytes() {
+        // the size of the mapped values and ordinals, held by the OS page cache and not the heap
+        return ((long) RamUsage.NUM_BYTES_INT) * ordinals.capacity() + ((long) RamUsage.NUM_BYTES_DOUBLE) * numberOfValues;
+    }
+
+    @Override public boolean multiValued() {
+        return false;
+    }
+
+    @Override public boolean hasValue(int docId) {
+        return ordinals.get(docId) != 0;
+    }
+
+    @Override public void forEachValue(StringValueProc proc) {
+        for (int i = 1; i < numberOfValues; i++) {
+            proc.onValue(Double.toString(mappedValues.get(i)));
+        }
+    }
+
+    @Override public void forEachValue(ValueProc proc) {
+        for (int i = 1; i < numberOfValues; i++) {
+            proc.onValue(mappedValues.get(i));
+        }
+    }
+
+    @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            proc.onMissing(docId);
+            return;
+        }
+        proc.onValue(docId, Double.toString(mappedValues.get(loc)));
+    }
+
+    @Override public void forEachValueInDoc(int docId, DoubleValueInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            proc.onMissing(docId);
+            return;
+        }
+        proc.onValue(docId, mappedValues.get(loc));
+    }
+
+    @Override public void forEachValueInDoc(int docId, ValueInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            proc.onMissing(docId);
+            return;
+        }
+        proc.onValue(docId, mappedValues.get(loc));
+    }
+
+    @Override public double[] doubleValues(int docId) {
+        return values(docId);
+    }
+
+    @Override public double value(int docId) {
+        return mappedValues.get(ordinals.get(docId));
+    }
+
+    @Override public double[] values(int docId) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            return EMPTY_DOUBLE_ARRAY;
+        }
+        double[] ret = valuesCache.get().get();
+        ret[0] = mappedValues.get(loc);
+        return ret;
+    }
+}
@@ -46,6 +46,10 @@ public class SingleValueDoubleFieldData extends DoubleFieldData {
                 RamUsage.NUM_BYTES_INT * ordinals.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
     }
 
+    int[] ordinals() {
+        return ordinals;
+    }
+
     @Override public boolean multiValued() {
         return false;
     }
@@ -0,0 +1,178 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.field.data.longs;
+
+import org.elasticsearch.common.RamUsage;
+import org.elasticsearch.common.joda.time.DateTimeZone;
+import org.elasticsearch.common.joda.time.MutableDateTime;
+import org.elasticsearch.common.thread.ThreadLocals;
+import org.elasticsearch.index.field.data.doubles.DoubleFieldData;
+import org.elasticsearch.index.field.data.support.MappedFieldDataLoader;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * A single valued long field data with its values and ordinals held in memory mapped files instead of the heap
+ * (see {@link MappedFieldDataLoader}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class MappedSingleValueLongFieldData extends LongFieldData {
+
+    private ThreadLocal<ThreadLocals.CleanableValue<double[]>> doublesValuesCache = new ThreadLocal<ThreadLocals.CleanableValue<double[]>>() {
+        @Override protected ThreadLocals.CleanableValue<double[]> initialValue() {
+            return new ThreadLocals.CleanableValue<double[]>(new double[1]);
+        }
+    };
+
+    private ThreadLocal<ThreadLocals.CleanableValue<MutableDateTime[]>> datesValuesCache = new ThreadLocal<ThreadLocals.CleanableValue<MutableDateTime[]>>() {
+        @Override protected ThreadLocals.CleanableValue<MutableDateTime[]> initialValue() {
+            MutableDateTime[] date = new MutableDateTime[1];
+            date[0] = new MutableDateTime(DateTimeZone.UTC);
+            return new ThreadLocals.CleanableValue<MutableDateTime[]>(date);
+        }
+    };
+
+    private ThreadLocal<long[]> valuesCache = new ThreadLocal<long[]>() {
+        @Override protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    // order with value 0 indicates no value
+    private final IntBuffer ordinals;
+
+    private final LongBuffer mappedValues;
+
+    private final int numberOfValues;
+
+    public MappedSingleValueLongFieldData(String fieldName, IntBuffer ordinals, LongBuffer values) {
+        super(fieldName, EMPTY_LONG_ARRAY);
+        this.ordinals = ordinals;
+        this.mappedValues = values;
+        this.numberOfValues = values.capacity();
+    }
+
+    @Override protected long computeSizeInBytes() {
+        // the size of the mapped values and ordinals, held by the OS page cache and not the heap
+        return ((long) RamUsage.NUM_BYTES_INT) * ordinals.capacity() + ((long) RamUsage.NUM_BYTES_LONG) * numberOfValues;
+    }
+
+    @Override public boolean multiValued() {
+        return false;
+    }
+
+    @Override public boolean hasValue(int docId) {
+        return ordinals.get(docId) != 0;
+    }
+
+    @Override public void forEachValue(StringValueProc proc) {
+        for (int i = 1; i < numberOfValues; i++) {
+            proc.onValue(Long.toString(mappedValues.get(i)));
+        }
+    }
+
+    @Override public void forEachValue(ValueProc proc) {
+        for (int i = 1; i < numberOfValues; i++) {
+            proc.onValue(mappedValues.get(i));
+        }
+    }
+
+    @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            proc.onMissing(docId);
+            return;
+        }
+        proc.onValue(docId, Long.toString(mappedValues.get(loc)));
+    }
+
+    @Override public void forEachValueInDoc(int docId, DoubleValueInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            proc.onMissing(docId);
+            return;
+        }
+        proc.onValue(docId, mappedValues.get(loc));
+    }
+
+    @Override public void forEachValueInDoc(int docId, ValueInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            proc.onMissing(docId);
+            return;
+        }
+        proc.onValue(docId, mappedValues.get(loc));
+    }
+
+    @Override public void forEachValueInDoc(int docId, DateValueInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            return;
+        }
+        MutableDateTime dateTime = dateTimeCache.get().get();
+        dateTime.setMillis(mappedValues.get(loc));
+        proc.onValue(docId, dateTime);
+    }
+
+    @Override public void forEachValueInDoc(int docId, MutableDateTime dateTime, DateValueInDocProc proc) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            return;
+        }
+        dateTime.setMillis(mappedValues.get(loc));
+        proc.onValue(docId, dateTime);
+    }
+
+    @Override public MutableDateTime[] dates(int docId) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            return EMPTY_DATETIME_ARRAY;
+        }
+        MutableDateTime[] ret = datesValuesCache.get().get();
+        ret[0].setMillis(mappedValues.get(loc));
+        return ret;
+    }
+
+    @Override public double[] doubleValues(int docId) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            return DoubleFieldData.EMPTY_DOUBLE_ARRAY;
+        }
+        double[] ret = doublesValuesCache.get().get();
+        ret[0] = mappedValues.get(loc);
+        return ret;
+    }
+
+    @Override public long value(int docId) {
+        return mappedValues.get(ordinals.get(docId));
+    }
+
+    @Override public long[] values(int docId) {
+        int loc = ordinals.get(docId);
+        if (loc == 0) {
+            return EMPTY_LONG_ARRAY;
+        }
+        long[] ret = valuesCache.get();
+        ret[0] = mappedValues.get(loc);
+        return ret;
+    }
+}
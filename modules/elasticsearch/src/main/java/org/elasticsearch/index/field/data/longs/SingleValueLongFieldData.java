@@ -63,6 +63,10 @@ public class SingleValueLongFieldData extends LongFieldData {
                 RamUsage.NUM_BYTES_INT * ordinals.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
     }
 
+    int[] ordinals() {
+        return ordinals;
+    }
+
     @Override public boolean multiValued() {
         return false;
     }
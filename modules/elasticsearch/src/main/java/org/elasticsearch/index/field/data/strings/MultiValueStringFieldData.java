@@ -24,6 +24,10 @@ import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.thread.ThreadLocals;
 
 /**
+ * A multi valued string field data. Instead of keeping an ordinals array per value "slot" (sized by the
+ * max number of values a single doc has), the ordinals of all docs are packed into a single array, with
+ * per doc offsets into it.
+ *
  * @author kimchy (shay.banon)
  */
 public class MultiValueStringFieldData extends StringFieldData {
@@ -40,21 +44,56 @@ public class MultiValueStringFieldData extends StringFieldData {
         }
     };
 
-    // order with value 0 indicates no value
-    private final int[][] ordinals;
+    // the ordinals of doc i are ordinals[docOffsets[i]] (inclusive) to ordinals[docOffsets[i + 1]] (exclusive)
+    private final int[] docOffsets;
+
+    // order with value 0 indicates no value, never stored here, a doc with no values has no ordinals
+    private final int[] ordinals;
 
-    public MultiValueStringFieldData(String fieldName, int[][] ordinals, String[] values) {
+    public MultiValueStringFieldData(String fieldName, int[] docOffsets, int[] ordinals, String[] values) {
         super(fieldName, values);
+        this.docOffsets = docOffsets;
         this.ordinals = ordinals;
     }
 
-    @Override protected long computeSizeInBytes() {
-        long size = super.computeSizeInBytes();
-        size += RamUsage.NUM_BYTES_ARRAY_HEADER; // for the top level array
-        for (int[] ordinal : ordinals) {
-            size += RamUsage.NUM_BYTES_INT * ordinal.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
+    /**
+     * Packs the ordinals "slots" (as built by {@link org.elasticsearch.index.field.data.support.FieldDataLoader})
+     * into a single ordinals array and per doc offsets into it.
+     */
+    public static MultiValueStringFieldData pack(String fieldName, int[][] ordinals, String[] values) {
+        int maxDoc = ordinals[0].length;
+        int[] docOffsets = new int[maxDoc + 1];
+        int numberOfOrdinals = 0;
+        for (int docId = 0; docId < maxDoc; docId++) {
+            docOffsets[docId] = numberOfOrdinals;
+            for (int[] ordinal : ordinals) {
+                if (ordinal[docId] == 0) {
+                    // slots are filled in order, no more values for this doc
+                    break;
+                }
+                numberOfOrdinals++;
+            }
+        }
+        docOffsets[maxDoc] = numberOfOrdinals;
+
+        int[] packedOrdinals = new int[numberOfOrdinals];
+        int index = 0;
+        for (int docId = 0; docId < maxDoc; docId++) {
+            for (int[] ordinal : ordinals) {
+                int loc = ordinal[docId];
+                if (loc == 0) {
+                    break;
+                }
+                packedOrdinals[index++] = loc;
+            }
         }
-        return size;
+        return new MultiValueStringFieldData(fieldName, docOffsets, packedOrdinals, values);
+    }
+
+    @Override protected long computeSizeInBytes() {
+        return super.computeSizeInBytes() +
+                RamUsage.NUM_BYTES_INT * docOffsets.length + RamUsage.NUM_BYTES_ARRAY_HEADER +
+                RamUsage.NUM_BYTES_INT * ordinals.length + RamUsage.NUM_BYTES_ARRAY_HEADER;
     }
 
     @Override public boolean multiValued() {
@@ -62,45 +101,44 @@ public class MultiValueStringFieldData extends StringFieldData {
     }
 
     @Override public boolean hasValue(int docId) {
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
-                return true;
-            }
-        }
-        return false;
+        return docOffsets[docId + 1] != docOffsets[docId];
     }
 
     @Override public void forEachValueInDoc(int docId, StringValueInDocProc proc) {
-        boolean found = false;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
-            if (loc != 0) {
-                found = true;
-                proc.onValue(docId, values[loc]);
-            }
-        }
-        if (!found) {
+        int start = docOffsets[docId];
+        int end = docOffsets[docId + 1];
+        if (start == end) {
             proc.onMissing(docId);
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            proc.onValue(docId, values[ordinals[i]]);
+        }
+    }
+
+    @Override public void forEachOrdinalInDoc(int docId, OrdinalInDocProc proc) {
+        int start = docOffsets[docId];
+        int end = docOffsets[docId + 1];
+        if (start == end) {
+            proc.onOrdinal(docId, 0);
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            proc.onOrdinal(docId, ordinals[i]);
         }
     }
 
     @Override public String value(int docId) {
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
-            if (loc != 0) {
-                return values[loc];
-            }
+        int start = docOffsets[docId];
+        if (start == docOffsets[docId + 1]) {
+            return null;
         }
-        return null;
+        return values[ordinals[start]];
     }
 
     @Override public String[] values(int docId) {
-        int length = 0;
-        for (int[] ordinal : ordinals) {
-            if (ordinal[docId] != 0) {
-                length++;
-            }
-        }
+        int start = docOffsets[docId];
+        int length = docOffsets[docId + 1] - start;
         if (length == 0) {
             return Strings.EMPTY_ARRAY;
         }
@@ -110,13 +148,9 @@ public class MultiValueStringFieldData extends StringFieldData {
         } else {
             strings = new String[length];
         }
-        int i = 0;
-        for (int[] ordinal : ordinals) {
-            int loc = ordinal[docId];
-            if (loc != 0) {
-                strings[i++] = values[loc];
-            }
+        for (int i = 0; i < length; i++) {
+            strings[i] = values[ordinals[start + i]];
         }
         return strings;
     }
-}
\ No newline at end of file
+}
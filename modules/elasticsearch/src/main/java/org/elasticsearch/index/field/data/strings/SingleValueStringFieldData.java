@@ -51,10 +51,6 @@ public class SingleValueStringFieldData extends StringFieldData {
         return ordinals;
     }
 
-    String[] values() {
-        return this.values;
-    }
-
     @Override public boolean multiValued() {
         return false;
     }
@@ -72,6 +68,10 @@ public class SingleValueStringFieldData extends StringFieldData {
         proc.onValue(docId, values[loc]);
     }
 
+    @Override public void forEachOrdinalInDoc(int docId, OrdinalInDocProc proc) {
+        proc.onOrdinal(docId, ordinals[docId]);
+    }
+
     @Override public String value(int docId) {
         return values[ordinals[docId]];
     }
@@ -50,6 +50,14 @@ public abstract class StringFieldData extends FieldData<StringDocFieldData> {
         return size;
     }
 
+    /**
+     * The unique values (terms) of this field data, sorted, with the value at ordinal <tt>0</tt>
+     * being <tt>null</tt> (indicating no value).
+     */
+    public String[] values() {
+        return this.values;
+    }
+
     abstract public String value(int docId);
 
     abstract public String[] values(int docId);
@@ -76,6 +84,16 @@ public abstract class StringFieldData extends FieldData<StringDocFieldData> {
         }
     }
 
+    /**
+     * Iterates over the ordinals (indices into {@link #values()}) of the provided doc. A doc with no
+     * value will be called back once with the ordinal <tt>0</tt>.
+     */
+    public abstract void forEachOrdinalInDoc(int docId, OrdinalInDocProc proc);
+
+    public static interface OrdinalInDocProc {
+        void onOrdinal(int docId, int ordinal);
+    }
+
     public static StringFieldData load(IndexReader reader, String field) throws IOException {
         return FieldDataLoader.load(reader, field, new StringTypeLoader());
     }
@@ -99,7 +117,7 @@ public abstract class StringFieldData extends FieldData<StringDocFieldData> {
         }
 
         @Override public StringFieldData buildMultiValue(String field, int[][] ordinals) {
-            return new MultiValueStringFieldData(field, ordinals, terms.toArray(new String[terms.size()]));
+            return MultiValueStringFieldData.pack(field, ordinals, terms.toArray(new String[terms.size()]));
         }
     }
 }
@@ -28,9 +28,15 @@ import org.elasticsearch.index.field.data.FieldDataType;
 import java.io.IOException;
 
 /**
+ * Sorts on a single valued string field using the per segment ordinals of its field data. Hits collected from the
+ * current segment are compared by their ordinals only. On a segment switch, only the bottom of the queue is looked
+ * up in the new segment terms, and if its value does not exist there, it is compared against the docs of the
+ * segment using the ordinal it falls after. Strings are compared only between entries collected from different
+ * segments.
+ *
  * @author kimchy (shay.banon)
  */
-// LUCENE MONITOR: Monitor against FieldComparator#String
+// LUCENE MONITOR: Monitor against FieldComparator#TermOrdValComparator
 public class StringOrdValFieldDataComparator extends FieldComparator {
 
     private final FieldDataCache fieldDataCache;
@@ -46,6 +52,9 @@ public class StringOrdValFieldDataComparator extends FieldComparator {
 
     private int bottomSlot = -1;
     private int bottomOrd;
+    // true when the bottom value exists in the current segment, with bottomOrd its ordinal, otherwise the bottom
+    // value falls between bottomOrd and the next ordinal
+    private boolean bottomSameReader;
     private String bottomValue;
     private final boolean reversed;
     private final int sortPos;
@@ -62,10 +71,8 @@ public class StringOrdValFieldDataComparator extends FieldComparator {
 
     @Override public int compare(int slot1, int slot2) {
         if (readerGen[slot1] == readerGen[slot2]) {
-            int cmp = ords[slot1] - ords[slot2];
-            if (cmp != 0) {
-                return cmp;
-            }
+            // ordinals of the same segment are only ever assigned for values that exist in it
+            return ords[slot1] - ords[slot2];
         }
 
         final String val1 = values[slot1];
@@ -83,53 +90,16 @@ public class StringOrdValFieldDataComparator extends FieldComparator {
 
     @Override public int compareBottom(int doc) {
         assert bottomSlot != -1;
-        int order = this.order[doc];
-        final int cmp = bottomOrd - order;
-        if (cmp != 0) {
-            return cmp;
+        final int docOrd = this.order[doc];
+        if (bottomSameReader) {
+            // ord is precisely comparable, even in the equal case
+            return bottomOrd - docOrd;
         }
-
-        final String val2 = lookup[order];
-        if (bottomValue == null) {
-            if (val2 == null) {
-                return 0;
-            }
-            // bottom wins
-            return -1;
-        } else if (val2 == null) {
-            // doc wins
+        // the bottom value is greater than the value at bottomOrd, and smaller than the one after it
+        if (bottomOrd >= docOrd) {
             return 1;
         }
-        return bottomValue.compareTo(val2);
-    }
-
-    private void convert(int slot) {
-        readerGen[slot] = currentReaderGen;
-        int index = 0;
-        String value = values[slot];
-        if (value == null) {
-            ords[slot] = 0;
-            return;
-        }
-
-        if (sortPos == 0 && bottomSlot != -1 && bottomSlot != slot) {
-            // Since we are the primary sort, the entries in the
-            // queue are bounded by bottomOrd:
-            assert bottomOrd < lookup.length;
-            if (reversed) {
-                index = binarySearch(lookup, value, bottomOrd, lookup.length - 1);
-            } else {
-                index = binarySearch(lookup, value, 0, bottomOrd);
-            }
-        } else {
-            // Full binary search
-            index = binarySearch(lookup, value);
-        }
-
-        if (index < 0) {
-            index = -index - 2;
-        }
-        ords[slot] = index;
+        return -1;
     }
 
     @Override public void copy(int slot, int doc) {
@@ -151,20 +121,37 @@ public class StringOrdValFieldDataComparator extends FieldComparator {
         lookup = fieldData.values();
         assert lookup.length > 0;
         if (bottomSlot != -1) {
-            convert(bottomSlot);
-            bottomOrd = ords[bottomSlot];
+            setBottom(bottomSlot);
         }
     }
 
     @Override public void setBottom(final int bottom) {
         bottomSlot = bottom;
-        if (readerGen[bottom] != currentReaderGen) {
-            convert(bottomSlot);
+        bottomValue = values[bottomSlot];
+        if (currentReaderGen == readerGen[bottomSlot]) {
+            bottomOrd = ords[bottomSlot];
+            bottomSameReader = true;
+        } else if (bottomValue == null) {
+            // the missing value is always the first ordinal
+            ords[bottomSlot] = 0;
+            bottomOrd = 0;
+            bottomSameReader = true;
+            readerGen[bottomSlot] = currentReaderGen;
+        } else {
+            final int index = binarySearch(lookup, bottomValue);
+            if (index < 0) {
+                bottomOrd = -index - 2;
+                bottomSameReader = false;
+            } else {
+                // exact value match, the bottom now belongs to this segment ordinals
+                bottomOrd = index;
+                bottomSameReader = true;
+                readerGen[bottomSlot] = currentReaderGen;
+                ords[bottomSlot] = bottomOrd;
+            }
         }
-        bottomOrd = ords[bottom];
         assert bottomOrd >= 0;
         assert bottomOrd < lookup.length;
-        bottomValue = values[bottom];
     }
 
     @Override public Comparable value(int slot) {
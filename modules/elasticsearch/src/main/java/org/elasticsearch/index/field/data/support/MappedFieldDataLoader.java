@@ -0,0 +1,319 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.field.data.support;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermDocs;
+import org.apache.lucene.index.TermEnum;
+import org.apache.lucene.search.FieldCache;
+import org.apache.lucene.util.StringHelper;
+import org.elasticsearch.common.RamUsage;
+import org.elasticsearch.common.UUID;
+import org.elasticsearch.common.collect.MapMaker;
+import org.elasticsearch.common.io.FileSystemUtils;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.field.data.FieldData;
+import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.field.data.doubles.DoubleFieldDataType;
+import org.elasticsearch.index.field.data.doubles.MappedSingleValueDoubleFieldData;
+import org.elasticsearch.index.field.data.longs.LongFieldDataType;
+import org.elasticsearch.index.field.data.longs.MappedSingleValueLongFieldData;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads field data, keeping the values and ordinals of single valued long (and date) and double field data out of
+ * the heap in memory mapped files, leaving them to the OS page cache. Enabled using the
+ * <tt>index.cache.field.data.mmap</tt> setting, the files are created under <tt>index.cache.field.data.mmap_path</tt>
+ * (defaults to <tt>field_data/[index]</tt> under the work location).
+ *
+ * <p>The values and ordinals are streamed into the files while the terms are iterated, and the files of a reader
+ * are kept until the reader is removed (see {@link #clear(IndexReader)}), so field data evicted from the cache
+ * is mapped again without reloading it. Multi valued field data is kept on the heap.
+ *
+ * <p>The loader is shared by all the shards of the index on the node, and segment names are only unique within a
+ * shard, so each reader gets its own directory, and each loader its own random directory under the index one. Only
+ * files written by the loader are mapped again, or deleted.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class MappedFieldDataLoader {
+
+    private static final String ORDINALS_SUFFIX = ".fdo";
+
+    private static final String VALUES_SUFFIX = ".fdv";
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final File location;
+
+    // the directory of the files of each reader (field cache key), weak keys so they go away with the readers
+    private final ConcurrentMap<Object, File> readerLocations = new MapMaker().weakKeys().makeMap();
+
+    private final AtomicLong readerLocationCounter = new AtomicLong();
+
+    public MappedFieldDataLoader(File location) {
+        this.location = location;
+    }
+
+    /**
+     * Returns a loader based on the index settings, <tt>null</tt> if field data should be kept on the heap.
+     */
+    public static MappedFieldDataLoader fromSettings(Index index, Settings indexSettings) {
+        if (!indexSettings.getAsBoolean("index.cache.field.data.mmap", false)) {
+            return null;
+        }
+        String path = indexSettings.get("index.cache.field.data.mmap_path");
+        File location;
+        if (path != null) {
+            location = new File(path, index.name());
+        } else {
+            location = new File(new File(new Environment(indexSettings).workWithClusterFile(), "field_data"), index.name());
+        }
+        // other nodes on the same host, or a previous index with the same name, might use the index location
+        return new MappedFieldDataLoader(new File(location, UUID.randomBase64UUID()));
+    }
+
+    public File location() {
+        return this.location;
+    }
+
+    public FieldData load(FieldDataType type, IndexReader reader, String fieldName) throws IOException {
+        MappedType mappedType;
+        if (type instanceof LongFieldDataType) {
+            mappedType = MappedType.LONG;
+        } else if (type instanceof DoubleFieldDataType) {
+            mappedType = MappedType.DOUBLE;
+        } else {
+            return FieldData.load(type, reader, fieldName);
+        }
+        if (((long) RamUsage.NUM_BYTES_INT) * reader.maxDoc() > Integer.MAX_VALUE) {
+            return FieldData.load(type, reader, fieldName);
+        }
+
+        File readerLocation = readerLocations.get(reader.getFieldCacheKey());
+        if (readerLocation != null) {
+            File ordinalsFile = new File(readerLocation, fieldName + ORDINALS_SUFFIX);
+            File valuesFile = new File(readerLocation, fieldName + VALUES_SUFFIX);
+            if (ordinalsFile.exists() && valuesFile.exists()) {
+                IntBuffer ordinals = map(ordinalsFile, FileChannel.MapMode.READ_ONLY).asIntBuffer();
+                return mappedType.build(fieldName, ordinals, map(valuesFile, FileChannel.MapMode.READ_ONLY));
+            }
+        }
+
+        // stream into temporary files, only complete files are kept for the reader
+        location.mkdirs();
+        File ordinalsTempFile = File.createTempFile("field_data", ORDINALS_SUFFIX, location);
+        File valuesTempFile = File.createTempFile("field_data", VALUES_SUFFIX, location);
+        try {
+            FieldData fieldData = stream(mappedType, reader, fieldName, ordinalsTempFile, valuesTempFile);
+            if (fieldData == null) {
+                return FieldData.load(type, reader, fieldName);
+            }
+            readerLocation = readerLocation(reader);
+            readerLocation.mkdirs();
+            if (ordinalsTempFile.renameTo(new File(readerLocation, fieldName + ORDINALS_SUFFIX))) {
+                valuesTempFile.renameTo(new File(readerLocation, fieldName + VALUES_SUFFIX));
+            }
+            return fieldData;
+        } finally {
+            delete(ordinalsTempFile);
+            delete(valuesTempFile);
+        }
+    }
+
+    /**
+     * The directory holding the files written for the reader, <tt>null</tt> if none were written.
+     */
+    public File location(IndexReader reader) {
+        return readerLocations.get(reader.getFieldCacheKey());
+    }
+
+    /**
+     * Deletes the files of the reader, once it is no longer used.
+     */
+    public void clear(IndexReader reader) {
+        File readerLocation = readerLocations.remove(reader.getFieldCacheKey());
+        if (readerLocation != null) {
+            FileSystemUtils.deleteRecursively(readerLocation);
+        }
+    }
+
+    /**
+     * Deletes all the files, the field data already mapped stays valid until it is garbage collected.
+     */
+    public void close() {
+        readerLocations.clear();
+        FileSystemUtils.deleteRecursively(location);
+    }
+
+    private File readerLocation(IndexReader reader) {
+        Object readerKey = reader.getFieldCacheKey();
+        File readerLocation = readerLocations.get(readerKey);
+        if (readerLocation == null) {
+            // segment names are only unique within a shard, the counter makes it unique within the loader
+            String name = Long.toString(readerLocationCounter.incrementAndGet());
+            if (reader instanceof SegmentReader) {
+                name = ((SegmentReader) reader).getSegmentName() + "_" + name;
+            }
+            readerLocation = new File(location, name);
+            File existing = readerLocations.putIfAbsent(readerKey, readerLocation);
+            if (existing != null) {
+                readerLocation = existing;
+            }
+        }
+        return readerLocation;
+    }
+
+    /**
+     * Streams the ordinals and values of the field into the files, returns <tt>null</tt> if the field data can't be
+     * mapped (multi valued or too big).
+     */
+    @SuppressWarnings({"StringEquality"})
+    private FieldData stream(MappedType mappedType, IndexReader reader, String field, File ordinalsFile, File valuesFile) throws IOException {
+        field = StringHelper.intern(field);
+        RandomAccessFile ordinalsRaf = new RandomAccessFile(ordinalsFile, "rw");
+        RandomAccessFile valuesRaf = new RandomAccessFile(valuesFile, "rw");
+        try {
+            long ordinalsSize = ((long) RamUsage.NUM_BYTES_INT) * reader.maxDoc();
+            ordinalsRaf.setLength(ordinalsSize);
+            IntBuffer ordinals = ordinalsRaf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, ordinalsSize).order(ByteOrder.nativeOrder()).asIntBuffer();
+
+            FileChannel valuesChannel = valuesRaf.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+            // the first one indicates null value
+            buffer.position(mappedType.valueSize);
+
+            int t = 1;  // current term number
+
+            TermDocs termDocs = reader.termDocs();
+            TermEnum termEnum = reader.terms(new Term(field));
+            try {
+                do {
+                    Term term = termEnum.term();
+                    if (term == null || term.field() != field) break;
+                    if (buffer.remaining() < mappedType.valueSize) {
+                        write(buffer, valuesChannel);
+                    }
+                    mappedType.write(term.text(), buffer);
+                    termDocs.seek(termEnum);
+                    while (termDocs.next()) {
+                        int doc = termDocs.doc();
+                        if (ordinals.get(doc) != 0) {
+                            // multi valued
+                            return null;
+                        }
+                        ordinals.put(doc, t);
+                    }
+                    t++;
+                } while (termEnum.next());
+            } catch (RuntimeException e) {
+                if (e.getClass().getName().endsWith("StopFillCacheException")) {
+                    // all is well, in case numeric parsers are used.
+                } else {
+                    throw e;
+                }
+            } finally {
+                termDocs.close();
+                termEnum.close();
+            }
+            write(buffer, valuesChannel);
+
+            long valuesSize = valuesChannel.size();
+            if (valuesSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer values = valuesChannel.map(FileChannel.MapMode.READ_ONLY, 0, valuesSize).order(ByteOrder.nativeOrder());
+            return mappedType.build(field, ordinals, values);
+        } finally {
+            ordinalsRaf.close();
+            valuesRaf.close();
+        }
+    }
+
+    private static void write(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer map(File file, FileChannel.MapMode mode) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw");
+        try {
+            return raf.getChannel().map(mode, 0, raf.length()).order(ByteOrder.nativeOrder());
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static void delete(File file) {
+        if (!file.delete() && file.exists()) {
+            // can't delete a mapped file on some platforms
+            file.deleteOnExit();
+        }
+    }
+
+    static abstract class MappedType {
+
+        static final MappedType LONG = new MappedType(RamUsage.NUM_BYTES_LONG) {
+            @Override void write(String term, ByteBuffer buffer) {
+                buffer.putLong(FieldCache.NUMERIC_UTILS_LONG_PARSER.parseLong(term));
+            }
+
+            @Override FieldData build(String fieldName, IntBuffer ordinals, ByteBuffer values) {
+                return new MappedSingleValueLongFieldData(fieldName, ordinals, values.asLongBuffer());
+            }
+        };
+
+        static final MappedType DOUBLE = new MappedType(RamUsage.NUM_BYTES_DOUBLE) {
+            @Override void write(String term, ByteBuffer buffer) {
+                buffer.putDouble(FieldCache.NUMERIC_UTILS_DOUBLE_PARSER.parseDouble(term));
+            }
+
+            @Override FieldData build(String fieldName, IntBuffer ordinals, ByteBuffer values) {
+                return new MappedSingleValueDoubleFieldData(fieldName, ordinals, values.asDoubleBuffer());
+            }
+        };
+
+        final int valueSize;
+
+        MappedType(int valueSize) {
+            this.valueSize = valueSize;
+        }
+
+        abstract void write(String term, ByteBuffer buffer);
+
+        abstract FieldData build(String fieldName, IntBuffer ordinals, ByteBuffer values);
+    }
+}
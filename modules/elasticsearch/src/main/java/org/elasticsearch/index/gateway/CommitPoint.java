@@ -37,12 +37,14 @@ public class CommitPoint {
         private final String physicalName;
         private final long length;
         private final String checksum;
+        private final String checksumAlgorithm;
 
-        public FileInfo(String name, String physicalName, long length, String checksum) {
+        public FileInfo(String name, String physicalName, long length, @Nullable String checksum, @Nullable String checksumAlgorithm) {
             this.name = name;
             this.physicalName = physicalName;
             this.length = length;
             this.checksum = checksum;
+            this.checksumAlgorithm = checksum == null ? null : checksumAlgorithm;
         }
 
         public String name() {
@@ -61,9 +63,13 @@ public class CommitPoint {
             return checksum;
         }
 
+        @Nullable public String checksumAlgorithm() {
+            return checksumAlgorithm;
+        }
+
         public boolean isSame(StoreFileMetaData md) {
             if (checksum != null && md.checksum() != null) {
-                return checksum.equals(md.checksum());
+                return checksumAlgorithm.equals(md.checksumAlgorithm()) && checksum.equals(md.checksum());
             }
             return length == md.length();
         }
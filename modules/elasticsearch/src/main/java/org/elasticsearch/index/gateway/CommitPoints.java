@@ -25,6 +25,7 @@ import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.store.StoreChecksum;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -99,6 +100,7 @@ public class CommitPoints implements Iterable<CommitPoint> {
             builder.field("length", fileInfo.length());
             if (fileInfo.checksum() != null) {
                 builder.field("checksum", fileInfo.checksum());
+                builder.field("checksum_algorithm", fileInfo.checksumAlgorithm());
             }
             builder.endObject();
         }
@@ -151,6 +153,7 @@ public class CommitPoints implements Iterable<CommitPoint> {
                             String physicalName = null;
                             long size = -1;
                             String checksum = null;
+                            String checksumAlgorithm = null;
                             while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
                                 if (token == XContentParser.Token.FIELD_NAME) {
                                     currentFieldName = parser.currentName();
@@ -161,6 +164,8 @@ public class CommitPoints implements Iterable<CommitPoint> {
                                         size = parser.longValue();
                                     } else if ("checksum".equals(currentFieldName)) {
                                         checksum = parser.text();
+                                    } else if ("checksum_algorithm".equals(currentFieldName) || "checksumAlgorithm".equals(currentFieldName)) {
+                                        checksumAlgorithm = parser.text();
                                     }
                                 }
                             }
@@ -170,7 +175,11 @@ public class CommitPoints implements Iterable<CommitPoint> {
                             if (size == -1) {
                                 throw new IOException("Malformed commit, missing length for [" + fileName + "]");
                             }
-                            files.add(new CommitPoint.FileInfo(fileName, physicalName, size, checksum));
+                            if (checksum != null && checksumAlgorithm == null) {
+                                // written before the algorithm was recorded
+                                checksumAlgorithm = StoreChecksum.MD5;
+                            }
+                            files.add(new CommitPoint.FileInfo(fileName, physicalName, size, checksum, checksumAlgorithm));
                         }
                     }
                 } else if (token.isValue()) {
@@ -46,6 +46,7 @@ import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetaData;
 import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.index.translog.TranslogStreams;
+import org.elasticsearch.indices.throttler.IndicesThrottler;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
@@ -76,6 +77,8 @@ public abstract class BlobStoreIndexShardGateway extends AbstractIndexShardCompo
 
     protected final ImmutableBlobContainer blobContainer;
 
+    protected final IndicesThrottler throttler;
+
     private volatile RecoveryStatus recoveryStatus;
 
     private volatile SnapshotStatus lastSnapshotStatus;
@@ -83,12 +86,13 @@ public abstract class BlobStoreIndexShardGateway extends AbstractIndexShardCompo
     private volatile SnapshotStatus currentSnapshotStatus;
 
     protected BlobStoreIndexShardGateway(ShardId shardId, @IndexSettings Settings indexSettings, ThreadPool threadPool, IndexGateway indexGateway,
-                                         IndexShard indexShard, Store store) {
+                                         IndexShard indexShard, Store store, IndicesThrottler throttler) {
         super(shardId, indexSettings);
 
         this.threadPool = threadPool;
         this.indexShard = (InternalIndexShard) indexShard;
         this.store = store;
+        this.throttler = throttler;
 
         BlobStoreIndexGateway blobStoreIndexGateway = (BlobStoreIndexGateway) indexGateway;
 
@@ -209,7 +213,7 @@ public abstract class BlobStoreIndexShardGateway extends AbstractIndexShardCompo
                 indexTotalFilesSize += md.length();
                 // create a new FileInfo
                 try {
-                    CommitPoint.FileInfo snapshotFileInfo = new CommitPoint.FileInfo(fileNameFromGeneration(++generation), fileName, md.length(), md.checksum());
+                    CommitPoint.FileInfo snapshotFileInfo = new CommitPoint.FileInfo(fileNameFromGeneration(++generation), fileName, md.length(), md.checksum(), md.checksumAlgorithm());
                     indexCommitPointFiles.add(snapshotFileInfo);
                     snapshotFile(snapshotIndexCommit.getDirectory(), snapshotFileInfo, indexLatch, failures);
                 } catch (IOException e) {
@@ -285,7 +289,7 @@ public abstract class BlobStoreIndexShardGateway extends AbstractIndexShardCompo
         currentSnapshotStatus.translog().expectedNumberOfOperations(expectedNumberOfOperations);
 
         if (snapshotRequired) {
-            CommitPoint.FileInfo addedTranslogFileInfo = new CommitPoint.FileInfo(fileNameFromGeneration(++generation), "translog-" + translogSnapshot.translogId(), translogSnapshot.lengthInBytes(), null /* no need for checksum in translog */);
+            CommitPoint.FileInfo addedTranslogFileInfo = new CommitPoint.FileInfo(fileNameFromGeneration(++generation), "translog-" + translogSnapshot.translogId(), translogSnapshot.lengthInBytes(), null /* no need for checksum in translog */, null);
             translogCommitPointFiles.add(addedTranslogFileInfo);
             try {
                 snapshotTranslog(translogSnapshot, addedTranslogFileInfo);
@@ -610,9 +614,8 @@ public abstract class BlobStoreIndexShardGateway extends AbstractIndexShardCompo
     private void recoverFile(final CommitPoint.FileInfo fileInfo, final ImmutableMap<String, BlobMetaData> blobs, final CountDownLatch latch, final List<Throwable> failures) {
         final IndexOutput indexOutput;
         try {
-            // we create an output with no checksum, this is because the pure binary data of the file is not
-            // the checksum (because of seek). We will create the checksum file once copying is done
-            indexOutput = store.createOutputWithNoChecksum(fileInfo.physicalName());
+            // the copy is verified against the checksum as it gets written (when the checksum algorithm allows it)
+            indexOutput = store.createOutputWithChecksum(fileInfo.physicalName(), fileInfo.checksum(), fileInfo.checksumAlgorithm());
         } catch (IOException e) {
             failures.add(e);
             latch.countDown();
@@ -648,11 +651,8 @@ public abstract class BlobStoreIndexShardGateway extends AbstractIndexShardCompo
                 } else {
                     // we are done...
                     try {
+                        // fails if the copy does not match the checksum
                         indexOutput.close();
-                        // write the checksum
-                        if (fileInfo.checksum() != null) {
-                            store.writeChecksum(fileInfo.physicalName(), fileInfo.checksum());
-                        }
                         store.directory().sync(fileInfo.physicalName());
                     } catch (IOException e) {
                         onFailure(e);
@@ -735,7 +735,8 @@ public abstract class BlobStoreIndexShardGateway extends AbstractIndexShardCompo
                 }
 
                 final IndexInput fIndexInput = indexInput;
-                blobContainer.writeBlob(blobName, is, is.actualSizeToRead(), new ImmutableBlobContainer.WriterListener() {
+                // snapshots share the node streaming limit with peer recoveries
+                blobContainer.writeBlob(blobName, throttler.wrap(is), is.actualSizeToRead(), new ImmutableBlobContainer.WriterListener() {
                     @Override public void onCompleted() {
                         try {
                             fIndexInput.close();
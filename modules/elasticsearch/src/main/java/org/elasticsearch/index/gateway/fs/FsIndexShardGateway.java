@@ -31,6 +31,7 @@ import org.elasticsearch.index.settings.IndexSettings;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.service.IndexShard;
 import org.elasticsearch.index.store.Store;
+import org.elasticsearch.indices.throttler.IndicesThrottler;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
@@ -43,8 +44,8 @@ public class FsIndexShardGateway extends BlobStoreIndexShardGateway {
     private final boolean snapshotLock;
 
     @Inject public FsIndexShardGateway(ShardId shardId, @IndexSettings Settings indexSettings, ThreadPool threadPool, IndexGateway fsIndexGateway,
-                                       IndexShard indexShard, Store store) {
-        super(shardId, indexSettings, threadPool, fsIndexGateway, indexShard, store);
+                                       IndexShard indexShard, Store store, IndicesThrottler throttler) {
+        super(shardId, indexSettings, threadPool, fsIndexGateway, indexShard, store, throttler);
         this.snapshotLock = indexSettings.getAsBoolean("gateway.fs.snapshot_lock", true);
     }
 
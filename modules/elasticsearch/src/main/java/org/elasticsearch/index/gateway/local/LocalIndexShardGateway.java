@@ -61,12 +61,11 @@ public class LocalIndexShardGateway extends AbstractIndexShardComponent implemen
         this.indexShard = (InternalIndexShard) indexShard;
 
         TimeValue sync = componentSettings.getAsTime("sync", TimeValue.timeValueSeconds(1));
-        if (sync.millis() > 0) {
-            this.indexShard.translog().syncOnEachOperation(false);
+        // request: sync on each operation, group: sync concurrent operations as a batch, interval: sync every "sync" interval
+        Translog.Durability durability = Translog.Durability.fromString(componentSettings.get("durability", sync.millis() == 0 ? "request" : "interval"));
+        this.indexShard.translog().durability(durability);
+        if (durability == Translog.Durability.INTERVAL && sync.millis() > 0) {
             flushScheduler = threadPool.scheduleWithFixedDelay(new Sync(), sync);
-        } else if (sync.millis() == 0) {
-            flushScheduler = null;
-            this.indexShard.translog().syncOnEachOperation(true);
         } else {
             flushScheduler = null;
         }
@@ -22,6 +22,8 @@ package org.elasticsearch.index.percolator;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermEnum;
 import org.apache.lucene.index.memory.MemoryIndex;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.IndexSearcher;
@@ -32,12 +34,14 @@ import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.collect.MapBuilder;
+import org.elasticsearch.common.collect.Maps;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.FastByteArrayOutputStream;
 import org.elasticsearch.common.io.FastStringReader;
 import org.elasticsearch.common.logging.ESLogger;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentParser;
@@ -57,12 +61,19 @@ import org.elasticsearch.index.settings.IndexSettings;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.service.IndexShard;
 import org.elasticsearch.indices.IndicesLifecycle;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.elasticsearch.index.mapper.SourceToParse.*;
 
@@ -139,10 +150,32 @@ public class PercolatorExecutor extends AbstractIndexComponent {
     public static final class Response {
         private final List<String> matches;
         private final boolean mappersAdded;
+        private final int candidates;
+        private final int total;
 
         public Response(List<String> matches, boolean mappersAdded) {
+            this(matches, mappersAdded, -1, -1);
+        }
+
+        public Response(List<String> matches, boolean mappersAdded, int candidates, int total) {
             this.matches = matches;
             this.mappersAdded = mappersAdded;
+            this.candidates = candidates;
+            this.total = total;
+        }
+
+        /**
+         * The number of registered queries that were candidates to match the doc (and were executed).
+         */
+        public int candidates() {
+            return this.candidates;
+        }
+
+        /**
+         * The total number of registered queries.
+         */
+        public int total() {
+            return this.total;
         }
 
         public boolean mappersAdded() {
@@ -160,8 +193,22 @@ public class PercolatorExecutor extends AbstractIndexComponent {
 
     private final IndexCache indexCache;
 
+    private final ThreadPool threadPool;
+
+    private final int concurrency;
+
+    private final int concurrencyThreshold;
+
     private volatile ImmutableMap<String, Query> queries = ImmutableMap.of();
 
+    // the registered queries indexed by terms, a doc must have at least one of them for the query to match
+    private final ConcurrentMap<Term, Set<String>> queriesByTerm = ConcurrentCollections.newConcurrentMap();
+
+    // queries we could not extract terms from, always executed
+    private final Set<String> unindexedQueries = ConcurrentCollections.newConcurrentSet();
+
+    // the terms each query is indexed under, guarded by this
+    private final Map<String, Set<Term>> queryTerms = Maps.newHashMap();
 
     private final PercolatorIndexAndShardListener percolatorIndexAndShardListener = new PercolatorIndexAndShardListener();
 
@@ -173,11 +220,17 @@ public class PercolatorExecutor extends AbstractIndexComponent {
 
     @Inject public PercolatorExecutor(Index index, @IndexSettings Settings indexSettings,
                                       MapperService mapperService, IndexQueryParserService queryParserService,
-                                      IndexCache indexCache) {
+                                      IndexCache indexCache, ThreadPool threadPool) {
         super(index, indexSettings);
         this.mapperService = mapperService;
         this.queryParserService = queryParserService;
         this.indexCache = indexCache;
+        this.threadPool = threadPool;
+        // the number of workers (including the calling thread) the candidate queries of a doc are split across
+        this.concurrency = componentSettings.getAsInt("concurrency", 1);
+        // the minimum number of candidate queries each worker should execute
+        this.concurrencyThreshold = componentSettings.getAsInt("concurrency_threshold", 100);
+        logger.debug("using concurrency [{}], concurrency_threshold [{}]", concurrency, concurrencyThreshold);
     }
 
     public void setIndicesLifecycle(IndicesLifecycle indicesLifecycle) {
@@ -194,6 +247,9 @@ public class PercolatorExecutor extends AbstractIndexComponent {
         ImmutableMap<String, Query> old = queries;
         queries = ImmutableMap.of();
         old.clear();
+        queriesByTerm.clear();
+        unindexedQueries.clear();
+        queryTerms.clear();
     }
 
     public void addQuery(String name, QueryBuilder queryBuilder) throws ElasticSearchException {
@@ -244,14 +300,78 @@ public class PercolatorExecutor extends AbstractIndexComponent {
 
     public synchronized void addQuery(String name, Query query) {
         this.queries = MapBuilder.newMapBuilder(queries).put(name, query).immutableMap();
+        indexQuery(name, query);
     }
 
     public synchronized void removeQuery(String name) {
         this.queries = MapBuilder.newMapBuilder(queries).remove(name).immutableMap();
+        unindexQuery(name);
     }
 
     public synchronized void addQueries(Map<String, Query> queries) {
         this.queries = MapBuilder.newMapBuilder(this.queries).putAll(queries).immutableMap();
+        for (Map.Entry<String, Query> entry : queries.entrySet()) {
+            indexQuery(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void indexQuery(String name, Query query) {
+        unindexQuery(name);
+        Set<Term> terms = QueryTermsExtractor.extract(query);
+        if (terms == null) {
+            unindexedQueries.add(name);
+            return;
+        }
+        queryTerms.put(name, terms);
+        for (Term term : terms) {
+            Set<String> names = queriesByTerm.get(term);
+            if (names == null) {
+                names = ConcurrentCollections.newConcurrentSet();
+                queriesByTerm.put(term, names);
+            }
+            names.add(name);
+        }
+    }
+
+    private void unindexQuery(String name) {
+        unindexedQueries.remove(name);
+        Set<Term> terms = queryTerms.remove(name);
+        if (terms == null) {
+            return;
+        }
+        for (Term term : terms) {
+            Set<String> names = queriesByTerm.get(term);
+            if (names != null) {
+                names.remove(name);
+                if (names.isEmpty()) {
+                    queriesByTerm.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the queries that might match the doc indexed in the provided reader, the ones indexed
+     * under one of the doc terms, and the ones no terms could be extracted from.
+     */
+    private Set<String> candidateQueries(IndexReader reader) throws IOException {
+        Set<String> candidates = new HashSet<String>(unindexedQueries);
+        TermEnum termEnum = reader.terms(new Term(""));
+        try {
+            do {
+                Term term = termEnum.term();
+                if (term == null) {
+                    break;
+                }
+                Set<String> names = queriesByTerm.get(term);
+                if (names != null) {
+                    candidates.addAll(names);
+                }
+            } while (termEnum.next());
+        } finally {
+            termEnum.close();
+        }
+        return candidates;
     }
 
     public Response percolate(final SourceRequest request) throws ElasticSearchException {
@@ -340,19 +460,24 @@ public class PercolatorExecutor extends AbstractIndexComponent {
 
         final IndexSearcher searcher = memoryIndex.createSearcher();
 
+        ImmutableMap<String, Query> queries = this.queries;
+        Set<String> candidates;
+        try {
+            candidates = candidateQueries(searcher.getIndexReader());
+        } catch (IOException e) {
+            throw new PercolatorException(index, "failed to extract doc terms", e);
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("percolating doc against [{}] candidate queries out of [{}]", candidates.size(), queries.size());
+        }
+
         List<String> matches = new ArrayList<String>();
         if (request.query() == null) {
-            Lucene.ExistsCollector collector = new Lucene.ExistsCollector();
-            for (Map.Entry<String, Query> entry : queries.entrySet()) {
-                try {
-                    searcher.search(entry.getValue(), collector);
-                } catch (IOException e) {
-                    logger.warn("[" + entry.getKey() + "] failed to execute query", e);
-                }
-
-                if (collector.exists()) {
-                    matches.add(entry.getKey());
-                }
+            int workers = Math.min(concurrency, candidates.size() / Math.max(1, concurrencyThreshold));
+            if (workers > 1) {
+                executeQueries(memoryIndex, searcher, queries, candidates, workers, matches);
+            } else {
+                executeQueries(searcher, queries, candidates, matches);
             }
         } else {
             if (percolatorIndex == null || percolatorShard == null) {
@@ -360,7 +485,7 @@ public class PercolatorExecutor extends AbstractIndexComponent {
             }
             Engine.Searcher percolatorSearcher = percolatorShard.searcher();
             try {
-                percolatorSearcher.searcher().search(request.query(), new QueryCollector(logger, queries, searcher, percolatorIndex, matches));
+                percolatorSearcher.searcher().search(request.query(), new QueryCollector(logger, queries, candidates, searcher, percolatorIndex, matches));
             } catch (IOException e) {
                 logger.warn("failed to execute", e);
             } finally {
@@ -370,7 +495,95 @@ public class PercolatorExecutor extends AbstractIndexComponent {
 
         indexCache.clear(searcher.getIndexReader());
 
-        return new Response(matches, request.doc().mappersAdded());
+        return new Response(matches, request.doc().mappersAdded(), candidates.size(), queries.size());
+    }
+
+    private void executeQueries(IndexSearcher searcher, ImmutableMap<String, Query> queries, Iterable<String> names, List<String> matches) {
+        Lucene.ExistsCollector collector = new Lucene.ExistsCollector();
+        for (String name : names) {
+            Query query = queries.get(name);
+            if (query == null) {
+                // removed while we percolate
+                continue;
+            }
+            try {
+                searcher.search(query, collector);
+            } catch (IOException e) {
+                logger.warn("[" + name + "] failed to execute query", e);
+            }
+
+            if (collector.exists()) {
+                matches.add(name);
+            }
+        }
+    }
+
+    /**
+     * Splits the names across the provided number of workers, the calling thread being one of them, each executing
+     * its queries against its own searcher over the memory index.
+     */
+    private void executeQueries(final MemoryIndex memoryIndex, IndexSearcher searcher, final ImmutableMap<String, Query> queries,
+                           Set<String> names, int workers, List<String> matches) {
+        final List<List<String>> chunks = new ArrayList<List<String>>(workers);
+        for (int i = 0; i < workers; i++) {
+            chunks.add(new ArrayList<String>((names.size() / workers) + 1));
+        }
+        int i = 0;
+        for (String name : names) {
+            chunks.get(i++ % workers).add(name);
+        }
+
+        // note, the memory index lazily sorts its terms, we rely on it being done (by the candidate terms iteration)
+        // before the readers are accessed concurrently
+        final CountDownLatch latch = new CountDownLatch(workers - 1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final List<List<String>> workerMatches = new ArrayList<List<String>>(workers - 1);
+        for (int w = 1; w < workers; w++) {
+            final List<String> chunk = chunks.get(w);
+            final List<String> chunkMatches = new ArrayList<String>();
+            workerMatches.add(chunkMatches);
+            Runnable worker = new Runnable() {
+                @Override public void run() {
+                    IndexSearcher workerSearcher = memoryIndex.createSearcher();
+                    try {
+                        executeQueries(workerSearcher, queries, chunk, chunkMatches);
+                    } catch (Throwable t) {
+                        failure.set(t);
+                    } finally {
+                        indexCache.clear(workerSearcher.getIndexReader());
+                        latch.countDown();
+                    }
+                }
+            };
+            try {
+                threadPool.execute(worker);
+            } catch (RejectedExecutionException e) {
+                // no room on the thread pool, execute it on the calling thread
+                worker.run();
+            }
+        }
+
+        executeQueries(searcher, queries, chunks.get(0), matches);
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                // the workers are still using the memory index, wait for them before returning
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure.get() != null) {
+            throw new PercolatorException(index, "failed to percolate", failure.get());
+        }
+        for (List<String> chunkMatches : workerMatches) {
+            matches.addAll(chunkMatches);
+        }
     }
 
     class PercolatorIndexAndShardListener extends IndicesLifecycle.Listener {
@@ -404,13 +617,15 @@ public class PercolatorExecutor extends AbstractIndexComponent {
         private final IndexService percolatorIndex;
         private final List<String> matches;
         private final ImmutableMap<String, Query> queries;
+        private final Set<String> candidates;
         private final ESLogger logger;
 
         private final Lucene.ExistsCollector collector = new Lucene.ExistsCollector();
 
-        QueryCollector(ESLogger logger, ImmutableMap<String, Query> queries, IndexSearcher searcher, IndexService percolatorIndex, List<String> matches) {
+        QueryCollector(ESLogger logger, ImmutableMap<String, Query> queries, Set<String> candidates, IndexSearcher searcher, IndexService percolatorIndex, List<String> matches) {
             this.logger = logger;
             this.queries = queries;
+            this.candidates = candidates;
             this.searcher = searcher;
             this.percolatorIndex = percolatorIndex;
             this.matches = matches;
@@ -423,6 +638,10 @@ public class PercolatorExecutor extends AbstractIndexComponent {
 
         @Override public void collect(int doc) throws IOException {
             String id = fieldData.stringValue(doc);
+            if (!candidates.contains(id)) {
+                // the doc does not have any of the terms the query requires
+                return;
+            }
             Query query = queries.get(id);
             if (query == null) {
                 // log???
@@ -0,0 +1,129 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.percolator;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.collect.ImmutableSet;
+import org.elasticsearch.common.lucene.search.TermFilter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Extracts from a query a set of terms, at least one of which a document must have in order to match
+ * the query. Used by the percolator to only execute queries that have a chance to match a document.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class QueryTermsExtractor {
+
+    private QueryTermsExtractor() {
+
+    }
+
+    /**
+     * Returns the set of terms (at least one of which must exist in a doc for it to match the query), or
+     * <tt>null</tt> if no such set can be extracted from the query.
+     */
+    @Nullable public static Set<Term> extract(Query query) {
+        if (query instanceof TermQuery) {
+            return ImmutableSet.of(((TermQuery) query).getTerm());
+        } else if (query instanceof PhraseQuery) {
+            Term[] terms = ((PhraseQuery) query).getTerms();
+            if (terms.length == 0) {
+                return null;
+            }
+            // all the terms are required, use the longest one, which is probably the least common one
+            Term longest = terms[0];
+            for (Term term : terms) {
+                if (term.text().length() > longest.text().length()) {
+                    longest = term;
+                }
+            }
+            return ImmutableSet.of(longest);
+        } else if (query instanceof BooleanQuery) {
+            return extract((BooleanQuery) query);
+        } else if (query instanceof DisjunctionMaxQuery) {
+            Set<Term> terms = new HashSet<Term>();
+            for (Query disjunct : (DisjunctionMaxQuery) query) {
+                Set<Term> disjunctTerms = extract(disjunct);
+                if (disjunctTerms == null) {
+                    return null;
+                }
+                terms.addAll(disjunctTerms);
+            }
+            return terms.isEmpty() ? null : terms;
+        } else if (query instanceof FilteredQuery) {
+            Set<Term> terms = extract(((FilteredQuery) query).getQuery());
+            if (terms != null) {
+                return terms;
+            }
+            return extract(((FilteredQuery) query).getFilter());
+        } else if (query instanceof ConstantScoreQuery) {
+            return extract(((ConstantScoreQuery) query).getFilter());
+        }
+        return null;
+    }
+
+    @Nullable private static Set<Term> extract(BooleanQuery query) {
+        Set<Term> bestRequired = null;
+        boolean hasRequired = false;
+        Set<Term> optional = new HashSet<Term>();
+        boolean hasOptional = false;
+        boolean allOptionalExtracted = true;
+        for (BooleanClause clause : query.getClauses()) {
+            if (clause.isProhibited()) {
+                continue;
+            }
+            Set<Term> terms = extract(clause.getQuery());
+            if (clause.isRequired()) {
+                hasRequired = true;
+                // any required clause will do, use the one with the least terms
+                if (terms != null && (bestRequired == null || terms.size() < bestRequired.size())) {
+                    bestRequired = terms;
+                }
+            } else {
+                hasOptional = true;
+                if (terms == null) {
+                    allOptionalExtracted = false;
+                } else {
+                    optional.addAll(terms);
+                }
+            }
+        }
+        if (hasRequired) {
+            return bestRequired;
+        }
+        // no required clauses, at least one of the optional ones must match
+        if (hasOptional && allOptionalExtracted && !optional.isEmpty()) {
+            return optional;
+        }
+        return null;
+    }
+
+    @Nullable private static Set<Term> extract(Filter filter) {
+        if (filter instanceof TermFilter) {
+            return ImmutableSet.of(((TermFilter) filter).getTerm());
+        }
+        return null;
+    }
+}
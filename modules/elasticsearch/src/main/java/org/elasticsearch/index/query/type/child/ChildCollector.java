@@ -23,7 +23,6 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.util.OpenBitSet;
-import org.elasticsearch.common.BytesWrap;
 import org.elasticsearch.index.cache.id.IdReaderTypeCache;
 import org.elasticsearch.search.internal.SearchContext;
 
@@ -67,12 +66,9 @@ public class ChildCollector extends Collector {
     }
 
     @Override public void collect(int doc) throws IOException {
-        BytesWrap parentId = typeCache.parentIdByDoc(doc);
-        if (parentId == null) {
-            return;
-        }
+        // the parent id is compared in place, instead of copying it for each collected doc
         for (IndexReader indexReader : context.searcher().subReaders()) {
-            int parentDocId = typeCacheMap.get(indexReader.getFieldCacheKey()).docById(parentId);
+            int parentDocId = typeCacheMap.get(indexReader.getFieldCacheKey()).docByParentIdOf(typeCache, doc);
             if (parentDocId != -1 && !indexReader.isDeleted(parentDocId)) {
                 OpenBitSet docIdSet = parentDocs().get(indexReader.getFieldCacheKey());
                 if (docIdSet == null) {
@@ -37,18 +37,20 @@ class RecoveryFileChunkRequest implements Streamable {
     private long position;
     private long length;
     private String checksum;
+    private String checksumAlgorithm;
     private byte[] content;
     private int contentLength;
 
     RecoveryFileChunkRequest() {
     }
 
-    RecoveryFileChunkRequest(ShardId shardId, String name, long position, long length, String checksum, byte[] content, int contentLength) {
+    RecoveryFileChunkRequest(ShardId shardId, String name, long position, long length, String checksum, String checksumAlgorithm, byte[] content, int contentLength) {
         this.shardId = shardId;
         this.name = name;
         this.position = position;
         this.length = length;
         this.checksum = checksum;
+        this.checksumAlgorithm = checksumAlgorithm;
         this.content = content;
         this.contentLength = contentLength;
     }
@@ -69,6 +71,10 @@ class RecoveryFileChunkRequest implements Streamable {
         return this.checksum;
     }
 
+    @Nullable public String checksumAlgorithm() {
+        return this.checksumAlgorithm;
+    }
+
     public long length() {
         return length;
     }
@@ -94,6 +100,7 @@ class RecoveryFileChunkRequest implements Streamable {
         length = in.readVLong();
         if (in.readBoolean()) {
             checksum = in.readUTF();
+            checksumAlgorithm = in.readUTF();
         }
         contentLength = in.readVInt();
         content = new byte[contentLength];
@@ -110,6 +117,7 @@ class RecoveryFileChunkRequest implements Streamable {
         } else {
             out.writeBoolean(true);
             out.writeUTF(checksum);
+            out.writeUTF(checksumAlgorithm);
         }
         out.writeVInt(contentLength);
         out.writeBytes(content, 0, contentLength);
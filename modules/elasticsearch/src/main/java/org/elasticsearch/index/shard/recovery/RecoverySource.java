@@ -19,6 +19,7 @@
 
 package org.elasticsearch.index.shard.recovery;
 
+import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.store.IndexInput;
 import org.elasticsearch.ElasticSearchException;
 import org.elasticsearch.common.StopWatch;
@@ -26,6 +27,7 @@ import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.common.collect.Sets;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.VoidStreamable;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
@@ -38,9 +40,11 @@ import org.elasticsearch.index.shard.IllegalIndexShardStateException;
 import org.elasticsearch.index.shard.IndexShardClosedException;
 import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.service.InternalIndexShard;
+import org.elasticsearch.index.store.StoreChecksum;
 import org.elasticsearch.index.store.StoreFileMetaData;
 import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.indices.throttler.IndicesThrottler;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.*;
 
@@ -49,6 +53,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -69,29 +74,35 @@ public class RecoverySource extends AbstractComponent {
 
     private final IndicesService indicesService;
 
+    private final IndicesThrottler throttler;
 
     private final ByteSizeValue fileChunkSize;
 
+    private final int fileChunkWindow;
+
     private final boolean compress;
 
     private final int translogBatchSize;
 
     private final ExecutorService concurrentStreamPool;
 
-    @Inject public RecoverySource(Settings settings, ThreadPool threadPool, TransportService transportService, IndicesService indicesService) {
+    @Inject public RecoverySource(Settings settings, ThreadPool threadPool, TransportService transportService, IndicesService indicesService,
+                                  IndicesThrottler throttler) {
         super(settings);
         this.threadPool = threadPool;
         this.transportService = transportService;
         this.indicesService = indicesService;
+        this.throttler = throttler;
 
         int concurrentStreams = componentSettings.getAsInt("concurrent_streams", 5);
         this.concurrentStreamPool = DynamicExecutors.newScalingThreadPool(1, concurrentStreams, TimeValue.timeValueSeconds(5).millis(), EsExecutors.daemonThreadFactory(settings, "[recovery_stream]"));
 
         this.fileChunkSize = componentSettings.getAsBytesSize("file_chunk_size", new ByteSizeValue(100, ByteSizeUnit.KB));
+        this.fileChunkWindow = Math.max(1, componentSettings.getAsInt("file_chunk_window", 5));
         this.translogBatchSize = componentSettings.getAsInt("translog_batch_size", 100);
         this.compress = componentSettings.getAsBoolean("compress", true);
 
-        logger.debug("using concurrent_streams [{}], file_chunk_size [{}], translog_batch_size [{}], and compress [{}]", concurrentStreams, fileChunkSize, translogBatchSize, compress);
+        logger.debug("using concurrent_streams [{}], file_chunk_size [{}], file_chunk_window [{}], translog_batch_size [{}], and compress [{}]", concurrentStreams, fileChunkSize, fileChunkWindow, translogBatchSize, compress);
 
         transportService.registerHandler(Actions.START_RECOVERY, new StartRecoveryTransportRequestHandler());
     }
@@ -152,24 +163,67 @@ public class RecoverySource extends AbstractComponent {
                         concurrentStreamPool.execute(new Runnable() {
                             @Override public void run() {
                                 IndexInput indexInput = null;
+                                // up to file_chunk_window chunks of the file are sent without waiting for their acks, the
+                                // target writes them in order of position and acks each one once it got written
+                                final Semaphore window = new Semaphore(fileChunkWindow);
+                                final AtomicReference<TransportException> chunkFailure = new AtomicReference<TransportException>();
                                 try {
                                     final int BUFFER_SIZE = (int) fileChunkSize.bytes();
                                     byte[] buf = new byte[BUFFER_SIZE];
                                     StoreFileMetaData md = shard.store().metaData(name);
+                                    // verify the local file while streaming it, so a corrupted file is not copied over
+                                    StoreChecksum checksum = null;
+                                    if (md.checksum() != null && StoreChecksum.verifiable(md.checksumAlgorithm())) {
+                                        checksum = StoreChecksum.create(md.checksumAlgorithm());
+                                    }
                                     indexInput = snapshot.getDirectory().openInput(name);
                                     long len = indexInput.length();
                                     long readCount = 0;
-                                    while (readCount < len) {
+                                    while (readCount < len && chunkFailure.get() == null) {
                                         if (shard.state() == IndexShardState.CLOSED) { // check if the shard got closed on us
                                             throw new IndexShardClosedException(shard.shardId());
                                         }
                                         int toRead = readCount + BUFFER_SIZE > len ? (int) (len - readCount) : BUFFER_SIZE;
                                         long position = indexInput.getFilePointer();
                                         indexInput.readBytes(buf, 0, toRead, false);
-                                        transportService.submitRequest(request.targetNode(), RecoveryTarget.Actions.FILE_CHUNK, new RecoveryFileChunkRequest(request.shardId(), name, position, len, md.checksum(), buf, toRead),
-                                                TransportRequestOptions.options().withCompress(compress).withLowType(), VoidTransportResponseHandler.INSTANCE).txGet();
+                                        if (checksum != null) {
+                                            checksum.update(buf, 0, toRead);
+                                        }
+                                        window.acquire();
+                                        throttler.pause(toRead);
+                                        // the request is serialized before sendRequest returns, so the buffer can be reused
+                                        transportService.sendRequest(request.targetNode(), RecoveryTarget.Actions.FILE_CHUNK, new RecoveryFileChunkRequest(request.shardId(), name, position, len, md.checksum(), md.checksumAlgorithm(), buf, toRead),
+                                                TransportRequestOptions.options().withCompress(compress).withLowType(), new BaseTransportResponseHandler<VoidStreamable>() {
+                                                    @Override public VoidStreamable newInstance() {
+                                                        return VoidStreamable.INSTANCE;
+                                                    }
+
+                                                    @Override public void handleResponse(VoidStreamable response) {
+                                                        window.release();
+                                                    }
+
+                                                    @Override public void handleException(TransportException exp) {
+                                                        chunkFailure.compareAndSet(null, exp);
+                                                        window.release();
+                                                    }
+
+                                                    @Override public boolean spawn() {
+                                                        return false;
+                                                    }
+                                                });
                                         readCount += toRead;
                                     }
+                                    // wait for the chunks still in flight
+                                    window.acquire(fileChunkWindow);
+                                    if (chunkFailure.get() != null) {
+                                        throw chunkFailure.get();
+                                    }
+                                    if (checksum != null) {
+                                        String value = checksum.value();
+                                        if (!value.equals(md.checksum())) {
+                                            throw new CorruptIndexException("checksum failed for [" + name + "], expected [" + md.checksum() + "] got [" + value + "] using [" + md.checksumAlgorithm() + "]");
+                                        }
+                                    }
                                     indexInput.close();
                                 } catch (Exception e) {
                                     lastException.set(e);
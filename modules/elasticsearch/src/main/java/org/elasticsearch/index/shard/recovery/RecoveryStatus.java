@@ -20,9 +20,15 @@
 package org.elasticsearch.index.shard.recovery;
 
 import org.apache.lucene.store.IndexOutput;
+import org.elasticsearch.common.collect.Maps;
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.io.stream.VoidStreamable;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.transport.TransportChannel;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -41,6 +47,8 @@ public class RecoveryStatus {
 
     ConcurrentMap<String, IndexOutput> openIndexOutputs = ConcurrentCollections.newConcurrentMap();
 
+    final ConcurrentMap<String, FileChunks> fileChunks = ConcurrentCollections.newConcurrentMap();
+
     final long startTime = System.currentTimeMillis();
     long time;
     List<String> phase1FileNames;
@@ -81,4 +89,98 @@ public class RecoveryStatus {
     public long currentFilesSize() {
         return currentFilesSize.get();
     }
+
+    FileChunks fileChunks(String name) {
+        FileChunks chunks = fileChunks.get(name);
+        if (chunks == null) {
+            chunks = new FileChunks();
+            FileChunks existing = fileChunks.putIfAbsent(name, chunks);
+            if (existing != null) {
+                chunks = existing;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * The chunks of a file are sent several at a time and handled concurrently, so they can arrive out of order.
+     * Chunks ahead of the next position to write are held (and not acked) until the chunks before them are written.
+     * All access must be done while holding its monitor.
+     */
+    static class FileChunks {
+
+        long nextPosition;
+
+        Exception failure;
+
+        final Map<Long, Tuple<RecoveryFileChunkRequest, TransportChannel>> pending = Maps.newHashMap();
+
+        /**
+         * Writes the chunk, and the held chunks following it, if it is the next one to write, otherwise holds it.
+         * Each chunk is acked once written.
+         */
+        synchronized void onChunk(RecoveryFileChunkRequest request, TransportChannel channel, ChunkWriter writer) throws Exception {
+            if (request.position() == 0 && (nextPosition != 0 || failure != null)) {
+                // the file is sent from its start (a retried recovery reuses the recovery status), start over, the
+                // chunks held for the previous attempt will never be written
+                failPending(new IgnoreRecoveryException("file [" + request.name() + "] is recovered again from its start"));
+                nextPosition = 0;
+                failure = null;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (request.position() != nextPosition) {
+                // an earlier chunk has not arrived yet, ack this one once it is written
+                Tuple<RecoveryFileChunkRequest, TransportChannel> previous = pending.put(request.position(), new Tuple<RecoveryFileChunkRequest, TransportChannel>(request, channel));
+                if (previous != null) {
+                    sendFailure(previous.v2(), new IgnoreRecoveryException("file [" + request.name() + "] chunk at [" + request.position() + "] was sent again"));
+                }
+                return;
+            }
+            RecoveryFileChunkRequest chunk = request;
+            TransportChannel chunkChannel = channel;
+            while (true) {
+                try {
+                    writer.write(chunk);
+                } catch (Exception e) {
+                    // fail the held chunks as well, the source stops sending the file on the first failure
+                    failure = e;
+                    failPending(e);
+                    throw e;
+                }
+                chunkChannel.sendResponse(VoidStreamable.INSTANCE);
+                nextPosition += chunk.contentLength();
+                Tuple<RecoveryFileChunkRequest, TransportChannel> next = pending.remove(nextPosition);
+                if (next == null) {
+                    break;
+                }
+                chunk = next.v1();
+                chunkChannel = next.v2();
+            }
+        }
+
+        /**
+         * Fails the held chunks, so the source does not wait on their acks.
+         */
+        synchronized void failPending(Throwable failure) {
+            for (Tuple<RecoveryFileChunkRequest, TransportChannel> held : pending.values()) {
+                sendFailure(held.v2(), failure);
+            }
+            pending.clear();
+        }
+
+        private static void sendFailure(TransportChannel channel, Throwable failure) {
+            try {
+                channel.sendResponse(failure);
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    static interface ChunkWriter {
+
+        void write(RecoveryFileChunkRequest chunk) throws IOException;
+    }
 }
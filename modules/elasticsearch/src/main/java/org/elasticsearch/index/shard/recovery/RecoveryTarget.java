@@ -269,6 +269,10 @@ public class RecoveryTarget extends AbstractComponent {
                 }
             }
             peerRecoveryStatus.openIndexOutputs = null;
+            // fail chunks held waiting for earlier ones, so the source does not wait on their acks
+            for (RecoveryStatus.FileChunks fileChunks : peerRecoveryStatus.fileChunks.values()) {
+                fileChunks.failPending(new IndexShardClosedException(shardId));
+            }
         }
     }
 
@@ -391,12 +395,20 @@ public class RecoveryTarget extends AbstractComponent {
         }
 
         @Override public void messageReceived(final RecoveryFileChunkRequest request, TransportChannel channel) throws Exception {
-            InternalIndexShard shard = (InternalIndexShard) indicesService.indexServiceSafe(request.shardId().index().name()).shardSafe(request.shardId().id());
-            RecoveryStatus onGoingRecovery = onGoingRecoveries.get(shard.shardId());
+            final InternalIndexShard shard = (InternalIndexShard) indicesService.indexServiceSafe(request.shardId().index().name()).shardSafe(request.shardId().id());
+            final RecoveryStatus onGoingRecovery = onGoingRecoveries.get(shard.shardId());
             if (onGoingRecovery == null) {
                 // shard is getting closed on us
                 throw new IndexShardClosedException(shard.shardId());
             }
+            onGoingRecovery.fileChunks(request.name()).onChunk(request, channel, new RecoveryStatus.ChunkWriter() {
+                @Override public void write(RecoveryFileChunkRequest chunk) throws IOException {
+                    writeChunk(shard, onGoingRecovery, chunk);
+                }
+            });
+        }
+
+        private void writeChunk(InternalIndexShard shard, RecoveryStatus onGoingRecovery, RecoveryFileChunkRequest request) throws IOException {
             IndexOutput indexOutput;
             if (request.position() == 0) {
                 // first request
@@ -408,9 +420,8 @@ public class RecoveryTarget extends AbstractComponent {
                         // ignore
                     }
                 }
-                // we create an output with no checksum, this is because the pure binary data of the file is not
-                // the checksum (because of seek). We will create the checksum file once copying is done
-                indexOutput = shard.store().createOutputWithNoChecksum(request.name());
+                // the copy is verified against the checksum as it gets written (when the checksum algorithm allows it)
+                indexOutput = shard.store().createOutputWithChecksum(request.name(), request.checksum(), request.checksumAlgorithm());
                 onGoingRecovery.openIndexOutputs.put(request.name(), indexOutput);
             } else {
                 indexOutput = onGoingRecovery.openIndexOutputs.get(request.name());
@@ -424,12 +435,8 @@ public class RecoveryTarget extends AbstractComponent {
                     indexOutput.writeBytes(request.content(), request.contentLength());
                     onGoingRecovery.currentFilesSize.addAndGet(request.contentLength());
                     if (indexOutput.getFilePointer() == request.length()) {
-                        // we are done
+                        // we are done, fails if the copy does not match the checksum
                         indexOutput.close();
-                        // write the checksum
-                        if (request.checksum() != null) {
-                            shard.store().writeChecksum(request.name(), request.checksum());
-                        }
                         shard.store().directory().sync(request.name());
                         onGoingRecovery.openIndexOutputs.remove(request.name());
                     }
@@ -443,7 +450,6 @@ public class RecoveryTarget extends AbstractComponent {
                     throw e;
                 }
             }
-            channel.sendResponse(VoidStreamable.INSTANCE);
         }
     }
 }
@@ -68,6 +68,11 @@ public interface IndexShard extends IndexShardComponent {
 
     byte[] get(String type, String id) throws ElasticSearchException;
 
+    /**
+     * Gets a document from the engine, the result must be released.
+     */
+    Engine.GetResult get(Engine.Get get) throws ElasticSearchException;
+
     long count(float minScore, byte[] querySource, @Nullable String queryParserName, String... types) throws ElasticSearchException;
 
     long count(float minScore, byte[] querySource, int querySourceOffset, int querySourceLength, @Nullable String queryParserName, String... types) throws ElasticSearchException;
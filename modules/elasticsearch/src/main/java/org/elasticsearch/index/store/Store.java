@@ -21,6 +21,7 @@ package org.elasticsearch.index.store;
 
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IndexOutput;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.index.shard.IndexShardComponent;
@@ -39,7 +40,15 @@ public interface Store extends IndexShardComponent {
 
     IndexOutput createOutputWithNoChecksum(String name) throws IOException;
 
-    void writeChecksum(String name, String checksum) throws IOException;
+    /**
+     * Creates an output for a copy of a file with the provided checksum. When the checksum is {@link StoreChecksum#verifiable(String)},
+     * the bytes written are checksummed as they are written, and closing the output fails with a
+     * {@link org.apache.lucene.index.CorruptIndexException} (after deleting the file) if they don't match it. The
+     * checksum is recorded as the file checksum once the output is closed.
+     */
+    IndexOutput createOutputWithChecksum(String name, @Nullable String checksum, @Nullable String checksumAlgorithm) throws IOException;
+
+    void writeChecksum(String name, String checksum, String checksumAlgorithm) throws IOException;
 
     StoreFileMetaData metaData(String name) throws IOException;
 
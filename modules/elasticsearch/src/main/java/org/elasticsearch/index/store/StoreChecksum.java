@@ -0,0 +1,273 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index.store;
+
+import org.elasticsearch.ElasticSearchIllegalArgumentException;
+import org.elasticsearch.common.Digest;
+import org.elasticsearch.common.Hex;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.collect.Tuple;
+
+import java.security.MessageDigest;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * A checksum of the content of a store file, computed with one of the supported algorithms.
+ *
+ * <p>Checksums of files written by older versions are {@link #MD5} digests of the bytes as they were written to the
+ * file, which differ from the file content when the writer seeked back (for example, compound and term infos files),
+ * so they are only used to compare files and never verified (see {@link #verifiable(String)}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public abstract class StoreChecksum {
+
+    public static final String MD5 = "md5";
+
+    public static final String CRC32 = "crc32";
+
+    public static final String ADLER32 = "adler32";
+
+    /**
+     * Creates a new checksum using the provided algorithm.
+     */
+    public static StoreChecksum create(String algorithm) {
+        if (ADLER32.equals(algorithm)) {
+            return new ZipStoreChecksum(ADLER32, new Adler32());
+        } else if (CRC32.equals(algorithm)) {
+            return new ZipStoreChecksum(CRC32, new CRC32());
+        } else if (MD5.equals(algorithm)) {
+            return new DigestStoreChecksum(Digest.getMd5Digest());
+        }
+        throw new ElasticSearchIllegalArgumentException("No checksum algorithm [" + algorithm + "], should be one of [" + ADLER32 + "], [" + CRC32 + "] or [" + MD5 + "]");
+    }
+
+    /**
+     * Can a checksum computed with the provided algorithm be verified against the content of the file.
+     */
+    public static boolean verifiable(@Nullable String algorithm) {
+        return ADLER32.equals(algorithm) || CRC32.equals(algorithm);
+    }
+
+    /**
+     * The content of the <tt>.cks</tt> file of a checksum, the checksum prefixed with its algorithm, except for
+     * {@link #MD5} which is written as is, like older versions did.
+     */
+    public static String toFileContent(String checksum, String algorithm) {
+        if (MD5.equals(algorithm)) {
+            return checksum;
+        }
+        return algorithm + ':' + checksum;
+    }
+
+    /**
+     * Parses the content of a <tt>.cks</tt> file into the checksum and its algorithm.
+     */
+    public static Tuple<String, String> fromFileContent(String content) {
+        int index = content.indexOf(':');
+        if (index == -1) {
+            return new Tuple<String, String>(content, MD5);
+        }
+        return new Tuple<String, String>(content.substring(index + 1), content.substring(0, index));
+    }
+
+    public abstract String algorithm();
+
+    public abstract void update(byte b);
+
+    public abstract void update(byte[] b, int offset, int length);
+
+    /**
+     * The checksum of the bytes provided so far.
+     */
+    public abstract String value();
+
+    /**
+     * Can the checksum be combined with the checksum of the bytes following it, see {@link #combine(StoreChecksum, long)}.
+     */
+    public abstract boolean combinable();
+
+    /**
+     * The checksum of the bytes provided so far followed by the <tt>length</tt> bytes provided to <tt>next</tt>,
+     * without going over them again. Only supported when {@link #combinable()}.
+     */
+    public abstract String combine(StoreChecksum next, long length);
+
+    static class ZipStoreChecksum extends StoreChecksum {
+
+        private final String algorithm;
+
+        private final Checksum checksum;
+
+        ZipStoreChecksum(String algorithm, Checksum checksum) {
+            this.algorithm = algorithm;
+            this.checksum = checksum;
+        }
+
+        @Override public String algorithm() {
+            return algorithm;
+        }
+
+        @Override public void update(byte b) {
+            checksum.update(b);
+        }
+
+        @Override public void update(byte[] b, int offset, int length) {
+            checksum.update(b, offset, length);
+        }
+
+        @Override public String value() {
+            return Long.toString(checksum.getValue(), Character.MAX_RADIX);
+        }
+
+        @Override public boolean combinable() {
+            return true;
+        }
+
+        @Override public String combine(StoreChecksum next, long length) {
+            long nextValue = ((ZipStoreChecksum) next).checksum.getValue();
+            long value;
+            if (ADLER32.equals(algorithm)) {
+                value = adler32Combine(checksum.getValue(), nextValue, length);
+            } else {
+                value = crc32Combine(checksum.getValue(), nextValue, length);
+            }
+            return Long.toString(value, Character.MAX_RADIX);
+        }
+    }
+
+    private static final long ADLER32_BASE = 65521;
+
+    /**
+     * Port of zlib <tt>adler32_combine</tt>.
+     */
+    static long adler32Combine(long adler1, long adler2, long length2) {
+        long rem = length2 % ADLER32_BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % ADLER32_BASE;
+        sum1 += (adler2 & 0xffff) + ADLER32_BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + ADLER32_BASE - rem;
+        if (sum1 >= ADLER32_BASE) {
+            sum1 -= ADLER32_BASE;
+        }
+        if (sum1 >= ADLER32_BASE) {
+            sum1 -= ADLER32_BASE;
+        }
+        if (sum2 >= (ADLER32_BASE << 1)) {
+            sum2 -= (ADLER32_BASE << 1);
+        }
+        if (sum2 >= ADLER32_BASE) {
+            sum2 -= ADLER32_BASE;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    /**
+     * Port of zlib <tt>crc32_combine</tt>, appending <tt>length2</tt> zero bits to the first crc using the crc
+     * polynomial operator matrix squared repeatedly.
+     */
+    static long crc32Combine(long crc1, long crc2, long length2) {
+        if (length2 <= 0) {
+            return crc1;
+        }
+        long[] even = new long[32];
+        long[] odd = new long[32];
+        // the operator for one zero bit
+        odd[0] = 0xedb88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // two zero bits, then four
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+        // apply length2 zero bytes to crc1 (the first square puts the operator for one zero byte in even)
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((length2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(even, crc1);
+            }
+            length2 >>= 1;
+            if (length2 == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((length2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(odd, crc1);
+            }
+            length2 >>= 1;
+        } while (length2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] mat, long vec) {
+        long sum = 0;
+        int i = 0;
+        while (vec != 0) {
+            if ((vec & 1) != 0) {
+                sum ^= mat[i];
+            }
+            vec >>>= 1;
+            i++;
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] mat) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+        }
+    }
+
+    static class DigestStoreChecksum extends StoreChecksum {
+
+        private final MessageDigest digest;
+
+        DigestStoreChecksum(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override public String algorithm() {
+            return MD5;
+        }
+
+        @Override public void update(byte b) {
+            digest.update(b);
+        }
+
+        @Override public void update(byte[] b, int offset, int length) {
+            digest.update(b, offset, length);
+        }
+
+        @Override public String value() {
+            return Hex.encodeHexString(digest.digest());
+        }
+
+        @Override public boolean combinable() {
+            return false;
+        }
+
+        @Override public String combine(StoreChecksum next, long length) {
+            throw new UnsupportedOperationException("md5 digests can't be combined");
+        }
+    }
+}
@@ -39,14 +39,17 @@ public class StoreFileMetaData implements Streamable {
 
     private String checksum;
 
+    private String checksumAlgorithm;
+
     StoreFileMetaData() {
     }
 
-    public StoreFileMetaData(String name, long length, long lastModified, String checksum) {
+    public StoreFileMetaData(String name, long length, long lastModified, @Nullable String checksum, @Nullable String checksumAlgorithm) {
         this.name = name;
         this.lastModified = lastModified;
         this.length = length;
         this.checksum = checksum;
+        this.checksumAlgorithm = checksum == null ? null : checksumAlgorithm;
     }
 
     public String name() {
@@ -65,9 +68,18 @@ public class StoreFileMetaData implements Streamable {
         return this.checksum;
     }
 
+    /**
+     * The algorithm the {@link #checksum()} was computed with (see {@link StoreChecksum}), <tt>null</tt> if there is
+     * no checksum.
+     */
+    @Nullable public String checksumAlgorithm() {
+        return this.checksumAlgorithm;
+    }
+
     public boolean isSame(StoreFileMetaData other) {
         if (checksum != null && other.checksum != null) {
-            return checksum.equals(other.checksum);
+            // checksums of different algorithms can't tell if the files are the same, assume they are not
+            return checksumAlgorithm.equals(other.checksumAlgorithm) && checksum.equals(other.checksum);
         }
         return length == other.length;
     }
@@ -87,6 +99,7 @@ public class StoreFileMetaData implements Streamable {
         length = in.readVLong();
         if (in.readBoolean()) {
             checksum = in.readUTF();
+            checksumAlgorithm = in.readUTF();
         }
     }
 
@@ -98,6 +111,7 @@ public class StoreFileMetaData implements Streamable {
         } else {
             out.writeBoolean(true);
             out.writeUTF(checksum);
+            out.writeUTF(checksumAlgorithm);
         }
     }
 }
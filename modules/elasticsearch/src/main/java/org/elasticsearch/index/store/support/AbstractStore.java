@@ -19,13 +19,14 @@
 
 package org.elasticsearch.index.store.support;
 
+import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.store.*;
-import org.elasticsearch.common.Digest;
-import org.elasticsearch.common.Hex;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.Unicode;
 import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.collect.MapBuilder;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.lucene.Directories;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
@@ -34,11 +35,11 @@ import org.elasticsearch.index.shard.AbstractIndexShardComponent;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.store.IndexStore;
 import org.elasticsearch.index.store.Store;
+import org.elasticsearch.index.store.StoreChecksum;
 import org.elasticsearch.index.store.StoreFileMetaData;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.security.MessageDigest;
 import java.util.Map;
 
 /**
@@ -56,10 +57,15 @@ public abstract class AbstractStore extends AbstractIndexShardComponent implemen
 
     private final boolean sync;
 
+    private final String checksumAlgorithm;
+
     protected AbstractStore(ShardId shardId, @IndexSettings Settings indexSettings, IndexStore indexStore) {
         super(shardId, indexSettings);
         this.indexStore = indexStore;
         this.sync = componentSettings.getAsBoolean("sync", true); // TODO we don't really need to fsync when using shared gateway...
+        this.checksumAlgorithm = indexSettings.get("index.store.checksum", StoreChecksum.ADLER32);
+        // fail early on an unknown algorithm
+        StoreChecksum.create(checksumAlgorithm);
     }
 
     protected Directory wrapDirectory(Directory dir) throws IOException {
@@ -116,20 +122,50 @@ public abstract class AbstractStore extends AbstractIndexShardComponent implemen
         return ((StoreDirectory) directory()).createOutput(name, false);
     }
 
-    @Override public void writeChecksum(String name, String checksum) throws IOException {
-        // write the checksum (using the delegate, so we won't checksum this one as well...)
-        IndexOutput checkSumOutput = ((StoreDirectory) directory()).delegate().createOutput(name + ".cks");
-        byte[] checksumBytes = Unicode.fromStringAsBytes(checksum);
-        checkSumOutput.writeBytes(checksumBytes, checksumBytes.length);
-        checkSumOutput.close();
+    @Override public IndexOutput createOutputWithChecksum(String name, @Nullable String checksum, @Nullable String checksumAlgorithm) throws IOException {
+        return ((StoreDirectory) directory()).createOutput(name, checksum, checksumAlgorithm);
+    }
+
+    @Override public void writeChecksum(String name, String checksum, String checksumAlgorithm) throws IOException {
+        writeChecksumFile(name, checksum, checksumAlgorithm);
         // update the metadata to include the checksum
         synchronized (mutex) {
             StoreFileMetaData metaData = filesMetadata.get(name);
-            metaData = new StoreFileMetaData(metaData.name(), metaData.length(), metaData.lastModified(), checksum);
+            metaData = new StoreFileMetaData(metaData.name(), metaData.length(), metaData.lastModified(), checksum, checksumAlgorithm);
             filesMetadata = MapBuilder.newMapBuilder(filesMetadata).put(name, metaData).immutableMap();
         }
     }
 
+    private void writeChecksumFile(String name, String checksum, String checksumAlgorithm) throws IOException {
+        // write the checksum (using the delegate, so we won't checksum this one as well...)
+        IndexOutput checkSumOutput = ((StoreDirectory) directory()).delegate().createOutput(name + ".cks");
+        byte[] checksumBytes = Unicode.fromStringAsBytes(StoreChecksum.toFileContent(checksum, checksumAlgorithm));
+        checkSumOutput.writeBytes(checksumBytes, checksumBytes.length);
+        checkSumOutput.close();
+    }
+
+    /**
+     * Checksums the content of the file, reading it from the underlying directory.
+     */
+    private String checksumFile(String name, String checksumAlgorithm) throws IOException {
+        StoreChecksum checksum = StoreChecksum.create(checksumAlgorithm);
+        IndexInput indexInput = ((StoreDirectory) directory()).delegate().openInput(name);
+        try {
+            byte[] buffer = new byte[16 * 1024];
+            long length = indexInput.length();
+            long readCount = 0;
+            while (readCount < length) {
+                int toRead = (int) Math.min(buffer.length, length - readCount);
+                indexInput.readBytes(buffer, 0, toRead, false);
+                checksum.update(buffer, 0, toRead);
+                readCount += toRead;
+            }
+        } finally {
+            indexInput.close();
+        }
+        return checksum.value();
+    }
+
     /**
      * The idea of the store directory is to cache file level meta data, as well as md5 of it
      */
@@ -146,20 +182,24 @@ public abstract class AbstractStore extends AbstractIndexShardComponent implemen
                         continue;
                     }
                     // try and load the checksum for the file
-                    String checksum = null;
+                    Tuple<String, String> checksum = null;
                     if (delegate.fileExists(file + ".cks")) {
                         IndexInput indexInput = delegate.openInput(file + ".cks");
                         try {
                             if (indexInput.length() > 0) {
                                 byte[] checksumBytes = new byte[(int) indexInput.length()];
                                 indexInput.readBytes(checksumBytes, 0, checksumBytes.length, false);
-                                checksum = Unicode.fromBytes(checksumBytes);
+                                checksum = StoreChecksum.fromFileContent(Unicode.fromBytes(checksumBytes));
                             }
                         } finally {
                             indexInput.close();
                         }
                     }
-                    builder.put(file, new StoreFileMetaData(file, delegate.fileLength(file), delegate.fileModified(file), checksum));
+                    if (checksum == null) {
+                        builder.put(file, new StoreFileMetaData(file, delegate.fileLength(file), delegate.fileModified(file), null, null));
+                    } else {
+                        builder.put(file, new StoreFileMetaData(file, delegate.fileLength(file), delegate.fileModified(file), checksum.v1(), checksum.v2()));
+                    }
                 }
                 filesMetadata = builder.immutableMap();
                 files = filesMetadata.keySet().toArray(new String[filesMetadata.size()]);
@@ -195,7 +235,7 @@ public abstract class AbstractStore extends AbstractIndexShardComponent implemen
             synchronized (mutex) {
                 StoreFileMetaData metaData = filesMetadata.get(name);
                 if (metaData != null) {
-                    metaData = new StoreFileMetaData(metaData.name(), metaData.length(), delegate.fileModified(name), metaData.checksum());
+                    metaData = new StoreFileMetaData(metaData.name(), metaData.length(), delegate.fileModified(name), metaData.checksum(), metaData.checksumAlgorithm());
                     filesMetadata = MapBuilder.newMapBuilder(filesMetadata).put(name, metaData).immutableMap();
                 }
             }
@@ -231,6 +271,25 @@ public abstract class AbstractStore extends AbstractIndexShardComponent implemen
         }
 
         public IndexOutput createOutput(String name, boolean computeChecksum) throws IOException {
+            StoreChecksum checksum = null;
+            // no need to create checksum for segments.gen since its not snapshot to recovery, and
+            // don't compute checksum for segments files, so pure Lucene can open this directory
+            // and since we, in any case, always recover the segments files
+            if (computeChecksum && !name.startsWith("segments")) {
+                checksum = StoreChecksum.create(checksumAlgorithm);
+            }
+            return createOutput(name, checksum, null, null);
+        }
+
+        public IndexOutput createOutput(String name, @Nullable String expectedChecksum, @Nullable String expectedChecksumAlgorithm) throws IOException {
+            StoreChecksum checksum = null;
+            if (expectedChecksum != null && StoreChecksum.verifiable(expectedChecksumAlgorithm)) {
+                checksum = StoreChecksum.create(expectedChecksumAlgorithm);
+            }
+            return createOutput(name, checksum, expectedChecksum, expectedChecksumAlgorithm);
+        }
+
+        private IndexOutput createOutput(String name, @Nullable StoreChecksum checksum, @Nullable String expectedChecksum, @Nullable String expectedChecksumAlgorithm) throws IOException {
             IndexOutput out = delegate.createOutput(name);
             // delete the relevant cks file for an existing file, if exists
             if (filesMetadata.containsKey(name)) {
@@ -241,11 +300,11 @@ public abstract class AbstractStore extends AbstractIndexShardComponent implemen
                 }
             }
             synchronized (mutex) {
-                StoreFileMetaData metaData = new StoreFileMetaData(name, -1, -1, null);
+                StoreFileMetaData metaData = new StoreFileMetaData(name, -1, -1, null, null);
                 filesMetadata = MapBuilder.newMapBuilder(filesMetadata).put(name, metaData).immutableMap();
                 files = filesMetadata.keySet().toArray(new String[filesMetadata.size()]);
             }
-            return new StoreIndexOutput(out, name, computeChecksum);
+            return new StoreIndexOutput(out, name, checksum, expectedChecksum, expectedChecksumAlgorithm);
         }
 
         @Override public IndexInput openInput(String name) throws IOException {
@@ -295,61 +354,145 @@ public abstract class AbstractStore extends AbstractIndexShardComponent implemen
         }
     }
 
+    /**
+     * Checksums the bytes as they are written. If the writer seeks back (for example, compound and term infos
+     * files), the bytes written are not the content of the file, which then gets checksummed on close instead, so
+     * the recorded checksum can always be verified against the file content.
+     */
+    /**
+     * Writers seek back to patch the header of a file (the term infos size, the compound file entries offsets), so
+     * the bytes of the head of the file are kept and checksummed on close, while the rest is checksummed as it is
+     * written, and both are combined. A file that is patched beyond its head is read back on close to checksum it.
+     */
+    static final int CHECKSUM_HEAD_SIZE = 16 * 1024;
+
     class StoreIndexOutput extends IndexOutput {
 
         private final IndexOutput delegate;
 
         private final String name;
 
-        private final MessageDigest digest;
+        private final StoreChecksum checksum;
+
+        private final String expectedChecksum;
+
+        private final String expectedChecksumAlgorithm;
+
+        // the head of the file, when the checksum can be combined (the checksum then starts after it)
+        private final byte[] head;
 
-        StoreIndexOutput(IndexOutput delegate, String name, boolean computeChecksum) {
+        private int headLength;
+
+        // the end of the bytes provided to the checksum, in order
+        private long checksummedLength;
+
+        private boolean seeked;
+
+        private boolean closed;
+
+        StoreIndexOutput(IndexOutput delegate, String name, @Nullable StoreChecksum checksum, @Nullable String expectedChecksum, @Nullable String expectedChecksumAlgorithm) {
             this.delegate = delegate;
             this.name = name;
-            if (computeChecksum) {
-                if ("segments.gen".equals(name)) {
-                    // no need to create checksum for segments.gen since its not snapshot to recovery
-                    this.digest = null;
-                } else if (name.startsWith("segments")) {
-                    // don't compute checksum for segments files, so pure Lucene can open this directory
-                    // and since we, in any case, always recover the segments files
-                    this.digest = null;
-                } else {
-                    this.digest = Digest.getMd5Digest();
-                }
+            this.checksum = checksum;
+            this.expectedChecksum = expectedChecksum;
+            this.expectedChecksumAlgorithm = expectedChecksumAlgorithm;
+            // copies with an expected checksum are written in order, no need to keep their head
+            if (checksum != null && checksum.combinable() && expectedChecksum == null) {
+                this.head = new byte[CHECKSUM_HEAD_SIZE];
+                this.checksummedLength = CHECKSUM_HEAD_SIZE;
             } else {
-                this.digest = null;
+                this.head = null;
+                this.checksummedLength = 0;
             }
         }
 
         @Override public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
             delegate.close();
-            String checksum = null;
-            if (digest != null) {
-                checksum = Hex.encodeHexString(digest.digest());
-                IndexOutput checkSumOutput = ((StoreDirectory) directory()).delegate().createOutput(name + ".cks");
-                byte[] checksumBytes = Unicode.fromStringAsBytes(checksum);
-                checkSumOutput.writeBytes(checksumBytes, checksumBytes.length);
-                checkSumOutput.close();
+            String checksumValue = null;
+            String checksumAlgorithm = null;
+            if (checksum != null) {
+                checksumAlgorithm = checksum.algorithm();
+                if (seeked) {
+                    checksumValue = checksumFile(name, checksumAlgorithm);
+                } else if (head != null) {
+                    StoreChecksum headChecksum = StoreChecksum.create(checksumAlgorithm);
+                    headChecksum.update(head, 0, headLength);
+                    checksumValue = headChecksum.combine(checksum, checksummedLength - head.length);
+                } else {
+                    checksumValue = checksum.value();
+                }
+                if (expectedChecksum != null && !expectedChecksum.equals(checksumValue)) {
+                    directory().deleteFile(name);
+                    throw new CorruptIndexException("checksum failed for [" + name + "], expected [" + expectedChecksum + "] got [" + checksumValue + "] using [" + checksumAlgorithm + "]");
+                }
+            } else if (expectedChecksum != null) {
+                // can't be verified, just keep it
+                checksumValue = expectedChecksum;
+                checksumAlgorithm = expectedChecksumAlgorithm;
+            }
+            if (checksumValue != null) {
+                writeChecksumFile(name, checksumValue, checksumAlgorithm);
             }
             synchronized (mutex) {
-                StoreFileMetaData md = new StoreFileMetaData(name, directory().fileLength(name), directory().fileModified(name), checksum);
+                StoreFileMetaData md = new StoreFileMetaData(name, directory().fileLength(name), directory().fileModified(name), checksumValue, checksumAlgorithm);
                 filesMetadata = MapBuilder.newMapBuilder(filesMetadata).put(name, md).immutableMap();
                 files = filesMetadata.keySet().toArray(new String[filesMetadata.size()]);
             }
         }
 
         @Override public void writeByte(byte b) throws IOException {
+            long position = delegate.getFilePointer();
             delegate.writeByte(b);
-            if (digest != null) {
-                digest.update(b);
+            if (checksum == null || seeked) {
+                return;
+            }
+            if (head != null && position < head.length) {
+                if (position > headLength) {
+                    seeked = true;
+                    return;
+                }
+                head[(int) position] = b;
+                if (position == headLength) {
+                    headLength++;
+                }
+            } else if (position == checksummedLength && (head == null || headLength == head.length)) {
+                checksum.update(b);
+                checksummedLength++;
+            } else {
+                seeked = true;
             }
         }
 
         @Override public void writeBytes(byte[] b, int offset, int length) throws IOException {
+            long position = delegate.getFilePointer();
             delegate.writeBytes(b, offset, length);
-            if (digest != null) {
-                digest.update(b, offset, length);
+            if (checksum == null || seeked) {
+                return;
+            }
+            if (head != null && position < head.length) {
+                if (position > headLength) {
+                    seeked = true;
+                    return;
+                }
+                int headPart = (int) Math.min(length, head.length - position);
+                System.arraycopy(b, offset, head, (int) position, headPart);
+                headLength = Math.max(headLength, (int) position + headPart);
+                position += headPart;
+                offset += headPart;
+                length -= headPart;
+                if (length == 0) {
+                    return;
+                }
+            }
+            if (position == checksummedLength && (head == null || headLength == head.length)) {
+                checksum.update(b, offset, length);
+                checksummedLength += length;
+            } else {
+                seeked = true;
             }
         }
 
@@ -367,9 +510,7 @@ public abstract class AbstractStore extends AbstractIndexShardComponent implemen
         }
 
         @Override public void seek(long pos) throws IOException {
-            // seek might be called on files, which means that the checksum is not file checksum
-            // but a checksum of the bytes written to this stream, which is the same for each
-            // type of file in lucene
+            // writes after the seek are checked against what was checksummed so far
             delegate.seek(pos);
         }
 
@@ -20,6 +20,7 @@
 package org.elasticsearch.index.translog;
 
 import org.apache.lucene.index.Term;
+import org.elasticsearch.ElasticSearchIllegalArgumentException;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.StreamInput;
@@ -73,9 +74,15 @@ public interface Translog extends IndexShardComponent {
     void newTranslog(long id) throws TranslogException;
 
     /**
-     * Adds a create operation to the transaction log.
+     * Adds a create operation to the transaction log, returning where it was written.
      */
-    void add(Operation operation) throws TranslogException;
+    Location add(Operation operation) throws TranslogException;
+
+    /**
+     * Reads back the operation written at the given location, returns <tt>null</tt> if the location is not
+     * part of the current transaction log.
+     */
+    @Nullable Operation read(Location location) throws TranslogException;
 
     /**
      * Snapshots the current transaction log allowing to safely iterate over the snapshot.
@@ -99,13 +106,83 @@ public interface Translog extends IndexShardComponent {
      */
     void sync();
 
-    void syncOnEachOperation(boolean syncOnEachOperation);
+    /**
+     * Sets the durability of operations added to the translog.
+     */
+    void durability(Durability durability);
 
     /**
      * Closes the transaction log.
      */
     void close(boolean delete);
 
+    /**
+     * The durability of operations added to the transaction log.
+     */
+    static enum Durability {
+        /**
+         * Each operation is synced before {@link Translog#add(Operation)} returns.
+         */
+        REQUEST,
+        /**
+         * Concurrent operations are written and synced together as a single batch before
+         * {@link Translog#add(Operation)} returns.
+         */
+        GROUP,
+        /**
+         * Operations are not synced when added, the translog is expected to be synced periodically.
+         */
+        INTERVAL;
+
+        public static Durability fromString(String durability) {
+            if ("request".equalsIgnoreCase(durability)) {
+                return REQUEST;
+            } else if ("group".equalsIgnoreCase(durability)) {
+                return GROUP;
+            } else if ("interval".equalsIgnoreCase(durability)) {
+                return INTERVAL;
+            }
+            throw new ElasticSearchIllegalArgumentException("No translog durability for [" + durability + "]");
+        }
+    }
+
+    /**
+     * The location of an operation within a transaction log.
+     */
+    static class Location {
+
+        private final long translogId;
+
+        private final long position;
+
+        private final int size;
+
+        public Location(long translogId, long position, int size) {
+            this.translogId = translogId;
+            this.position = position;
+            this.size = size;
+        }
+
+        public long translogId() {
+            return translogId;
+        }
+
+        public long position() {
+            return position;
+        }
+
+        /**
+         * The size in bytes of the operation, including its size header.
+         */
+        public int size() {
+            return size;
+        }
+
+        @Override public String toString() {
+            return "[" + translogId + "][" + position + "][" + size + "]";
+        }
+    }
+
     /**
      * A snapshot of the transaction log, allows to iterate over all the transaction log operations.
      */
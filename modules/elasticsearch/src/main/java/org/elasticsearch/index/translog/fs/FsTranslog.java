@@ -20,9 +20,13 @@
 package org.elasticsearch.index.translog.fs;
 
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.BytesStreamInput;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.CachedStreamOutput;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.index.settings.IndexSettings;
 import org.elasticsearch.index.shard.AbstractIndexShardComponent;
@@ -31,9 +35,14 @@ import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.index.translog.TranslogException;
 import org.elasticsearch.index.translog.TranslogStreams;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -48,7 +57,19 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
 
     private final Object mutex = new Object();
 
-    private boolean syncOnEachOperation = false;
+    private volatile Durability durability = Durability.INTERVAL;
+
+    private final TimeValue groupCommitMaxDelay;
+
+    private final ByteSizeValue groupCommitMaxSize;
+
+    // guards the current (open) group commit batch
+    private final Object groupMutex = new Object();
+
+    // only one group commit batch is written and synced at a time
+    private final Object groupWriteMutex = new Object();
+
+    private GroupCommitBatch currentBatch = new GroupCommitBatch();
 
     private volatile long id = 0;
 
@@ -64,6 +85,8 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
         this.location = new File(nodeEnv.shardLocation(shardId), "translog");
         this.location.mkdirs();
         this.useStream = componentSettings.getAsBoolean("use_stream", false);
+        this.groupCommitMaxDelay = componentSettings.getAsTime("group_commit.max_delay", TimeValue.timeValueMillis(0));
+        this.groupCommitMaxSize = componentSettings.getAsBytesSize("group_commit.max_size", new ByteSizeValue(1, ByteSizeUnit.MB));
     }
 
     public FsTranslog(ShardId shardId, @IndexSettings Settings indexSettings, File location) {
@@ -75,6 +98,8 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
         this.location = location;
         this.location.mkdirs();
         this.useStream = useStream;
+        this.groupCommitMaxDelay = componentSettings.getAsTime("group_commit.max_delay", TimeValue.timeValueMillis(0));
+        this.groupCommitMaxSize = componentSettings.getAsBytesSize("group_commit.max_size", new ByteSizeValue(1, ByteSizeUnit.MB));
     }
 
     public File location() {
@@ -154,7 +179,7 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
         }
     }
 
-    @Override public void add(Operation operation) throws TranslogException {
+    @Override public Location add(Operation operation) throws TranslogException {
         try {
             BytesStreamOutput out = CachedStreamOutput.cachedBytes();
             out.writeInt(0); // marker for the size...
@@ -165,22 +190,135 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
             out.seek(0);
             out.writeInt(size - 4);
 
+            // the id can't change while operations are added, see #newTranslog
+            long translogId = this.id;
+            if (durability == Durability.GROUP) {
+                // the cached bytes are reused by this thread, so copy them over to the batch
+                return new Location(translogId, groupCommit(Arrays.copyOf(out.unsafeByteArray(), size)), size);
+            }
+
             long position = lastPosition.getAndAdd(size);
             // use channel#write and not raf#write since it allows for concurrent writes
             // with regards to positions
             raf.channel().write(ByteBuffer.wrap(out.unsafeByteArray(), 0, size), position);
-            if (syncOnEachOperation) {
+            if (durability == Durability.REQUEST) {
                 raf.channel().force(false);
             }
             synchronized (mutex) {
                 lastWrittenPosition.getAndAdd(size);
                 operationCounter.incrementAndGet();
             }
+            return new Location(translogId, position, size);
+        } catch (TranslogException e) {
+            throw e;
         } catch (Exception e) {
             throw new TranslogException(shardId, "Failed to write operation [" + operation + "]", e);
         }
     }
 
+    /**
+     * Adds the serialized operation to the current group commit batch, and waits till the batch has been
+     * written and synced, returning the position the operation was written at. The first operation in a batch
+     * "leads" it, waiting (up to the max delay, or till the batch is full) for more operations to join, and then
+     * writing all of them with a single write and sync. While a batch is being written and synced, the next one
+     * keeps on collecting operations.
+     */
+    private long groupCommit(byte[] data) throws Exception {
+        GroupCommitBatch batch;
+        boolean leader;
+        int offset;
+        synchronized (groupMutex) {
+            batch = currentBatch;
+            offset = batch.sizeInBytes;
+            leader = batch.add(data);
+            if (batch.sizeInBytes >= groupCommitMaxSize.bytes()) {
+                // the batch is full, close it so new operations go to the next one, and let the leader know
+                currentBatch = new GroupCommitBatch();
+                groupMutex.notifyAll();
+            }
+        }
+
+        if (!leader) {
+            batch.await();
+            return batch.position + offset;
+        }
+
+        if (groupCommitMaxDelay.millis() > 0) {
+            synchronized (groupMutex) {
+                long maxWaitTime = System.currentTimeMillis() + groupCommitMaxDelay.millis();
+                long waitTime = groupCommitMaxDelay.millis();
+                while (currentBatch == batch && waitTime > 0) {
+                    try {
+                        groupMutex.wait(waitTime);
+                    } catch (InterruptedException e) {
+                        // we still need to write the batch for the other operations waiting on it
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    waitTime = maxWaitTime - System.currentTimeMillis();
+                }
+            }
+        }
+
+        synchronized (groupWriteMutex) {
+            synchronized (groupMutex) {
+                // close the batch (if not closed already), from now on, operations will go to the next one
+                if (currentBatch == batch) {
+                    currentBatch = new GroupCommitBatch();
+                }
+            }
+            try {
+                byte[] bytes = new byte[batch.sizeInBytes];
+                int bytesOffset = 0;
+                for (byte[] op : batch.operations) {
+                    System.arraycopy(op, 0, bytes, bytesOffset, op.length);
+                    bytesOffset += op.length;
+                }
+                long position = lastPosition.getAndAdd(bytes.length);
+                batch.position = position;
+                raf.channel().write(ByteBuffer.wrap(bytes), position);
+                raf.channel().force(false);
+                synchronized (mutex) {
+                    lastWrittenPosition.getAndAdd(bytes.length);
+                    operationCounter.addAndGet(batch.operations.size());
+                }
+                batch.done(null);
+                return position + offset;
+            } catch (Exception e) {
+                batch.done(e);
+                throw e;
+            }
+        }
+    }
+
+    @Override public Operation read(Location location) throws TranslogException {
+        RafReference raf;
+        synchronized (mutex) {
+            if (this.raf == null || location.translogId() != id) {
+                return null;
+            }
+            raf = this.raf;
+            raf.increaseRefCount();
+        }
+        try {
+            // skip the size header, the location size includes it
+            ByteBuffer buffer = ByteBuffer.allocate(location.size() - 4);
+            long position = location.position() + 4;
+            while (buffer.hasRemaining()) {
+                int read = raf.channel().read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("read past the end of the translog at [" + position + "]");
+                }
+                position += read;
+            }
+            return TranslogStreams.readTranslogOperation(new BytesStreamInput(buffer.array(), 0, buffer.capacity()));
+        } catch (Exception e) {
+            throw new TranslogException(shardId, "Failed to read operation at " + location, e);
+        } finally {
+            raf.decreaseRefCount(true);
+        }
+    }
+
     @Override public Snapshot snapshot() throws TranslogException {
         synchronized (mutex) {
             try {
@@ -232,10 +370,8 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
         }
     }
 
-    @Override public void syncOnEachOperation(boolean syncOnEachOperation) {
-        synchronized (mutex) {
-            this.syncOnEachOperation = syncOnEachOperation;
-        }
+    @Override public void durability(Durability durability) {
+        this.durability = durability;
     }
 
     @Override public void close(boolean delete) {
@@ -246,4 +382,47 @@ public class FsTranslog extends AbstractIndexShardComponent implements Translog
             }
         }
     }
+
+    /**
+     * A batch of serialized operations that are written and synced together.
+     */
+    private class GroupCommitBatch {
+
+        final List<byte[]> operations = new ArrayList<byte[]>();
+
+        int sizeInBytes = 0;
+
+        // the position the batch was written at, visible to the waiting operations once the batch is done
+        volatile long position;
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private volatile Exception failure;
+
+        /**
+         * Adds the operation, returning <tt>true</tt> if it is the first one in the batch (the leader).
+         */
+        boolean add(byte[] data) {
+            operations.add(data);
+            sizeInBytes += data.length;
+            return operations.size() == 1;
+        }
+
+        void done(Exception failure) {
+            this.failure = failure;
+            latch.countDown();
+        }
+
+        void await() {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TranslogException(shardId, "Interrupted while waiting for group commit");
+            }
+            if (failure != null) {
+                throw new TranslogException(shardId, "Failed to group commit operations", failure);
+            }
+        }
+    }
 }
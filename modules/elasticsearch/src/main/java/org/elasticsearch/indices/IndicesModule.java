@@ -27,6 +27,7 @@ import org.elasticsearch.indices.analysis.IndicesAnalysisService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService;
 import org.elasticsearch.indices.memory.IndexingMemoryBufferController;
 import org.elasticsearch.indices.store.TransportNodesListShardStoreMetaData;
+import org.elasticsearch.indices.throttler.IndicesThrottler;
 
 /**
  * @author kimchy (shay.banon)
@@ -44,6 +45,8 @@ public class IndicesModule extends AbstractModule {
 
         bind(IndicesService.class).to(InternalIndicesService.class).asEagerSingleton();
 
+        bind(IndicesThrottler.class).asEagerSingleton();
+
         bind(RecoveryTarget.class).asEagerSingleton();
         bind(RecoverySource.class).asEagerSingleton();
 
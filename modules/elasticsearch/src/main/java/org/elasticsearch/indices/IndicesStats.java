@@ -23,6 +23,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentBuilderString;
@@ -45,15 +46,37 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
 
     private long fieldCacheEvictions;
 
+    private long fieldCacheHits;
+
+    private long fieldCacheMisses;
+
+    private TimeValue fieldCacheLoadTime;
+
+    private long filterCacheEvictions;
+
+    private long filterCacheHits;
+
+    private long filterCacheMisses;
+
+    private ByteSizeValue idCacheSize;
+
     IndicesStats() {
     }
 
     public IndicesStats(ByteSizeValue storeSize, ByteSizeValue fieldCacheSize, ByteSizeValue filterCacheSize,
-                        long fieldCacheEvictions) {
+                        long fieldCacheEvictions, long fieldCacheHits, long fieldCacheMisses, TimeValue fieldCacheLoadTime,
+                        long filterCacheEvictions, long filterCacheHits, long filterCacheMisses, ByteSizeValue idCacheSize) {
         this.storeSize = storeSize;
         this.fieldCacheSize = fieldCacheSize;
         this.filterCacheSize = filterCacheSize;
         this.fieldCacheEvictions = fieldCacheEvictions;
+        this.fieldCacheHits = fieldCacheHits;
+        this.fieldCacheMisses = fieldCacheMisses;
+        this.fieldCacheLoadTime = fieldCacheLoadTime;
+        this.filterCacheEvictions = filterCacheEvictions;
+        this.filterCacheHits = filterCacheHits;
+        this.filterCacheMisses = filterCacheMisses;
+        this.idCacheSize = idCacheSize;
     }
 
     /**
@@ -94,6 +117,83 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
         return fieldCacheEvictions();
     }
 
+    /**
+     * The number of times field data was found in the field cache.
+     */
+    public long fieldCacheHits() {
+        return this.fieldCacheHits;
+    }
+
+    public long getFieldCacheHits() {
+        return fieldCacheHits();
+    }
+
+    /**
+     * The number of times field data was not found in the field cache, and had to be loaded.
+     */
+    public long fieldCacheMisses() {
+        return this.fieldCacheMisses;
+    }
+
+    public long getFieldCacheMisses() {
+        return fieldCacheMisses();
+    }
+
+    /**
+     * The total time spent loading field data into the field cache.
+     */
+    public TimeValue fieldCacheLoadTime() {
+        return this.fieldCacheLoadTime;
+    }
+
+    public TimeValue getFieldCacheLoadTime() {
+        return fieldCacheLoadTime();
+    }
+
+    /**
+     * The number of doc sets evicted from the filter cache because of its size.
+     */
+    public long filterCacheEvictions() {
+        return this.filterCacheEvictions;
+    }
+
+    public long getFilterCacheEvictions() {
+        return filterCacheEvictions();
+    }
+
+    /**
+     * The number of times a doc set was found in the filter cache.
+     */
+    public long filterCacheHits() {
+        return this.filterCacheHits;
+    }
+
+    public long getFilterCacheHits() {
+        return filterCacheHits();
+    }
+
+    /**
+     * The number of times a doc set was not found in the filter cache, and had to be computed.
+     */
+    public long filterCacheMisses() {
+        return this.filterCacheMisses;
+    }
+
+    public long getFilterCacheMisses() {
+        return filterCacheMisses();
+    }
+
+    /**
+     * The size of the id cache (used by parent/child queries).
+     */
+    public ByteSizeValue idCacheSize() {
+        return this.idCacheSize;
+    }
+
+    public ByteSizeValue getIdCacheSize() {
+        return idCacheSize();
+    }
+
     public static IndicesStats readIndicesStats(StreamInput in) throws IOException {
         IndicesStats stats = new IndicesStats();
         stats.readFrom(in);
@@ -104,12 +204,28 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
         storeSize = ByteSizeValue.readBytesSizeValue(in);
         fieldCacheSize = ByteSizeValue.readBytesSizeValue(in);
         filterCacheSize = ByteSizeValue.readBytesSizeValue(in);
+        fieldCacheEvictions = in.readVLong();
+        fieldCacheHits = in.readVLong();
+        fieldCacheMisses = in.readVLong();
+        fieldCacheLoadTime = TimeValue.readTimeValue(in);
+        filterCacheEvictions = in.readVLong();
+        filterCacheHits = in.readVLong();
+        filterCacheMisses = in.readVLong();
+        idCacheSize = ByteSizeValue.readBytesSizeValue(in);
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
         storeSize.writeTo(out);
         fieldCacheSize.writeTo(out);
         filterCacheSize.writeTo(out);
+        out.writeVLong(fieldCacheEvictions);
+        out.writeVLong(fieldCacheHits);
+        out.writeVLong(fieldCacheMisses);
+        fieldCacheLoadTime.writeTo(out);
+        out.writeVLong(filterCacheEvictions);
+        out.writeVLong(filterCacheHits);
+        out.writeVLong(filterCacheMisses);
+        idCacheSize.writeTo(out);
     }
 
     @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
@@ -117,10 +233,19 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
         builder.field(Fields.STORE_SIZE, storeSize.toString());
         builder.field(Fields.STORE_SIZE_IN_BYTES, storeSize.bytes());
         builder.field(Fields.FIELD_CACHE_EVICTIONS, fieldCacheEvictions);
+        builder.field(Fields.FIELD_CACHE_HITS, fieldCacheHits);
+        builder.field(Fields.FIELD_CACHE_MISSES, fieldCacheMisses);
+        builder.field(Fields.FIELD_CACHE_LOAD_TIME, fieldCacheLoadTime.format());
+        builder.field(Fields.FIELD_CACHE_LOAD_TIME_IN_MILLIS, fieldCacheLoadTime.millis());
         builder.field(Fields.FIELD_CACHE_SIZE, fieldCacheSize.toString());
         builder.field(Fields.FIELD_CACHE_SIZE_IN_BYTES, fieldCacheSize.bytes());
         builder.field(Fields.FILTER_CACHE_SIZE, filterCacheSize.toString());
         builder.field(Fields.FILTER_CACHE_SIZE_IN_BYTES, filterCacheSize.bytes());
+        builder.field(Fields.FILTER_CACHE_EVICTIONS, filterCacheEvictions);
+        builder.field(Fields.FILTER_CACHE_HITS, filterCacheHits);
+        builder.field(Fields.FILTER_CACHE_MISSES, filterCacheMisses);
+        builder.field(Fields.ID_CACHE_SIZE, idCacheSize.toString());
+        builder.field(Fields.ID_CACHE_SIZE_IN_BYTES, idCacheSize.bytes());
         builder.endObject();
         return builder;
     }
@@ -132,7 +257,16 @@ public class IndicesStats implements Streamable, Serializable, ToXContent {
         static final XContentBuilderString FIELD_CACHE_SIZE = new XContentBuilderString("field_cache_size");
         static final XContentBuilderString FIELD_CACHE_SIZE_IN_BYTES = new XContentBuilderString("field_cache_size_in_bytes");
         static final XContentBuilderString FIELD_CACHE_EVICTIONS = new XContentBuilderString("field_cache_evictions");
+        static final XContentBuilderString FIELD_CACHE_HITS = new XContentBuilderString("field_cache_hits");
+        static final XContentBuilderString FIELD_CACHE_MISSES = new XContentBuilderString("field_cache_misses");
+        static final XContentBuilderString FIELD_CACHE_LOAD_TIME = new XContentBuilderString("field_cache_load_time");
+        static final XContentBuilderString FIELD_CACHE_LOAD_TIME_IN_MILLIS = new XContentBuilderString("field_cache_load_time_in_millis");
         static final XContentBuilderString FILTER_CACHE_SIZE = new XContentBuilderString("filter_cache_size");
         static final XContentBuilderString FILTER_CACHE_SIZE_IN_BYTES = new XContentBuilderString("filter_cache_size_in_bytes");
+        static final XContentBuilderString FILTER_CACHE_EVICTIONS = new XContentBuilderString("filter_cache_evictions");
+        static final XContentBuilderString FILTER_CACHE_HITS = new XContentBuilderString("filter_cache_hits");
+        static final XContentBuilderString FILTER_CACHE_MISSES = new XContentBuilderString("filter_cache_misses");
+        static final XContentBuilderString ID_CACHE_SIZE = new XContentBuilderString("id_cache_size");
+        static final XContentBuilderString ID_CACHE_SIZE_IN_BYTES = new XContentBuilderString("id_cache_size_in_bytes");
     }
 }
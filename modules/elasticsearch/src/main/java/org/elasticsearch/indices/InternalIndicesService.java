@@ -34,6 +34,7 @@ import org.elasticsearch.common.inject.ModulesBuilder;
 import org.elasticsearch.common.io.FileSystemUtils;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.ThreadSafe;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.gateway.Gateway;
@@ -159,8 +160,15 @@ public class InternalIndicesService extends AbstractLifecycleComponent<IndicesSe
     @Override public IndicesStats stats() {
         long storeTotalSize = 0;
         long fieldCacheEvictions = 0;
+        long fieldCacheHits = 0;
+        long fieldCacheMisses = 0;
+        long fieldCacheLoadTime = 0;
         long fieldCacheTotalSize = 0;
         long filterCacheTotalSize = 0;
+        long filterCacheEvictions = 0;
+        long filterCacheHits = 0;
+        long filterCacheMisses = 0;
+        long idCacheTotalSize = 0;
         for (IndexService indexService : indices.values()) {
             for (IndexShard indexShard : indexService) {
                 try {
@@ -170,10 +178,19 @@ public class InternalIndicesService extends AbstractLifecycleComponent<IndicesSe
                 }
             }
             fieldCacheEvictions += indexService.cache().fieldData().evictions();
+            fieldCacheHits += indexService.cache().fieldData().hits();
+            fieldCacheMisses += indexService.cache().fieldData().misses();
+            fieldCacheLoadTime += indexService.cache().fieldData().loadTimeInMillis();
             fieldCacheTotalSize += indexService.cache().fieldData().sizeInBytes();
             filterCacheTotalSize += indexService.cache().filter().sizeInBytes();
+            filterCacheEvictions += indexService.cache().filter().evictions();
+            filterCacheHits += indexService.cache().filter().hits();
+            filterCacheMisses += indexService.cache().filter().misses();
+            idCacheTotalSize += indexService.cache().idCache().sizeInBytes();
         }
-        return new IndicesStats(new ByteSizeValue(storeTotalSize), new ByteSizeValue(fieldCacheTotalSize), new ByteSizeValue(filterCacheTotalSize), fieldCacheEvictions);
+        return new IndicesStats(new ByteSizeValue(storeTotalSize), new ByteSizeValue(fieldCacheTotalSize), new ByteSizeValue(filterCacheTotalSize),
+                fieldCacheEvictions, fieldCacheHits, fieldCacheMisses, new TimeValue(fieldCacheLoadTime),
+                filterCacheEvictions, filterCacheHits, filterCacheMisses, new ByteSizeValue(idCacheTotalSize));
     }
 
     /**
@@ -32,6 +32,7 @@ import org.elasticsearch.common.Unicode;
 import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.common.collect.Maps;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.io.stream.StreamInput;
@@ -43,6 +44,7 @@ import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.index.service.IndexService;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.service.InternalIndexShard;
+import org.elasticsearch.index.store.StoreChecksum;
 import org.elasticsearch.index.store.StoreFileMetaData;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -80,6 +82,10 @@ public class TransportNodesListShardStoreMetaData extends TransportNodesOperatio
         return "/cluster/nodes/indices/shard/store";
     }
 
+    @Override protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
     @Override protected String transportNodeAction() {
         return "/cluster/nodes/indices/shard/store/node";
     }
@@ -163,15 +169,19 @@ public class TransportNodesListShardStoreMetaData extends TransportNodesOperatio
                 continue;
             }
             // try and load the checksum
-            String checksum = null;
+            Tuple<String, String> checksum = null;
             File checksumFile = new File(file.getParentFile(), file.getName() + ".cks");
             if (checksumFile.exists()) {
                 byte[] checksumBytes = Streams.copyToByteArray(checksumFile);
                 if (checksumBytes.length > 0) {
-                    checksum = Unicode.fromBytes(checksumBytes);
+                    checksum = StoreChecksum.fromFileContent(Unicode.fromBytes(checksumBytes));
                 }
             }
-            files.put(file.getName(), new StoreFileMetaData(file.getName(), file.length(), file.lastModified(), checksum));
+            if (checksum == null) {
+                files.put(file.getName(), new StoreFileMetaData(file.getName(), file.length(), file.lastModified(), null, null));
+            } else {
+                files.put(file.getName(), new StoreFileMetaData(file.getName(), file.length(), file.lastModified(), checksum.v1(), checksum.v2()));
+            }
         }
         return new StoreFilesMetaData(false, shardId, files);
     }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.indices.throttler;
+
+import org.elasticsearch.common.RateLimiter;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A node level limit of the bytes per second shard files are streamed at, shared by peer recoveries and gateway
+ * snapshots so that together they do not saturate the network while the node serves searches and indexing.
+ * Configured using <tt>indices.throttler.max_bytes_per_sec</tt>, defaults to <tt>0</tt> which means no limit.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class IndicesThrottler extends AbstractComponent {
+
+    private final RateLimiter rateLimiter;
+
+    private final AtomicLong throttleTimeInNanos = new AtomicLong();
+
+    @Inject public IndicesThrottler(Settings settings) {
+        super(settings);
+        ByteSizeValue maxBytesPerSec = componentSettings.getAsBytesSize("max_bytes_per_sec", new ByteSizeValue(0));
+        this.rateLimiter = new RateLimiter(maxBytesPerSec);
+
+        logger.debug("using max_bytes_per_sec [{}]", maxBytesPerSec);
+    }
+
+    public ByteSizeValue maxBytesPerSec() {
+        return rateLimiter.maxRate();
+    }
+
+    /**
+     * Pauses, if needed, before the given number of bytes are streamed.
+     */
+    public void pause(long bytes) {
+        throttleTimeInNanos.addAndGet(rateLimiter.pause(bytes));
+    }
+
+    /**
+     * Wraps the stream so reading from it is throttled.
+     */
+    public InputStream wrap(InputStream is) {
+        if (rateLimiter.maxRate().bytes() <= 0) {
+            return is;
+        }
+        return new ThrottledInputStream(is);
+    }
+
+    /**
+     * The total time spent paused by the throttler.
+     */
+    public TimeValue throttleTime() {
+        return new TimeValue(throttleTimeInNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    private class ThrottledInputStream extends FilterInputStream {
+
+        private ThrottledInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                pause(1);
+            }
+            return b;
+        }
+
+        @Override public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                pause(n);
+            }
+            return n;
+        }
+    }
+}
@@ -53,6 +53,7 @@ import org.elasticsearch.rest.action.count.RestCountAction;
 import org.elasticsearch.rest.action.delete.RestDeleteAction;
 import org.elasticsearch.rest.action.deletebyquery.RestDeleteByQueryAction;
 import org.elasticsearch.rest.action.get.RestGetAction;
+import org.elasticsearch.rest.action.get.RestMultiGetAction;
 import org.elasticsearch.rest.action.index.RestIndexAction;
 import org.elasticsearch.rest.action.main.RestMainAction;
 import org.elasticsearch.rest.action.mlt.RestMoreLikeThisAction;
@@ -105,6 +106,7 @@ public class RestActionModule extends AbstractModule {
         bind(RestIndexAction.class).asEagerSingleton();
 
         bind(RestGetAction.class).asEagerSingleton();
+        bind(RestMultiGetAction.class).asEagerSingleton();
 
         bind(RestDeleteAction.class).asEagerSingleton();
 
@@ -83,6 +83,12 @@ public class RestNodesStatsAction extends BaseRestHandler {
                         if (nodeStats.transport() != null) {
                             nodeStats.transport().toXContent(builder, request);
                         }
+                        if (nodeStats.script() != null) {
+                            nodeStats.script().toXContent(builder, request);
+                        }
+                        if (nodeStats.clusterService() != null) {
+                            nodeStats.clusterService().toXContent(builder, request);
+                        }
 
                         builder.endObject();
                     }
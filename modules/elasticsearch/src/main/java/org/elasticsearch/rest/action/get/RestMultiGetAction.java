@@ -0,0 +1,108 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.rest.action.get;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.rest.*;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import static org.elasticsearch.rest.RestRequest.Method.*;
+import static org.elasticsearch.rest.RestResponse.Status.*;
+import static org.elasticsearch.rest.action.support.RestXContentBuilder.*;
+
+/**
+ * <pre>
+ * { "docs" : [ { "_index" : "test", "_type" : "type1", "_id" : "1" }, { "_index" : "test", "_type" : "type1", "_id" : "2", "fields" : ["field1"] } ] }
+ * { "ids" : ["1", "2"] }
+ * </pre>
+ *
+ * @author kimchy (shay.banon)
+ */
+public class RestMultiGetAction extends BaseRestHandler {
+
+    private final static Pattern fieldsPattern;
+
+    static {
+        fieldsPattern = Pattern.compile(",");
+    }
+
+    @Inject public RestMultiGetAction(Settings settings, Client client, RestController controller) {
+        super(settings, client);
+        controller.registerHandler(GET, "/_mget", this);
+        controller.registerHandler(POST, "/_mget", this);
+        controller.registerHandler(GET, "/{index}/_mget", this);
+        controller.registerHandler(POST, "/{index}/_mget", this);
+        controller.registerHandler(GET, "/{index}/{type}/_mget", this);
+        controller.registerHandler(POST, "/{index}/{type}/_mget", this);
+    }
+
+    @Override public void handleRequest(final RestRequest request, final RestChannel channel) {
+        MultiGetRequest multiGetRequest = new MultiGetRequest();
+        // no need to have a threaded listener since we just send back a response
+        multiGetRequest.listenerThreaded(false);
+        multiGetRequest.refresh(request.paramAsBoolean("refresh", multiGetRequest.refresh()));
+        multiGetRequest.realtime(request.paramAsBoolean("realtime", multiGetRequest.realtime()));
+
+        String[] sFields = null;
+        String sField = request.param("fields");
+        if (sField != null) {
+            sFields = fieldsPattern.split(sField);
+        }
+
+        try {
+            multiGetRequest.add(request.param("index"), request.param("type"), sFields, request.contentByteArray(), request.contentByteArrayOffset(), request.contentLength());
+        } catch (Exception e) {
+            try {
+                XContentBuilder builder = restContentBuilder(request);
+                channel.sendResponse(new XContentRestResponse(request, BAD_REQUEST, builder.startObject().field("error", e.getMessage()).endObject()));
+            } catch (IOException e1) {
+                logger.error("Failed to send failure response", e1);
+            }
+            return;
+        }
+
+        client.multiGet(multiGetRequest, new ActionListener<MultiGetResponse>() {
+            @Override public void onResponse(MultiGetResponse response) {
+                try {
+                    XContentBuilder builder = restContentBuilder(request);
+                    response.toXContent(builder, request);
+                    channel.sendResponse(new XContentRestResponse(request, OK, builder));
+                } catch (Exception e) {
+                    onFailure(e);
+                }
+            }
+
+            @Override public void onFailure(Throwable e) {
+                try {
+                    channel.sendResponse(new XContentThrowableRestResponse(request, e));
+                } catch (IOException e1) {
+                    logger.error("Failed to send failure response", e1);
+                }
+            }
+        });
+    }
+}
@@ -68,6 +68,10 @@ public class RestPercolateAction extends BaseRestHandler {
                         builder.value(match);
                     }
                     builder.endArray();
+                    if (response.candidates() != -1) {
+                        builder.field(Fields.CANDIDATES, response.candidates());
+                        builder.field(Fields.TOTAL, response.total());
+                    }
 
                     builder.endObject();
 
@@ -90,5 +94,7 @@ public class RestPercolateAction extends BaseRestHandler {
     static final class Fields {
         static final XContentBuilderString OK = new XContentBuilderString("ok");
         static final XContentBuilderString MATCHES = new XContentBuilderString("matches");
+        static final XContentBuilderString CANDIDATES = new XContentBuilderString("candidates");
+        static final XContentBuilderString TOTAL = new XContentBuilderString("total");
     }
 }
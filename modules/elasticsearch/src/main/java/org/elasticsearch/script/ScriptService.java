@@ -19,10 +19,11 @@
 
 package org.elasticsearch.script;
 
+import org.elasticsearch.ElasticSearchException;
 import org.elasticsearch.ElasticSearchIllegalArgumentException;
+import org.elasticsearch.ElasticSearchInterruptedException;
 import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.collect.ImmutableSet;
-import org.elasticsearch.common.collect.MapMaker;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.Streams;
@@ -34,11 +35,20 @@ import org.elasticsearch.script.mvel.MvelScriptEngineService;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStreamReader;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Compiles and executes scripts. Dynamic scripts are compiled once and kept in an LRU cache bounded by
+ * <tt>script.cache.max_size</tt> (number of scripts, defaults to <tt>500</tt>). Concurrent requests to
+ * compile the same script wait for a single compilation, while different scripts compile in parallel.
+ *
  * @author kimchy (shay.banon)
  */
 public class ScriptService extends AbstractComponent {
@@ -49,7 +59,22 @@ public class ScriptService extends AbstractComponent {
 
     private final ConcurrentMap<String, CompiledScript> staticCache = ConcurrentCollections.newConcurrentMap();
 
-    private final ConcurrentMap<String, CompiledScript> cache = new MapMaker().softValues().makeMap();
+    private final int cacheMaxSize;
+
+    // access ordered, guarded by its own monitor which is never held while compiling
+    private final LinkedHashMap<CacheKey, CompiledScript> cache;
+
+    private final ConcurrentMap<CacheKey, FutureTask<CompiledScript>> compilations = ConcurrentCollections.newConcurrentMap();
+
+    private final AtomicLong compilationsCount = new AtomicLong();
+
+    private final AtomicLong compileTime = new AtomicLong();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    private final AtomicLong cacheEvictions = new AtomicLong();
 
     public ScriptService(Settings settings) {
         this(settings, new Environment(), ImmutableSet.<ScriptEngineService>builder()
@@ -62,6 +87,17 @@ public class ScriptService extends AbstractComponent {
         super(settings);
 
         this.defaultLang = componentSettings.get("default_lang", "mvel");
+        this.cacheMaxSize = componentSettings.getAsInt("cache.max_size", 500);
+        this.cache = new LinkedHashMap<CacheKey, CompiledScript>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<CacheKey, CompiledScript> eldest) {
+                if (size() > cacheMaxSize) {
+                    cacheEvictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        logger.debug("using script cache with max_size [{}]", cacheMaxSize);
 
         ImmutableMap.Builder<String, ScriptEngineService> builder = ImmutableMap.builder();
         for (ScriptEngineService scriptEngine : scriptEngines) {
@@ -128,24 +164,70 @@ public class ScriptService extends AbstractComponent {
         if (compiled != null) {
             return compiled;
         }
-        compiled = cache.get(script);
-        if (compiled != null) {
-            return compiled;
-        }
         if (lang == null) {
             lang = defaultLang;
         }
+        final CacheKey cacheKey = new CacheKey(lang, script);
         synchronized (cache) {
-            compiled = cache.get(script);
-            if (compiled != null) {
-                return compiled;
+            compiled = cache.get(cacheKey);
+        }
+        if (compiled != null) {
+            cacheHits.incrementAndGet();
+            return compiled;
+        }
+        cacheMisses.incrementAndGet();
+        final ScriptEngineService service = scriptEngines.get(lang);
+        if (service == null) {
+            throw new ElasticSearchIllegalArgumentException("script_lang not supported [" + lang + "]");
+        }
+        // the first thread to miss on a script compiles it, others missing on the same script wait for it
+        FutureTask<CompiledScript> compilation = new FutureTask<CompiledScript>(new Callable<CompiledScript>() {
+            @Override public CompiledScript call() throws Exception {
+                return doCompile(service, cacheKey);
             }
-            ScriptEngineService service = scriptEngines.get(lang);
-            if (service == null) {
-                throw new ElasticSearchIllegalArgumentException("script_lang not supported [" + lang + "]");
+        });
+        FutureTask<CompiledScript> existing = compilations.putIfAbsent(cacheKey, compilation);
+        if (existing == null) {
+            try {
+                compilation.run();
+            } finally {
+                compilations.remove(cacheKey, compilation);
             }
-            compiled = new CompiledScript(lang, service.compile(script));
-            cache.put(script, compiled);
+        } else {
+            compilation = existing;
+        }
+        try {
+            return compilation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ElasticSearchInterruptedException("interrupted while waiting for script compilation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ElasticSearchException("failed to compile script [" + script + "]", cause);
+        }
+    }
+
+    private CompiledScript doCompile(ScriptEngineService service, CacheKey cacheKey) {
+        // another compilation of the script might have completed between our cache miss and registering this one
+        CompiledScript compiled;
+        synchronized (cache) {
+            compiled = cache.get(cacheKey);
+        }
+        if (compiled != null) {
+            return compiled;
+        }
+        long start = System.nanoTime();
+        compiled = new CompiledScript(cacheKey.lang, service.compile(cacheKey.script));
+        compileTime.addAndGet(System.nanoTime() - start);
+        compilationsCount.incrementAndGet();
+        synchronized (cache) {
+            cache.put(cacheKey, compiled);
         }
         return compiled;
     }
@@ -163,7 +245,39 @@ public class ScriptService extends AbstractComponent {
     }
 
     public void clear() {
-        cache.clear();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public ScriptStats stats() {
+        int cacheSize;
+        synchronized (cache) {
+            cacheSize = cache.size();
+        }
+        return new ScriptStats(cacheSize, compilationsCount.get(), compileTime.get() / 1000000, cacheHits.get(), cacheMisses.get(), cacheEvictions.get());
     }
 
+    static class CacheKey {
+
+        final String lang;
+
+        final String script;
+
+        CacheKey(String lang, String script) {
+            this.lang = lang;
+            this.script = script;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey other = (CacheKey) o;
+            return lang.equals(other.lang) && script.equals(other.script);
+        }
+
+        @Override public int hashCode() {
+            return 31 * lang.hashCode() + script.hashCode();
+        }
+    }
 }
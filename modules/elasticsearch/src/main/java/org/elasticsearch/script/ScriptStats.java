@@ -0,0 +1,184 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Node level stats of the compiled scripts cache (see {@link ScriptService}).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class ScriptStats implements Streamable, Serializable, ToXContent {
+
+    private int cacheSize;
+
+    private long compilations;
+
+    private long compileTime;
+
+    private long cacheHits;
+
+    private long cacheMisses;
+
+    private long cacheEvictions;
+
+    ScriptStats() {
+    }
+
+    public ScriptStats(int cacheSize, long compilations, long compileTime, long cacheHits, long cacheMisses, long cacheEvictions) {
+        this.cacheSize = cacheSize;
+        this.compilations = compilations;
+        this.compileTime = compileTime;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.cacheEvictions = cacheEvictions;
+    }
+
+    @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("script");
+        builder.field("compilations", compilations);
+        builder.field("compile_time", compileTime().format());
+        builder.field("compile_time_in_millis", compileTime);
+        builder.field("cache_size", cacheSize);
+        builder.field("cache_hits", cacheHits);
+        builder.field("cache_misses", cacheMisses);
+        builder.field("cache_hit_ratio", cacheHitRatio());
+        builder.field("cache_evictions", cacheEvictions);
+        builder.endObject();
+        return builder;
+    }
+
+    public static ScriptStats readScriptStats(StreamInput in) throws IOException {
+        ScriptStats stats = new ScriptStats();
+        stats.readFrom(in);
+        return stats;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        cacheSize = in.readVInt();
+        compilations = in.readVLong();
+        compileTime = in.readVLong();
+        cacheHits = in.readVLong();
+        cacheMisses = in.readVLong();
+        cacheEvictions = in.readVLong();
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(cacheSize);
+        out.writeVLong(compilations);
+        out.writeVLong(compileTime);
+        out.writeVLong(cacheHits);
+        out.writeVLong(cacheMisses);
+        out.writeVLong(cacheEvictions);
+    }
+
+    /**
+     * The number of compiled scripts currently cached.
+     */
+    public int cacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * The number of compiled scripts currently cached.
+     */
+    public int getCacheSize() {
+        return cacheSize();
+    }
+
+    /**
+     * The number of scripts compiled since the node started.
+     */
+    public long compilations() {
+        return compilations;
+    }
+
+    /**
+     * The number of scripts compiled since the node started.
+     */
+    public long getCompilations() {
+        return compilations();
+    }
+
+    /**
+     * The total time spent compiling scripts.
+     */
+    public TimeValue compileTime() {
+        return new TimeValue(compileTime);
+    }
+
+    /**
+     * The total time spent compiling scripts.
+     */
+    public TimeValue getCompileTime() {
+        return compileTime();
+    }
+
+    public long cacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheHits() {
+        return cacheHits();
+    }
+
+    public long cacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses();
+    }
+
+    /**
+     * The ratio of script lookups served from the cache, <tt>0</tt> if there were none.
+     */
+    public double cacheHitRatio() {
+        long total = cacheHits + cacheMisses;
+        if (total == 0) {
+            return 0;
+        }
+        return ((double) cacheHits) / total;
+    }
+
+    /**
+     * The ratio of script lookups served from the cache, <tt>0</tt> if there were none.
+     */
+    public double getCacheHitRatio() {
+        return cacheHitRatio();
+    }
+
+    public long cacheEvictions() {
+        return cacheEvictions;
+    }
+
+    public long getCacheEvictions() {
+        return cacheEvictions();
+    }
+}
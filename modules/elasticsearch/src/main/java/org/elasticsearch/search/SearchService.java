@@ -130,6 +130,7 @@ public class SearchService extends AbstractLifecycleComponent<SearchService> {
 
     @Override protected void doClose() throws ElasticSearchException {
         keepAliveReaper.cancel(false);
+        queryPhase.close();
         indicesService.indicesLifecycle().removeListener(indicesLifecycleListener);
     }
 
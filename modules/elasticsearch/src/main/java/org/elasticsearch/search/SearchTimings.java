@@ -0,0 +1,146 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentBuilderString;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time spent on the shards executing the query and the fetch phases of a search, summed across the shards.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class SearchTimings implements Streamable, ToXContent {
+
+    private long queryTime;
+
+    private long fetchTime;
+
+    private long fetchedHits;
+
+    SearchTimings() {
+    }
+
+    /**
+     * @param queryTime   the query phase time, in nanoseconds
+     * @param fetchTime   the fetch phase time, in nanoseconds
+     * @param fetchedHits the number of hits the fetch phase loaded
+     */
+    public SearchTimings(long queryTime, long fetchTime, long fetchedHits) {
+        this.queryTime = queryTime;
+        this.fetchTime = fetchTime;
+        this.fetchedHits = fetchedHits;
+    }
+
+    /**
+     * The time spent executing the query phase, summed across the shards.
+     */
+    public TimeValue queryTime() {
+        return new TimeValue(queryTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The time spent executing the query phase, summed across the shards.
+     */
+    public TimeValue getQueryTime() {
+        return queryTime();
+    }
+
+    /**
+     * The time spent executing the fetch phase, summed across the shards.
+     */
+    public TimeValue fetchTime() {
+        return new TimeValue(fetchTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The time spent executing the fetch phase, summed across the shards.
+     */
+    public TimeValue getFetchTime() {
+        return fetchTime();
+    }
+
+    /**
+     * The number of hits loaded by the fetch phase.
+     */
+    public long fetchedHits() {
+        return fetchedHits;
+    }
+
+    /**
+     * The number of hits loaded by the fetch phase.
+     */
+    public long getFetchedHits() {
+        return fetchedHits();
+    }
+
+    /**
+     * The average fetch time of a single hit, in microseconds.
+     */
+    public long fetchTimePerHitInMicros() {
+        if (fetchedHits == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMicros(fetchTime) / fetchedHits;
+    }
+
+    static final class Fields {
+        static final XContentBuilderString PHASES = new XContentBuilderString("phases");
+        static final XContentBuilderString QUERY_TIME_IN_MILLIS = new XContentBuilderString("query_time_in_millis");
+        static final XContentBuilderString FETCH_TIME_IN_MILLIS = new XContentBuilderString("fetch_time_in_millis");
+        static final XContentBuilderString FETCH_HITS = new XContentBuilderString("fetch_hits");
+        static final XContentBuilderString FETCH_TIME_PER_HIT_IN_MICROS = new XContentBuilderString("fetch_time_per_hit_in_micros");
+    }
+
+    @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(Fields.PHASES);
+        builder.field(Fields.QUERY_TIME_IN_MILLIS, TimeUnit.NANOSECONDS.toMillis(queryTime));
+        builder.field(Fields.FETCH_TIME_IN_MILLIS, TimeUnit.NANOSECONDS.toMillis(fetchTime));
+        builder.field(Fields.FETCH_HITS, fetchedHits);
+        builder.field(Fields.FETCH_TIME_PER_HIT_IN_MICROS, fetchTimePerHitInMicros());
+        builder.endObject();
+        return builder;
+    }
+
+    public static SearchTimings readSearchTimings(StreamInput in) throws IOException {
+        SearchTimings timings = new SearchTimings();
+        timings.readFrom(in);
+        return timings;
+    }
+
+    @Override public void readFrom(StreamInput in) throws IOException {
+        queryTime = in.readVLong();
+        fetchTime = in.readVLong();
+        fetchedHits = in.readVLong();
+    }
+
+    @Override public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(queryTime);
+        out.writeVLong(fetchTime);
+        out.writeVLong(fetchedHits);
+    }
+}
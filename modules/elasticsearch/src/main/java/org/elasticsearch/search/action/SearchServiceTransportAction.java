@@ -38,6 +38,7 @@ import org.elasticsearch.search.internal.InternalSearchRequest;
 import org.elasticsearch.search.query.QuerySearchRequest;
 import org.elasticsearch.search.query.QuerySearchResult;
 import org.elasticsearch.search.query.ScrollQuerySearchResult;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.*;
 
 /**
@@ -362,6 +363,10 @@ public class SearchServiceTransportAction extends AbstractComponent {
             DfsSearchResult result = searchService.executeDfsPhase(request);
             channel.sendResponse(result);
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.SEARCH;
+        }
     }
 
     private class SearchQueryTransportHandler extends BaseTransportRequestHandler<InternalSearchRequest> {
@@ -376,6 +381,10 @@ public class SearchServiceTransportAction extends AbstractComponent {
             QuerySearchResult result = searchService.executeQueryPhase(request);
             channel.sendResponse(result);
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.SEARCH;
+        }
     }
 
     private class SearchQueryByIdTransportHandler extends BaseTransportRequestHandler<QuerySearchRequest> {
@@ -390,6 +399,10 @@ public class SearchServiceTransportAction extends AbstractComponent {
             QuerySearchResult result = searchService.executeQueryPhase(request);
             channel.sendResponse(result);
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.SEARCH;
+        }
     }
 
     private class SearchQueryScrollTransportHandler extends BaseTransportRequestHandler<InternalScrollSearchRequest> {
@@ -404,6 +417,10 @@ public class SearchServiceTransportAction extends AbstractComponent {
             ScrollQuerySearchResult result = searchService.executeQueryPhase(request);
             channel.sendResponse(result);
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.SEARCH;
+        }
     }
 
     private class SearchQueryFetchTransportHandler extends BaseTransportRequestHandler<InternalSearchRequest> {
@@ -418,6 +435,10 @@ public class SearchServiceTransportAction extends AbstractComponent {
             QueryFetchSearchResult result = searchService.executeFetchPhase(request);
             channel.sendResponse(result);
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.SEARCH;
+        }
     }
 
     private class SearchQueryQueryFetchTransportHandler extends BaseTransportRequestHandler<QuerySearchRequest> {
@@ -432,6 +453,10 @@ public class SearchServiceTransportAction extends AbstractComponent {
             QueryFetchSearchResult result = searchService.executeFetchPhase(request);
             channel.sendResponse(result);
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.SEARCH;
+        }
     }
 
     private class SearchFetchByIdTransportHandler extends BaseTransportRequestHandler<FetchSearchRequest> {
@@ -446,6 +471,10 @@ public class SearchServiceTransportAction extends AbstractComponent {
             FetchSearchResult result = searchService.executeFetchPhase(request);
             channel.sendResponse(result);
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.SEARCH;
+        }
     }
 
     private class SearchQueryFetchScrollTransportHandler extends BaseTransportRequestHandler<InternalScrollSearchRequest> {
@@ -460,5 +489,9 @@ public class SearchServiceTransportAction extends AbstractComponent {
             ScrollQueryFetchSearchResult result = searchService.executeFetchPhase(request);
             channel.sendResponse(result);
         }
+
+        @Override public String executor() {
+            return ThreadPool.Names.SEARCH;
+        }
     }
 }
@@ -86,6 +86,8 @@ public class SearchSourceBuilder implements ToXContent {
 
     private List<String> fieldNames;
 
+    private List<String> partialSourcePaths;
+
     private List<ScriptField> scriptFields;
 
     private List<AbstractFacetBuilder> facets;
@@ -296,6 +298,19 @@ public class SearchSourceBuilder implements ToXContent {
         return this;
     }
 
+    /**
+     * Adds (dot delimited) paths of the source to return with each hit, instead of the whole source.
+     */
+    public SearchSourceBuilder partialSource(String... paths) {
+        if (partialSourcePaths == null) {
+            partialSourcePaths = new ArrayList<String>();
+        }
+        for (String path : paths) {
+            partialSourcePaths.add(path);
+        }
+        return this;
+    }
+
     /**
      * Adds a script field under the given name with the provided script.
      *
@@ -428,6 +443,14 @@ public class SearchSourceBuilder implements ToXContent {
             }
         }
 
+        if (partialSourcePaths != null) {
+            builder.startArray("partial_source");
+            for (String path : partialSourcePaths) {
+                builder.value(path);
+            }
+            builder.endArray();
+        }
+
         if (scriptFields != null) {
             builder.startObject("script_fields");
             for (ScriptField scriptField : scriptFields) {
@@ -32,6 +32,7 @@ import org.elasticsearch.common.trove.ExtTIntArrayList;
 import org.elasticsearch.common.trove.impl.Constants;
 import org.elasticsearch.common.trove.map.hash.TObjectIntHashMap;
 import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.SearchTimings;
 import org.elasticsearch.search.dfs.AggregatedDfs;
 import org.elasticsearch.search.dfs.DfsSearchResult;
 import org.elasticsearch.search.facet.Facet;
@@ -85,6 +86,11 @@ public class SearchPhaseController {
         return new AggregatedDfs(dfMap, aggMaxDoc);
     }
 
+    /**
+     * Merges the (already sorted) top docs of each shard into the docs of the requested page. Only the first
+     * <tt>from + size</tt> docs are merged, using a k-way merge over the shards results, and only the docs within
+     * the page are allocated.
+     */
     public ShardDoc[] sortDocs(Collection<? extends QuerySearchResultProvider> results1) {
         if (results1.isEmpty()) {
             return EMPTY;
@@ -95,15 +101,30 @@ public class SearchPhaseController {
         QuerySearchResultProvider queryResultProvider = results.get(0);
 
         int totalNumDocs = 0;
+        for (QuerySearchResultProvider resultProvider : results) {
+            totalNumDocs += resultProvider.queryResult().topDocs().scoreDocs.length;
+        }
 
         int queueSize = queryResultProvider.queryResult().from() + queryResultProvider.queryResult().size();
+        int resultDocsSize = queryResultProvider.queryResult().size();
         if (queryResultProvider.includeFetch()) {
             // if we did both query and fetch on the same go, we have fetched all the docs from each shards already, use them...
             // this is also important since we shortcut and fetch only docs from "from" and up to "size"
             queueSize *= results.size();
+            resultDocsSize *= results.size();
+        }
+        if (totalNumDocs < queueSize) {
+            resultDocsSize = totalNumDocs - queryResultProvider.queryResult().from();
+        }
+
+        if (resultDocsSize <= 0) {
+            return EMPTY;
         }
-        PriorityQueue queue;
+
+        boolean sorted = false;
+        ShardCursorQueue queue;
         if (queryResultProvider.queryResult().topDocs() instanceof TopFieldDocs) {
+            sorted = true;
             // sorting, first if the type is a String, chance CUSTOM to STRING so we handle nulls properly (since our CUSTOM String sorting might return null)
             TopFieldDocs fieldDocs = (TopFieldDocs) queryResultProvider.queryResult().topDocs();
             for (int i = 0; i < fieldDocs.fields.length; i++) {
@@ -130,56 +151,40 @@ public class SearchPhaseController {
                     fieldDocs.fields[i] = new SortField(fieldDocs.fields[i].getField(), SortField.STRING, fieldDocs.fields[i].getReverse());
                 }
             }
-            queue = new ShardFieldDocSortedHitQueue(fieldDocs.fields, queueSize);
-
-            // we need to accumulate for all and then filter the from
-            for (QuerySearchResultProvider resultProvider : results) {
-                QuerySearchResult result = resultProvider.queryResult();
-                ScoreDoc[] scoreDocs = result.topDocs().scoreDocs;
-                totalNumDocs += scoreDocs.length;
-                for (ScoreDoc doc : scoreDocs) {
-                    ShardFieldDoc nodeFieldDoc = new ShardFieldDoc(result.shardTarget(), doc.doc, doc.score, ((FieldDoc) doc).fields);
-                    if (queue.insertWithOverflow(nodeFieldDoc) == nodeFieldDoc) {
-                        // filled the queue, break
-                        break;
-                    }
-                }
-            }
+            queue = new FieldShardCursorQueue(fieldDocs.fields, results.size());
         } else {
-            queue = new ScoreDocQueue(queueSize); // we need to accumulate for all and then filter the from
-            for (QuerySearchResultProvider resultProvider : results) {
-                QuerySearchResult result = resultProvider.queryResult();
-                ScoreDoc[] scoreDocs = result.topDocs().scoreDocs;
-                totalNumDocs += scoreDocs.length;
-                for (ScoreDoc doc : scoreDocs) {
-                    ShardScoreDoc nodeScoreDoc = new ShardScoreDoc(result.shardTarget(), doc.doc, doc.score);
-                    if (queue.insertWithOverflow(nodeScoreDoc) == nodeScoreDoc) {
-                        // filled the queue, break
-                        break;
-                    }
-                }
-            }
-
-        }
-
-        int resultDocsSize = queryResultProvider.queryResult().size();
-        if (queryResultProvider.includeFetch()) {
-            // if we did both query and fetch on the same go, we have fetched all the docs from each shards already, use them...
-            resultDocsSize *= results.size();
-        }
-        if (totalNumDocs < queueSize) {
-            resultDocsSize = totalNumDocs - queryResultProvider.queryResult().from();
+            queue = new ScoreShardCursorQueue(results.size());
         }
 
-        if (resultDocsSize <= 0) {
-            return EMPTY;
+        for (int i = 0; i < results.size(); i++) {
+            QuerySearchResult result = results.get(i).queryResult();
+            ScoreDoc[] scoreDocs = result.topDocs().scoreDocs;
+            if (scoreDocs.length > 0) {
+                queue.add(new ShardCursor(i, result.shardTarget(), scoreDocs));
+            }
         }
 
-        // we only pop the first, this handles "from" nicely since the "from" are down the queue
-        // that we already fetched, so we are actually popping the "from" and up to "size"
+        // we merge up to "from" + "size" docs, the "from" ones are only skipped over, so the ones that are kept
+        // are the last merged ones
+        int mergeSize = Math.min(queueSize, totalNumDocs);
+        int skip = mergeSize - resultDocsSize;
         ShardDoc[] shardDocs = new ShardDoc[resultDocsSize];
-        for (int i = resultDocsSize - 1; i >= 0; i--)      // put docs in array
-            shardDocs[i] = (ShardDoc) queue.pop();
+        for (int i = 0; i < mergeSize; i++) {
+            ShardCursor cursor = queue.top();
+            if (i >= skip) {
+                ScoreDoc doc = cursor.current();
+                if (sorted) {
+                    shardDocs[i - skip] = new ShardFieldDoc(cursor.shardTarget, doc.doc, doc.score, ((FieldDoc) doc).fields);
+                } else {
+                    shardDocs[i - skip] = new ShardScoreDoc(cursor.shardTarget, doc.doc, doc.score);
+                }
+            }
+            if (cursor.next()) {
+                queue.updateTop();
+            } else {
+                queue.pop();
+            }
+        }
         return shardDocs;
     }
 
@@ -242,10 +247,12 @@ public class SearchPhaseController {
         long totalHits = 0;
         float maxScore = Float.NEGATIVE_INFINITY;
         boolean timedOut = false;
+        long queryTime = 0;
         for (QuerySearchResultProvider queryResultProvider : queryResults.values()) {
             if (queryResultProvider.queryResult().searchTimedOut()) {
                 timedOut = true;
             }
+            queryTime += queryResultProvider.queryResult().queryTime();
             totalHits += queryResultProvider.queryResult().topDocs().totalHits;
             if (!Float.isNaN(queryResultProvider.queryResult().topDocs().getMaxScore())) {
                 maxScore = Math.max(maxScore, queryResultProvider.queryResult().topDocs().getMaxScore());
@@ -256,8 +263,12 @@ public class SearchPhaseController {
         }
 
         // clean the fetch counter
+        long fetchTime = 0;
+        long fetchedHits = 0;
         for (FetchSearchResultProvider fetchSearchResultProvider : fetchResults.values()) {
             fetchSearchResultProvider.fetchResult().initCounter();
+            fetchTime += fetchSearchResultProvider.fetchResult().fetchTime();
+            fetchedHits += fetchSearchResultProvider.fetchResult().hits().internalHits().length;
         }
 
         // merge hits
@@ -289,6 +300,90 @@ public class SearchPhaseController {
         }
 
         InternalSearchHits searchHits = new InternalSearchHits(hits.toArray(new InternalSearchHit[hits.size()]), totalHits, maxScore);
-        return new InternalSearchResponse(searchHits, facets, timedOut);
+        return new InternalSearchResponse(searchHits, facets, timedOut, new SearchTimings(queryTime, fetchTime, fetchedHits));
+    }
+
+    /**
+     * A position within the sorted docs of a single shard.
+     */
+    static class ShardCursor {
+
+        final int shardIndex;
+
+        final SearchShardTarget shardTarget;
+
+        final ScoreDoc[] docs;
+
+        int index;
+
+        ShardCursor(int shardIndex, SearchShardTarget shardTarget, ScoreDoc[] docs) {
+            this.shardIndex = shardIndex;
+            this.shardTarget = shardTarget;
+            this.docs = docs;
+        }
+
+        ScoreDoc current() {
+            return docs[index];
+        }
+
+        /**
+         * Moves to the next doc, returning <tt>false</tt> if there are no more docs.
+         */
+        boolean next() {
+            return ++index < docs.length;
+        }
+    }
+
+    /**
+     * A queue of shard cursors, with the cursor positioned on the doc that sorts first on top. Cursors
+     * positioned on equal docs are ordered by the shard order.
+     */
+    static abstract class ShardCursorQueue extends PriorityQueue<ShardCursor> {
+
+        ShardCursorQueue(int size) {
+            initialize(size);
+        }
+    }
+
+    static class ScoreShardCursorQueue extends ShardCursorQueue {
+
+        ScoreShardCursorQueue(int size) {
+            super(size);
+        }
+
+        @Override protected boolean lessThan(ShardCursor cursorA, ShardCursor cursorB) {
+            ScoreDoc docA = cursorA.current();
+            ScoreDoc docB = cursorB.current();
+            if (docA.score != docB.score) {
+                return docA.score > docB.score;
+            }
+            if (docA.doc != docB.doc) {
+                return docA.doc < docB.doc;
+            }
+            return cursorA.shardIndex < cursorB.shardIndex;
+        }
+    }
+
+    static class FieldShardCursorQueue extends ShardCursorQueue {
+
+        // only used to compare docs based on the sort fields
+        private final ShardFieldDocSortedHitQueue comparator;
+
+        FieldShardCursorQueue(SortField[] fields, int size) {
+            super(size);
+            this.comparator = new ShardFieldDocSortedHitQueue(fields, 1);
+        }
+
+        @Override protected boolean lessThan(ShardCursor cursorA, ShardCursor cursorB) {
+            FieldDoc docA = (FieldDoc) cursorA.current();
+            FieldDoc docB = (FieldDoc) cursorB.current();
+            if (comparator.sortsAfter(docB, docA)) {
+                return true;
+            }
+            if (comparator.sortsAfter(docA, docB)) {
+                return false;
+            }
+            return cursorA.shardIndex < cursorB.shardIndex;
+        }
     }
 }
@@ -22,6 +22,7 @@ package org.elasticsearch.search.facet;
 import org.apache.lucene.search.Filter;
 import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.index.query.xcontent.XContentIndexQueryParser;
 import org.elasticsearch.search.SearchParseElement;
@@ -59,61 +60,101 @@ public class FacetParseElement implements SearchParseElement {
     }
 
     @Override public void parse(XContentParser parser, SearchContext context) throws Exception {
-        XContentParser.Token token;
+        // keep the facets source, so the facets of the main scope can be parsed again for each slice of a concurrent search
+        byte[] source = XContentFactory.contentBuilder(parser.contentType()).copyCurrentStructure(parser).copiedBytes();
 
-        List<FacetCollector> facetCollectors = null;
+        List<FacetCollector> facetCollectors = Lists.newArrayList();
+        List<String> scopes = Lists.newArrayList();
+        boolean sliceable = parse(source, context, facetCollectors, scopes);
+        for (int i = 0; i < facetCollectors.size(); i++) {
+            context.searcher().addCollector(scopes.get(i), facetCollectors.get(i));
+        }
+
+        context.facets(new SearchContextFacets(facetCollectors, scopes, source, sliceable));
+    }
+
+    /**
+     * Creates new collectors (not registered with the searcher) of the facets of the main scope, in the same order they
+     * were parsed originally.
+     */
+    public List<FacetCollector> parseMainScope(SearchContext context) throws Exception {
+        List<FacetCollector> facetCollectors = Lists.newArrayList();
+        List<String> scopes = Lists.newArrayList();
+        parse(context.facets().source(), context, facetCollectors, scopes);
+        List<FacetCollector> mainCollectors = Lists.newArrayList();
+        for (int i = 0; i < facetCollectors.size(); i++) {
+            if (ContextIndexSearcher.Scopes.MAIN.equals(scopes.get(i))) {
+                mainCollectors.add(facetCollectors.get(i));
+            }
+        }
+        return mainCollectors;
+    }
 
-        String topLevelFieldName = null;
-        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
-            if (token == XContentParser.Token.FIELD_NAME) {
-                topLevelFieldName = parser.currentName();
-            } else if (token == XContentParser.Token.START_OBJECT) {
-                FacetCollector facet = null;
-                String scope = ContextIndexSearcher.Scopes.MAIN;
-                String facetFieldName = null;
-                Filter filter = null;
-                boolean cacheFilter = true;
-                while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
-                    if (token == XContentParser.Token.FIELD_NAME) {
-                        facetFieldName = parser.currentName();
-                    } else if (token == XContentParser.Token.START_OBJECT) {
-                        if ("facet_filter".equals(facetFieldName) || "facetFilter".equals(facetFieldName)) {
-                            XContentIndexQueryParser indexQueryParser = (XContentIndexQueryParser) context.queryParser();
-                            filter = indexQueryParser.parseInnerFilter(parser);
-                        } else {
-                            FacetProcessor facetProcessor = facetProcessors.processor(facetFieldName);
-                            if (facetProcessor == null) {
-                                throw new SearchParseException(context, "No facet type found for [" + facetFieldName + "]");
+    /**
+     * Parses the facets into the collectors and their scopes, returns <tt>true</tt> if all the facets of the main
+     * scope are {@link FacetProcessor#sliceable(FacetCollector) sliceable}.
+     */
+    private boolean parse(byte[] source, SearchContext context, List<FacetCollector> facetCollectors, List<String> scopes) throws Exception {
+        boolean sliceable = true;
+        XContentParser parser = XContentFactory.xContent(source).createParser(source);
+        try {
+            parser.nextToken(); // move past the first START_OBJECT
+            XContentParser.Token token;
+            String topLevelFieldName = null;
+            while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                if (token == XContentParser.Token.FIELD_NAME) {
+                    topLevelFieldName = parser.currentName();
+                } else if (token == XContentParser.Token.START_OBJECT) {
+                    FacetCollector facet = null;
+                    FacetProcessor facetProcessor = null;
+                    String scope = ContextIndexSearcher.Scopes.MAIN;
+                    String facetFieldName = null;
+                    Filter filter = null;
+                    boolean cacheFilter = true;
+                    while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                        if (token == XContentParser.Token.FIELD_NAME) {
+                            facetFieldName = parser.currentName();
+                        } else if (token == XContentParser.Token.START_OBJECT) {
+                            if ("facet_filter".equals(facetFieldName) || "facetFilter".equals(facetFieldName)) {
+                                XContentIndexQueryParser indexQueryParser = (XContentIndexQueryParser) context.queryParser();
+                                filter = indexQueryParser.parseInnerFilter(parser);
+                            } else {
+                                facetProcessor = facetProcessors.processor(facetFieldName);
+                                if (facetProcessor == null) {
+                                    throw new SearchParseException(context, "No facet type found for [" + facetFieldName + "]");
+                                }
+                                facet = facetProcessor.parse(topLevelFieldName, parser, context);
                             }
-                            facet = facetProcessor.parse(topLevelFieldName, parser, context);
-                        }
-                    } else if (token.isValue()) {
-                        if ("global".equals(facetFieldName)) {
-                            if (parser.booleanValue()) {
-                                scope = ContextIndexSearcher.Scopes.GLOBAL;
+                        } else if (token.isValue()) {
+                            if ("global".equals(facetFieldName)) {
+                                if (parser.booleanValue()) {
+                                    scope = ContextIndexSearcher.Scopes.GLOBAL;
+                                }
+                            } else if ("scope".equals(facetFieldName)) {
+                                scope = parser.text();
+                            } else if ("cache_filter".equals(facetFieldName) || "cacheFilter".equals(facetFieldName)) {
+                                cacheFilter = parser.booleanValue();
                             }
-                        } else if ("scope".equals(facetFieldName)) {
-                            scope = parser.text();
-                        } else if ("cache_filter".equals(facetFieldName) || "cacheFilter".equals(facetFieldName)) {
-                            cacheFilter = parser.booleanValue();
                         }
                     }
-                }
-                if (filter != null) {
-                    if (cacheFilter) {
-                        filter = context.filterCache().cache(filter);
+                    if (filter != null) {
+                        if (cacheFilter) {
+                            filter = context.filterCache().cache(filter);
+                        }
+                        facet.setFilter(filter);
                     }
-                    facet.setFilter(filter);
-                }
 
-                if (facetCollectors == null) {
-                    facetCollectors = Lists.newArrayList();
+                    if (ContextIndexSearcher.Scopes.MAIN.equals(scope) && !facetProcessor.sliceable(facet)) {
+                        sliceable = false;
+                    }
+
+                    facetCollectors.add(facet);
+                    scopes.add(scope);
                 }
-                facetCollectors.add(facet);
-                context.searcher().addCollector(scope, facet);
             }
+        } finally {
+            parser.close();
         }
-
-        context.facets(new SearchContextFacets(facetCollectors));
+        return sliceable;
     }
 }
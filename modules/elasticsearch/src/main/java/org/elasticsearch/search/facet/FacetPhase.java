@@ -46,9 +46,40 @@ public class FacetPhase implements SearchPhase {
 
     private final FacetBinaryParseElement facetBinaryParseElement;
 
-    @Inject public FacetPhase(FacetParseElement facetParseElement, FacetBinaryParseElement facetBinaryParseElement) {
+    private final FacetProcessors facetProcessors;
+
+    @Inject public FacetPhase(FacetParseElement facetParseElement, FacetBinaryParseElement facetBinaryParseElement, FacetProcessors facetProcessors) {
         this.facetParseElement = facetParseElement;
         this.facetBinaryParseElement = facetBinaryParseElement;
+        this.facetProcessors = facetProcessors;
+    }
+
+    /**
+     * The collectors of the facets of the main scope, for the first slice of a concurrent search.
+     */
+    public List<FacetCollector> mainCollectors(SearchContext context) {
+        List<FacetCollector> mainCollectors = Lists.newArrayList();
+        if (context.facets() != null && context.searcher().hasCollectors(ContextIndexSearcher.Scopes.MAIN)) {
+            SearchContextFacets contextFacets = context.facets();
+            for (int i = 0; i < contextFacets.facetCollectors().size(); i++) {
+                if (ContextIndexSearcher.Scopes.MAIN.equals(contextFacets.scopes().get(i))) {
+                    mainCollectors.add(contextFacets.facetCollectors().get(i));
+                }
+            }
+        }
+        return mainCollectors;
+    }
+
+    /**
+     * New collectors of the facets of the main scope for another slice of a concurrent search, in the same order as
+     * {@link #mainCollectors(SearchContext)}. Their facets are reduced with the main ones once registered with
+     * {@link SearchContextFacets#addSliceFacetCollector(FacetCollector, FacetCollector)}.
+     */
+    public List<FacetCollector> sliceCollectors(SearchContext context) throws Exception {
+        if (context.facets() == null || !context.searcher().hasCollectors(ContextIndexSearcher.Scopes.MAIN)) {
+            return Lists.newArrayList();
+        }
+        return facetParseElement.parseMainScope(context);
     }
 
     @Override public Map<String, ? extends SearchParseElement> parseElements() {
@@ -88,7 +119,18 @@ public class FacetPhase implements SearchPhase {
         List<Facet> facets = Lists.newArrayListWithCapacity(2);
         if (contextFacets.facetCollectors() != null) {
             for (FacetCollector facetCollector : contextFacets.facetCollectors()) {
-                facets.add(facetCollector.facet());
+                Facet facet = facetCollector.facet();
+                List<FacetCollector> sliceFacetCollectors = contextFacets.sliceFacetCollectors(facetCollector);
+                if (sliceFacetCollectors != null) {
+                    // the docs were collected concurrently in slices, reduce the facets of all of them
+                    List<Facet> sliceFacets = Lists.newArrayListWithCapacity(sliceFacetCollectors.size() + 1);
+                    sliceFacets.add(facet);
+                    for (FacetCollector sliceFacetCollector : sliceFacetCollectors) {
+                        sliceFacets.add(sliceFacetCollector.facet());
+                    }
+                    facet = facetProcessors.processor(facet.type()).reduce(facet.name(), sliceFacets);
+                }
+                facets.add(facet);
             }
         }
         context.queryResult().facets(new InternalFacets(facets));
@@ -35,4 +35,11 @@ public interface FacetProcessor {
     FacetCollector parse(String facetName, XContentParser parser, SearchContext context) throws IOException;
 
     Facet reduce(String name, List<Facet> facets);
+
+    /**
+     * Can the docs of the facet be collected concurrently in slices, each with its own collector parsed from the
+     * same source, and the facets of the slices {@link #reduce(String, java.util.List) reduced} into the facet a
+     * single collector would have computed.
+     */
+    boolean sliceable(FacetCollector facetCollector);
 }
@@ -19,7 +19,11 @@
 
 package org.elasticsearch.search.facet;
 
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.collect.Maps;
+
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author kimchy (shay.banon)
@@ -28,11 +32,66 @@ public class SearchContextFacets {
 
     private final List<FacetCollector> facetCollectors;
 
-    public SearchContextFacets(List<FacetCollector> facetCollectors) {
+    private final List<String> scopes;
+
+    private final byte[] source;
+
+    private final boolean sliceable;
+
+    private Map<FacetCollector, List<FacetCollector>> sliceFacetCollectors;
+
+    public SearchContextFacets(List<FacetCollector> facetCollectors, List<String> scopes, byte[] source, boolean sliceable) {
         this.facetCollectors = facetCollectors;
+        this.scopes = scopes;
+        this.source = source;
+        this.sliceable = sliceable;
     }
 
     public List<FacetCollector> facetCollectors() {
         return facetCollectors;
     }
+
+    /**
+     * The scope of each of the {@link #facetCollectors()}.
+     */
+    public List<String> scopes() {
+        return scopes;
+    }
+
+    /**
+     * The facets source, to parse the facets again.
+     */
+    public byte[] source() {
+        return source;
+    }
+
+    /**
+     * Can the facets of the main scope be collected concurrently, each slice of the docs with its own collectors.
+     */
+    public boolean sliceable() {
+        return sliceable;
+    }
+
+    /**
+     * Adds a collector of the facet of the given collector that collected another slice of the docs, the facets of
+     * all of them are reduced into a single one.
+     */
+    public void addSliceFacetCollector(FacetCollector facetCollector, FacetCollector sliceFacetCollector) {
+        if (sliceFacetCollectors == null) {
+            sliceFacetCollectors = Maps.newHashMap();
+        }
+        List<FacetCollector> collectors = sliceFacetCollectors.get(facetCollector);
+        if (collectors == null) {
+            collectors = Lists.newArrayList();
+            sliceFacetCollectors.put(facetCollector, collectors);
+        }
+        collectors.add(sliceFacetCollector);
+    }
+
+    public List<FacetCollector> sliceFacetCollectors(FacetCollector facetCollector) {
+        if (sliceFacetCollectors == null) {
+            return null;
+        }
+        return sliceFacetCollectors.get(facetCollector);
+    }
 }
@@ -187,6 +187,11 @@ public class DateHistogramFacetProcessor extends AbstractComponent implements Fa
         }
     }
 
+    @Override public boolean sliceable(FacetCollector facetCollector) {
+        // scripts use the lookup of the search context, which can't be used by several threads at once
+        return !(facetCollector instanceof ValueScriptDateHistogramFacetCollector);
+    }
+
     @Override public Facet reduce(String name, List<Facet> facets) {
         InternalDateHistogramFacet first = (InternalDateHistogramFacet) facets.get(0);
         return first.reduce(name, facets);
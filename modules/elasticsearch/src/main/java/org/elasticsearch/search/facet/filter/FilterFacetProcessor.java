@@ -53,6 +53,10 @@ public class FilterFacetProcessor extends AbstractComponent implements FacetProc
         return new FilterFacetCollector(facetName, facetFilter, context.filterCache());
     }
 
+    @Override public boolean sliceable(FacetCollector facetCollector) {
+        return true;
+    }
+
     @Override public Facet reduce(String name, List<Facet> facets) {
         if (facets.size() == 1) {
             return facets.get(0);
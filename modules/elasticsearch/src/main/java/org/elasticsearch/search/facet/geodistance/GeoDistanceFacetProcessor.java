@@ -175,6 +175,11 @@ public class GeoDistanceFacetProcessor extends AbstractComponent implements Face
                 context);
     }
 
+    @Override public boolean sliceable(FacetCollector facetCollector) {
+        // scripts use the lookup of the search context, which can't be used by several threads at once
+        return !(facetCollector instanceof ScriptGeoDistanceFacetCollector);
+    }
+
     @Override public Facet reduce(String name, List<Facet> facets) {
         InternalGeoDistanceFacet agg = null;
         for (Facet facet : facets) {
@@ -113,6 +113,11 @@ public class HistogramFacetProcessor extends AbstractComponent implements FacetP
         }
     }
 
+    @Override public boolean sliceable(FacetCollector facetCollector) {
+        // scripts use the lookup of the search context, which can't be used by several threads at once
+        return !(facetCollector instanceof ScriptHistogramFacetCollector) && !(facetCollector instanceof KeyValueScriptHistogramFacetCollector);
+    }
+
     @Override public Facet reduce(String name, List<Facet> facets) {
         InternalHistogramFacet first = (InternalHistogramFacet) facets.get(0);
         return first.reduce(name, facets);
@@ -53,6 +53,10 @@ public class QueryFacetProcessor extends AbstractComponent implements FacetProce
         return new QueryFacetCollector(facetName, facetQuery, context.filterCache());
     }
 
+    @Override public boolean sliceable(FacetCollector facetCollector) {
+        return true;
+    }
+
     @Override public Facet reduce(String name, List<Facet> facets) {
         if (facets.size() == 1) {
             return facets.get(0);
@@ -96,6 +96,11 @@ public class StatisticalFacetProcessor extends AbstractComponent implements Face
         }
     }
 
+    @Override public boolean sliceable(FacetCollector facetCollector) {
+        // scripts use the lookup of the search context, which can't be used by several threads at once
+        return !(facetCollector instanceof ScriptStatisticalFacetCollector);
+    }
+
     @Override public Facet reduce(String name, List<Facet> facets) {
         if (facets.size() == 1) {
             return facets.get(0);
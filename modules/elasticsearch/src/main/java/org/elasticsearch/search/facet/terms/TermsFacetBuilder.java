@@ -46,6 +46,7 @@ public class TermsFacetBuilder extends AbstractFacetBuilder {
     private String script;
     private String lang;
     private Map<String, Object> params;
+    private String executionHint;
 
     /**
      * Construct a new term facet with the provided facet name.
@@ -186,6 +187,15 @@ public class TermsFacetBuilder extends AbstractFacetBuilder {
         return this;
     }
 
+    /**
+     * An execution hint to how the terms facet is computed on string fields. Can be either <tt>ordinals</tt>
+     * (the default, counting using the field data ordinals) or <tt>map</tt> (counting using a map of terms).
+     */
+    public TermsFacetBuilder executionHint(String executionHint) {
+        this.executionHint = executionHint;
+        return this;
+    }
+
     @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         if (fieldName == null && fieldsNames == null && script == null) {
             throw new SearchSourceBuilderException("field/fields/script must be set on terms facet for facet [" + name + "]");
@@ -222,6 +232,9 @@ public class TermsFacetBuilder extends AbstractFacetBuilder {
         if (allTerms != null) {
             builder.field("all_terms", allTerms);
         }
+        if (executionHint != null) {
+            builder.field("execution_hint", executionHint);
+        }
 
         if (script != null) {
             builder.field("script", script);
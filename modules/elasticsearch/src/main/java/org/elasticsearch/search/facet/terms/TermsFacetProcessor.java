@@ -41,6 +41,7 @@ import org.elasticsearch.search.facet.terms.shorts.TermsShortFacetCollector;
 import org.elasticsearch.search.facet.terms.strings.FieldsTermsStringFacetCollector;
 import org.elasticsearch.search.facet.terms.strings.ScriptTermsStringFieldFacetCollector;
 import org.elasticsearch.search.facet.terms.strings.TermsStringFacetCollector;
+import org.elasticsearch.search.facet.terms.strings.TermsStringOrdinalsFacetCollector;
 import org.elasticsearch.search.internal.SearchContext;
 
 import java.io.IOException;
@@ -75,6 +76,7 @@ public class TermsFacetProcessor extends AbstractComponent implements FacetProce
         String script = null;
         Map<String, Object> params = null;
         boolean allTerms = false;
+        String executionHint = null;
 
         String currentFieldName = null;
         XContentParser.Token token;
@@ -118,6 +120,8 @@ public class TermsFacetProcessor extends AbstractComponent implements FacetProce
                     script = parser.text();
                 } else if ("lang".equals(currentFieldName)) {
                     scriptLang = parser.text();
+                } else if ("execution_hint".equals(currentFieldName) || "executionHint".equals(currentFieldName)) {
+                    executionHint = parser.textOrNull();
                 }
             }
         }
@@ -153,9 +157,18 @@ public class TermsFacetProcessor extends AbstractComponent implements FacetProce
                 return new TermsByteFacetCollector(facetName, field, size, comparatorType, allTerms, context, scriptLang, script, params);
             }
         }
+        // count using the field data ordinals, unless a script is used to modify terms or the "map" execution was explicitly asked for
+        if (script == null && !"map".equals(executionHint) && (fieldMapper == null || fieldMapper.fieldDataType() == FieldDataType.DefaultTypes.STRING)) {
+            return new TermsStringOrdinalsFacetCollector(facetName, field, size, comparatorType, allTerms, context, excluded, pattern);
+        }
         return new TermsStringFacetCollector(facetName, field, size, comparatorType, allTerms, context, excluded, pattern, scriptLang, script, params);
     }
 
+    @Override public boolean sliceable(FacetCollector facetCollector) {
+        // the facet of each slice only keeps its top terms, reducing them would miss counts of terms near the cut
+        return false;
+    }
+
     @Override public Facet reduce(String name, List<Facet> facets) {
         InternalTermsFacet first = (InternalTermsFacet) facets.get(0);
         return first.reduce(name, facets);
@@ -0,0 +1,220 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.facet.terms.strings;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.util.PriorityQueue;
+import org.elasticsearch.common.collect.BoundedTreeSet;
+import org.elasticsearch.common.collect.ImmutableList;
+import org.elasticsearch.common.collect.ImmutableSet;
+import org.elasticsearch.index.cache.field.data.FieldDataCache;
+import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.field.data.strings.StringFieldData;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.search.facet.AbstractFacetCollector;
+import org.elasticsearch.search.facet.Facet;
+import org.elasticsearch.search.facet.FacetPhaseExecutionException;
+import org.elasticsearch.search.facet.terms.TermsFacet;
+import org.elasticsearch.search.internal.SearchContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A terms facet collector that counts into an <tt>int[]</tt> indexed by the ordinals of the
+ * string field data of each segment, instead of hashing each value. The per segment counts are
+ * merged in {@link #facet()} by walking the (sorted) values of all segments in order.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class TermsStringOrdinalsFacetCollector extends AbstractFacetCollector {
+
+    private final FieldDataCache fieldDataCache;
+
+    private final String indexFieldName;
+
+    private final TermsFacet.ComparatorType comparatorType;
+
+    private final int size;
+
+    private final int numberOfShards;
+
+    private final int minCount;
+
+    private final FieldDataType fieldDataType;
+
+    private final ImmutableSet<String> excluded;
+
+    private final Matcher matcher;
+
+    private final List<ReaderAggregator> aggregators;
+
+    private StringFieldData fieldData;
+
+    private ReaderAggregator current;
+
+    private int missing = 0;
+
+    public TermsStringOrdinalsFacetCollector(String facetName, String fieldName, int size, TermsFacet.ComparatorType comparatorType, boolean allTerms, SearchContext context,
+                                             ImmutableSet<String> excluded, Pattern pattern) {
+        super(facetName);
+        this.fieldDataCache = context.fieldDataCache();
+        this.size = size;
+        this.comparatorType = comparatorType;
+        this.numberOfShards = context.numberOfShards();
+
+        MapperService.SmartNameFieldMappers smartMappers = context.mapperService().smartName(fieldName);
+        if (smartMappers == null || !smartMappers.hasMapper()) {
+            this.indexFieldName = fieldName;
+            this.fieldDataType = FieldDataType.DefaultTypes.STRING;
+        } else {
+            // add type filter if there is exact doc mapper associated with it
+            if (smartMappers.hasDocMapper()) {
+                setFilter(context.filterCache().cache(smartMappers.docMapper().typeFilter()));
+            }
+
+            this.indexFieldName = smartMappers.mapper().names().indexName();
+            this.fieldDataType = smartMappers.mapper().fieldDataType();
+        }
+
+        if (fieldDataType != FieldDataType.DefaultTypes.STRING) {
+            throw new FacetPhaseExecutionException(facetName, "ordinals execution is only supported on string fields, field [" + fieldName + "]");
+        }
+
+        this.excluded = excluded;
+        this.matcher = pattern != null ? pattern.matcher("") : null;
+
+        // with all terms, terms with 0 count are also returned
+        this.minCount = allTerms ? 0 : 1;
+
+        this.aggregators = new ArrayList<ReaderAggregator>(context.searcher().subReaders().length);
+    }
+
+    @Override protected void doSetNextReader(IndexReader reader, int docBase) throws IOException {
+        addCurrentAggregator();
+        fieldData = (StringFieldData) fieldDataCache.cache(fieldDataType, reader, indexFieldName);
+        current = new ReaderAggregator(fieldData);
+    }
+
+    @Override protected void doCollect(int doc) throws IOException {
+        fieldData.forEachOrdinalInDoc(doc, current);
+    }
+
+    @Override public Facet facet() {
+        addCurrentAggregator();
+
+        AggregatorPriorityQueue queue = new AggregatorPriorityQueue(aggregators.size());
+        for (ReaderAggregator aggregator : aggregators) {
+            if (aggregator.nextPosition()) {
+                queue.add(aggregator);
+            }
+        }
+
+        if (queue.size() == 0) {
+            return new InternalStringTermsFacet(facetName, comparatorType, size, ImmutableList.<InternalStringTermsFacet.StringEntry>of(), missing);
+        }
+
+        // we need to fetch facets of "size * numberOfShards" because of problems in how they are distributed across shards
+        BoundedTreeSet<InternalStringTermsFacet.StringEntry> ordered = new BoundedTreeSet<InternalStringTermsFacet.StringEntry>(comparatorType.comparator(), size * numberOfShards);
+        while (queue.size() > 0) {
+            ReaderAggregator agg = queue.top();
+            // the current value, all aggregators positioned on it are summed up below
+            String value = agg.current;
+            int count = 0;
+            do {
+                count += agg.counts[agg.position];
+                if (agg.nextPosition()) {
+                    agg = queue.updateTop();
+                } else {
+                    // we are done with this reader
+                    queue.pop();
+                    agg = queue.top();
+                }
+            } while (agg != null && value.equals(agg.current));
+
+            if (count >= minCount) {
+                if (excluded != null && excluded.contains(value)) {
+                    continue;
+                }
+                if (matcher != null && !matcher.reset(value).matches()) {
+                    continue;
+                }
+                ordered.add(new InternalStringTermsFacet.StringEntry(value, count));
+            }
+        }
+        return new InternalStringTermsFacet(facetName, comparatorType, size, ordered, missing);
+    }
+
+    private void addCurrentAggregator() {
+        if (current != null) {
+            missing += current.counts[0];
+            // a reader with no values (only the null value) can't contribute any terms
+            if (current.values.length > 1) {
+                aggregators.add(current);
+            }
+            current = null;
+        }
+    }
+
+    public static class ReaderAggregator implements StringFieldData.OrdinalInDocProc {
+
+        final String[] values;
+
+        final int[] counts;
+
+        int position = 0;
+
+        String current;
+
+        public ReaderAggregator(StringFieldData fieldData) {
+            this.values = fieldData.values();
+            this.counts = new int[values.length];
+        }
+
+        @Override public void onOrdinal(int docId, int ordinal) {
+            counts[ordinal]++;
+        }
+
+        /**
+         * Moves to the next value of the reader, skipping the <tt>null</tt> value at ordinal <tt>0</tt>.
+         */
+        public boolean nextPosition() {
+            if (++position >= values.length) {
+                return false;
+            }
+            current = values[position];
+            return true;
+        }
+    }
+
+    public static class AggregatorPriorityQueue extends PriorityQueue<ReaderAggregator> {
+
+        public AggregatorPriorityQueue(int size) {
+            initialize(size);
+        }
+
+        @Override protected boolean lessThan(ReaderAggregator a, ReaderAggregator b) {
+            return a.current.compareTo(b.current) < 0;
+        }
+    }
+}
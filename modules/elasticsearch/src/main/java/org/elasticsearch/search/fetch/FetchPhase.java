@@ -24,7 +24,12 @@ import org.apache.lucene.document.FieldSelector;
 import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.index.IndexReader;
 import org.elasticsearch.common.collect.ImmutableMap;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.compress.lzf.LZFDecoder;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.mapper.*;
 import org.elasticsearch.search.SearchHitField;
 import org.elasticsearch.search.SearchParseElement;
@@ -38,27 +43,53 @@ import org.elasticsearch.search.internal.InternalSearchHit;
 import org.elasticsearch.search.internal.InternalSearchHitField;
 import org.elasticsearch.search.internal.InternalSearchHits;
 import org.elasticsearch.search.internal.SearchContext;
+import org.elasticsearch.search.lookup.SourceLookup;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
+ * Loads the hits documents in doc id order, so the stored fields are read sequentially instead of seeking back and
+ * forth, and builds the hits in the requested order. With <tt>search.fetch.concurrency</tt> set (defaults to
+ * <tt>1</tt>, disabled), the sorted doc ids are split into up to that many ranges loaded concurrently on the
+ * {@link ThreadPool.Names#FETCH} thread pool.
+ *
  * @author kimchy (shay.banon)
  */
-public class FetchPhase implements SearchPhase {
+public class FetchPhase extends AbstractComponent implements SearchPhase {
+
+    // below this number of docs per range, loading concurrently is not worth the hand off
+    private static final int MIN_DOCS_PER_RANGE = 10;
 
     private final SearchHitPhase[] hitPhases;
 
-    @Inject public FetchPhase(HighlightPhase highlightPhase, ScriptFieldsSearchHitPhase scriptFieldsPhase,
+    private final int concurrency;
+
+    private final ThreadPool threadPool;
+
+    @Inject public FetchPhase(Settings settings, ThreadPool threadPool, HighlightPhase highlightPhase, ScriptFieldsSearchHitPhase scriptFieldsPhase,
                               MatchedFiltersSearchHitPhase matchFiltersPhase, ExplainSearchHitPhase explainPhase, VersionSearchHitPhase versionPhase) {
+        super(settings);
+        this.threadPool = threadPool;
         this.hitPhases = new SearchHitPhase[]{scriptFieldsPhase, matchFiltersPhase, explainPhase, highlightPhase, versionPhase};
+        this.concurrency = componentSettings.getAsInt("concurrency", 1);
+        logger.debug("using concurrency [{}]", concurrency);
     }
 
     @Override public Map<String, ? extends SearchParseElement> parseElements() {
         ImmutableMap.Builder<String, SearchParseElement> parseElements = ImmutableMap.builder();
         parseElements.put("fields", new FieldsParseElement());
+        parseElements.put("partial_source", new PartialSourceParseElement());
+        parseElements.put("partialSource", new PartialSourceParseElement());
         for (SearchHitPhase hitPhase : hitPhases) {
             parseElements.putAll(hitPhase.parseElements());
         }
@@ -69,17 +100,21 @@ public class FetchPhase implements SearchPhase {
     }
 
     public void execute(SearchContext context) {
-        FieldSelector fieldSelector = buildFieldSelectors(context);
+        long start = System.nanoTime();
+        Document[] docs = loadDocuments(context);
 
         InternalSearchHit[] hits = new InternalSearchHit[context.docIdsToLoadSize()];
         for (int index = 0; index < context.docIdsToLoadSize(); index++) {
             int docId = context.docIdsToLoad()[context.docIdsToLoadFrom() + index];
-            Document doc = loadDocument(context, fieldSelector, docId);
+            Document doc = docs[index];
             Uid uid = extractUid(context, doc);
 
             DocumentMapper documentMapper = context.mapperService().documentMapper(uid.type());
 
             byte[] source = extractSource(doc, documentMapper);
+            if (source != null && context.partialSource() != null) {
+                source = extractPartialSource(context, source);
+            }
 
             // get the version
 
@@ -141,6 +176,80 @@ public class FetchPhase implements SearchPhase {
             }
         }
         context.fetchResult().hits(new InternalSearchHits(hits, context.queryResult().topDocs().totalHits, context.queryResult().topDocs().getMaxScore()));
+        context.fetchResult().fetchTime(System.nanoTime() - start);
+    }
+
+    /**
+     * Loads the documents of the hits, indexed by their position in the requested docs.
+     */
+    private Document[] loadDocuments(final SearchContext context) {
+        int size = context.docIdsToLoadSize();
+        // doc id in the upper bits, position in the lower ones, so sorting them sorts by doc id
+        final long[] sortedDocs = new long[size];
+        for (int index = 0; index < size; index++) {
+            sortedDocs[index] = (((long) context.docIdsToLoad()[context.docIdsToLoadFrom() + index]) << 32) | index;
+        }
+        Arrays.sort(sortedDocs);
+
+        final Document[] docs = new Document[size];
+        int ranges = Math.min(concurrency, size / MIN_DOCS_PER_RANGE);
+        if (ranges <= 1) {
+            loadDocuments(context, buildFieldSelectors(context), sortedDocs, 0, size, docs);
+            return docs;
+        }
+
+        // field selectors are not thread safe, each range uses its own
+        int rangeSize = (size + ranges - 1) / ranges;
+        List<FutureTask<Object>> futures = new ArrayList<FutureTask<Object>>(ranges - 1);
+        for (int from = rangeSize; from < size; from += rangeSize) {
+            final int rangeFrom = from;
+            final int rangeTo = Math.min(size, from + rangeSize);
+            FutureTask<Object> future = new FutureTask<Object>(new Callable<Object>() {
+                @Override public Object call() throws Exception {
+                    loadDocuments(context, buildFieldSelectors(context), sortedDocs, rangeFrom, rangeTo, docs);
+                    return null;
+                }
+            });
+            futures.add(future);
+            try {
+                threadPool.executor(ThreadPool.Names.FETCH).execute(future);
+            } catch (RejectedExecutionException e) {
+                // no room on the fetch thread pool, load the range on the calling thread
+                future.run();
+            }
+        }
+        try {
+            loadDocuments(context, buildFieldSelectors(context), sortedDocs, 0, rangeSize, docs);
+        } finally {
+            // wait for all of them, even on failure, so the ranges don't keep using the searcher once we are done
+            RuntimeException failure = null;
+            for (FutureTask<Object> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        failure = (RuntimeException) e.getCause();
+                    } else {
+                        failure = new FetchPhaseExecutionException(context, "Failed to load docs", e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = new FetchPhaseExecutionException(context, "Interrupted while loading docs", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return docs;
+    }
+
+    private void loadDocuments(SearchContext context, FieldSelector fieldSelector, long[] sortedDocs, int from, int to, Document[] docs) {
+        for (int i = from; i < to; i++) {
+            int docId = (int) (sortedDocs[i] >>> 32);
+            int index = (int) sortedDocs[i];
+            docs[index] = loadDocument(context, fieldSelector, docId);
+        }
     }
 
     private byte[] extractSource(Document doc, DocumentMapper documentMapper) {
@@ -151,6 +260,22 @@ public class FetchPhase implements SearchPhase {
         return null;
     }
 
+    /**
+     * Builds the source of a hit with only the requested paths, streaming through the original source.
+     */
+    private byte[] extractPartialSource(SearchContext context, byte[] source) {
+        try {
+            if (LZFDecoder.isCompressed(source)) {
+                source = LZFDecoder.decode(source);
+            }
+            XContentType contentType = XContentFactory.xContentType(source);
+            Map<String, Object> partialSource = SourceLookup.filter(source, context.partialSource());
+            return XContentFactory.contentBuilder(contentType).map(partialSource).copiedBytes();
+        } catch (IOException e) {
+            throw new FetchPhaseExecutionException(context, "Failed to extract partial source", e);
+        }
+    }
+
     private Uid extractUid(SearchContext context, Document doc) {
         // TODO we might want to use FieldData here to speed things up, so we don't have to load it at all...
         String sUid = doc.get(UidFieldMapper.NAME);
@@ -171,7 +296,10 @@ public class FetchPhase implements SearchPhase {
 
     private FieldSelector buildFieldSelectors(SearchContext context) {
         if (context.hasScriptFields() && !context.hasFieldNames()) {
-            // we ask for script fields, and no field names, don't load the source
+            // we ask for script fields, and no field names, don't load the source unless a partial one is asked for
+            if (context.partialSource() != null) {
+                return new UidAndSourceFieldSelector();
+            }
             return UidFieldSelector.INSTANCE;
         }
 
@@ -198,6 +326,9 @@ public class FetchPhase implements SearchPhase {
             fieldSelector.add(x);
         }
         fieldSelector.add(UidFieldMapper.NAME);
+        if (context.partialSource() != null) {
+            fieldSelector.add(SourceFieldMapper.NAME);
+        }
         return fieldSelector;
     }
 }
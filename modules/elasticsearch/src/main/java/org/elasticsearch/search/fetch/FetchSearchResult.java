@@ -40,6 +40,8 @@ public class FetchSearchResult implements Streamable, FetchSearchResultProvider
 
     private InternalSearchHits hits;
 
+    private long fetchTime;
+
     // client side counter
     private transient int counter;
 
@@ -76,6 +78,17 @@ public class FetchSearchResult implements Streamable, FetchSearchResultProvider
         return hits;
     }
 
+    /**
+     * The time it took to fetch the hits on the shard, in nanoseconds.
+     */
+    public long fetchTime() {
+        return fetchTime;
+    }
+
+    public void fetchTime(long fetchTime) {
+        this.fetchTime = fetchTime;
+    }
+
     public FetchSearchResult initCounter() {
         counter = 0;
         return this;
@@ -94,10 +107,12 @@ public class FetchSearchResult implements Streamable, FetchSearchResultProvider
     @Override public void readFrom(StreamInput in) throws IOException {
         id = in.readLong();
         hits = InternalSearchHits.readSearchHits(in, InternalSearchHits.streamContext().streamShardTarget(StreamContext.ShardTargetType.NO_STREAM));
+        fetchTime = in.readVLong();
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
         out.writeLong(id);
         hits.writeTo(out, InternalSearchHits.streamContext().streamShardTarget(StreamContext.ShardTargetType.NO_STREAM));
+        out.writeVLong(fetchTime);
     }
 }
@@ -109,6 +109,13 @@ public class ContextIndexSearcher extends ExtendedIndexSearcher {
         }
     }
 
+    /**
+     * Creates the (rewritten and normalized) weight of the query, allowing to execute it on the sub readers directly.
+     */
+    public Weight weight(Query query) throws IOException {
+        return createWeight(query);
+    }
+
     @Override protected Weight createWeight(Query query) throws IOException {
         if (dfSource == null) {
             return super.createWeight(query);
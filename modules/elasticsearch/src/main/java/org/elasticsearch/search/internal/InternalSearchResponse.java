@@ -19,12 +19,14 @@
 
 package org.elasticsearch.search.internal;
 
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
 import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.SearchTimings;
 import org.elasticsearch.search.facet.Facets;
 import org.elasticsearch.search.facet.InternalFacets;
 
@@ -43,13 +45,20 @@ public class InternalSearchResponse implements Streamable, ToXContent {
 
     private boolean timedOut;
 
+    private SearchTimings timings;
+
     private InternalSearchResponse() {
     }
 
     public InternalSearchResponse(InternalSearchHits hits, InternalFacets facets, boolean timedOut) {
+        this(hits, facets, timedOut, null);
+    }
+
+    public InternalSearchResponse(InternalSearchHits hits, InternalFacets facets, boolean timedOut, @Nullable SearchTimings timings) {
         this.hits = hits;
         this.facets = facets;
         this.timedOut = timedOut;
+        this.timings = timings;
     }
 
     public boolean timedOut() {
@@ -64,11 +73,18 @@ public class InternalSearchResponse implements Streamable, ToXContent {
         return facets;
     }
 
+    @Nullable public SearchTimings timings() {
+        return timings;
+    }
+
     @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         hits.toXContent(builder, params);
         if (facets != null) {
             facets.toXContent(builder, params);
         }
+        if (timings != null) {
+            timings.toXContent(builder, params);
+        }
         return builder;
     }
 
@@ -84,6 +100,9 @@ public class InternalSearchResponse implements Streamable, ToXContent {
             facets = InternalFacets.readFacets(in);
         }
         timedOut = in.readBoolean();
+        if (in.readBoolean()) {
+            timings = SearchTimings.readSearchTimings(in);
+        }
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
@@ -95,5 +114,11 @@ public class InternalSearchResponse implements Streamable, ToXContent {
             facets.writeTo(out);
         }
         out.writeBoolean(timedOut);
+        if (timings == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            timings.writeTo(out);
+        }
     }
 }
@@ -102,6 +102,8 @@ public class SearchContext implements Releasable {
 
     private List<String> fieldNames;
 
+    private String[] partialSource;
+
     private int from = -1;
 
     private int size = -1;
@@ -379,6 +381,18 @@ public class SearchContext implements Releasable {
         this.fieldNames = ImmutableList.of();
     }
 
+    /**
+     * The paths of the source to return with each hit, <tt>null</tt> to return the whole source.
+     */
+    public String[] partialSource() {
+        return partialSource;
+    }
+
+    public SearchContext partialSource(String[] partialSource) {
+        this.partialSource = partialSource;
+        return this;
+    }
+
     public boolean explain() {
         return explain;
     }
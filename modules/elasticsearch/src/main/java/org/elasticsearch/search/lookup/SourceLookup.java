@@ -23,6 +23,7 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.index.IndexReader;
 import org.elasticsearch.ElasticSearchParseException;
+import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.common.compress.lzf.LZFDecoder;
 import org.elasticsearch.common.io.stream.BytesStreamInput;
@@ -31,16 +32,25 @@ import org.elasticsearch.common.io.stream.LZFStreamInput;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.support.XContentMapConverter;
 import org.elasticsearch.index.mapper.SourceFieldMapper;
 import org.elasticsearch.index.mapper.SourceFieldSelector;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
+ * Lazy access to the <tt>_source</tt> of the current document. Accessing a top level field (or values by a path)
+ * streams through the source, building only that field and stopping once it was found, fields already read are
+ * kept for the current document. The whole source is parsed only when it is needed as a whole (for example,
+ * iterating over it).
+ *
  * @author kimchy (shay.banon)
  */
 // TODO: If we are processing it in the per hit fetch phase, we cna initialize it with a source if it was loaded..
@@ -50,8 +60,14 @@ public class SourceLookup implements Map {
 
     private int docId = -1;
 
+    // the uncompressed source of the current doc
+    private byte[] sourceBytes;
+
     private Map<String, Object> source;
 
+    // top level fields read so far from the current doc, when the whole source was not parsed
+    private Map<String, Object> fields;
+
     public Map<String, Object> source() {
         return source;
     }
@@ -62,28 +78,145 @@ public class SourceLookup implements Map {
         }
         XContentParser parser = null;
         try {
-            Document doc = reader.document(docId, SourceFieldSelector.INSTANCE);
-            Fieldable sourceField = doc.getFieldable(SourceFieldMapper.NAME);
-            byte[] source = sourceField.getBinaryValue();
+            byte[] source = loadSourceBytesIfNeeded();
+            parser = XContentFactory.xContent(source).createParser(source);
+            this.source = parser.map();
+            this.fields = null;
+        } catch (Exception e) {
+            throw new ElasticSearchParseException("failed to parse / load source", e);
+        } finally {
+            if (parser != null) {
+                parser.close();
+            }
+        }
+        return this.source;
+    }
+
+    private byte[] loadSourceBytesIfNeeded() throws IOException {
+        if (sourceBytes != null) {
+            return sourceBytes;
+        }
+        Document doc = reader.document(docId, SourceFieldSelector.INSTANCE);
+        Fieldable sourceField = doc.getFieldable(SourceFieldMapper.NAME);
+        byte[] source = sourceField.getBinaryValue();
+        if (LZFDecoder.isCompressed(source)) {
+            source = LZFDecoder.decode(source);
+        }
+        this.sourceBytes = source;
+        return source;
+    }
+
+    /**
+     * Returns the parts of the source of the current doc selected by the given (dot delimited) paths, without
+     * parsing the rest of it.
+     */
+    public Map<String, Object> extractPaths(String... paths) {
+        if (source != null) {
+            return filter(source, paths);
+        }
+        try {
+            return filter(loadSourceBytesIfNeeded(), paths);
+        } catch (IOException e) {
+            throw new ElasticSearchParseException("failed to parse / load source", e);
+        }
+    }
+
+    /**
+     * Returns the parts of the source selected by the given (dot delimited) paths, streaming through the source
+     * and skipping the parts that are not needed.
+     */
+    public static Map<String, Object> filter(byte[] source, String... paths) {
+        XContentParser parser = null;
+        try {
             if (LZFDecoder.isCompressed(source)) {
                 BytesStreamInput siBytes = new BytesStreamInput(source);
                 LZFStreamInput siLzf = CachedStreamInput.cachedLzf(siBytes);
                 XContentType contentType = XContentFactory.xContentType(siLzf);
                 siLzf.resetToBufferStart();
                 parser = XContentFactory.xContent(contentType).createParser(siLzf);
-                this.source = parser.map();
             } else {
                 parser = XContentFactory.xContent(source).createParser(source);
-                this.source = parser.map();
             }
+            return XContentMapConverter.readMap(parser, paths);
         } catch (Exception e) {
-            throw new ElasticSearchParseException("failed to parse / load source", e);
+            throw new ElasticSearchParseException("failed to parse source", e);
         } finally {
             if (parser != null) {
                 parser.close();
             }
         }
-        return this.source;
+    }
+
+    /**
+     * Returns the parts of an already parsed source selected by the given (dot delimited) paths.
+     */
+    @SuppressWarnings({"unchecked"})
+    public static Map<String, Object> filter(Map<String, Object> source, String... paths) {
+        Map<String, Object> filtered = new HashMap<String, Object>();
+        for (String path : paths) {
+            filter(filtered, source, dotPattern.split(path), 0);
+        }
+        return filtered;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private static void filter(Map<String, Object> filtered, Map<String, Object> part, String[] pathElements, int index) {
+        String name = pathElements[index];
+        if (!part.containsKey(name)) {
+            return;
+        }
+        Object value = part.get(name);
+        if (index == pathElements.length - 1) {
+            filtered.put(name, value);
+            return;
+        }
+        Object filteredValue = filtered.get(name);
+        if (value instanceof Map) {
+            if (!(filteredValue instanceof Map)) {
+                filteredValue = new HashMap<String, Object>();
+                filtered.put(name, filteredValue);
+            }
+            filter((Map<String, Object>) filteredValue, (Map<String, Object>) value, pathElements, index + 1);
+        } else if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            if (!(filteredValue instanceof List)) {
+                List<Object> filteredList = new ArrayList<Object>(list.size());
+                for (Object o : list) {
+                    if (o instanceof Map) {
+                        filteredList.add(new HashMap<String, Object>());
+                    }
+                }
+                filteredValue = filteredList;
+                filtered.put(name, filteredValue);
+            }
+            int i = 0;
+            for (Object o : list) {
+                if (o instanceof Map) {
+                    filter((Map<String, Object>) ((List<Object>) filteredValue).get(i++), (Map<String, Object>) o, pathElements, index + 1);
+                }
+            }
+        }
+    }
+
+    private static final Object MISSING = new Object();
+
+    /**
+     * Returns the top level field of the current doc (or {@link #MISSING} if the source does not have it), reading
+     * only that field from the source if it was not parsed as a whole.
+     */
+    private Object field(String name) {
+        if (source != null) {
+            return source.containsKey(name) ? source.get(name) : MISSING;
+        }
+        if (fields == null) {
+            fields = new HashMap<String, Object>();
+        } else if (fields.containsKey(name)) {
+            return fields.get(name);
+        }
+        Map<String, Object> extracted = extractPaths(name);
+        Object value = extracted.containsKey(name) ? extracted.get(name) : MISSING;
+        fields.put(name, value);
+        return value;
     }
 
     public void setNextReader(IndexReader reader) {
@@ -91,7 +224,9 @@ public class SourceLookup implements Map {
             return;
         }
         this.reader = reader;
+        this.sourceBytes = null;
         this.source = null;
+        this.fields = null;
         this.docId = -1;
     }
 
@@ -100,7 +235,9 @@ public class SourceLookup implements Map {
             return;
         }
         this.docId = docId;
+        this.sourceBytes = null;
         this.source = null;
+        this.fields = null;
     }
 
     private final static Pattern dotPattern = Pattern.compile("\\.");
@@ -112,7 +249,10 @@ public class SourceLookup implements Map {
     public List<Object> getValues(String path) {
         List<Object> values = Lists.newArrayList();
         String[] pathElements = dotPattern.split(path);
-        getValues(values, loadSourceIfNeeded(), pathElements, 0);
+        Object rootValue = field(pathElements[0]);
+        if (rootValue != MISSING && rootValue != null) {
+            getValues(values, ImmutableMap.of(pathElements[0], rootValue), pathElements, 0);
+        }
         return values;
     }
 
@@ -152,7 +292,8 @@ public class SourceLookup implements Map {
     }
 
     @Override public Object get(Object key) {
-        return loadSourceIfNeeded().get(key);
+        Object value = field((String) key);
+        return value == MISSING ? null : value;
     }
 
     @Override public int size() {
@@ -164,7 +305,7 @@ public class SourceLookup implements Map {
     }
 
     @Override public boolean containsKey(Object key) {
-        return loadSourceIfNeeded().containsKey(key);
+        return field((String) key) != MISSING;
     }
 
     @Override public boolean containsValue(Object value) {
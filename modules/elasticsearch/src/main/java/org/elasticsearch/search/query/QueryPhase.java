@@ -19,32 +19,71 @@
 
 package org.elasticsearch.search.query;
 
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.*;
+import org.apache.lucene.util.PriorityQueue;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.collect.ImmutableMap;
+import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lucene.MultiCollector;
+import org.elasticsearch.common.lucene.search.FilteredCollector;
 import org.elasticsearch.common.lucene.search.function.BoostScoreFunction;
 import org.elasticsearch.common.lucene.search.function.FunctionScoreQuery;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.DynamicExecutors;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.index.query.ParsedQuery;
 import org.elasticsearch.search.SearchParseElement;
 import org.elasticsearch.search.SearchParseException;
 import org.elasticsearch.search.SearchPhase;
+import org.elasticsearch.search.controller.ScoreDocQueue;
+import org.elasticsearch.search.facet.FacetCollector;
 import org.elasticsearch.search.facet.FacetPhase;
 import org.elasticsearch.search.internal.ContextIndexSearcher;
 import org.elasticsearch.search.internal.ScopePhase;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.sort.SortParseElement;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * @author kimchy (Shay Banon)
  */
-public class QueryPhase implements SearchPhase {
+public class QueryPhase extends AbstractComponent implements SearchPhase {
 
     private final FacetPhase facetPhase;
 
-    @Inject public QueryPhase(FacetPhase facetPhase) {
+    private final int concurrency;
+
+    private final ExecutorService executor;
+
+    @Inject public QueryPhase(Settings settings, FacetPhase facetPhase) {
+        super(settings);
         this.facetPhase = facetPhase;
+        // the number of slices the segments of a shard are split into and searched concurrently, 1 disables it
+        this.concurrency = componentSettings.getAsInt("concurrency", 1);
+        if (concurrency > 1) {
+            int poolSize = componentSettings.getAsInt("pool_size", Runtime.getRuntime().availableProcessors());
+            this.executor = DynamicExecutors.newScalingThreadPool(1, poolSize, TimeValue.timeValueMinutes(5).millis(), EsExecutors.daemonThreadFactory(settings, "search_query"));
+            logger.debug("using concurrency [{}], pool_size [{}]", concurrency, poolSize);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
     }
 
     @Override public Map<String, ? extends SearchParseElement> parseElements() {
@@ -76,6 +115,7 @@ public class QueryPhase implements SearchPhase {
     }
 
     public void execute(SearchContext searchContext) throws QueryPhaseExecutionException {
+        long start = System.nanoTime();
         // set the filter on the searcher
         if (searchContext.parsedQuery().scopePhases().length > 0) {
             // we have scoped queries, refresh the id cache
@@ -181,7 +221,9 @@ public class QueryPhase implements SearchPhase {
                 }
             }
 
-            if (sort) {
+            if (concurrentSearch(searchContext)) {
+                topDocs = concurrentSearch(searchContext, query, numDocs, sort ? searchContext.sort() : null);
+            } else if (sort) {
                 topDocs = searchContext.searcher().search(query, null, numDocs, searchContext.sort());
             } else {
                 topDocs = searchContext.searcher().search(query, numDocs);
@@ -194,5 +236,213 @@ public class QueryPhase implements SearchPhase {
         }
 
         facetPhase.execute(searchContext);
+        searchContext.queryResult().queryTime(System.nanoTime() - start);
+    }
+
+    /**
+     * Should the main query be executed concurrently on slices of the shard segments. Facets of the main scope are
+     * collected per slice and reduced, unless one of their processors can't slice them.
+     */
+    private boolean concurrentSearch(SearchContext context) {
+        if (executor == null || context.searcher().subReaders().length <= 1) {
+            return false;
+        }
+        return !context.searcher().hasCollectors(ContextIndexSearcher.Scopes.MAIN) || (context.facets() != null && context.facets().sliceable());
+    }
+
+    /**
+     * Splits the segments into (up to) <tt>concurrency</tt> slices of similar number of docs, collects the top docs (and
+     * main scope facets) of each slice on the executor (the first one on the calling thread), and merges them.
+     */
+    private TopDocs concurrentSearch(final SearchContext context, Query query, final int numDocs, @Nullable final Sort sort) throws Exception {
+        final IndexReader[] subReaders = context.searcher().subReaders();
+        final int[] docStarts = context.searcher().docStarts();
+        final Weight weight = context.searcher().weight(query);
+
+        List<int[]> slices = slices(subReaders, concurrency);
+        // the first slice uses the main scope facet collectors, the others get their own (parsed here, since parsing uses the context)
+        List<FacetCollector> mainFacetCollectors = facetPhase.mainCollectors(context);
+        List<List<FacetCollector>> sliceFacetCollectors = new ArrayList<List<FacetCollector>>(slices.size() - 1);
+        for (int i = 1; i < slices.size(); i++) {
+            sliceFacetCollectors.add(mainFacetCollectors.isEmpty() ? mainFacetCollectors : facetPhase.sliceCollectors(context));
+        }
+        List<Future<SliceResult>> futures = new ArrayList<Future<SliceResult>>(slices.size() - 1);
+        for (int i = 1; i < slices.size(); i++) {
+            final int[] slice = slices.get(i);
+            final List<FacetCollector> facetCollectors = sliceFacetCollectors.get(i - 1);
+            futures.add(executor.submit(new Callable<SliceResult>() {
+                @Override public SliceResult call() throws Exception {
+                    return searchSlice(context, weight, subReaders, docStarts, slice, numDocs, sort, facetCollectors);
+                }
+            }));
+        }
+        List<SliceResult> results = new ArrayList<SliceResult>(slices.size());
+        try {
+            results.add(searchSlice(context, weight, subReaders, docStarts, slices.get(0), numDocs, sort, mainFacetCollectors));
+        } finally {
+            // wait for all of them, even on failure, so the slices don't keep using the searcher once we are done
+            Exception failure = null;
+            for (Future<SliceResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        for (List<FacetCollector> facetCollectors : sliceFacetCollectors) {
+            for (int i = 0; i < facetCollectors.size(); i++) {
+                context.facets().addSliceFacetCollector(mainFacetCollectors.get(i), facetCollectors.get(i));
+            }
+        }
+
+        boolean timedOut = false;
+        for (SliceResult result : results) {
+            timedOut |= result.timedOut;
+        }
+        if (context.timeout() != null) {
+            context.queryResult().searchTimedOut(timedOut);
+        }
+        return merge(results, numDocs, sort);
+    }
+
+    private SliceResult searchSlice(SearchContext context, Weight weight, IndexReader[] subReaders, int[] docStarts, int[] slice,
+                                    int numDocs, @Nullable Sort sort, List<FacetCollector> facetCollectors) throws IOException {
+        TopDocsCollector<?> topDocsCollector;
+        if (sort != null) {
+            topDocsCollector = TopFieldCollector.create(sort, numDocs, true, false, false, !weight.scoresDocsOutOfOrder());
+        } else {
+            topDocsCollector = TopScoreDocCollector.create(numDocs, !weight.scoresDocsOutOfOrder());
+        }
+        // same wrapping as ContextIndexSearcher#search, per slice since collectors are not thread safe
+        Collector collector = topDocsCollector;
+        if (context.parsedFilter() != null) {
+            collector = new FilteredCollector(collector, context.parsedFilter());
+        }
+        if (context.timeout() != null) {
+            collector = new TimeLimitingCollector(collector, context.timeout().millis());
+        }
+        if (!facetCollectors.isEmpty()) {
+            collector = new MultiCollector(collector, facetCollectors.toArray(new Collector[facetCollectors.size()]));
+        }
+        boolean timedOut = false;
+        try {
+            for (int i = slice[0]; i < slice[1]; i++) {
+                collector.setNextReader(subReaders[i], docStarts[i]);
+                Scorer scorer = weight.scorer(subReaders[i], !collector.acceptsDocsOutOfOrder(), true);
+                if (scorer != null) {
+                    scorer.score(collector);
+                }
+            }
+        } catch (TimeLimitingCollector.TimeExceededException e) {
+            timedOut = true;
+        }
+        return new SliceResult(topDocsCollector.topDocs(), timedOut);
+    }
+
+    private TopDocs merge(List<SliceResult> results, int numDocs, @Nullable Sort sort) {
+        int totalHits = 0;
+        float maxScore = Float.NEGATIVE_INFINITY;
+        for (SliceResult result : results) {
+            totalHits += result.topDocs.totalHits;
+            if (!Float.isNaN(result.topDocs.getMaxScore())) {
+                maxScore = Math.max(maxScore, result.topDocs.getMaxScore());
+            }
+        }
+        if (maxScore == Float.NEGATIVE_INFINITY) {
+            maxScore = Float.NaN;
+        }
+
+        if (sort == null) {
+            ScoreDocQueue queue = new ScoreDocQueue(numDocs);
+            for (SliceResult result : results) {
+                for (ScoreDoc scoreDoc : result.topDocs.scoreDocs) {
+                    if (queue.insertWithOverflow(scoreDoc) == scoreDoc) {
+                        // the slice docs are sorted, the rest won't be competitive
+                        break;
+                    }
+                }
+            }
+            ScoreDoc[] scoreDocs = new ScoreDoc[queue.size()];
+            for (int i = scoreDocs.length - 1; i >= 0; i--) {
+                scoreDocs[i] = queue.pop();
+            }
+            return new TopDocs(totalHits, scoreDocs, maxScore);
+        }
+
+        SortField[] fields = ((TopFieldDocs) results.get(0).topDocs).fields;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].getType() != SortField.CUSTOM) {
+                continue;
+            }
+            // our custom string sorting might return null values, which the queue handles only for STRING sort fields
+            for (SliceResult result : results) {
+                boolean resolved = false;
+                for (ScoreDoc doc : result.topDocs.scoreDocs) {
+                    Object value = ((FieldDoc) doc).fields[i];
+                    if (value != null) {
+                        if (value instanceof String) {
+                            fields[i] = new SortField(fields[i].getField(), SortField.STRING, fields[i].getReverse());
+                        }
+                        resolved = true;
+                        break;
+                    }
+                }
+                if (resolved) {
+                    break;
+                }
+            }
+        }
+        PriorityQueue queue = new ShardFieldDocSortedHitQueue(fields, numDocs);
+        for (SliceResult result : results) {
+            for (ScoreDoc scoreDoc : result.topDocs.scoreDocs) {
+                if (queue.insertWithOverflow(scoreDoc) == scoreDoc) {
+                    break;
+                }
+            }
+        }
+        ScoreDoc[] scoreDocs = new ScoreDoc[queue.size()];
+        for (int i = scoreDocs.length - 1; i >= 0; i--) {
+            scoreDocs[i] = (ScoreDoc) queue.pop();
+        }
+        return new TopFieldDocs(totalHits, scoreDocs, ((TopFieldDocs) results.get(0).topDocs).fields, maxScore);
+    }
+
+    /**
+     * Splits the readers into consecutive slices (from inclusive, to exclusive) with similar number of docs.
+     */
+    static List<int[]> slices(IndexReader[] subReaders, int concurrency) {
+        long totalDocs = 0;
+        for (IndexReader subReader : subReaders) {
+            totalDocs += subReader.maxDoc();
+        }
+        int numberOfSlices = Math.min(concurrency, subReaders.length);
+        long docsPerSlice = (totalDocs / numberOfSlices) + 1;
+        List<int[]> slices = new ArrayList<int[]>(numberOfSlices);
+        int from = 0;
+        long sliceDocs = 0;
+        for (int i = 0; i < subReaders.length; i++) {
+            sliceDocs += subReaders[i].maxDoc();
+            if (sliceDocs >= docsPerSlice || i == subReaders.length - 1) {
+                slices.add(new int[]{from, i + 1});
+                from = i + 1;
+                sliceDocs = 0;
+            }
+        }
+        return slices;
+    }
+
+    static class SliceResult {
+        final TopDocs topDocs;
+        final boolean timedOut;
+
+        SliceResult(TopDocs topDocs, boolean timedOut) {
+            this.topDocs = topDocs;
+            this.timedOut = timedOut;
+        }
     }
 }
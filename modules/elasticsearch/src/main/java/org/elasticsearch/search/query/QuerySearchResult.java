@@ -50,6 +50,8 @@ public class QuerySearchResult implements Streamable, QuerySearchResultProvider
 
     private boolean searchTimedOut;
 
+    private long queryTime;
+
     public QuerySearchResult() {
 
     }
@@ -87,6 +89,17 @@ public class QuerySearchResult implements Streamable, QuerySearchResultProvider
         return searchTimedOut;
     }
 
+    /**
+     * The time it took to execute the query (and facets) on the shard, in nanoseconds.
+     */
+    public long queryTime() {
+        return queryTime;
+    }
+
+    public void queryTime(long queryTime) {
+        this.queryTime = queryTime;
+    }
+
     public TopDocs topDocs() {
         return topDocs;
     }
@@ -137,6 +150,7 @@ public class QuerySearchResult implements Streamable, QuerySearchResultProvider
             facets = InternalFacets.readFacets(in);
         }
         searchTimedOut = in.readBoolean();
+        queryTime = in.readVLong();
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
@@ -152,5 +166,6 @@ public class QuerySearchResult implements Streamable, QuerySearchResultProvider
             facets.writeTo(out);
         }
         out.writeBoolean(searchTimedOut);
+        out.writeVLong(queryTime);
     }
 }
@@ -31,6 +31,31 @@ import java.util.concurrent.TimeUnit;
  */
 public interface ThreadPool extends Executor {
 
+    /**
+     * The names of the thread pools an operation can be executed on using {@link #executor(String)}.
+     */
+    static class Names {
+        /**
+         * The main executor of the thread pool, also used by {@link #execute(Runnable)}.
+         */
+        public static final String GENERIC = "generic";
+        /**
+         * See {@link #cached()}.
+         */
+        public static final String CACHED = "cached";
+        public static final String SEARCH = "search";
+        /**
+         * Loads the documents of a fetch concurrently, see <tt>search.fetch.concurrency</tt>.
+         */
+        public static final String FETCH = "fetch";
+        public static final String INDEX = "index";
+        public static final String BULK = "bulk";
+        public static final String GET = "get";
+        public static final String PERCOLATE = "percolate";
+        public static final String MANAGEMENT = "management";
+        public static final String SNAPSHOT = "snapshot";
+    }
+
     ThreadPoolInfo info();
 
     ThreadPoolStats stats();
@@ -86,6 +111,12 @@ public interface ThreadPool extends Executor {
      */
     Executor cached();
 
+    /**
+     * Returns the executor of the provided thread pool name, see {@link Names}. Apart from the generic
+     * and cached ones, each executor has its own number of threads and bounded queue.
+     */
+    Executor executor(String name);
+
     void shutdownNow();
 
     /**
@@ -43,14 +43,17 @@ public class ThreadPoolStats implements Streamable, Serializable, ToXContent {
 
     private int schedulerActiveCount;
 
+    private Stats[] executors;
+
     ThreadPoolStats() {
     }
 
-    public ThreadPoolStats(int poolSize, int activeCount, int schedulerPoolSize, int schedulerActiveCount) {
+    public ThreadPoolStats(int poolSize, int activeCount, int schedulerPoolSize, int schedulerActiveCount, Stats[] executors) {
         this.poolSize = poolSize;
         this.activeCount = activeCount;
         this.schedulerPoolSize = schedulerPoolSize;
         this.schedulerActiveCount = schedulerActiveCount;
+        this.executors = executors;
     }
 
     public static ThreadPoolStats readThreadPoolStats(StreamInput in) throws IOException {
@@ -64,6 +67,10 @@ public class ThreadPoolStats implements Streamable, Serializable, ToXContent {
         activeCount = in.readVInt();
         schedulerPoolSize = in.readVInt();
         schedulerActiveCount = in.readVInt();
+        executors = new Stats[in.readVInt()];
+        for (int i = 0; i < executors.length; i++) {
+            executors[i] = Stats.readStats(in);
+        }
     }
 
     @Override public void writeTo(StreamOutput out) throws IOException {
@@ -71,6 +78,10 @@ public class ThreadPoolStats implements Streamable, Serializable, ToXContent {
         out.writeVInt(activeCount);
         out.writeVInt(schedulerPoolSize);
         out.writeVInt(schedulerActiveCount);
+        out.writeVInt(executors.length);
+        for (Stats stats : executors) {
+            stats.writeTo(out);
+        }
     }
 
     @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
@@ -79,6 +90,11 @@ public class ThreadPoolStats implements Streamable, Serializable, ToXContent {
         builder.field("active_count", activeCount);
         builder.field("scheduler_pool_size", schedulerPoolSize);
         builder.field("scheduler_active_count", schedulerActiveCount);
+        builder.startObject("executors");
+        for (Stats stats : executors) {
+            stats.toXContent(builder, params);
+        }
+        builder.endObject();
         builder.endObject();
         return builder;
     }
@@ -150,4 +166,161 @@ public class ThreadPoolStats implements Streamable, Serializable, ToXContent {
     public int getSchedulerActiveCount() {
         return schedulerActiveCount();
     }
+
+    /**
+     * The stats of the named executors, see {@link ThreadPool.Names}.
+     */
+    public Stats[] executors() {
+        return executors;
+    }
+
+    /**
+     * The stats of the named executors, see {@link ThreadPool.Names}.
+     */
+    public Stats[] getExecutors() {
+        return executors();
+    }
+
+    /**
+     * The stats of a single named executor.
+     */
+    public static class Stats implements Streamable, Serializable, ToXContent {
+
+        private String name;
+
+        private int threads;
+
+        private int queue;
+
+        private int active;
+
+        private long rejected;
+
+        private long completed;
+
+        Stats() {
+        }
+
+        public Stats(String name, int threads, int queue, int active, long rejected, long completed) {
+            this.name = name;
+            this.threads = threads;
+            this.queue = queue;
+            this.active = active;
+            this.rejected = rejected;
+            this.completed = completed;
+        }
+
+        public static Stats readStats(StreamInput in) throws IOException {
+            Stats stats = new Stats();
+            stats.readFrom(in);
+            return stats;
+        }
+
+        @Override public void readFrom(StreamInput in) throws IOException {
+            name = in.readUTF();
+            threads = in.readVInt();
+            queue = in.readVInt();
+            active = in.readVInt();
+            rejected = in.readVLong();
+            completed = in.readVLong();
+        }
+
+        @Override public void writeTo(StreamOutput out) throws IOException {
+            out.writeUTF(name);
+            out.writeVInt(threads);
+            out.writeVInt(queue);
+            out.writeVInt(active);
+            out.writeVLong(rejected);
+            out.writeVLong(completed);
+        }
+
+        @Override public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject(name);
+            builder.field("threads", threads);
+            builder.field("queue", queue);
+            builder.field("active", active);
+            builder.field("rejected", rejected);
+            builder.field("completed", completed);
+            builder.endObject();
+            return builder;
+        }
+
+        public String name() {
+            return this.name;
+        }
+
+        public String getName() {
+            return name();
+        }
+
+        /**
+         * The current number of threads of the executor.
+         */
+        public int threads() {
+            return this.threads;
+        }
+
+        /**
+         * The current number of threads of the executor.
+         */
+        public int getThreads() {
+            return threads();
+        }
+
+        /**
+         * The number of tasks waiting in the queue of the executor.
+         */
+        public int queue() {
+            return this.queue;
+        }
+
+        /**
+         * The number of tasks waiting in the queue of the executor.
+         */
+        public int getQueue() {
+            return queue();
+        }
+
+        /**
+         * The approximate number of threads actively executing tasks.
+         */
+        public int active() {
+            return this.active;
+        }
+
+        /**
+         * The approximate number of threads actively executing tasks.
+         */
+        public int getActive() {
+            return active();
+        }
+
+        /**
+         * The number of tasks rejected by the executor, either failed or executed on the calling thread.
+         */
+        public long rejected() {
+            return this.rejected;
+        }
+
+        /**
+         * The number of tasks rejected by the executor, either failed or executed on the calling thread.
+         */
+        public long getRejected() {
+            return rejected();
+        }
+
+        /**
+         * The approximate number of tasks completed by the executor.
+         */
+        public long completed() {
+            return this.completed;
+        }
+
+        /**
+         * The approximate number of tasks completed by the executor.
+         */
+        public long getCompleted() {
+            return completed();
+        }
+    }
 }
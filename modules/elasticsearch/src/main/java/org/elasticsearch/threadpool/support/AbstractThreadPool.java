@@ -19,9 +19,12 @@
 
 package org.elasticsearch.threadpool.support;
 
+import org.elasticsearch.ElasticSearchIllegalArgumentException;
+import org.elasticsearch.common.collect.ImmutableMap;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.threadpool.FutureListener;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.threadpool.ThreadPoolInfo;
@@ -29,6 +32,8 @@ import org.elasticsearch.threadpool.ThreadPoolStats;
 
 import java.util.concurrent.*;
 
+import static org.elasticsearch.common.unit.TimeValue.*;
+
 /**
  * @author kimchy (shay.banon)
  */
@@ -42,8 +47,32 @@ public abstract class AbstractThreadPool extends AbstractComponent implements Th
 
     protected ExecutorService cached;
 
+    private final ImmutableMap<String, NamedThreadPoolExecutor> executors;
+
     protected AbstractThreadPool(Settings settings) {
         super(settings);
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.executors = ImmutableMap.<String, NamedThreadPoolExecutor>builder()
+                .put(Names.SEARCH, newExecutor(Names.SEARCH, processors * 3, 1000, "abort"))
+                // the search threads wait for the ranges they hand off, so run them on the caller once saturated
+                .put(Names.FETCH, newExecutor(Names.FETCH, processors, 1000, "caller"))
+                .put(Names.INDEX, newExecutor(Names.INDEX, processors, 200, "abort"))
+                .put(Names.BULK, newExecutor(Names.BULK, processors, 50, "abort"))
+                .put(Names.GET, newExecutor(Names.GET, processors, 1000, "abort"))
+                .put(Names.PERCOLATE, newExecutor(Names.PERCOLATE, processors, 1000, "abort"))
+                .put(Names.MANAGEMENT, newExecutor(Names.MANAGEMENT, 5, -1, "abort"))
+                .put(Names.SNAPSHOT, newExecutor(Names.SNAPSHOT, Math.max(1, processors / 2), -1, "abort"))
+                .build();
+    }
+
+    private NamedThreadPoolExecutor newExecutor(String name, int defaultSize, int defaultQueueSize, String defaultRejectPolicy) {
+        Settings executorSettings = settings.getComponentSettings(ThreadPool.class).getByPrefix(name + ".");
+        int size = executorSettings.getAsInt("size", defaultSize);
+        int queueSize = executorSettings.getAsInt("queue_size", defaultQueueSize);
+        String rejectPolicy = executorSettings.get("reject_policy", defaultRejectPolicy);
+        TimeValue keepAlive = executorSettings.getAsTime("keep_alive", timeValueMinutes(5));
+        logger.debug("creating [{}] executor with size[{}], queue_size[{}], reject_policy[{}], keep_alive[{}]", name, size, queueSize, rejectPolicy, keepAlive);
+        return new NamedThreadPoolExecutor(name, size, queueSize, rejectPolicy, keepAlive, EsExecutors.daemonThreadFactory(settings, "[" + name + "]"));
     }
 
     public abstract String getType();
@@ -53,7 +82,12 @@ public abstract class AbstractThreadPool extends AbstractComponent implements Th
     }
 
     @Override public ThreadPoolStats stats() {
-        return new ThreadPoolStats(getPoolSize(), getActiveCount(), getSchedulerPoolSize(), getSchedulerActiveCount());
+        ThreadPoolStats.Stats[] executorsStats = new ThreadPoolStats.Stats[executors.size()];
+        int i = 0;
+        for (NamedThreadPoolExecutor executor : executors.values()) {
+            executorsStats[i++] = executor.stats();
+        }
+        return new ThreadPoolStats(getPoolSize(), getActiveCount(), getSchedulerPoolSize(), getSchedulerActiveCount(), executorsStats);
     }
 
     @Override public boolean isStarted() {
@@ -64,6 +98,20 @@ public abstract class AbstractThreadPool extends AbstractComponent implements Th
         return cached;
     }
 
+    @Override public Executor executor(String name) {
+        if (Names.GENERIC.equals(name)) {
+            return executorService;
+        }
+        if (Names.CACHED.equals(name)) {
+            return cached;
+        }
+        Executor executor = executors.get(name);
+        if (executor == null) {
+            throw new ElasticSearchIllegalArgumentException("no executor found for [" + name + "]");
+        }
+        return executor;
+    }
+
     @Override public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
         return scheduledExecutorService.schedule(command, delay, unit);
     }
@@ -90,6 +138,9 @@ public abstract class AbstractThreadPool extends AbstractComponent implements Th
         executorService.shutdown();
         scheduledExecutorService.shutdown();
         cached.shutdown();
+        for (NamedThreadPoolExecutor executor : executors.values()) {
+            executor.shutdown();
+        }
     }
 
     @Override public void shutdownNow() {
@@ -105,6 +156,11 @@ public abstract class AbstractThreadPool extends AbstractComponent implements Th
                 cached.shutdownNow();
             }
         }
+        for (NamedThreadPoolExecutor executor : executors.values()) {
+            if (!executor.isTerminated()) {
+                executor.shutdownNow();
+            }
+        }
     }
 
     @Override public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
@@ -113,6 +169,9 @@ public abstract class AbstractThreadPool extends AbstractComponent implements Th
             result &= cached.awaitTermination(timeout, unit);
         }
         result &= scheduledExecutorService.awaitTermination(timeout, unit);
+        for (NamedThreadPoolExecutor executor : executors.values()) {
+            result &= executor.awaitTermination(timeout, unit);
+        }
         return result;
     }
 
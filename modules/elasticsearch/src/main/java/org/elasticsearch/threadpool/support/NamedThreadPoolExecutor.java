@@ -0,0 +1,116 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.threadpool.support;
+
+import org.elasticsearch.ElasticSearchIllegalArgumentException;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.ThreadPoolStats;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size executor of a named thread pool (see {@link org.elasticsearch.threadpool.ThreadPool.Names}), with an
+ * optionally bounded queue. Once the queue is full, tasks are either rejected (the <tt>abort</tt> reject policy) or
+ * executed on the calling thread (the <tt>caller</tt> reject policy), both counted as rejected.
+ *
+ * @author kimchy (shay.banon)
+ */
+public class NamedThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private final String name;
+
+    private final int queueSize;
+
+    private final String rejectPolicy;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param queueSize    the capacity of the queue, <tt>-1</tt> for an unbounded queue
+     * @param rejectPolicy either <tt>abort</tt> or <tt>caller</tt>
+     */
+    public NamedThreadPoolExecutor(String name, int size, int queueSize, String rejectPolicy, TimeValue keepAlive, ThreadFactory threadFactory) {
+        super(size, size, keepAlive.millis(), TimeUnit.MILLISECONDS,
+                queueSize <= 0 ? new LinkedBlockingQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(queueSize),
+                threadFactory, rejectedExecutionHandler(name, rejectPolicy));
+        this.name = name;
+        this.queueSize = queueSize <= 0 ? -1 : queueSize;
+        this.rejectPolicy = rejectPolicy;
+        allowCoreThreadTimeOut(true);
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * The capacity of the queue, <tt>-1</tt> if it is unbounded.
+     */
+    public int queueSize() {
+        return this.queueSize;
+    }
+
+    public String rejectPolicy() {
+        return this.rejectPolicy;
+    }
+
+    /**
+     * The number of tasks the executor did not accept since it was created.
+     */
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    public ThreadPoolStats.Stats stats() {
+        return new ThreadPoolStats.Stats(name, getPoolSize(), getQueue().size(), getActiveCount(), rejected.get(), getCompletedTaskCount());
+    }
+
+    private static RejectedExecutionHandler rejectedExecutionHandler(String name, String rejectPolicy) {
+        if ("abort".equals(rejectPolicy)) {
+            return new RejectedHandler(false);
+        } else if ("caller".equals(rejectPolicy)) {
+            return new RejectedHandler(true);
+        }
+        throw new ElasticSearchIllegalArgumentException("reject_policy [" + rejectPolicy + "] is not valid for the [" + name + "] thread pool, should be either [abort] or [caller]");
+    }
+
+    private static class RejectedHandler implements RejectedExecutionHandler {
+
+        private final boolean callerRuns;
+
+        private RejectedHandler(boolean callerRuns) {
+            this.callerRuns = callerRuns;
+        }
+
+        @Override public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            NamedThreadPoolExecutor namedExecutor = (NamedThreadPoolExecutor) executor;
+            namedExecutor.rejected.incrementAndGet();
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("[" + namedExecutor.name + "] thread pool is shut down");
+            }
+            if (callerRuns) {
+                r.run();
+                return;
+            }
+            throw new RejectedExecutionException("rejected execution on [" + namedExecutor.name + "] thread pool, queue capacity [" + namedExecutor.queueSize + "] reached");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.transport;
+
+/**
+ * An exception indicating that a request was rejected because the executor of its action
+ * could not accept any more work (its queue is full).
+ *
+ * @author kimchy (shay.banon)
+ */
+public class ActionRejectedTransportException extends TransportException {
+
+    private final String action;
+
+    private final String executor;
+
+    public ActionRejectedTransportException(String action, String executor) {
+        super("Rejected execution of action [" + action + "] on executor [" + executor + "]");
+        this.action = action;
+        this.executor = executor;
+    }
+
+    public String action() {
+        return this.action;
+    }
+
+    public String executor() {
+        return this.executor;
+    }
+}
@@ -20,9 +20,10 @@
 package org.elasticsearch.transport;
 
 import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.threadpool.ThreadPool;
 
 /**
- * A simple based class that always spawns.
+ * A simple based class that always spawns, on the generic executor by default.
  *
  * @author kimchy (Shay Banon)
  */
@@ -31,4 +32,8 @@ public abstract class BaseTransportRequestHandler<T extends Streamable> implemen
     @Override public boolean spawn() {
         return true;
     }
+
+    @Override public String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
 }
\ No newline at end of file
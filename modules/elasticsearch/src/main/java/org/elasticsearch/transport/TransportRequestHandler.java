@@ -31,4 +31,10 @@ public interface TransportRequestHandler<T extends Streamable> {
     void messageReceived(T request, TransportChannel channel) throws Exception;
 
     boolean spawn();
+
+    /**
+     * The executor (see {@link org.elasticsearch.threadpool.ThreadPool.Names}) the request is handled on
+     * when {@link #spawn()} is <tt>true</tt>.
+     */
+    String executor();
 }
@@ -38,6 +38,7 @@ import org.elasticsearch.transport.support.TransportStreams;
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.elasticsearch.common.util.concurrent.ConcurrentCollections.*;
@@ -211,7 +212,31 @@ public class LocalTransport extends AbstractLifecycleComponent<Transport> implem
             }
             final Streamable streamable = handler.newInstance();
             streamable.readFrom(stream);
-            handler.messageReceived(streamable, transportChannel);
+            if (handler.spawn() && !ThreadPool.Names.GENERIC.equals(handler.executor())) {
+                // we are already on the generic executor, only move over if the handler uses a dedicated one
+                try {
+                    threadPool.executor(handler.executor()).execute(new Runnable() {
+                        @SuppressWarnings({"unchecked"}) @Override public void run() {
+                            try {
+                                handler.messageReceived(streamable, transportChannel);
+                            } catch (Throwable e) {
+                                try {
+                                    transportChannel.sendResponse(e);
+                                } catch (IOException e1) {
+                                    logger.warn("Failed to send error message back to client for action [" + action + "]", e1);
+                                    logger.warn("Actual Exception", e);
+                                }
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // the executor is overloaded, reject the request instead of running it on the network thread
+                    transportChannel.sendResponse(new ActionRejectedTransportException(action, handler.executor()));
+                }
+            } else {
+                //noinspection unchecked
+                handler.messageReceived(streamable, transportChannel);
+            }
         } catch (Exception e) {
             try {
                 transportChannel.sendResponse(e);
@@ -32,6 +32,7 @@ import org.elasticsearch.transport.*;
 import org.elasticsearch.transport.support.TransportStreams;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author kimchy (shay.banon)
@@ -189,20 +190,25 @@ public class MessageChannelHandler extends SimpleChannelUpstreamHandler {
             final Streamable streamable = handler.newInstance();
             streamable.readFrom(buffer);
             if (handler.spawn()) {
-                threadPool.execute(new Runnable() {
-                    @SuppressWarnings({"unchecked"}) @Override public void run() {
-                        try {
-                            handler.messageReceived(streamable, transportChannel);
-                        } catch (Throwable e) {
+                try {
+                    threadPool.executor(handler.executor()).execute(new Runnable() {
+                        @SuppressWarnings({"unchecked"}) @Override public void run() {
                             try {
-                                transportChannel.sendResponse(e);
-                            } catch (IOException e1) {
-                                logger.warn("Failed to send error message back to client for action [" + action + "]", e1);
-                                logger.warn("Actual Exception", e);
+                                handler.messageReceived(streamable, transportChannel);
+                            } catch (Throwable e) {
+                                try {
+                                    transportChannel.sendResponse(e);
+                                } catch (IOException e1) {
+                                    logger.warn("Failed to send error message back to client for action [" + action + "]", e1);
+                                    logger.warn("Actual Exception", e);
+                                }
                             }
                         }
-                    }
-                });
+                    });
+                } catch (RejectedExecutionException e) {
+                    // the executor is overloaded, reject the request instead of running it on the network thread
+                    transportChannel.sendResponse(new ActionRejectedTransportException(action, handler.executor()));
+                }
             } else {
                 //noinspection unchecked
                 handler.messageReceived(streamable, transportChannel);
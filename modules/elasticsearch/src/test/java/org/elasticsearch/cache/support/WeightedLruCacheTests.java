@@ -0,0 +1,200 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cache.support;
+
+import org.elasticsearch.common.collect.Lists;
+import org.elasticsearch.common.settings.Settings;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class WeightedLruCacheTests {
+
+    private static final WeightedLruCache.Weigher<Long> WEIGHER = new WeightedLruCache.Weigher<Long>() {
+        @Override public long weight(Long value) {
+            return value;
+        }
+    };
+
+    @Test public void testSizeBoundedEviction() {
+        final List<String> evicted = Lists.newArrayList();
+        WeightedLruCache<String, Long> cache = new WeightedLruCache<String, Long>(settingsBuilder().put("max_size", 10).build(), "10%", WEIGHER,
+                new WeightedLruCache.EvictionListener<String, Long>() {
+                    @Override public void onEviction(String key, Long value) {
+                        evicted.add(key);
+                    }
+                });
+        assertThat(cache.maxSize().bytes(), equalTo(10l));
+
+        cache.put("a", 6l);
+        assertThat(cache.get("a"), equalTo(6l));
+        assertThat(cache.weight(), equalTo(6l));
+
+        // can't hold both
+        cache.put("b", 6l);
+        assertThat(cache.get("a"), nullValue());
+        assertThat(cache.get("b"), equalTo(6l));
+        assertThat(cache.weight(), equalTo(6l));
+        assertThat(evicted, equalTo(Arrays.asList("a")));
+
+        // replacing an entry replaces its weight
+        cache.put("b", 4l);
+        assertThat(cache.weight(), equalTo(4l));
+        assertThat(evicted, equalTo(Arrays.asList("a")));
+
+        cache.clear();
+        assertThat(cache.get("b"), nullValue());
+        assertThat(cache.weight(), equalTo(0l));
+    }
+
+    @Test public void testLeastRecentlyUsedEvictedFirst() {
+        final List<String> evicted = Lists.newArrayList();
+        WeightedLruCache<String, Long> cache = new WeightedLruCache<String, Long>(settingsBuilder().put("max_size", 10).build(), "10%", WEIGHER,
+                new WeightedLruCache.EvictionListener<String, Long>() {
+                    @Override public void onEviction(String key, Long value) {
+                        evicted.add(key);
+                    }
+                });
+
+        // can hold two of them
+        cache.put("a", 4l);
+        cache.put("b", 4l);
+        // access a, so b is the least recently used one, whatever segments they are in
+        assertThat(cache.get("a"), notNullValue());
+        cache.put("c", 4l);
+
+        assertThat(cache.get("a"), notNullValue());
+        assertThat(cache.get("b"), nullValue());
+        assertThat(cache.get("c"), notNullValue());
+        assertThat(evicted, equalTo(Arrays.asList("b")));
+    }
+
+    @Test public void testValueLargerThanMaxSize() {
+        final List<String> evicted = Lists.newArrayList();
+        WeightedLruCache<String, Long> cache = new WeightedLruCache<String, Long>(settingsBuilder().put("max_size", 10).build(), "10%", WEIGHER,
+                new WeightedLruCache.EvictionListener<String, Long>() {
+                    @Override public void onEviction(String key, Long value) {
+                        evicted.add(key + "=" + value);
+                    }
+                });
+
+        cache.put("a", 4l);
+        cache.put("b", 4l);
+
+        // not cached, the others are kept
+        cache.put("c", 11l);
+        assertThat(cache.get("c"), nullValue());
+        assertThat(cache.get("a"), equalTo(4l));
+        assertThat(cache.get("b"), equalTo(4l));
+        assertThat(cache.weight(), equalTo(8l));
+        assertThat(evicted, equalTo(Arrays.asList("c=11")));
+
+        // replacing a cached value with a too large one removes it
+        cache.put("a", 11l);
+        assertThat(cache.get("a"), nullValue());
+        assertThat(cache.weight(), equalTo(4l));
+        assertThat(evicted, equalTo(Arrays.asList("c=11", "a=4", "a=11")));
+
+        // a value filling the cache on its own evicts all the others
+        cache.put("d", 10l);
+        assertThat(cache.get("b"), nullValue());
+        assertThat(cache.get("d"), equalTo(10l));
+        assertThat(cache.weight(), equalTo(10l));
+        assertThat(evicted, equalTo(Arrays.asList("c=11", "a=4", "a=11", "b=4")));
+    }
+
+    @Test public void testKeyFilters() {
+        WeightedLruCache<String, Long> cache = new WeightedLruCache<String, Long>(settingsBuilder().put("max_size", 100).build(), "10%", WEIGHER, null);
+        cache.put("x1", 1l);
+        cache.put("x2", 2l);
+        cache.put("y1", 4l);
+
+        WeightedLruCache.KeyFilter<String> xFilter = new WeightedLruCache.KeyFilter<String>() {
+            @Override public boolean accept(String key) {
+                return key.startsWith("x");
+            }
+        };
+        assertThat(cache.weight(xFilter), equalTo(3l));
+        assertThat(cache.weight(), equalTo(7l));
+
+        cache.remove(xFilter);
+        assertThat(cache.get("x1"), nullValue());
+        assertThat(cache.get("x2"), nullValue());
+        assertThat(cache.get("y1"), equalTo(4l));
+        assertThat(cache.weight(xFilter), equalTo(0l));
+        assertThat(cache.weight(), equalTo(4l));
+    }
+
+    @Test public void testConcurrentGetAndPut() throws Exception {
+        Settings settings = settingsBuilder().put("max_size", 10).put("concurrency_level", 4).build();
+        final WeightedLruCache<String, Long> cache = new WeightedLruCache<String, Long>(settings, "10%", WEIGHER,
+                new WeightedLruCache.EvictionListener<String, Long>() {
+                    @Override public void onEviction(String key, Long value) {
+                    }
+                });
+        assertThat(cache.concurrencyLevel(), equalTo(4));
+
+        Thread[] threads = new Thread[4];
+        final CyclicBarrier barrier = new CyclicBarrier(threads.length);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override public void run() {
+                    try {
+                        barrier.await();
+                        for (int j = 0; j < 1000; j++) {
+                            String key = "key" + (j % 50);
+                            if (cache.get(key) == null) {
+                                cache.put(key, 1l);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(failure.get(), nullValue());
+
+        // the accounted weight matches the entries left in the cache
+        assertThat(cache.weight(), equalTo(cache.weight(new WeightedLruCache.KeyFilter<String>() {
+            @Override public boolean accept(String key) {
+                return true;
+            }
+        })));
+
+        cache.clear();
+        assertThat(cache.weight(), equalTo(0l));
+    }
+}
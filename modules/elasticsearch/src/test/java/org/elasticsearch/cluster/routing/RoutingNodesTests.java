@@ -0,0 +1,103 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.routing;
+
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.allocation.ShardsAllocation;
+import org.elasticsearch.common.transport.DummyTransportAddress;
+import org.elasticsearch.index.shard.ShardId;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.cluster.ClusterState.*;
+import static org.elasticsearch.cluster.metadata.IndexMetaData.*;
+import static org.elasticsearch.cluster.metadata.MetaData.*;
+import static org.elasticsearch.cluster.node.DiscoveryNodes.*;
+import static org.elasticsearch.cluster.routing.RoutingBuilders.*;
+import static org.elasticsearch.cluster.routing.ShardRoutingState.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class RoutingNodesTests {
+
+    @Test public void testCountsAndLookupsFollowChanges() {
+        ShardsAllocation strategy = new ShardsAllocation();
+
+        MetaData metaData = newMetaDataBuilder()
+                .put(newIndexMetaDataBuilder("test").numberOfShards(1).numberOfReplicas(1))
+                .build();
+        RoutingTable routingTable = routingTable()
+                .add(indexRoutingTable("test").initializeEmpty(metaData.index("test")))
+                .build();
+        ClusterState clusterState = newClusterStateBuilder().metaData(metaData).routingTable(routingTable)
+                .nodes(newNodesBuilder().put(newNode("node1")).put(newNode("node2"))).build();
+
+        ShardId shardId = new ShardId("test", 0);
+        RoutingNodes routingNodes = clusterState.routingNodes();
+        assertThat(routingNodes.hasUnassigned(shardId), equalTo(true));
+        assertThat(routingNodes.shardsRoutingFor("test", 0).size(), equalTo(2));
+        assertThat(routingNodes.assignedShardsFor(shardId).size(), equalTo(0));
+
+        routingTable = strategy.reroute(clusterState).routingTable();
+        clusterState = newClusterStateBuilder().state(clusterState).routingTable(routingTable).build();
+        routingNodes = clusterState.routingNodes();
+
+        // the primary is initializing, the replica waits for it to become active
+        assertThat(routingNodes.assignedShardsFor(shardId).size(), equalTo(1));
+        MutableShardRouting primary = routingNodes.assignedShardsFor(shardId).get(0);
+        RoutingNode primaryNode = routingNodes.node(primary.currentNodeId());
+        assertThat(primaryNode.hasShard(shardId), equalTo(true));
+        assertThat(primaryNode.shardsFor(shardId).get(0), sameInstance(primary));
+        assertThat(primaryNode.numberOfShardsWithState(INITIALIZING), equalTo(1));
+        assertThat(primaryNode.numberOfPrimariesWithState(INITIALIZING), equalTo(1));
+        assertThat(routingNodes.hasUnassigned(shardId), equalTo(true));
+
+        primary.moveToStarted();
+        assertThat(primaryNode.numberOfShardsWithState(INITIALIZING), equalTo(0));
+        assertThat(primaryNode.numberOfShardsWithState(STARTED), equalTo(1));
+        assertThat(primaryNode.numberOfPrimariesWithState(STARTED), equalTo(1));
+
+        primary.relocate("node3");
+        assertThat(primaryNode.numberOfShardsWithState(RELOCATING), equalTo(1));
+        assertThat(primaryNode.numberOfOwningShards(), equalTo(0));
+
+        primary.cancelRelocation();
+        primary.moveFromPrimary();
+        assertThat(primaryNode.numberOfShardsWithState(STARTED), equalTo(1));
+        assertThat(primaryNode.numberOfPrimariesWithState(STARTED), equalTo(0));
+
+        assertThat(primaryNode.remove(primary), equalTo(true));
+        assertThat(primaryNode.shards().size(), equalTo(0));
+        assertThat(primaryNode.numberOfShardsWithState(STARTED), equalTo(0));
+        assertThat(primaryNode.hasShard(shardId), equalTo(false));
+        assertThat(routingNodes.assignedShardsFor(shardId).size(), equalTo(0));
+
+        routingNodes.unassigned().clear();
+        assertThat(routingNodes.hasUnassigned(shardId), equalTo(false));
+    }
+
+    private DiscoveryNode newNode(String nodeId) {
+        return new DiscoveryNode(nodeId, DummyTransportAddress.INSTANCE);
+    }
+}
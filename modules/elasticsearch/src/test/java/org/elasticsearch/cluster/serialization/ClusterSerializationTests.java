@@ -20,6 +20,7 @@
 package org.elasticsearch.cluster.serialization;
 
 import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.IncompatibleClusterStateVersionException;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
@@ -88,6 +89,53 @@ public class ClusterSerializationTests {
         assertThat(target.prettyPrint(), equalTo(source.prettyPrint()));
     }
 
+    @Test public void testClusterStateDiffSerialization() throws Exception {
+        MetaData metaData = newMetaDataBuilder()
+                .put(newIndexMetaDataBuilder("test1").numberOfShards(10).numberOfReplicas(1))
+                .put(newIndexMetaDataBuilder("test2").numberOfShards(2).numberOfReplicas(1))
+                .build();
+
+        RoutingTable routingTable = routingTable()
+                .add(indexRoutingTable("test1").initializeEmpty(metaData.index("test1")))
+                .add(indexRoutingTable("test2").initializeEmpty(metaData.index("test2")))
+                .build();
+
+        DiscoveryNodes nodes = DiscoveryNodes.newNodesBuilder().put(newNode("node1")).put(newNode("node2")).localNodeId("node1").masterNodeId("node2").build();
+
+        ClusterState previousState = newClusterStateBuilder().version(1).nodes(nodes).metaData(metaData).routingTable(routingTable).build();
+
+        // the receiving node has the previous state
+        ClusterState receivedState = ClusterState.Builder.fromBytes(ClusterState.Builder.toBytes(previousState), newNode("node1"));
+
+        // add a node, remove an index, and allocate shards
+        MetaData newMetaData = newMetaDataBuilder().metaData(metaData).remove("test2").build();
+        RoutingTable newRoutingTable = routingTable().routingTable(routingTable).remove("test2").build();
+        DiscoveryNodes newNodes = DiscoveryNodes.newNodesBuilder().putAll(nodes).put(newNode("node3")).build();
+        ClusterState clusterState = newClusterStateBuilder().state(previousState).version(2).nodes(newNodes).metaData(newMetaData).routingTable(newRoutingTable).build();
+        ShardsAllocation strategy = new ShardsAllocation();
+        clusterState = newClusterStateBuilder().state(clusterState).routingTable(strategy.reroute(clusterState).routingTable()).build();
+
+        BytesStreamOutput outStream = new BytesStreamOutput();
+        ClusterState.Builder.writeDiffTo(previousState, clusterState, outStream);
+        ClusterState diffClusterState = ClusterState.Builder.readDiffFrom(new BytesStreamInput(outStream.copiedByteArray()), receivedState, newNode("node1"));
+
+        assertThat(diffClusterState.version(), equalTo(2l));
+        assertThat(diffClusterState.metaData().hasIndex("test1"), equalTo(true));
+        assertThat(diffClusterState.metaData().hasIndex("test2"), equalTo(false));
+        assertThat(diffClusterState.nodes().size(), equalTo(3));
+        assertThat(diffClusterState.nodes().masterNodeId(), equalTo("node2"));
+        assertThat(diffClusterState.nodes().localNodeId(), equalTo("node1"));
+        assertThat(diffClusterState.routingTable().prettyPrint(), equalTo(clusterState.routingTable().prettyPrint()));
+
+        // a diff can't be applied on a different version
+        try {
+            ClusterState.Builder.readDiffFrom(new BytesStreamInput(outStream.copiedByteArray()), diffClusterState, newNode("node1"));
+            assert false : "diff should not be applied on a different version";
+        } catch (IncompatibleClusterStateVersionException e) {
+            // all is well
+        }
+    }
+
     private DiscoveryNode newNode(String nodeId) {
         return new DiscoveryNode(nodeId, DummyTransportAddress.INSTANCE);
     }
@@ -0,0 +1,51 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common;
+
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class RateLimiterTests {
+
+    @Test public void testUnlimited() {
+        RateLimiter rateLimiter = new RateLimiter(new ByteSizeValue(0));
+        assertThat(rateLimiter.pause(1024 * 1024 * 1024), equalTo(0l));
+    }
+
+    @Test public void testPause() {
+        RateLimiter rateLimiter = new RateLimiter(new ByteSizeValue(1, ByteSizeUnit.MB));
+        long start = System.nanoTime();
+        // the first chunk is not paused, the next four take a quarter of a second each
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.pause(256 * 1024);
+        }
+        long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(took, greaterThanOrEqualTo(950l));
+    }
+}
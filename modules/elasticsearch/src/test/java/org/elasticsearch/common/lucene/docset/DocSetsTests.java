@@ -0,0 +1,129 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.lucene.docset;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.OpenBitSet;
+import org.elasticsearch.common.collect.Lists;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class DocSetsTests {
+
+    @Test public void testCompactByDensity() {
+        int maxDoc = 100000;
+        assertThat(DocSets.compact(new OpenBitSet(maxDoc), maxDoc), sameInstance(DocSet.EMPTY_DOC_SET));
+
+        OpenBitSet all = new OpenBitSet(maxDoc);
+        all.set(0, maxDoc);
+        assertThat(DocSets.compact(all, maxDoc), instanceOf(AllDocSet.class));
+
+        assertThat(DocSets.compact(randomSet(maxDoc, 10, 0), maxDoc), instanceOf(SortedIntDocSet.class));
+
+        // dense within a small part of the segment
+        OpenBitSet clustered = new OpenBitSet(maxDoc);
+        clustered.set(1000, 11000);
+        assertThat(DocSets.compact(clustered, maxDoc), instanceOf(CompressedBitDocSet.class));
+
+        assertThat(DocSets.compact(randomSet(maxDoc, maxDoc / 2, 0), maxDoc), instanceOf(OpenBitDocSet.class));
+    }
+
+    @Test public void testSortedIntDocSet() throws IOException {
+        int maxDoc = 10000;
+        for (int seed = 0; seed < 10; seed++) {
+            OpenBitSet set = randomSet(maxDoc, 100, seed);
+            assertSameDocs(set, new SortedIntDocSet(set, (int) set.cardinality()), maxDoc, seed);
+        }
+    }
+
+    @Test public void testCompressedBitDocSet() throws IOException {
+        int maxDoc = 10000;
+        for (int seed = 0; seed < 10; seed++) {
+            OpenBitSet set = randomSet(maxDoc, 1000, seed);
+            int nonEmptyWords = 0;
+            for (int i = 0; i < set.getNumWords(); i++) {
+                if (set.getBits()[i] != 0) {
+                    nonEmptyWords++;
+                }
+            }
+            assertSameDocs(set, new CompressedBitDocSet(set, nonEmptyWords), maxDoc, seed);
+        }
+    }
+
+    @Test public void testAndWithSparseLead() throws IOException {
+        int maxDoc = 10000;
+        OpenBitSet sparse = randomSet(maxDoc, 100, 1);
+        OpenBitSet dense = randomSet(maxDoc, 5000, 2);
+        List<DocSet> sets = Lists.newArrayList();
+        sets.add(new OpenBitDocSet(dense));
+        sets.add(new SortedIntDocSet(sparse, (int) sparse.cardinality()));
+        sets.add(new AllDocSet(maxDoc));
+
+        OpenBitSet expected = (OpenBitSet) sparse.clone();
+        expected.and(dense);
+        assertSameDocs(expected, new AndDocSet(sets), maxDoc, 0);
+    }
+
+    private static void assertSameDocs(OpenBitSet expected, DocSet docSet, int maxDoc, int seed) throws IOException {
+        for (int doc = 0; doc < maxDoc; doc++) {
+            assertThat(docSet.get(doc), equalTo(expected.fastGet(doc)));
+        }
+
+        DocIdSetIterator expectedIt = expected.iterator();
+        DocIdSetIterator it = docSet.iterator();
+        int doc;
+        while ((doc = expectedIt.nextDoc()) != DocIdSetIterator.NO_MORE_DOCS) {
+            assertThat(it.nextDoc(), equalTo(doc));
+        }
+        assertThat(it.nextDoc(), equalTo(DocIdSetIterator.NO_MORE_DOCS));
+
+        Random random = new Random(seed);
+        expectedIt = expected.iterator();
+        it = docSet.iterator();
+        int target = 0;
+        while (true) {
+            target += random.nextInt(200) + 1;
+            int expectedDoc = expectedIt.advance(target);
+            assertThat(it.advance(target), equalTo(expectedDoc));
+            if (expectedDoc == DocIdSetIterator.NO_MORE_DOCS) {
+                break;
+            }
+            target = expectedDoc;
+        }
+    }
+
+    private static OpenBitSet randomSet(int maxDoc, int numDocs, int seed) {
+        Random random = new Random(seed);
+        OpenBitSet set = new OpenBitSet(maxDoc);
+        for (int i = 0; i < numDocs; i++) {
+            set.fastSet(random.nextInt(maxDoc));
+        }
+        return set;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.lucene.versioned;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class StripedVersionMapTests {
+
+    @Test public void testSimple() {
+        StripedVersionMap<Long> map = new StripedVersionMap<Long>(10);
+        assertThat(map.concurrencyLevel(), equalTo(16));
+
+        assertThat(map.get("1"), nullValue());
+        StripedVersionMap.Stripe<Long> stripe = map.stripe("1");
+        assertThat(map.stripe("1"), sameInstance(stripe));
+        synchronized (stripe) {
+            stripe.put("1", 1l);
+        }
+        assertThat(map.get("1"), equalTo(1l));
+        assertThat(map.get("2"), nullValue());
+
+        map.clear();
+        assertThat(map.get("1"), nullValue());
+    }
+
+    @Test public void testConcurrentIncrements() throws Exception {
+        final StripedVersionMap<Long> map = new StripedVersionMap<Long>(64);
+        final int numberOfThreads = 10;
+        final int numberOfUids = 100;
+        final int iterations = 1000;
+        final CountDownLatch latch = new CountDownLatch(numberOfThreads);
+        for (int t = 0; t < numberOfThreads; t++) {
+            new Thread(new Runnable() {
+                @Override public void run() {
+                    for (int i = 0; i < iterations; i++) {
+                        String uid = Integer.toString(i % numberOfUids);
+                        StripedVersionMap.Stripe<Long> stripe = map.stripe(uid);
+                        synchronized (stripe) {
+                            Long current = stripe.get(uid);
+                            stripe.put(uid, current == null ? 1 : current + 1);
+                        }
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        for (int i = 0; i < numberOfUids; i++) {
+            assertThat(map.get(Integer.toString(i)), equalTo((long) (numberOfThreads * iterations / numberOfUids)));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.xcontent.support;
+
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class XContentMapConverterTests {
+
+    @SuppressWarnings({"unchecked"})
+    @Test public void testReadFilteredMap() throws Exception {
+        byte[] source = jsonBuilder().startObject()
+                .field("name", "kimchy")
+                .startObject("obj1").field("field1", "value1").field("field2", "value2").startObject("inner").field("field3", "value3").endObject().endObject()
+                .startArray("arr1").startObject().field("field1", "value1").field("field2", "value2").endObject().value("leaf").startObject().field("field2", "value2").endObject().endArray()
+                .field("last", "value")
+                .endObject().copiedBytes();
+
+        Map<String, Object> map = readMap(source, "name");
+        assertThat(map.size(), equalTo(1));
+        assertThat((String) map.get("name"), equalTo("kimchy"));
+
+        map = readMap(source, "obj1.field1", "obj1.inner", "missing");
+        assertThat(map.size(), equalTo(1));
+        Map<String, Object> obj1 = (Map<String, Object>) map.get("obj1");
+        assertThat(obj1.size(), equalTo(2));
+        assertThat((String) obj1.get("field1"), equalTo("value1"));
+        assertThat((String) ((Map<String, Object>) obj1.get("inner")).get("field3"), equalTo("value3"));
+
+        map = readMap(source, "arr1.field1", "last");
+        assertThat(map.size(), equalTo(2));
+        List<Object> arr1 = (List<Object>) map.get("arr1");
+        assertThat(arr1.size(), equalTo(2));
+        assertThat((String) ((Map<String, Object>) arr1.get(0)).get("field1"), equalTo("value1"));
+        assertThat(((Map<String, Object>) arr1.get(1)).size(), equalTo(0));
+        assertThat((String) map.get("last"), equalTo("value"));
+
+        // the whole object when a path points to it
+        map = readMap(source, "obj1", "obj1.field1");
+        assertThat(((Map<String, Object>) map.get("obj1")).size(), equalTo(3));
+    }
+
+    @Test public void testReadFilteredMapStopsOnceFound() throws Exception {
+        // the source is cut right after the requested field, so parsing it all would fail
+        byte[] source = "{\"field1\":\"value1\",\"field2\":{\"inner\":\"value2\"},\"field3\":".getBytes("UTF-8");
+
+        Map<String, Object> map = readMap(source, "field1", "field2.inner");
+        assertThat((String) map.get("field1"), equalTo("value1"));
+        assertThat(map.get("field2"), notNullValue());
+    }
+
+    private Map<String, Object> readMap(byte[] source, String... paths) throws Exception {
+        XContentParser parser = XContentFactory.xContent(XContentType.JSON).createParser(source);
+        try {
+            return XContentMapConverter.readMap(parser, paths);
+        } finally {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache.id.primitive;
+
+import org.elasticsearch.common.BytesWrap;
+import org.elasticsearch.common.Unicode;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class IdTableTests {
+
+    @Test public void testHeapTable() {
+        testTable(false);
+    }
+
+    @Test public void testDirectTable() {
+        testTable(true);
+    }
+
+    private void testTable(boolean direct) {
+        IdTable.Builder builder = new IdTable.Builder();
+        for (int i = 0; i < 1000; i++) {
+            byte[] id = Unicode.fromStringAsBytes("id" + i);
+            builder.add(id, id.length, i * 2);
+        }
+        IdTable table = builder.build(direct, true);
+        assertThat(table.size(), equalTo(1000));
+        assertThat(table.sizeInBytes(), greaterThan(0l));
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(table.get(new BytesWrap("id" + i)), equalTo(i * 2));
+            assertThat(table.id(i), equalTo(new BytesWrap("id" + i)));
+        }
+        assertThat(table.get(new BytesWrap("id1000")), equalTo(-1));
+        assertThat(table.get(new BytesWrap("")), equalTo(-1));
+
+        // lookup of the ids of another table, in place
+        IdTable.Builder otherBuilder = new IdTable.Builder();
+        for (int i = 0; i < 1000; i += 3) {
+            byte[] id = Unicode.fromStringAsBytes("id" + i);
+            otherBuilder.add(id, id.length, 0);
+        }
+        byte[] missing = Unicode.fromStringAsBytes("id1000");
+        otherBuilder.add(missing, missing.length, 0);
+        IdTable other = otherBuilder.build(direct, false);
+        for (int i = 0; i < other.size() - 1; i++) {
+            assertThat(table.get(other, i), equalTo(i * 3 * 2));
+        }
+        assertThat(table.get(other, other.size() - 1), equalTo(-1));
+    }
+}
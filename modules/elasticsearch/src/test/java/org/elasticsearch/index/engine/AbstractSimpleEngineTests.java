@@ -69,6 +69,7 @@ public abstract class AbstractSimpleEngineTests {
     private Store store;
     private Store storeReplica;
 
+    protected Translog translog;
     protected Engine engine;
     protected Engine replicaEngine;
 
@@ -77,7 +78,8 @@ public abstract class AbstractSimpleEngineTests {
         store.deleteContent();
         storeReplica = createStoreReplica();
         storeReplica.deleteContent();
-        engine = createEngine(store, createTranslog());
+        translog = createTranslog();
+        engine = createEngine(store, translog);
         engine.start();
         replicaEngine = createEngine(storeReplica, createTranslogReplica());
         replicaEngine.start();
@@ -241,6 +243,63 @@ public abstract class AbstractSimpleEngineTests {
         engine.close();
     }
 
+    @Test public void testRealtimeGet() throws Exception {
+        assertRealtimeGet();
+    }
+
+    @Test public void testRealtimeGetWithGroupDurability() throws Exception {
+        translog.durability(Translog.Durability.GROUP);
+        assertRealtimeGet();
+    }
+
+    private void assertRealtimeGet() throws Exception {
+        ParsedDocument doc = new ParsedDocument("1", "1", "test", null, doc().add(uidField("1")).add(field("value", "test")).build(), Lucene.STANDARD_ANALYZER, B_1, false);
+        engine.create(new Engine.Create(newUid("1"), doc));
+
+        // not refreshed yet, a realtime get reads it from the translog
+        Engine.GetResult getResult = engine.get(new Engine.Get(true, newUid("1")));
+        assertThat(getResult.exists(), equalTo(true));
+        assertThat(getResult.source(), equalTo(B_1));
+        assertThat(getResult.searcher(), nullValue());
+        getResult.release();
+
+        getResult = engine.get(new Engine.Get(false, newUid("1")));
+        assertThat(getResult.exists(), equalTo(false));
+        getResult.release();
+
+        doc = new ParsedDocument("1", "1", "test", null, doc().add(uidField("1")).add(field("value", "test1")).build(), Lucene.STANDARD_ANALYZER, B_2, false);
+        engine.index(new Engine.Index(newUid("1"), doc));
+
+        getResult = engine.get(new Engine.Get(true, newUid("1")));
+        assertThat(getResult.exists(), equalTo(true));
+        assertThat(getResult.source(), equalTo(B_2));
+        getResult.release();
+
+        // when the translog can't be used, the get refreshes and reads the doc from the index
+        getResult = engine.get(new Engine.Get(true, newUid("1")).loadFromTranslog(false));
+        assertThat(getResult.exists(), equalTo(true));
+        assertThat(getResult.source(), nullValue());
+        assertThat(getResult.searcher(), notNullValue());
+        getResult.release();
+
+        // once flushed, the doc is read from the index
+        engine.flush(new Engine.Flush());
+
+        getResult = engine.get(new Engine.Get(true, newUid("1")));
+        assertThat(getResult.exists(), equalTo(true));
+        assertThat(getResult.source(), nullValue());
+        assertThat(getResult.searcher(), notNullValue());
+        getResult.release();
+
+        engine.delete(new Engine.Delete("test", "1", newUid("1")));
+
+        getResult = engine.get(new Engine.Get(true, newUid("1")));
+        assertThat(getResult.exists(), equalTo(false));
+        getResult.release();
+
+        engine.close();
+    }
+
     @Test public void testBulkOperations() throws Exception {
         Engine.Searcher searchResult = engine.searcher();
         assertThat(searchResult, engineSearcherTotalHits(0));
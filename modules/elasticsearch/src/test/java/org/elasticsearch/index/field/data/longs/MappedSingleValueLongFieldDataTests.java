@@ -0,0 +1,191 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.field.data.longs;
+
+import org.apache.lucene.document.NumericField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.common.io.FileSystemUtils;
+import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.field.data.FieldData;
+import org.elasticsearch.index.field.data.FieldDataType;
+import org.elasticsearch.index.field.data.support.MappedFieldDataLoader;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.elasticsearch.common.lucene.DocumentBuilder.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class MappedSingleValueLongFieldDataTests {
+
+    @Test public void testMappedFieldData() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+
+        indexWriter.addDocument(doc()
+                .add(new NumericField("svalue").setLongValue(4))
+                .add(new NumericField("mvalue").setLongValue(104))
+                .build());
+
+        indexWriter.addDocument(doc()
+                .add(new NumericField("svalue").setLongValue(3))
+                .add(new NumericField("mvalue").setLongValue(104))
+                .add(new NumericField("mvalue").setLongValue(105))
+                .build());
+
+        indexWriter.addDocument(doc()
+                .add(new NumericField("mvalue").setLongValue(102))
+                .build());
+
+        IndexReader reader = indexWriter.getReader();
+        SegmentReader segmentReader = (SegmentReader) reader.getSequentialSubReaders()[0];
+
+        File location = new File("target/field_data");
+        FileSystemUtils.deleteRecursively(location);
+        MappedFieldDataLoader loader = new MappedFieldDataLoader(location);
+        try {
+            LongFieldData sFieldData = (LongFieldData) loader.load(FieldDataType.DefaultTypes.LONG, segmentReader, "svalue");
+            LongFieldData mFieldData = (LongFieldData) loader.load(FieldDataType.DefaultTypes.LONG, segmentReader, "mvalue");
+
+            assertThat(sFieldData, instanceOf(MappedSingleValueLongFieldData.class));
+            // multi valued field data is kept on the heap
+            assertThat(mFieldData, instanceOf(MultiValueLongFieldData.class));
+
+            assertThat(sFieldData.fieldName(), equalTo("svalue"));
+            assertThat(sFieldData.multiValued(), equalTo(false));
+            // 3 ordinals and 2 values (and the null value)
+            assertThat(sFieldData.sizeInBytes(), equalTo(4l * 3 + 8l * 3));
+
+            assertThat(sFieldData.hasValue(0), equalTo(true));
+            assertThat(sFieldData.value(0), equalTo(4l));
+            assertThat(sFieldData.date(0).getMillis(), equalTo(4l));
+            assertThat(sFieldData.docFieldData(0).getValue(), equalTo(4l));
+            assertThat(sFieldData.values(0).length, equalTo(1));
+            assertThat(sFieldData.values(0)[0], equalTo(4l));
+            assertThat(sFieldData.doubleValues(0)[0], equalTo(4d));
+
+            assertThat(sFieldData.hasValue(1), equalTo(true));
+            assertThat(sFieldData.value(1), equalTo(3l));
+
+            assertThat(sFieldData.hasValue(2), equalTo(false));
+            assertThat(sFieldData.values(2).length, equalTo(0));
+            assertThat(sFieldData.dates(2).length, equalTo(0));
+
+            final List<Long> values = new ArrayList<Long>();
+            sFieldData.forEachValue(new LongFieldData.ValueProc() {
+                @Override public void onValue(long value) {
+                    values.add(value);
+                }
+            });
+            assertThat(values.size(), equalTo(2));
+            assertThat(values.get(0), equalTo(3l));
+            assertThat(values.get(1), equalTo(4l));
+
+            // the files are kept for the reader, and mapped again when reloaded
+            File segmentLocation = loader.location(segmentReader);
+            assertThat(segmentLocation.getParentFile(), equalTo(location));
+            assertThat(new File(segmentLocation, "svalue.fdo").exists(), equalTo(true));
+            assertThat(new File(segmentLocation, "svalue.fdv").exists(), equalTo(true));
+            assertThat(new File(segmentLocation, "mvalue.fdo").exists(), equalTo(false));
+
+            FieldData reloaded = loader.load(FieldDataType.DefaultTypes.LONG, segmentReader, "svalue");
+            assertThat(reloaded, instanceOf(MappedSingleValueLongFieldData.class));
+            assertThat(((LongFieldData) reloaded).value(0), equalTo(4l));
+            assertThat(((LongFieldData) reloaded).value(1), equalTo(3l));
+            assertThat(reloaded.hasValue(2), equalTo(false));
+
+            loader.clear(segmentReader);
+            assertThat(segmentLocation.exists(), equalTo(false));
+        } finally {
+            FileSystemUtils.deleteRecursively(location);
+        }
+
+        indexWriter.close();
+    }
+
+    @Test public void testShardsWithSameSegmentNames() throws Exception {
+        // two shards of the same index, each with a single _0 segment
+        IndexWriter indexWriter1 = new IndexWriter(new RAMDirectory(), Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        indexWriter1.addDocument(doc().add(new NumericField("svalue").setLongValue(1)).build());
+        IndexWriter indexWriter2 = new IndexWriter(new RAMDirectory(), Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        indexWriter2.addDocument(doc().add(new NumericField("svalue").setLongValue(2)).build());
+
+        SegmentReader segmentReader1 = (SegmentReader) indexWriter1.getReader().getSequentialSubReaders()[0];
+        SegmentReader segmentReader2 = (SegmentReader) indexWriter2.getReader().getSequentialSubReaders()[0];
+        assertThat(segmentReader1.getSegmentName(), equalTo(segmentReader2.getSegmentName()));
+
+        File location = new File("target/field_data");
+        FileSystemUtils.deleteRecursively(location);
+        MappedFieldDataLoader loader = new MappedFieldDataLoader(location);
+        try {
+            LongFieldData fieldData1 = (LongFieldData) loader.load(FieldDataType.DefaultTypes.LONG, segmentReader1, "svalue");
+            LongFieldData fieldData2 = (LongFieldData) loader.load(FieldDataType.DefaultTypes.LONG, segmentReader2, "svalue");
+            assertThat(fieldData1.value(0), equalTo(1l));
+            // not the files of the other shard segment
+            assertThat(fieldData2.value(0), equalTo(2l));
+            assertThat(loader.location(segmentReader1), not(equalTo(loader.location(segmentReader2))));
+
+            // clearing a shard segment keeps the files of the other one
+            File segmentLocation2 = loader.location(segmentReader2);
+            loader.clear(segmentReader1);
+            assertThat(loader.location(segmentReader1), nullValue());
+            assertThat(new File(segmentLocation2, "svalue.fdo").exists(), equalTo(true));
+            assertThat(((LongFieldData) loader.load(FieldDataType.DefaultTypes.LONG, segmentReader2, "svalue")).value(0), equalTo(2l));
+        } finally {
+            FileSystemUtils.deleteRecursively(location);
+        }
+
+        // loaders of the same index, as on two nodes on the same host, don't map or delete the files of each other
+        Settings settings = settingsBuilder()
+                .put("index.cache.field.data.mmap", true)
+                .put("index.cache.field.data.mmap_path", location.getPath())
+                .build();
+        MappedFieldDataLoader node1Loader = MappedFieldDataLoader.fromSettings(new Index("test"), settings);
+        try {
+            node1Loader.load(FieldDataType.DefaultTypes.LONG, segmentReader1, "svalue");
+            File node1Location = node1Loader.location(segmentReader1);
+            MappedFieldDataLoader node2Loader = MappedFieldDataLoader.fromSettings(new Index("test"), settings);
+            assertThat(node2Loader.location(), not(equalTo(node1Loader.location())));
+            assertThat(new File(node1Location, "svalue.fdo").exists(), equalTo(true));
+            LongFieldData fieldData2 = (LongFieldData) node2Loader.load(FieldDataType.DefaultTypes.LONG, segmentReader2, "svalue");
+            assertThat(fieldData2.value(0), equalTo(2l));
+            node2Loader.close();
+            assertThat(new File(node1Location, "svalue.fdo").exists(), equalTo(true));
+        } finally {
+            FileSystemUtils.deleteRecursively(location);
+        }
+
+        indexWriter1.close();
+        indexWriter2.close();
+    }
+}
@@ -144,6 +144,35 @@ public class StringFieldDataTests {
         assertThat(values.get(2), equalTo("333"));
         assertThat(values.get(3), equalTo("444"));
 
+        // ordinals
+        assertThat(sFieldData.values().length, equalTo(4));
+        assertThat(sFieldData.values()[0], nullValue());
+        final ArrayList<Integer> ordinals = new ArrayList<Integer>();
+        StringFieldData.OrdinalInDocProc ordinalsProc = new StringFieldData.OrdinalInDocProc() {
+            @Override public void onOrdinal(int docId, int ordinal) {
+                ordinals.add(ordinal);
+            }
+        };
+        sFieldData.forEachOrdinalInDoc(0, ordinalsProc);
+        assertThat(ordinals.size(), equalTo(1));
+        assertThat(sFieldData.values()[ordinals.get(0)], equalTo("zzz"));
+
+        ordinals.clear();
+        sFieldData.forEachOrdinalInDoc(2, ordinalsProc);
+        assertThat(ordinals.size(), equalTo(1));
+        assertThat(ordinals.get(0), equalTo(0));
+
+        ordinals.clear();
+        mFieldData.forEachOrdinalInDoc(2, ordinalsProc);
+        assertThat(ordinals.size(), equalTo(2));
+        assertThat(mFieldData.values()[ordinals.get(0)], equalTo("333"));
+        assertThat(mFieldData.values()[ordinals.get(1)], equalTo("444"));
+
+        ordinals.clear();
+        mFieldData.forEachOrdinalInDoc(3, ordinalsProc);
+        assertThat(ordinals.size(), equalTo(1));
+        assertThat(ordinals.get(0), equalTo(0));
+
         indexWriter.close();
     }
 }
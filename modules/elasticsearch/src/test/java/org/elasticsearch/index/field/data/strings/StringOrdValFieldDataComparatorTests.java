@@ -0,0 +1,103 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.field.data.strings;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.cache.field.data.soft.SoftFieldDataCache;
+import org.elasticsearch.index.field.data.FieldDataType;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.Builder.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class StringOrdValFieldDataComparatorTests {
+
+    @Test public void testSortAcrossSegments() throws Exception {
+        Directory dir = new RAMDirectory();
+        IndexWriter indexWriter = new IndexWriter(dir, Lucene.STANDARD_ANALYZER, true, IndexWriter.MaxFieldLength.UNLIMITED);
+        indexWriter.setMergeFactor(100);
+
+        Random random = new Random(42);
+        List<String> values = new ArrayList<String>();
+        for (int i = 0; i < 300; i++) {
+            Document document = new Document();
+            // values are spread over the segments, most segments miss most of them
+            if (random.nextInt(10) != 0) {
+                String value = "value" + random.nextInt(100);
+                document.add(new Field("value", value, Field.Store.NO, Field.Index.NOT_ANALYZED));
+                values.add(value);
+            } else {
+                values.add(null);
+            }
+            indexWriter.addDocument(document);
+            if ((i % 20) == 19) {
+                indexWriter.commit();
+            }
+        }
+        IndexReader reader = indexWriter.getReader();
+        assertThat(reader.getSequentialSubReaders().length, greaterThan(10));
+        IndexSearcher searcher = new IndexSearcher(reader);
+
+        FieldComparatorSource comparatorSource = FieldDataType.DefaultTypes.STRING.newFieldComparatorSource(new SoftFieldDataCache(new Index("test"), EMPTY_SETTINGS));
+        for (boolean reversed : new boolean[]{false, true}) {
+            List<String> expected = new ArrayList<String>(values);
+            Comparator<String> comparator = new Comparator<String>() {
+                @Override public int compare(String o1, String o2) {
+                    if (o1 == null) {
+                        return o2 == null ? 0 : -1;
+                    }
+                    return o2 == null ? 1 : o1.compareTo(o2);
+                }
+            };
+            Collections.sort(expected, reversed ? Collections.reverseOrder(comparator) : comparator);
+
+            for (int numHits : new int[]{1, 3, 10, 50, 300}) {
+                TopFieldDocs topDocs = searcher.search(new MatchAllDocsQuery(), null, numHits, new Sort(new SortField("value", comparatorSource, reversed)));
+                assertThat(topDocs.scoreDocs.length, equalTo(numHits));
+                for (int i = 0; i < numHits; i++) {
+                    assertThat("reversed [" + reversed + "], numHits [" + numHits + "], hit [" + i + "]",
+                            (String) ((FieldDoc) topDocs.scoreDocs[i]).fields[0], equalTo(expected.get(i)));
+                }
+            }
+        }
+
+        searcher.close();
+        reader.close();
+        indexWriter.close();
+    }
+}
@@ -38,12 +38,12 @@ public class CommitPointsTests {
 
     @Test public void testCommitPointXContent() throws Exception {
         ArrayList<CommitPoint.FileInfo> indexFiles = Lists.newArrayList();
-        indexFiles.add(new CommitPoint.FileInfo("file1", "file1_p", 100, "ck1"));
-        indexFiles.add(new CommitPoint.FileInfo("file2", "file2_p", 200, "ck2"));
+        indexFiles.add(new CommitPoint.FileInfo("file1", "file1_p", 100, "ck1", "adler32"));
+        indexFiles.add(new CommitPoint.FileInfo("file2", "file2_p", 200, "ck2", "md5"));
 
         ArrayList<CommitPoint.FileInfo> translogFiles = Lists.newArrayList();
-        translogFiles.add(new CommitPoint.FileInfo("t_file1", "t_file1_p", 100, null));
-        translogFiles.add(new CommitPoint.FileInfo("t_file2", "t_file2_p", 200, null));
+        translogFiles.add(new CommitPoint.FileInfo("t_file1", "t_file1_p", 100, null, null));
+        translogFiles.add(new CommitPoint.FileInfo("t_file2", "t_file2_p", 200, null, null));
 
         CommitPoint commitPoint = new CommitPoint(1, "test", CommitPoint.Type.GENERATED, indexFiles, translogFiles);
 
@@ -60,6 +60,7 @@ public class CommitPointsTests {
             assertThat(desCp.indexFiles().get(i).physicalName(), equalTo(commitPoint.indexFiles().get(i).physicalName()));
             assertThat(desCp.indexFiles().get(i).length(), equalTo(commitPoint.indexFiles().get(i).length()));
             assertThat(desCp.indexFiles().get(i).checksum(), equalTo(commitPoint.indexFiles().get(i).checksum()));
+            assertThat(desCp.indexFiles().get(i).checksumAlgorithm(), equalTo(commitPoint.indexFiles().get(i).checksumAlgorithm()));
         }
 
         assertThat(desCp.translogFiles().size(), equalTo(commitPoint.translogFiles().size()));
@@ -70,4 +71,12 @@ public class CommitPointsTests {
             assertThat(desCp.translogFiles().get(i).checksum(), nullValue());
         }
     }
+
+    @Test public void testChecksumWithoutAlgorithmIsMd5() throws Exception {
+        byte[] data = ("{\"version\":1,\"name\":\"test\",\"type\":\"GENERATED\",\"index_files\":{" +
+                "\"file1\":{\"physical_name\":\"file1_p\",\"length\":100,\"checksum\":\"ck1\"}}}").getBytes();
+        CommitPoint commitPoint = CommitPoints.fromXContent(data);
+        assertThat(commitPoint.indexFiles().get(0).checksum(), equalTo("ck1"));
+        assertThat(commitPoint.indexFiles().get(0).checksumAlgorithm(), equalTo("md5"));
+    }
 }
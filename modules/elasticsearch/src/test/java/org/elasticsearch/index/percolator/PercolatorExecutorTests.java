@@ -37,10 +37,13 @@ import org.elasticsearch.index.query.IndexQueryParserModule;
 import org.elasticsearch.index.settings.IndexSettingsModule;
 import org.elasticsearch.index.similarity.SimilarityModule;
 import org.elasticsearch.script.ScriptModule;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.threadpool.ThreadPoolModule;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
+
 import static org.elasticsearch.index.query.xcontent.QueryBuilders.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
@@ -57,8 +60,12 @@ public class PercolatorExecutorTests {
         Settings settings = ImmutableSettings.settingsBuilder()
                 .put("index.cache.filter.type", "none")
                 .build();
+        percolatorExecutor = buildInjector(settings).getInstance(PercolatorExecutor.class);
+    }
+
+    private Injector buildInjector(Settings settings) {
         Index index = new Index("test");
-        Injector injector = new ModulesBuilder().add(
+        return new ModulesBuilder().add(
                 new SettingsModule(settings),
                 new ThreadPoolModule(settings),
                 new ScriptModule(),
@@ -76,8 +83,6 @@ public class PercolatorExecutorTests {
                     }
                 }
         ).createInjector();
-
-        percolatorExecutor = injector.getInstance(PercolatorExecutor.class);
     }
 
     @Test public void testSimplePercolator() throws Exception {
@@ -110,4 +115,97 @@ public class PercolatorExecutorTests {
         assertThat(percolate.matches(), hasSize(1));
         assertThat(percolate.matches(), hasItems("test1"));
     }
+
+    @Test public void testCandidateQueries() throws Exception {
+        XContentBuilder doc = XContentFactory.jsonBuilder().startObject().startObject("doc").startObject("type1")
+                .field("field1", "value1")
+                .field("field2", "value2")
+                .endObject().endObject().endObject();
+        byte[] source = doc.copiedBytes();
+
+        // a test local executor, so the counts don't depend on the queries registered by other tests
+        Injector injector = buildInjector(ImmutableSettings.settingsBuilder()
+                .put("index.cache.filter.type", "none")
+                .build());
+        PercolatorExecutor executor = injector.getInstance(PercolatorExecutor.class);
+        try {
+            executor.addQuery("term_match", termQuery("field1", "value1"));
+            executor.addQuery("term_no_match", termQuery("field1", "other"));
+            executor.addQuery("bool_match", boolQuery().must(termQuery("field1", "value1")).must(termQuery("field2", "value2")));
+            executor.addQuery("bool_no_match", boolQuery().must(termQuery("field1", "value1")).must(termQuery("field2", "other")));
+            executor.addQuery("should_no_match", boolQuery().should(termQuery("field1", "other1")).should(termQuery("field2", "other2")));
+            executor.addQuery("match_all", matchAllQuery());
+
+            PercolatorExecutor.Response percolate = executor.percolate(new PercolatorExecutor.SourceRequest(source));
+            assertThat(percolate.matches(), hasSize(3));
+            assertThat(percolate.matches(), hasItems("term_match", "bool_match", "match_all"));
+            assertThat(percolate.total(), equalTo(6));
+            // the bool with a required term the doc has is a candidate, the match all is always executed
+            assertThat(percolate.candidates(), equalTo(4));
+
+            // replacing a query re-indexes it under its new terms
+            executor.addQuery("term_no_match", termQuery("field2", "value2"));
+            percolate = executor.percolate(new PercolatorExecutor.SourceRequest(source));
+            assertThat(percolate.matches(), hasSize(4));
+            assertThat(percolate.candidates(), equalTo(5));
+
+            executor.removeQuery("term_match");
+            executor.removeQuery("term_no_match");
+            executor.removeQuery("bool_match");
+            executor.removeQuery("bool_no_match");
+            executor.removeQuery("should_no_match");
+            executor.removeQuery("match_all");
+            percolate = executor.percolate(new PercolatorExecutor.SourceRequest(source));
+            assertThat(percolate.matches(), hasSize(0));
+            assertThat(percolate.candidates(), equalTo(0));
+            assertThat(percolate.total(), equalTo(0));
+        } finally {
+            injector.getInstance(ThreadPool.class).shutdownNow();
+        }
+    }
+
+    @Test public void testParallelPercolator() throws Exception {
+        Injector parallelInjector = buildInjector(ImmutableSettings.settingsBuilder()
+                .put("index.cache.filter.type", "none")
+                .put("index.percolator.concurrency", 4)
+                .put("index.percolator.concurrency_threshold", 10)
+                .build());
+        Injector serialInjector = buildInjector(ImmutableSettings.settingsBuilder()
+                .put("index.cache.filter.type", "none")
+                .build());
+        PercolatorExecutor parallelExecutor = parallelInjector.getInstance(PercolatorExecutor.class);
+        PercolatorExecutor serialExecutor = serialInjector.getInstance(PercolatorExecutor.class);
+        try {
+            for (int i = 0; i < 200; i++) {
+                for (PercolatorExecutor executor : new PercolatorExecutor[]{parallelExecutor, serialExecutor}) {
+                    executor.addQuery("term_" + i, termQuery("field1", "value" + (i % 10)));
+                    executor.addQuery("bool_" + i, boolQuery().must(termQuery("field1", "value" + (i % 10))).must(termQuery("field2", "value" + (i % 7))));
+                }
+            }
+
+            for (int d = 0; d < 10; d++) {
+                XContentBuilder doc = XContentFactory.jsonBuilder().startObject().startObject("doc").startObject("type1")
+                        .field("field1", "value" + d)
+                        .field("field2", "value" + (d % 7))
+                        .endObject().endObject().endObject();
+                byte[] source = doc.copiedBytes();
+
+                PercolatorExecutor.Response parallel = parallelExecutor.percolate(new PercolatorExecutor.SourceRequest(source));
+                PercolatorExecutor.Response serial = serialExecutor.percolate(new PercolatorExecutor.SourceRequest(source));
+
+                // enough candidates to be split across all the workers
+                assertThat(parallel.candidates(), greaterThanOrEqualTo(4 * 10));
+                assertThat(parallel.candidates(), equalTo(serial.candidates()));
+                assertThat(parallel.total(), equalTo(serial.total()));
+
+                // the 20 term queries on field1, and the bool queries matching both fields (i % 70 == d)
+                assertThat(serial.matches(), hasSize(23));
+                assertThat(parallel.matches(), hasSize(23));
+                assertThat(new HashSet<String>(parallel.matches()), equalTo(new HashSet<String>(serial.matches())));
+            }
+        } finally {
+            parallelInjector.getInstance(ThreadPool.class).shutdownNow();
+            serialInjector.getInstance(ThreadPool.class).shutdownNow();
+        }
+    }
 }
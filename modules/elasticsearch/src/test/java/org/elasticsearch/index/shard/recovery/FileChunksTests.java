@@ -0,0 +1,189 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.shard.recovery;
+
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.transport.TransportChannel;
+import org.elasticsearch.transport.TransportResponseOptions;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class FileChunksTests {
+
+    private static final int CHUNK_SIZE = 10;
+
+    @Test public void testOutOfOrderChunks() throws Exception {
+        RecoveryStatus.FileChunks fileChunks = new RecoveryStatus.FileChunks();
+        RecordingWriter writer = new RecordingWriter();
+
+        RecordingChannel channel20 = deliver(fileChunks, writer, 20, 50);
+        RecordingChannel channel10 = deliver(fileChunks, writer, 10, 50);
+        RecordingChannel channel40 = deliver(fileChunks, writer, 40, 50);
+        // nothing can be written before the first chunk
+        assertThat(writer.positions.isEmpty(), equalTo(true));
+        assertThat(channel20.acked, equalTo(false));
+        assertThat(fileChunks.pending.size(), equalTo(3));
+
+        RecordingChannel channel0 = deliver(fileChunks, writer, 0, 50);
+        assertThat(writer.positions, equalTo(Arrays.asList(0l, 10l, 20l)));
+        assertThat(channel0.acked, equalTo(true));
+        assertThat(channel10.acked, equalTo(true));
+        assertThat(channel20.acked, equalTo(true));
+        assertThat(channel40.acked, equalTo(false));
+        assertThat(fileChunks.nextPosition, equalTo(30l));
+
+        RecordingChannel channel30 = deliver(fileChunks, writer, 30, 50);
+        assertThat(writer.positions, equalTo(Arrays.asList(0l, 10l, 20l, 30l, 40l)));
+        assertThat(channel30.acked, equalTo(true));
+        assertThat(channel40.acked, equalTo(true));
+        assertThat(fileChunks.nextPosition, equalTo(50l));
+        assertThat(fileChunks.pending.isEmpty(), equalTo(true));
+    }
+
+    @Test public void testWindowedChunks() throws Exception {
+        RecoveryStatus.FileChunks fileChunks = new RecoveryStatus.FileChunks();
+        RecordingWriter writer = new RecordingWriter();
+        int numberOfChunks = 30;
+        int window = 4;
+        long length = numberOfChunks * CHUNK_SIZE;
+
+        // each window of chunks is sent without waiting for acks, and arrives in reverse order
+        List<RecordingChannel> channels = new ArrayList<RecordingChannel>();
+        for (int from = 0; from < numberOfChunks; from += window) {
+            int to = Math.min(numberOfChunks, from + window);
+            for (int i = to - 1; i >= from; i--) {
+                channels.add(deliver(fileChunks, writer, i * CHUNK_SIZE, length));
+            }
+            // the whole window got written and acked before the next one is sent
+            assertThat(fileChunks.nextPosition, equalTo((long) to * CHUNK_SIZE));
+            assertThat(fileChunks.pending.isEmpty(), equalTo(true));
+        }
+
+        assertThat(writer.positions.size(), equalTo(numberOfChunks));
+        for (int i = 0; i < numberOfChunks; i++) {
+            assertThat(writer.positions.get(i), equalTo((long) i * CHUNK_SIZE));
+        }
+        for (RecordingChannel channel : channels) {
+            assertThat(channel.acked, equalTo(true));
+        }
+    }
+
+    @Test public void testFailedChunkFailsHeldChunks() throws Exception {
+        RecoveryStatus.FileChunks fileChunks = new RecoveryStatus.FileChunks();
+        RecordingWriter writer = new RecordingWriter();
+        writer.failAt = 10;
+
+        deliver(fileChunks, writer, 0, 50);
+        RecordingChannel channel20 = deliver(fileChunks, writer, 20, 50);
+        try {
+            deliver(fileChunks, writer, 10, 50);
+            assert false : "writing the chunk should fail";
+        } catch (IOException e) {
+            // all is well
+        }
+        assertThat(channel20.failure, instanceOf(IOException.class));
+        assertThat(fileChunks.pending.isEmpty(), equalTo(true));
+
+        // the following chunks of the file fail as well
+        try {
+            deliver(fileChunks, writer, 30, 50);
+            assert false : "the file already failed";
+        } catch (IOException e) {
+            // all is well
+        }
+        assertThat(writer.positions, equalTo(Arrays.asList(0l)));
+    }
+
+    @Test public void testFileSentAgainFromItsStart() throws Exception {
+        RecoveryStatus.FileChunks fileChunks = new RecoveryStatus.FileChunks();
+        RecordingWriter writer = new RecordingWriter();
+
+        deliver(fileChunks, writer, 0, 50);
+        RecordingChannel staleChannel = deliver(fileChunks, writer, 20, 50);
+        assertThat(fileChunks.nextPosition, equalTo(10l));
+
+        // a retried recovery sends the file again, the chunk held for the previous attempt is failed
+        RecordingChannel channel0 = deliver(fileChunks, writer, 0, 50);
+        assertThat(staleChannel.failure, instanceOf(IgnoreRecoveryException.class));
+        assertThat(channel0.acked, equalTo(true));
+        assertThat(fileChunks.pending.isEmpty(), equalTo(true));
+        assertThat(fileChunks.nextPosition, equalTo(10l));
+
+        deliver(fileChunks, writer, 20, 50);
+        deliver(fileChunks, writer, 10, 50);
+        assertThat(writer.positions, equalTo(Arrays.asList(0l, 0l, 10l, 20l)));
+        assertThat(fileChunks.nextPosition, equalTo(30l));
+    }
+
+    private static RecordingChannel deliver(RecoveryStatus.FileChunks fileChunks, RecordingWriter writer, long position, long length) throws Exception {
+        RecordingChannel channel = new RecordingChannel();
+        RecoveryFileChunkRequest request = new RecoveryFileChunkRequest(new ShardId("test", 0), "_1.fdt", position, length, null, null, new byte[CHUNK_SIZE], CHUNK_SIZE);
+        fileChunks.onChunk(request, channel, writer);
+        return channel;
+    }
+
+    private static class RecordingWriter implements RecoveryStatus.ChunkWriter {
+
+        final List<Long> positions = new ArrayList<Long>();
+
+        long failAt = -1;
+
+        @Override public void write(RecoveryFileChunkRequest chunk) throws IOException {
+            if (chunk.position() == failAt) {
+                throw new IOException("failed to write chunk at [" + failAt + "]");
+            }
+            positions.add(chunk.position());
+        }
+    }
+
+    private static class RecordingChannel implements TransportChannel {
+
+        boolean acked;
+
+        Throwable failure;
+
+        @Override public String action() {
+            return RecoveryTarget.Actions.FILE_CHUNK;
+        }
+
+        @Override public void sendResponse(Streamable message) throws IOException {
+            acked = true;
+        }
+
+        @Override public void sendResponse(Streamable message, TransportResponseOptions options) throws IOException {
+            acked = true;
+        }
+
+        @Override public void sendResponse(Throwable error) throws IOException {
+            failure = error;
+        }
+    }
+}
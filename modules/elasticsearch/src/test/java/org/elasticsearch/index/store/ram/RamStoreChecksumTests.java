@@ -0,0 +1,174 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index.store.ram;
+
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.store.IndexOutput;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.StoreChecksum;
+import org.elasticsearch.index.store.StoreFileMetaData;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.Builder.*;
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class RamStoreChecksumTests {
+
+    @Test public void testChecksumOfWrittenFile() throws Exception {
+        RamStore store = new RamStore(new ShardId("test", 0), EMPTY_SETTINGS, null);
+        byte[] data = data(1000);
+        IndexOutput output = store.directory().createOutput("_1.fdt");
+        output.writeBytes(data, data.length);
+        output.close();
+
+        StoreFileMetaData md = store.metaData("_1.fdt");
+        assertThat(md.checksumAlgorithm(), equalTo(StoreChecksum.ADLER32));
+        assertThat(md.checksum(), equalTo(checksum(StoreChecksum.ADLER32, data)));
+
+        // segments files are never checksummed
+        output = store.directory().createOutput("segments_1");
+        output.writeBytes(data, data.length);
+        output.close();
+        assertThat(store.metaData("segments_1").checksum(), nullValue());
+        store.close();
+    }
+
+    @Test public void testChecksumAfterSeek() throws Exception {
+        RamStore store = new RamStore(new ShardId("test", 0), settingsBuilder().put("index.store.checksum", StoreChecksum.CRC32).build(), null);
+        byte[] data = data(1000);
+        IndexOutput output = store.directory().createOutput("_1.tis");
+        output.writeBytes(data, data.length);
+        // patch a header, like the term infos writer does
+        output.seek(4);
+        output.writeByte((byte) 7);
+        output.seek(data.length);
+        output.close();
+
+        data[4] = 7;
+        StoreFileMetaData md = store.metaData("_1.tis");
+        assertThat(md.checksumAlgorithm(), equalTo(StoreChecksum.CRC32));
+        assertThat(md.checksum(), equalTo(checksum(StoreChecksum.CRC32, data)));
+        store.close();
+    }
+
+    @Test public void testChecksumAfterSeekOfLargeFile() throws Exception {
+        for (String algorithm : new String[]{StoreChecksum.ADLER32, StoreChecksum.CRC32}) {
+            RamStore store = new RamStore(new ShardId("test", 0), settingsBuilder().put("index.store.checksum", algorithm).build(), null);
+            byte[] data = data(100000);
+            IndexOutput output = store.directory().createOutput("_1.cfs");
+            for (int i = 0; i < data.length; i += 1000) {
+                output.writeBytes(data, i, 1000);
+            }
+            // patch the entries offsets, like the compound file writer does
+            output.seek(10);
+            output.writeBytes(new byte[]{1, 2, 3}, 3);
+            output.seek(data.length);
+            output.close();
+
+            data[10] = 1;
+            data[11] = 2;
+            data[12] = 3;
+            assertThat(store.metaData("_1.cfs").checksum(), equalTo(checksum(algorithm, data)));
+
+            // patching past the head of the file reads it back to checksum it
+            data = data(100000);
+            output = store.directory().createOutput("_2.cfs");
+            output.writeBytes(data, data.length);
+            output.seek(50000);
+            output.writeByte((byte) 7);
+            output.seek(data.length);
+            output.close();
+
+            data[50000] = 7;
+            assertThat(store.metaData("_2.cfs").checksum(), equalTo(checksum(algorithm, data)));
+            store.close();
+        }
+    }
+
+    @Test public void testCombineChecksums() {
+        byte[] data = data(100000);
+        for (String algorithm : new String[]{StoreChecksum.ADLER32, StoreChecksum.CRC32}) {
+            for (int split : new int[]{0, 1, 16 * 1024, 99999, 100000}) {
+                StoreChecksum first = StoreChecksum.create(algorithm);
+                first.update(data, 0, split);
+                StoreChecksum second = StoreChecksum.create(algorithm);
+                second.update(data, split, data.length - split);
+                assertThat(first.combine(second, data.length - split), equalTo(checksum(algorithm, data)));
+            }
+        }
+        assertThat(StoreChecksum.create(StoreChecksum.MD5).combinable(), equalTo(false));
+    }
+
+    @Test public void testVerifiedCopy() throws Exception {
+        RamStore store = new RamStore(new ShardId("test", 0), EMPTY_SETTINGS, null);
+        byte[] data = data(1000);
+
+        IndexOutput output = store.createOutputWithChecksum("_1.fdt", checksum(StoreChecksum.ADLER32, data), StoreChecksum.ADLER32);
+        output.writeBytes(data, data.length);
+        output.close();
+        assertThat(store.metaData("_1.fdt").checksum(), equalTo(checksum(StoreChecksum.ADLER32, data)));
+
+        output = store.createOutputWithChecksum("_2.fdt", checksum(StoreChecksum.ADLER32, data), StoreChecksum.ADLER32);
+        data[10]++;
+        output.writeBytes(data, data.length);
+        try {
+            output.close();
+            assert false : "corrupted copy should fail";
+        } catch (CorruptIndexException e) {
+            // all is well
+        }
+        assertThat(store.directory().fileExists("_2.fdt"), equalTo(false));
+
+        // md5 checksums can't be verified, they are kept as is
+        output = store.createOutputWithChecksum("_3.fdt", "legacy", StoreChecksum.MD5);
+        output.writeBytes(data, data.length);
+        output.close();
+        assertThat(store.metaData("_3.fdt").checksum(), equalTo("legacy"));
+        assertThat(store.metaData("_3.fdt").checksumAlgorithm(), equalTo(StoreChecksum.MD5));
+        store.close();
+    }
+
+    @Test public void testChecksumFileContent() {
+        assertThat(StoreChecksum.toFileContent("abc", StoreChecksum.ADLER32), equalTo("adler32:abc"));
+        assertThat(StoreChecksum.fromFileContent("adler32:abc").v1(), equalTo("abc"));
+        assertThat(StoreChecksum.fromFileContent("adler32:abc").v2(), equalTo(StoreChecksum.ADLER32));
+        // written by older versions
+        assertThat(StoreChecksum.toFileContent("abc", StoreChecksum.MD5), equalTo("abc"));
+        assertThat(StoreChecksum.fromFileContent("abc").v2(), equalTo(StoreChecksum.MD5));
+    }
+
+    private static byte[] data(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static String checksum(String algorithm, byte[] data) {
+        StoreChecksum checksum = StoreChecksum.create(algorithm);
+        checksum.update(data, 0, data.length);
+        return checksum.value();
+    }
+}
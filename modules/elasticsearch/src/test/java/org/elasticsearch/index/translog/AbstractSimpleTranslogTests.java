@@ -27,6 +27,11 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.elasticsearch.index.translog.TranslogSizeMatcher.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
@@ -117,6 +122,29 @@ public abstract class AbstractSimpleTranslogTests {
         snapshot.release();
     }
 
+    @Test public void testRead() {
+        assertRead();
+    }
+
+    @Test public void testReadWithGroupDurability() {
+        // group committed operations are written by the leader of the group, make sure they are read back the same
+        translog.durability(Translog.Durability.GROUP);
+        assertRead();
+    }
+
+    private void assertRead() {
+        Translog.Location location1 = translog.add(new Translog.Create("test", "1", new byte[]{1}));
+        Translog.Location location2 = translog.add(new Translog.Index("test", "2", new byte[]{2}));
+        Translog.Location location3 = translog.add(new Translog.Delete(newUid("3")));
+
+        assertThat(((Translog.Create) translog.read(location1)).source(), equalTo(new byte[]{1}));
+        assertThat(((Translog.Index) translog.read(location2)).source(), equalTo(new byte[]{2}));
+        assertThat(((Translog.Delete) translog.read(location3)).uid(), equalTo(newUid("3")));
+
+        translog.newTranslog();
+        assertThat(translog.read(location1), nullValue());
+    }
+
     @Test public void testSnapshot() {
         Translog.Snapshot snapshot = translog.snapshot();
         assertThat(snapshot, translogSize(0));
@@ -213,6 +241,50 @@ public abstract class AbstractSimpleTranslogTests {
         snapshot.release();
     }
 
+    @Test public void testConcurrentGroupCommit() throws Exception {
+        translog.durability(Translog.Durability.GROUP);
+        final int numberOfThreads = 10;
+        final int numberOfOperations = 100;
+        final CountDownLatch latch = new CountDownLatch(numberOfThreads);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int threadId = i;
+            new Thread(new Runnable() {
+                @Override public void run() {
+                    try {
+                        for (int j = 0; j < numberOfOperations; j++) {
+                            translog.add(new Translog.Create("test", threadId + "_" + j, new byte[]{(byte) j}));
+                        }
+                    } catch (Throwable t) {
+                        failure.set(t);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }).start();
+        }
+        latch.await();
+        assertThat(failure.get(), nullValue());
+
+        Translog.Snapshot snapshot = translog.snapshot();
+        assertThat(snapshot, translogSize(numberOfThreads * numberOfOperations));
+        assertThat(snapshot.totalOperations(), equalTo(numberOfThreads * numberOfOperations));
+        snapshot.release();
+
+        // read the group committed operations back, each one should be fully written
+        Set<String> ids = new HashSet<String>();
+        snapshot = translog.snapshot();
+        while (snapshot.hasNext()) {
+            Translog.Create create = (Translog.Create) snapshot.next();
+            int j = Integer.parseInt(create.id().substring(create.id().indexOf('_') + 1));
+            assertThat(create.type(), equalTo("test"));
+            assertThat(create.source(), equalTo(new byte[]{(byte) j}));
+            ids.add(create.id());
+        }
+        snapshot.release();
+        assertThat(ids.size(), equalTo(numberOfThreads * numberOfOperations));
+    }
+
     private Term newUid(String id) {
         return new Term("_uid", id);
     }
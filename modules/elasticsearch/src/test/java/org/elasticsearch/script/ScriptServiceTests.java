@@ -0,0 +1,87 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class ScriptServiceTests {
+
+    @Test public void testCacheEviction() {
+        ScriptService scriptService = new ScriptService(settingsBuilder().put("script.cache.max_size", 2).build());
+
+        CompiledScript compiled = scriptService.compile("1 + 1");
+        assertThat(scriptService.compile("1 + 1"), sameInstance(compiled));
+        scriptService.compile("1 + 2");
+        scriptService.compile("1 + 3");
+
+        ScriptStats stats = scriptService.stats();
+        assertThat(stats.cacheSize(), equalTo(2));
+        assertThat(stats.compilations(), equalTo(3l));
+        assertThat(stats.cacheHits(), equalTo(1l));
+        assertThat(stats.cacheMisses(), equalTo(3l));
+        assertThat(stats.cacheEvictions(), equalTo(1l));
+
+        // the least recently used script was evicted, and compiles again
+        assertThat(scriptService.compile("1 + 1"), not(sameInstance(compiled)));
+        assertThat(scriptService.stats().compilations(), equalTo(4l));
+
+        scriptService.clear();
+        assertThat(scriptService.stats().cacheSize(), equalTo(0));
+        scriptService.close();
+    }
+
+    @Test public void testConcurrentCompilationsOfTheSameScript() throws Exception {
+        final ScriptService scriptService = new ScriptService(settingsBuilder().build());
+        final int numberOfThreads = 10;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(numberOfThreads);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            new Thread(new Runnable() {
+                @Override public void run() {
+                    try {
+                        start.await();
+                        scriptService.compile("x = 1; x + 1");
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        latch.await();
+        assertThat(failure.get(), nullValue());
+        assertThat(scriptService.stats().compilations(), equalTo(1l));
+        assertThat(scriptService.stats().cacheHits() + scriptService.stats().cacheMisses(), equalTo((long) numberOfThreads));
+        scriptService.close();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.controller;
+
+import org.apache.lucene.search.*;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.SearchTimings;
+import org.elasticsearch.search.fetch.FetchSearchResult;
+import org.elasticsearch.search.internal.InternalSearchHit;
+import org.elasticsearch.search.internal.InternalSearchHits;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.elasticsearch.common.collect.Lists.*;
+import static org.elasticsearch.common.collect.Maps.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class SearchPhaseControllerTests {
+
+    private final SearchPhaseController controller = new SearchPhaseController(null);
+
+    @Test public void testScoreSortedPages() {
+        // shard i holds the docs with scores i, i + 3, i + 6, ... (as doc ids), so the merged order is 29, 28, ..., 0
+        List<QuerySearchResult> results = newArrayList();
+        for (int shard = 0; shard < 3; shard++) {
+            List<ScoreDoc> docs = newArrayList();
+            for (int score = 29 - ((29 - shard) % 3); score >= 0; score -= 3) {
+                docs.add(new ScoreDoc(score, score));
+            }
+            results.add(result(shard, new TopDocs(docs.size(), docs.toArray(new ScoreDoc[docs.size()]), docs.get(0).score)));
+        }
+
+        ShardDoc[] page = controller.sortDocs(page(results, 0, 10));
+        assertThat(page.length, equalTo(10));
+        for (int i = 0; i < page.length; i++) {
+            assertThat(page[i].docId(), equalTo(29 - i));
+            assertThat(page[i].shardTarget().shardId(), equalTo((29 - i) % 3));
+        }
+
+        page = controller.sortDocs(page(results, 25, 10));
+        assertThat(page.length, equalTo(5));
+        for (int i = 0; i < page.length; i++) {
+            assertThat(page[i].docId(), equalTo(4 - i));
+        }
+
+        assertThat(controller.sortDocs(page(results, 30, 10)).length, equalTo(0));
+    }
+
+    @Test public void testFieldSortedPages() {
+        SortField[] fields = new SortField[]{new SortField("value", SortField.INT)};
+        List<QuerySearchResult> results = newArrayList();
+        for (int shard = 0; shard < 3; shard++) {
+            List<ScoreDoc> docs = newArrayList();
+            for (int value = shard; value < 30; value += 3) {
+                docs.add(new FieldDoc(value, 1.0f, new Comparable[]{value}));
+            }
+            results.add(result(shard, new TopFieldDocs(docs.size(), docs.toArray(new ScoreDoc[docs.size()]), fields, 1.0f)));
+        }
+
+        ShardDoc[] page = controller.sortDocs(page(results, 5, 10));
+        assertThat(page.length, equalTo(10));
+        for (int i = 0; i < page.length; i++) {
+            assertThat(page[i].docId(), equalTo(5 + i));
+            assertThat(((FieldDoc) page[i]).fields[0], equalTo((Comparable) (5 + i)));
+        }
+    }
+
+    @Test public void testEqualScoresKeepShardOrder() {
+        List<QuerySearchResult> results = newArrayList();
+        for (int shard = 2; shard >= 0; shard--) {
+            results.add(result(shard, new TopDocs(1, new ScoreDoc[]{new ScoreDoc(0, 1.0f)}, 1.0f)));
+        }
+
+        ShardDoc[] page = controller.sortDocs(page(results, 0, 10));
+        assertThat(page.length, equalTo(3));
+        for (int i = 0; i < page.length; i++) {
+            assertThat(page[i].shardTarget().shardId(), equalTo(i));
+        }
+    }
+
+    @Test public void testMergeSumsPhaseTimings() {
+        Map<SearchShardTarget, QuerySearchResult> queryResults = newHashMap();
+        Map<SearchShardTarget, FetchSearchResult> fetchResults = newHashMap();
+        List<QuerySearchResult> results = newArrayList();
+        for (int shard = 0; shard < 2; shard++) {
+            QuerySearchResult queryResult = result(shard, new TopDocs(2, new ScoreDoc[]{new ScoreDoc(0, 2.0f), new ScoreDoc(1, 1.0f)}, 2.0f));
+            queryResult.queryTime(TimeUnit.MILLISECONDS.toNanos(10));
+            queryResults.put(queryResult.shardTarget(), queryResult);
+            results.add(queryResult);
+
+            FetchSearchResult fetchResult = new FetchSearchResult(shard, queryResult.shardTarget());
+            fetchResult.hits(new InternalSearchHits(new InternalSearchHit[]{
+                    new InternalSearchHit(0, shard + "_0", "type1", null, null),
+                    new InternalSearchHit(1, shard + "_1", "type1", null, null)}, 2, 2.0f));
+            fetchResult.fetchTime(TimeUnit.MILLISECONDS.toNanos(2));
+            fetchResults.put(fetchResult.shardTarget(), fetchResult);
+        }
+
+        InternalSearchResponse response = controller.merge(controller.sortDocs(page(results, 0, 10)), queryResults, fetchResults);
+        assertThat(response.hits().hits().length, equalTo(4));
+        SearchTimings timings = response.timings();
+        assertThat(timings, notNullValue());
+        assertThat(timings.queryTime().millis(), equalTo(20l));
+        assertThat(timings.fetchTime().millis(), equalTo(4l));
+        assertThat(timings.fetchedHits(), equalTo(4l));
+        assertThat(timings.fetchTimePerHitInMicros(), equalTo(1000l));
+    }
+
+    private static QuerySearchResult result(int shardId, TopDocs topDocs) {
+        QuerySearchResult result = new QuerySearchResult(shardId, new SearchShardTarget("node1", "test", shardId));
+        result.topDocs(topDocs);
+        return result;
+    }
+
+    private static List<QuerySearchResult> page(List<QuerySearchResult> results, int from, int size) {
+        for (QuerySearchResult result : results) {
+            result.from(from).size(size);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.threadpool.support;
+
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.threadpool.ThreadPoolStats;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.elasticsearch.common.unit.TimeValue.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class NamedThreadPoolExecutorTests {
+
+    @Test public void testAbortRejectPolicy() throws Exception {
+        NamedThreadPoolExecutor executor = new NamedThreadPoolExecutor("test", 1, 1, "abort", timeValueMinutes(5), EsExecutors.daemonThreadFactory("test"));
+        final CountDownLatch block = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            @Override public void run() {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        };
+        // one running, one queued
+        executor.execute(blocking);
+        executor.execute(blocking);
+        try {
+            executor.execute(blocking);
+            assert false : "should have been rejected";
+        } catch (RejectedExecutionException e) {
+            // all is well
+        }
+
+        ThreadPoolStats.Stats stats = executor.stats();
+        assertThat(stats.name(), equalTo("test"));
+        assertThat(stats.threads(), equalTo(1));
+        assertThat(stats.queue(), equalTo(1));
+        assertThat(stats.rejected(), equalTo(1l));
+
+        block.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), equalTo(true));
+        assertThat(executor.stats().completed(), equalTo(2l));
+    }
+
+    @Test public void testCallerRejectPolicy() throws Exception {
+        NamedThreadPoolExecutor executor = new NamedThreadPoolExecutor("test", 1, 1, "caller", timeValueMinutes(5), EsExecutors.daemonThreadFactory("test"));
+        final CountDownLatch block = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            @Override public void run() {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        };
+        executor.execute(blocking);
+        executor.execute(blocking);
+
+        final AtomicReference<Thread> executedOn = new AtomicReference<Thread>();
+        executor.execute(new Runnable() {
+            @Override public void run() {
+                executedOn.set(Thread.currentThread());
+            }
+        });
+        assertThat(executedOn.get(), sameInstance(Thread.currentThread()));
+        assertThat(executor.rejectedCount(), equalTo(1l));
+
+        block.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), equalTo(true));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.test.integration.cluster;
+
+import org.elasticsearch.cluster.ClusterService;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.ClusterStateTaskExecutor;
+import org.elasticsearch.cluster.ClusterStateUpdateTask;
+import org.elasticsearch.cluster.service.ClusterServiceStats;
+import org.elasticsearch.node.internal.InternalNode;
+import org.elasticsearch.test.integration.AbstractNodesTests;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.elasticsearch.cluster.ClusterState.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class BatchedClusterStateUpdateTests extends AbstractNodesTests {
+
+    @AfterMethod public void closeNodes() {
+        closeAllNodes();
+    }
+
+    @Test public void testTasksSubmittedWhileBlockedAreBatched() throws Exception {
+        startNode("server1");
+        client("server1").admin().cluster().prepareHealth().setWaitForNodes("1").execute().actionGet();
+        ClusterService clusterService = ((InternalNode) node("server1")).injector().getInstance(ClusterService.class);
+
+        // block the update tasks thread
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch unblock = new CountDownLatch(1);
+        clusterService.submitStateUpdateTask("block", new ClusterStateUpdateTask() {
+            @Override public ClusterState execute(ClusterState currentState) {
+                blocked.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                return currentState;
+            }
+        });
+        assertThat(blocked.await(10, TimeUnit.SECONDS), equalTo(true));
+        ClusterServiceStats statsBefore = clusterService.stats();
+
+        final List<List<Integer>> batches = new CopyOnWriteArrayList<List<Integer>>();
+        final AtomicLong batchVersion = new AtomicLong();
+        ClusterStateTaskExecutor<Integer> shardStartedExecutor = new ClusterStateTaskExecutor<Integer>() {
+            @Override public ClusterState execute(ClusterState currentState, List<Integer> tasks) {
+                batches.add(tasks);
+                batchVersion.set(currentState.version());
+                return newClusterStateBuilder().state(currentState).build();
+            }
+        };
+        for (int i = 0; i < 100; i++) {
+            clusterService.submitStateUpdateTask("shard-started ([test][" + i + "])", i, shardStartedExecutor);
+        }
+        assertThat(clusterService.stats().pendingTasks(), greaterThanOrEqualTo(100));
+
+        unblock.countDown();
+        // wait for the update tasks queued so far (including the ones that find the batch already drained)
+        final CountDownLatch processed = new CountDownLatch(1);
+        final AtomicLong processedVersion = new AtomicLong();
+        clusterService.submitStateUpdateTask("processed", new ClusterStateUpdateTask() {
+            @Override public ClusterState execute(ClusterState currentState) {
+                processedVersion.set(currentState.version());
+                processed.countDown();
+                return currentState;
+            }
+        });
+        assertThat(processed.await(10, TimeUnit.SECONDS), equalTo(true));
+
+        // all the tasks got applied at once, in submit order, with a single new cluster state
+        assertThat(batches.size(), equalTo(1));
+        assertThat(batches.get(0).size(), equalTo(100));
+        for (int i = 0; i < 100; i++) {
+            assertThat(batches.get(0).get(i), equalTo(i));
+        }
+        assertThat(processedVersion.get(), equalTo(batchVersion.get() + 1));
+
+        ClusterServiceStats stats = clusterService.stats();
+        assertThat(stats.batches() - statsBefore.batches(), equalTo(1l));
+        assertThat(stats.batchedTasks() - statsBefore.batchedTasks(), equalTo(100l));
+        assertThat(stats.maxBatchSize(), greaterThanOrEqualTo(100l));
+        assertThat(stats.pendingTasks(), equalTo(0));
+    }
+}
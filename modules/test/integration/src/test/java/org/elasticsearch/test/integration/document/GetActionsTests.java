@@ -0,0 +1,102 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.test.integration.document;
+
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.test.integration.AbstractNodesTests;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class GetActionsTests extends AbstractNodesTests {
+
+    private Client client;
+
+    @BeforeClass public void createNodes() throws Exception {
+        startNode("server1", settingsBuilder().put("index.number_of_shards", 1).put("index.number_of_replicas", 0));
+        client = client("server1");
+    }
+
+    @AfterClass public void closeNodes() {
+        client.close();
+        closeAllNodes();
+    }
+
+    @Test public void testRealtimeGetWithFields() throws Exception {
+        try {
+            client.admin().indices().prepareDelete("test").execute().actionGet();
+        } catch (Exception e) {
+            // ignore
+        }
+        client.admin().indices().prepareCreate("test")
+                .addMapping("type1", jsonBuilder().startObject().startObject("type1").startObject("properties")
+                        .startObject("field1").field("type", "string").field("store", "yes").endObject()
+                        .startObject("field2").field("type", "string").field("store", "no").endObject()
+                        .endObject().endObject().endObject())
+                .addMapping("type2", jsonBuilder().startObject().startObject("type2")
+                        .startObject("_source").field("enabled", false).endObject()
+                        .endObject().endObject())
+                .execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        client.prepareIndex("test", "type1", "1").setSource(jsonBuilder().startObject().field("field1", "value1").field("field2", "value2").endObject()).execute().actionGet();
+
+        // just the source, read from the transaction log
+        GetResponse response = client.prepareGet("test", "type1", "1").execute().actionGet();
+        assertThat(response.exists(), equalTo(true));
+        assertThat(response.sourceAsMap().get("field1").toString(), equalTo("value1"));
+        assertThat(response.fields().isEmpty(), equalTo(true));
+
+        response = client.prepareGet("test", "type1", "1").setFields("_source").execute().actionGet();
+        assertThat(response.exists(), equalTo(true));
+        assertThat(response.sourceAsMap().get("field2").toString(), equalTo("value2"));
+
+        client.prepareIndex("test", "type1", "1").setSource(jsonBuilder().startObject().field("field1", "value1_1").field("field2", "value2_1").endObject()).execute().actionGet();
+
+        // a stored field was not refreshed yet, it is loaded from the index, and not from the source
+        response = client.prepareGet("test", "type1", "1").setFields("field1").execute().actionGet();
+        assertThat(response.exists(), equalTo(true));
+        assertThat(response.source(), nullValue());
+        assertThat(response.field("field1").values().get(0).toString(), equalTo("value1_1"));
+
+        client.prepareIndex("test", "type1", "1").setSource(jsonBuilder().startObject().field("field1", "value1_2").field("field2", "value2_2").endObject()).execute().actionGet();
+
+        // a field that is not stored is not returned, even if it is in the source
+        response = client.prepareGet("test", "type1", "1").setFields("field1", "field2", "_source").execute().actionGet();
+        assertThat(response.exists(), equalTo(true));
+        assertThat(response.field("field1").values().get(0).toString(), equalTo("value1_2"));
+        assertThat(response.field("field2"), nullValue());
+        assertThat(response.sourceAsMap().get("field2").toString(), equalTo("value2_2"));
+
+        // the source is disabled, it is not returned from the transaction log either
+        client.prepareIndex("test", "type2", "1").setSource(jsonBuilder().startObject().field("field1", "value1").endObject()).execute().actionGet();
+        response = client.prepareGet("test", "type2", "1").execute().actionGet();
+        assertThat(response.exists(), equalTo(true));
+        assertThat(response.source(), nullValue());
+    }
+}
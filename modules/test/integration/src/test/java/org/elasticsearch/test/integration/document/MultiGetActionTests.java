@@ -0,0 +1,106 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.test.integration.document;
+
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.test.integration.AbstractNodesTests;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class MultiGetActionTests extends AbstractNodesTests {
+
+    private Client client;
+
+    @BeforeClass public void createNodes() throws Exception {
+        startNode("server1", settingsBuilder().put("index.number_of_shards", 3).put("index.number_of_replicas", 0));
+        startNode("server2", settingsBuilder().put("index.number_of_shards", 3).put("index.number_of_replicas", 0));
+        client = client("server1");
+    }
+
+    @AfterClass public void closeNodes() {
+        client.close();
+        closeAllNodes();
+    }
+
+    @Test public void testMultiGet() throws Exception {
+        try {
+            client.admin().indices().prepareDelete("test").execute().actionGet();
+        } catch (Exception e) {
+            // ignore
+        }
+        client.admin().indices().prepareCreate("test").addMapping("type1", jsonBuilder().startObject().startObject("type1").startObject("properties")
+                .startObject("field").field("type", "string").field("store", "yes").endObject()
+                .endObject().endObject().endObject())
+                .execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        for (int i = 0; i < 20; i++) {
+            client.prepareIndex("test", "type1", Integer.toString(i)).setSource(jsonBuilder().startObject().field("field", "value" + i).endObject()).execute().actionGet();
+        }
+
+        // not refreshed, the docs are read from the transaction log (the one asking for a stored field forces a refresh)
+        MultiGetResponse response = client.prepareMultiGet()
+                .add("test", "type1", "19", "3", "12", "7", "100")
+                .add(new MultiGetRequest.Item("test", "type1", "5").fields("field"))
+                .add("no_index", "type1", "1")
+                .execute().actionGet();
+        assertThat(response.responses().length, equalTo(7));
+
+        String[] ids = new String[]{"19", "3", "12", "7"};
+        for (int i = 0; i < ids.length; i++) {
+            MultiGetItemResponse item = response.responses()[i];
+            assertThat(item.failed(), equalTo(false));
+            assertThat(item.id(), equalTo(ids[i]));
+            assertThat(item.response().exists(), equalTo(true));
+            assertThat(item.response().sourceAsMap().get("field").toString(), equalTo("value" + ids[i]));
+        }
+
+        assertThat(response.responses()[4].id(), equalTo("100"));
+        assertThat(response.responses()[4].response().exists(), equalTo(false));
+
+        assertThat(response.responses()[5].response().exists(), equalTo(true));
+        assertThat(response.responses()[5].response().source(), nullValue());
+        assertThat(response.responses()[5].response().field("field").values().get(0).toString(), equalTo("value5"));
+
+        assertThat(response.responses()[6].failed(), equalTo(true));
+        assertThat(response.responses()[6].index(), equalTo("no_index"));
+
+        // once refreshed, and without realtime, the docs are read from the index
+        client.admin().indices().prepareRefresh().execute().actionGet();
+
+        response = client.prepareMultiGet().setRealtime(false).add("test", "type1", "19", "3", "12", "7", "100").execute().actionGet();
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(response.responses()[i].response().exists(), equalTo(true));
+            assertThat(response.responses()[i].response().sourceAsMap().get("field").toString(), equalTo("value" + ids[i]));
+        }
+        assertThat(response.responses()[4].response().exists(), equalTo(false));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.test.integration.search.basic;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.test.integration.AbstractNodesTests;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.elasticsearch.index.query.xcontent.QueryBuilders.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class ConcurrentFetchTests extends AbstractNodesTests {
+
+    private Client client;
+
+    @BeforeClass public void createNodes() throws Exception {
+        startNode("server1", settingsBuilder()
+                .put("search.fetch.concurrency", 4)
+                .put("index.number_of_shards", 1)
+                .put("index.number_of_replicas", 0));
+        client = client("server1");
+    }
+
+    @AfterClass public void closeNodes() {
+        client.close();
+        closeAllNodes();
+    }
+
+    @Test public void testHitsOrderWithConcurrentFetch() throws Exception {
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        // the rank is a permutation of the doc ids, so sorting on it loads doc ids out of order
+        for (int i = 0; i < 100; i++) {
+            client.prepareIndex("test", "type1", Integer.toString(i)).setSource(jsonBuilder().startObject()
+                    .field("num", i)
+                    .field("rank", (i * 37) % 100)
+                    .endObject()).execute().actionGet();
+        }
+        client.admin().indices().prepareRefresh().execute().actionGet();
+
+        // 100 hits are loaded in 4 ranges of 25 doc ids
+        SearchResponse searchResponse = client.prepareSearch().setQuery(matchAllQuery()).addSort("rank", SortOrder.ASC).setSize(100).execute().actionGet();
+        assertThat(searchResponse.shardFailures().length, equalTo(0));
+        assertThat(searchResponse.hits().hits().length, equalTo(100));
+        for (int i = 0; i < 100; i++) {
+            int num = Integer.parseInt(searchResponse.hits().getAt(i).id());
+            assertThat((num * 37) % 100, equalTo(i));
+            assertThat(((Number) searchResponse.hits().getAt(i).sourceAsMap().get("num")).intValue(), equalTo(num));
+        }
+
+        searchResponse = client.prepareSearch().setQuery(matchAllQuery()).addSort("num", SortOrder.DESC).setFrom(10).setSize(80).execute().actionGet();
+        assertThat(searchResponse.shardFailures().length, equalTo(0));
+        assertThat(searchResponse.hits().hits().length, equalTo(80));
+        for (int i = 0; i < 80; i++) {
+            assertThat(searchResponse.hits().getAt(i).id(), equalTo(Integer.toString(89 - i)));
+            assertThat(((Number) searchResponse.hits().getAt(i).sourceAsMap().get("num")).intValue(), equalTo(89 - i));
+        }
+    }
+}
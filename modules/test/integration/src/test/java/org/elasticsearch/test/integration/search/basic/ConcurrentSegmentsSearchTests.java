@@ -0,0 +1,192 @@
+/*
+ * Licensed to Elastic Search and Shay Banon under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. Elastic Search licenses this
+ * file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.test.integration.search.basic;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.search.facet.statistical.StatisticalFacet;
+import org.elasticsearch.search.facet.terms.TermsFacet;
+import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.test.integration.AbstractNodesTests;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.elasticsearch.common.settings.ImmutableSettings.*;
+import static org.elasticsearch.common.xcontent.XContentFactory.*;
+import static org.elasticsearch.index.query.xcontent.QueryBuilders.*;
+import static org.elasticsearch.search.facet.FacetBuilders.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * @author kimchy (shay.banon)
+ */
+public class ConcurrentSegmentsSearchTests extends AbstractNodesTests {
+
+    private Client client;
+
+    @BeforeClass public void createNodes() throws Exception {
+        startNode("server1", settingsBuilder()
+                .put("search.query.concurrency", 3)
+                .put("index.merge.policy.merge_factor", 100)
+                .put("index.number_of_shards", 1)
+                .put("index.number_of_replicas", 0));
+        client = client("server1");
+    }
+
+    @AfterClass public void closeNodes() {
+        client.close();
+        closeAllNodes();
+    }
+
+    private void createIndex() throws Exception {
+        try {
+            client.admin().indices().prepareDelete("test").execute().actionGet();
+        } catch (Exception e) {
+            // ignore
+        }
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        // 5 segments of 20 docs each
+        for (int i = 0; i < 100; i++) {
+            client.prepareIndex("test", "type1", Integer.toString(i)).setSource(jsonBuilder().startObject()
+                    .field("num", i)
+                    .field("text", (i % 2) == 0 ? "even" : "odd")
+                    .endObject()).execute().actionGet();
+            if ((i % 20) == 19) {
+                client.admin().indices().prepareFlush().setRefresh(true).execute().actionGet();
+            }
+        }
+    }
+
+    @Test public void testConcurrentSegmentsSearch() throws Exception {
+        createIndex();
+
+        SearchResponse searchResponse = client.prepareSearch().setQuery(termQuery("text", "even")).setSize(100).execute().actionGet();
+        assertThat(searchResponse.shardFailures().length, equalTo(0));
+        assertThat(searchResponse.hits().totalHits(), equalTo(50l));
+        assertThat(searchResponse.hits().hits().length, equalTo(50));
+        for (int i = 0; i < searchResponse.hits().hits().length; i++) {
+            assertThat(Integer.parseInt(searchResponse.hits().getAt(i).id()) % 2, equalTo(0));
+        }
+
+        searchResponse = client.prepareSearch().setQuery(matchAllQuery()).addSort("num", SortOrder.DESC).setSize(10).execute().actionGet();
+        assertThat(searchResponse.shardFailures().length, equalTo(0));
+        assertThat(searchResponse.hits().totalHits(), equalTo(100l));
+        assertThat(searchResponse.hits().hits().length, equalTo(10));
+        for (int i = 0; i < 10; i++) {
+            assertThat(searchResponse.hits().getAt(i).id(), equalTo(Integer.toString(99 - i)));
+        }
+
+        searchResponse = client.prepareSearch().setQuery(matchAllQuery()).addSort("num", SortOrder.ASC).setFrom(35).setSize(10).execute().actionGet();
+        assertThat(searchResponse.hits().totalHits(), equalTo(100l));
+        for (int i = 0; i < 10; i++) {
+            assertThat(searchResponse.hits().getAt(i).id(), equalTo(Integer.toString(35 + i)));
+        }
+    }
+
+    @Test public void testConcurrentSegmentsSearchWithFacets() throws Exception {
+        createIndex();
+
+        // the main scope facets are collected per slice and reduced, the global one is not sliced
+        SearchResponse searchResponse = client.prepareSearch().setQuery(termQuery("text", "even"))
+                .addFacet(statisticalFacet("stats").field("num"))
+                .addFacet(termsFacet("global_text").field("text").global(true))
+                .execute().actionGet();
+        assertThat(searchResponse.shardFailures().length, equalTo(0));
+        assertThat(searchResponse.hits().totalHits(), equalTo(50l));
+
+        StatisticalFacet statsFacet = searchResponse.facets().facet("stats");
+        assertThat(statsFacet.count(), equalTo(50l));
+        assertThat(statsFacet.total(), equalTo(2450d));
+        assertThat(statsFacet.min(), equalTo(0d));
+        assertThat(statsFacet.max(), equalTo(98d));
+
+        TermsFacet termsFacet = searchResponse.facets().facet("global_text");
+        assertThat(termsFacet.entries().size(), equalTo(2));
+        assertThat(termsFacet.entries().get(0).count(), equalTo(50));
+        assertThat(termsFacet.entries().get(1).count(), equalTo(50));
+
+        // terms facets can't be sliced, the segments are searched one after the other
+        searchResponse = client.prepareSearch().setQuery(termQuery("text", "even"))
+                .addFacet(termsFacet("text").field("text"))
+                .execute().actionGet();
+        assertThat(searchResponse.shardFailures().length, equalTo(0));
+        termsFacet = searchResponse.facets().facet("text");
+        assertThat(termsFacet.entries().size(), equalTo(1));
+        assertThat(termsFacet.entries().get(0).term(), equalTo("even"));
+        assertThat(termsFacet.entries().get(0).count(), equalTo(50));
+
+        // facets using scripts can't be sliced, the segments are searched one after the other
+        searchResponse = client.prepareSearch().setQuery(termQuery("text", "odd"))
+                .addFacet(statisticalScriptFacet("stats").script("doc['num'].value"))
+                .execute().actionGet();
+        assertThat(searchResponse.shardFailures().length, equalTo(0));
+        assertThat(searchResponse.hits().totalHits(), equalTo(50l));
+        statsFacet = searchResponse.facets().facet("stats");
+        assertThat(statsFacet.count(), equalTo(50l));
+        assertThat(statsFacet.total(), equalTo(2500d));
+        assertThat(statsFacet.min(), equalTo(1d));
+        assertThat(statsFacet.max(), equalTo(99d));
+    }
+
+    @Test public void testConcurrentSegmentsSearchWithTermsFacetsOfManyTerms() throws Exception {
+        try {
+            client.admin().indices().prepareDelete("test").execute().actionGet();
+        } catch (Exception e) {
+            // ignore
+        }
+        client.admin().indices().prepareCreate("test").execute().actionGet();
+        client.admin().cluster().prepareHealth().setWaitForGreenStatus().execute().actionGet();
+
+        // 5 segments of 20 docs each, 11 docs with a term of their own segment and 9 with the common term, so
+        // the common term (45 docs) is the top term of the shard, but not of a slice holding a single segment
+        for (int i = 0; i < 100; i++) {
+            int segment = i / 20;
+            boolean common = (i % 20) >= 11;
+            client.prepareIndex("test", "type1", Integer.toString(i)).setSource(jsonBuilder().startObject()
+                    .field("tag", common ? "common" : "segment" + segment)
+                    .field("tag_num", common ? 1 : 100 + segment)
+                    .endObject()).execute().actionGet();
+            if ((i % 20) == 19) {
+                client.admin().indices().prepareFlush().setRefresh(true).execute().actionGet();
+            }
+        }
+
+        SearchResponse searchResponse = client.prepareSearch().setQuery(matchAllQuery())
+                .addFacet(termsFacet("tag").field("tag").size(1))
+                .addFacet(termsFacet("tag_num").field("tag_num").size(1))
+                .execute().actionGet();
+        assertThat(searchResponse.shardFailures().length, equalTo(0));
+        assertThat(searchResponse.hits().totalHits(), equalTo(100l));
+
+        TermsFacet termsFacet = searchResponse.facets().facet("tag");
+        assertThat(termsFacet.entries().size(), equalTo(1));
+        assertThat(termsFacet.entries().get(0).term(), equalTo("common"));
+        assertThat(termsFacet.entries().get(0).count(), equalTo(45));
+
+        termsFacet = searchResponse.facets().facet("tag_num");
+        assertThat(termsFacet.entries().size(), equalTo(1));
+        assertThat(termsFacet.entries().get(0).term(), equalTo("1"));
+        assertThat(termsFacet.entries().get(0).count(), equalTo(45));
+    }
+}
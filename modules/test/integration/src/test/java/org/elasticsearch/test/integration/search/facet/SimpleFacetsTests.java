@@ -410,6 +410,26 @@ public class SimpleFacetsTests extends AbstractNodesTests {
         assertThat(facet.entries().get(0).term(), equalTo("yyy"));
         assertThat(facet.entries().get(0).count(), equalTo(2));
 
+        // Map execution (not using ordinals)
+
+        searchResponse = client.prepareSearch()
+                .setQuery(termQuery("stag", "111"))
+                .addFacet(termsFacet("facet1").field("stag").size(10).executionHint("map"))
+                .addFacet(termsFacet("facet2").field("tag").size(10).executionHint("map"))
+                .execute().actionGet();
+
+        facet = searchResponse.facets().facet("facet1");
+        assertThat(facet.name(), equalTo("facet1"));
+        assertThat(facet.entries().size(), equalTo(1));
+        assertThat(facet.entries().get(0).term(), equalTo("111"));
+        assertThat(facet.entries().get(0).count(), equalTo(2));
+
+        facet = searchResponse.facets().facet("facet2");
+        assertThat(facet.name(), equalTo("facet2"));
+        assertThat(facet.entries().size(), equalTo(3));
+        assertThat(facet.entries().get(0).term(), equalTo("yyy"));
+        assertThat(facet.entries().get(0).count(), equalTo(2));
+
         // Numeric
 
         searchResponse = client.prepareSearch()
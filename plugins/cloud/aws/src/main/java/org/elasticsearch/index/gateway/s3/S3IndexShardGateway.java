@@ -27,6 +27,7 @@ import org.elasticsearch.index.settings.IndexSettings;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.service.IndexShard;
 import org.elasticsearch.index.store.Store;
+import org.elasticsearch.indices.throttler.IndicesThrottler;
 import org.elasticsearch.threadpool.ThreadPool;
 
 /**
@@ -35,8 +36,8 @@ import org.elasticsearch.threadpool.ThreadPool;
 public class S3IndexShardGateway extends BlobStoreIndexShardGateway {
 
     @Inject public S3IndexShardGateway(ShardId shardId, @IndexSettings Settings indexSettings, ThreadPool threadPool, IndexGateway indexGateway,
-                                       IndexShard indexShard, Store store) {
-        super(shardId, indexSettings, threadPool, indexGateway, indexShard, store);
+                                       IndexShard indexShard, Store store, IndicesThrottler throttler) {
+        super(shardId, indexSettings, threadPool, indexGateway, indexShard, store, throttler);
     }
 
     @Override public String type() {
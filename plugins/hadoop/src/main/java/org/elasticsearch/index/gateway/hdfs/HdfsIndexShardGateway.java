@@ -27,6 +27,7 @@ import org.elasticsearch.index.settings.IndexSettings;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.service.IndexShard;
 import org.elasticsearch.index.store.Store;
+import org.elasticsearch.indices.throttler.IndicesThrottler;
 import org.elasticsearch.threadpool.ThreadPool;
 
 /**
@@ -35,8 +36,8 @@ import org.elasticsearch.threadpool.ThreadPool;
 public class HdfsIndexShardGateway extends BlobStoreIndexShardGateway {
 
     @Inject public HdfsIndexShardGateway(ShardId shardId, @IndexSettings Settings indexSettings, ThreadPool threadPool, IndexGateway hdfsIndexGateway,
-                                         IndexShard indexShard, Store store) {
-        super(shardId, indexSettings, threadPool, hdfsIndexGateway, indexShard, store);
+                                         IndexShard indexShard, Store store, IndicesThrottler throttler) {
+        super(shardId, indexSettings, threadPool, hdfsIndexGateway, indexShard, store, throttler);
     }
 
     @Override public String type() {